@@ -0,0 +1,194 @@
+package com.stockland.app.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the read replicas, round robin, and
+ * everything else to the primary. It sits behind a lazy connection proxy,
+ * see {@link ReplicaRoutingConfiguration}, so the route is picked on the
+ * first statement, once the transaction's read-only flag is known.
+ * <p>
+ * A replica is only used while its last lag check succeeded and it was no
+ * more than {@code maxLag} behind; with none left, reads go to the primary.
+ * A signed-in user who committed a write reads from the primary for
+ * {@code maxLag} afterwards, so a listing they just edited never shows its
+ * old version from a replica that has not replayed the edit yet.
+ * <p>
+ * Rows read from a replica may predate the primary's, so a transaction
+ * routed to one reads the second-level cache but never fills it; otherwise
+ * a lagging replica's old row would be served from the cache to everyone,
+ * the writer included.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, String lagQuery, Duration maxLag) {
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.name, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriter();
+            return PRIMARY;
+        }
+        String user = currentUser();
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return PRIMARY;
+        }
+        List<Replica> usable = replicas.stream().filter(replica -> replica.usable).toList();
+        if (usable.isEmpty()) {
+            return PRIMARY;
+        }
+        keepOutOfSecondLevelCache();
+        return usable.get(Math.floorMod(next.getAndIncrement(), usable.size())).name;
+    }
+
+    // The session may outlive the transaction (open in view), so its cache mode is put back on completion
+    private static void keepOutOfSecondLevelCache() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                Session session = holder.getEntityManager().unwrap(Session.class);
+                CacheMode previous = session.getCacheMode();
+                if (previous == CacheMode.GET || previous == CacheMode.IGNORE) {
+                    continue;
+                }
+                session.setCacheMode(CacheMode.GET);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (session.isOpen()) {
+                            session.setCacheMode(previous);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    // The user's reads stick to the primary from the moment the write commits
+    private void rememberWriter() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
+            return null;
+        }
+        return auth.getName();
+    }
+
+    // Runs the lag query on every replica; one that fails or lags too far is skipped until the next check
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean usable;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(lagQuery)) {
+                replica.lagSeconds = lag.next() ? lag.getDouble(1) : 0;
+                usable = replica.lagSeconds <= maxLagSeconds;
+                if (!usable && replica.usable) {
+                    log.warn("Read replica {} is {}s behind the primary, reads go elsewhere", replica.name, replica.lagSeconds);
+                }
+            } catch (SQLException e) {
+                usable = false;
+                if (replica.usable) {
+                    log.warn("Read replica {} is unreachable, reads go elsewhere: {}", replica.name, e.getMessage());
+                }
+            }
+            if (usable && !replica.usable) {
+                log.info("Read replica {} takes reads, {}s behind the primary", replica.name, replica.lagSeconds);
+            }
+            replica.usable = usable;
+        }
+    }
+
+    // Names of the replicas currently taking reads
+    public List<String> usableReplicas() {
+        return replicas.stream().filter(replica -> replica.usable).map(replica -> replica.name).toList();
+    }
+
+    // The replica pools are not beans of their own, so they close with the router
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // Not used until its first lag check succeeds
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean usable;
+        private volatile double lagSeconds;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -28,6 +28,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/chat").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/locations/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/properties/delete/**").authenticated()
                         .requestMatchers(HttpMethod.POST, "/properties/create").authenticated()
                         .requestMatchers(HttpMethod.GET, "/properties/edit/**").authenticated()
@@ -35,6 +36,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/properties/approve/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/properties/reject/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/properties/feature/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         // everything else needs login
                         .anyRequest().authenticated()
                 )
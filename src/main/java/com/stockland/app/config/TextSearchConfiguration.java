@@ -0,0 +1,26 @@
+package com.stockland.app.config;
+
+import com.stockland.app.search.TextAnalyzer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class TextSearchConfiguration {
+
+    @Value("${listing.search.text.stopwords:" + TextAnalyzer.DEFAULT_STOPWORDS + "}")
+    private String[] stopwords;
+
+    @Value("${listing.search.text.min-token-length:" + TextAnalyzer.DEFAULT_MIN_TOKEN_LENGTH + "}")
+    private int minTokenLength;
+
+    @Value("${listing.search.text.fold-diacritics:true}")
+    private boolean foldDiacritics;
+
+    @Bean
+    public TextAnalyzer textAnalyzer() {
+        return new TextAnalyzer(List.of(stopwords), minTokenLength, foldDiacritics);
+    }
+}
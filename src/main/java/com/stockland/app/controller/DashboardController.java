@@ -1,11 +1,14 @@
 package com.stockland.app.controller;
 
 import com.stockland.app.dto.PropertyResponseDTO;
-import com.stockland.app.model.Favorite;
+import com.stockland.app.model.ModerationStatus;
 import com.stockland.app.model.User;
+import com.stockland.app.repository.FavoriteCardView;
 import com.stockland.app.repository.UserRepository;
 import com.stockland.app.service.PropertyService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -13,23 +16,31 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import com.stockland.app.service.FavoriteService;
+import com.stockland.app.service.SavedSearchService;
 
-import java.util.Comparator;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Controller
 public class DashboardController {
+    static final int ADMIN_PAGE_SIZE = 25;
+    static final int MY_LISTINGS_PAGE_SIZE = 25;
+    static final int FAVORITES_PAGE_SIZE = 25;
+
     private final UserRepository userRepository;
     private final PropertyService propertyService;
     private final FavoriteService favoriteService;
+    private final SavedSearchService savedSearchService;
 
     @Autowired
     public DashboardController(UserRepository userRepository,
                                PropertyService propertyService,
-                               FavoriteService favoriteService) {
+                               FavoriteService favoriteService,
+                               SavedSearchService savedSearchService) {
         this.userRepository = userRepository;
         this.propertyService = propertyService;
         this.favoriteService = favoriteService;
+        this.savedSearchService = savedSearchService;
     }
 
     @GetMapping("/dashboard")
@@ -37,48 +48,48 @@ public class DashboardController {
                             @RequestParam(value = "moderation",     required = false) String moderationFilter,
                             @RequestParam(value = "sort",           required = false) String sortField,
                             @RequestParam(value = "dir",            required = false) String sortDir,
+                            @RequestParam(value = "page",           defaultValue = "0") int page,
                             @RequestParam(value = "favSort",        required = false) String favSort,
                             @RequestParam(value = "favDir",         required = false) String favDir,
+                            @RequestParam(value = "favPage",        defaultValue = "0") int favPage,
                             @RequestParam(value = "listSort",       required = false) String listSort,
                             @RequestParam(value = "listDir",        required = false) String listDir,
-                            @RequestParam(value = "listModeration", required = false) String listModeration) {
+                            @RequestParam(value = "listModeration", required = false) String listModeration,
+                            @RequestParam(value = "listPage",       defaultValue = "0") int listPage) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
         User user = userRepository.findByUsername(username)
                 .orElseGet(() -> userRepository.findByEmail(username).orElse(null));
         model.addAttribute("user", user);
 
-        // My Listings with sorting and moderation filter
-        List<PropertyResponseDTO> myListings = propertyService.getPropertiesByUserId(user.getId(), listSort, listDir, listModeration);
-        model.addAttribute("myListings", myListings);
+        // My Listings, one page sorted and filtered by the database
+        Page<PropertyResponseDTO> myListingsPage = propertyService.getPropertiesByUserId(
+                user.getId(), listSort, listDir, listModeration, listPage, MY_LISTINGS_PAGE_SIZE);
+        model.addAttribute("myListingsPage", myListingsPage);
+        model.addAttribute("myListings", myListingsPage.getContent());
+        model.addAttribute("myListingCounts", byName(propertyService.countByModerationStatus(user.getId())));
         model.addAttribute("listSort",       listSort       != null ? listSort.toLowerCase()       : "");
         model.addAttribute("listDir",        listDir        != null ? listDir.toLowerCase()        : "");
         model.addAttribute("listModeration", listModeration != null ? listModeration.toUpperCase() : "");
 
-        // Favorites with sorting
-        List<Favorite> favorites = favoriteService.getFavorites(user);
+        // Favorites, one page of rows sorted by the database
         String favSortNorm = favSort != null ? favSort.toLowerCase() : "";
         String favDirNorm  = favDir  != null ? favDir.toLowerCase()  : "";
-        boolean favDesc = "desc".equalsIgnoreCase(favDir);
-        if (!favSortNorm.isBlank()) {
-            Comparator<Favorite> cmp = switch (favSortNorm) {
-                case "title"    -> Comparator.comparing(f -> f.getProperty().getTitle() != null ? f.getProperty().getTitle().toLowerCase() : "");
-                case "location" -> Comparator.comparing(f -> f.getProperty().getLocation() != null ? f.getProperty().getLocation().toLowerCase() : "");
-                case "price"    -> Comparator.comparingDouble(f -> f.getProperty().getPrice() != null ? f.getProperty().getPrice() : 0.0);
-                default         -> null;
-            };
-            if (cmp != null) {
-                if (favDesc) cmp = cmp.reversed();
-                favorites.sort(cmp);
-            }
-        }
-        model.addAttribute("favorites", favorites);
+        Slice<FavoriteCardView> favoritesPage = favoriteService.getFavoriteCards(user, favSort, favDir, favPage, FAVORITES_PAGE_SIZE);
+        model.addAttribute("favoritesPage", favoritesPage);
+        model.addAttribute("favorites", favoritesPage.getContent());
         model.addAttribute("favSort", favSortNorm);
         model.addAttribute("favDir",  favDirNorm);
 
+        // Saved searches and the approved listings that matched them since the user last looked
+        model.addAttribute("savedSearches", savedSearchService.getSavedSearches(user));
+        model.addAttribute("savedSearchMatches", savedSearchService.getUnseenMatches(user));
+
         if ("ROLE_ADMIN".equals(user.getRole())) {
-            model.addAttribute("allListings", propertyService.findAllForAdmin(moderationFilter, sortField, sortDir));
-            model.addAttribute("pendingListings", propertyService.findPendingProperties());
+            Page<PropertyResponseDTO> adminPage = propertyService.findAllForAdmin(moderationFilter, sortField, sortDir, page, ADMIN_PAGE_SIZE);
+            model.addAttribute("adminPage", adminPage);
+            model.addAttribute("allListings", adminPage.getContent());
+            model.addAttribute("moderationCounts", byName(propertyService.countByModerationStatus()));
             model.addAttribute("moderationFilter", moderationFilter != null ? moderationFilter.toUpperCase() : "");
             model.addAttribute("sortField", sortField  != null ? sortField.toLowerCase()  : "");
             model.addAttribute("sortDir",   sortDir    != null ? sortDir.toLowerCase()    : "");
@@ -86,4 +97,16 @@ public class DashboardController {
 
         return "dashboard";
     }
+
+    // Keyed by name, the template cannot index by enum, plus the sum under "ALL"
+    private static Map<String, Long> byName(Map<ModerationStatus, Long> counts) {
+        Map<String, Long> named = new LinkedHashMap<>();
+        long all = 0;
+        for (Map.Entry<ModerationStatus, Long> count : counts.entrySet()) {
+            named.put(count.getKey().name(), count.getValue());
+            all += count.getValue();
+        }
+        named.put("ALL", all);
+        return named;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.stockland.app.controller;
+
+import com.stockland.app.dto.EntityCacheRegionStatsDTO;
+import com.stockland.app.repository.EntityCache;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Hit ratios of the second-level cache regions, for admins sizing them
+@RestController
+@RequestMapping("/api/admin")
+public class EntityCacheController {
+
+    private final EntityCache entityCache;
+
+    public EntityCacheController(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    @GetMapping(value = "/entity-cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<EntityCacheRegionStatsDTO> stats() {
+        return entityCache.stats();
+    }
+}
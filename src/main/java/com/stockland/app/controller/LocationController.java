@@ -0,0 +1,27 @@
+package com.stockland.app.controller;
+
+import com.stockland.app.dto.LocationSuggestionDTO;
+import com.stockland.app.search.LocationSuggester;
+import com.stockland.app.service.PropertyService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Typeahead for the location boxes of the home and listings pages
+@RestController
+@RequestMapping("/api/locations")
+public class LocationController {
+
+    private final PropertyService propertyService;
+
+    public LocationController(PropertyService propertyService) {
+        this.propertyService = propertyService;
+    }
+
+    @GetMapping(value = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<LocationSuggestionDTO> suggest(@RequestParam(required = false) String prefix,
+                                               @RequestParam(defaultValue = "" + LocationSuggester.DEFAULT_LIMIT) int limit) {
+        return propertyService.suggestLocations(prefix, limit);
+    }
+}
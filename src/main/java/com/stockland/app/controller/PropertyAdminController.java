@@ -0,0 +1,40 @@
+package com.stockland.app.controller;
+
+import com.stockland.app.dto.BulkDeleteRequestDTO;
+import com.stockland.app.dto.BulkDeleteResultDTO;
+import com.stockland.app.service.PropertyService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// Moderation in bulk: removes spam or expired listings in one transaction, their photos after it commits,
+// and rebuilds the listing_card read model
+@RestController
+@RequestMapping("/api/admin")
+public class PropertyAdminController {
+
+    private final PropertyService propertyService;
+
+    public PropertyAdminController(PropertyService propertyService) {
+        this.propertyService = propertyService;
+    }
+
+    @PostMapping(
+            value = "/properties/bulk-delete",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public BulkDeleteResultDTO bulkDelete(@RequestBody BulkDeleteRequestDTO request) {
+        List<Long> ids = request.getIds() == null ? List.of() : request.getIds();
+        int deleted = propertyService.deleteByIds(ids);
+        return new BulkDeleteResultDTO(ids.size(), deleted);
+    }
+
+    // Refills the listing_card read model from the listings, returns how many cards it now holds
+    @PostMapping(value = "/listing-cards/rebuild", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Integer> rebuildListingCards() {
+        return Map.of("cards", propertyService.rebuildListingCards());
+    }
+}
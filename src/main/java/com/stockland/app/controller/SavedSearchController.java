@@ -0,0 +1,66 @@
+package com.stockland.app.controller;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.model.User;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.service.SavedSearchService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+@Controller
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public SavedSearchController(SavedSearchService savedSearchService, UserRepository userRepository) {
+        this.savedSearchService = savedSearchService;
+        this.userRepository = userRepository;
+    }
+
+    private User getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth.getName();
+        return userRepository.findByUsername(username)
+                .orElseGet(() -> userRepository.findByEmail(username).orElse(null));
+    }
+
+    @PostMapping("/saved-searches")
+    public String saveSearch(@RequestParam(value = "name", required = false) String name,
+                             @Valid @ModelAttribute PropertyFilterRequestDTO filters,
+                             BindingResult bindingResult,
+                             RedirectAttributes redirectAttributes) {
+        if (bindingResult.hasErrors()) {
+            redirectAttributes.addFlashAttribute("savedSearchError", "The search has invalid fields and was not saved");
+            return "redirect:/dashboard";
+        }
+        try {
+            savedSearchService.save(getCurrentUser(), name, filters);
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("savedSearchError", e.getMessage());
+        }
+        return "redirect:/dashboard";
+    }
+
+    @PostMapping("/saved-searches/{id}/seen")
+    public String markSeen(@PathVariable Long id) {
+        savedSearchService.markSeen(getCurrentUser(), id);
+        return "redirect:/dashboard";
+    }
+
+    @PostMapping("/saved-searches/{id}/delete")
+    public String deleteSearch(@PathVariable Long id) {
+        savedSearchService.delete(getCurrentUser(), id);
+        return "redirect:/dashboard";
+    }
+}
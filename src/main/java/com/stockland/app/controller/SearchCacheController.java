@@ -0,0 +1,23 @@
+package com.stockland.app.controller;
+
+import com.stockland.app.dto.SearchCacheStatsDTO;
+import com.stockland.app.search.ListingSearchCache;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+// Hit, miss and eviction counters of the listings search cache, for admins sizing it
+@RestController
+@RequestMapping("/api/admin")
+public class SearchCacheController {
+
+    private final ListingSearchCache listingSearchCache;
+
+    public SearchCacheController(ListingSearchCache listingSearchCache) {
+        this.listingSearchCache = listingSearchCache;
+    }
+
+    @GetMapping(value = "/search-cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public SearchCacheStatsDTO stats() {
+        return listingSearchCache.stats();
+    }
+}
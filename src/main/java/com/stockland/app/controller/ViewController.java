@@ -5,17 +5,20 @@ import com.stockland.app.dto.PropertyRequestDTO;
 import com.stockland.app.dto.PropertyResponseDTO;
 import com.stockland.app.dto.UserResponseDTO;
 import com.stockland.app.model.ActionType;
-import com.stockland.app.model.Property;
 import com.stockland.app.model.PropertyType;
 import com.stockland.app.model.User;
 import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingCursor;
+import com.stockland.app.search.SimilarListings;
 import com.stockland.app.service.FavoriteService;
 import com.stockland.app.service.PropertyService;
 import com.stockland.app.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.security.core.Authentication;
@@ -26,6 +29,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Controller
@@ -66,6 +70,8 @@ public class ViewController {
     public String searchProperties(@Valid PropertyFilterRequestDTO filters,
                                    BindingResult bindingResult,
                                    @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+                                   @RequestParam(value = "after", required = false) String after,
+                                   @RequestParam(value = "sort", required = false) String sort,
                                    Model model) {
 
         model.addAttribute("actions", ActionType.values());
@@ -85,16 +91,73 @@ public class ViewController {
             return "listings";
         }
 
+        // A keyword search without an explicit sort shows the best matches first
+        if (filters.getQ() != null && !filters.getQ().isBlank() && (sort == null || sort.isBlank())) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "relevance"));
+        }
+
+        // Past the first page, "Next" links carry a keyset cursor instead of a page number
+        if (after != null && !after.isBlank()) {
+            Slice<PropertyResponseDTO> propertySlice =
+                    propertyService.searchPropertiesWithFilterSortAndPagination(filters, pageable, after);
+
+            model.addAttribute("propertySlice", propertySlice);
+            model.addAttribute("properties", propertySlice.getContent());
+            model.addAttribute("favoriteIds", favoriteIds(propertySlice.getContent()));
+            model.addAttribute("nextCursor", nextCursor(propertySlice, pageable));
+            model.addAttribute("facets", propertyService.getListingFacets(filters));
+            model.addAttribute("filters", filters);
+            return "listings";
+        }
+
         Page<PropertyResponseDTO> propertyPage =
                 propertyService.searchPropertiesWithFilterSortAndPagination(filters, pageable);
 
         model.addAttribute("propertyPage", propertyPage);
         model.addAttribute("properties", propertyPage.getContent());
+        model.addAttribute("favoriteIds", favoriteIds(propertyPage.getContent()));
+        model.addAttribute("nextCursor", nextCursor(propertyPage, pageable));
+        model.addAttribute("facets", propertyService.getListingFacets(filters));
         model.addAttribute("filters", filters);
 
         return "listings";
     }
 
+    // The signed-in user, or null for a visitor
+    private User currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
+            return null;
+        }
+        String username = auth.getName();
+        return userRepository.findByUsername(username)
+                .orElseGet(() -> userRepository.findByEmail(username).orElse(null));
+    }
+
+    // Ids of the listings shown that the signed-in user has favorited, for the hearts on the cards
+    private Set<Long> favoriteIds(List<PropertyResponseDTO> properties) {
+        User currentUser = currentUser();
+        if (currentUser == null || properties.isEmpty()) {
+            return Set.of();
+        }
+        return favoriteService.favoritesAmong(currentUser, properties.stream().map(PropertyResponseDTO::getId).toList());
+    }
+
+    // Cursor after the last listing shown, or null when there is no next page or the sort cannot seek
+    private String nextCursor(Slice<PropertyResponseDTO> slice, Pageable pageable) {
+        if (!slice.hasNext() || slice.getContent().isEmpty()) {
+            return null;
+        }
+
+        Sort.Order order = ListingCursor.keysetOrder(pageable.getSort());
+        if (pageable.getSort().isSorted() && !order.getProperty().equals(pageable.getSort().iterator().next().getProperty())) {
+            return null;
+        }
+
+        List<PropertyResponseDTO> content = slice.getContent();
+        return ListingCursor.after(order, content.get(content.size() - 1)).encode();
+    }
+
     @GetMapping("/property/{id}")
     public String property(@PathVariable("id") Long id, Model model) {
         PropertyResponseDTO property = propertyService.findById(id);
@@ -103,19 +166,11 @@ public class ViewController {
 
         model.addAttribute("user", user);
         model.addAttribute("property", property);
+        model.addAttribute("similarProperties", propertyService.findSimilar(property, SimilarListings.DEFAULT_LIMIT));
 
-        boolean isFavorite = false;
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-            String username = auth.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseGet(() -> userRepository.findByEmail(username).orElse(null));
-            if (currentUser != null) {
-                Property propertyEntity = propertyService.getPropertyById(property.getId());
-                isFavorite = favoriteService.isFavorite(currentUser, propertyEntity);
-            }
-        }
-        model.addAttribute("isFavorite", isFavorite);
+        User currentUser = currentUser();
+        model.addAttribute("isFavorite", currentUser != null && favoriteService.isFavorite(currentUser, property.getId()));
+        model.addAttribute("favoriteCount", favoriteService.favoriteCount(property.getId(), property.getFavoriteCount()));
 
         return "property";
     }
@@ -0,0 +1,16 @@
+package com.stockland.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Listing ids an admin removes in one go
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequestDTO {
+    private List<Long> ids = new ArrayList<>();
+}
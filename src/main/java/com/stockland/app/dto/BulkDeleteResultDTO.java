@@ -0,0 +1,16 @@
+package com.stockland.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// How many of the requested listings existed and were deleted; the rest were already gone
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteResultDTO {
+    private int requested;
+    private int deleted;
+}
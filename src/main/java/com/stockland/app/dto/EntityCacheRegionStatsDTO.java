@@ -0,0 +1,19 @@
+package com.stockland.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Counters of one second-level cache region, for sizing it in entity-cache.conf
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EntityCacheRegionStatsDTO {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRate;
+}
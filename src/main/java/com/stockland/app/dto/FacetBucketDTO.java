@@ -0,0 +1,21 @@
+package com.stockland.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One range of a numeric facet: min inclusive, max exclusive, max null for the open-ended last bucket
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetBucketDTO {
+    private String label;
+    private Double min;
+    private Double max;
+    // The highest value counted, below max: the search's maxPrice/maxArea filters are inclusive, so a
+    // drill-down link filters up to this instead of max, which belongs to the next bucket
+    private Double highest;
+    private long count;
+}
@@ -0,0 +1,25 @@
+package com.stockland.app.dto;
+
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.PropertyType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// Number of matching listings per value of each filter, shown next to the filters on /listings
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListingFacetsDTO {
+    private long total;
+    private Map<ActionType, Long> actionTypes;
+    private Map<PropertyType, Long> propertyTypes;
+    private List<FacetBucketDTO> priceRanges;
+    private Map<Integer, Long> roomCounts;
+    private List<FacetBucketDTO> areaRanges;
+}
@@ -0,0 +1,16 @@
+package com.stockland.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One typeahead completion: a location as listed and how many approved listings carry it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationSuggestionDTO {
+    private String location;
+    private long count;
+}
@@ -4,6 +4,7 @@ import com.stockland.app.model.ActionType;
 import com.stockland.app.model.PropertyType;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +15,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class PropertyFilterRequestDTO {
+    // Free text matched against title and description
+    private String q;
     private String location;
     @Min(value = 0, message = "Price cannot be negative")
     private Double minPrice;
@@ -27,4 +30,14 @@ public class PropertyFilterRequestDTO {
     private ActionType actionType;
     private PropertyType propertyType;
     private String status;
+    // Radius search: listings within radiusKm of the point, applied only when all three are given
+    @Min(value = -90, message = "Latitude must be between -90 and 90")
+    @Max(value = 90, message = "Latitude must be between -90 and 90")
+    private Double latitude;
+    @Min(value = -180, message = "Longitude must be between -180 and 180")
+    @Max(value = 180, message = "Longitude must be between -180 and 180")
+    private Double longitude;
+    @Positive(message = "Radius must be positive")
+    @Max(value = 500, message = "Radius cannot exceed 500 km")
+    private Double radiusKm;
 }
@@ -2,6 +2,8 @@ package com.stockland.app.dto;
 
 import com.stockland.app.model.ActionType;
 import com.stockland.app.model.PropertyType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -46,4 +48,13 @@ public class PropertyRequestDTO {
 
     @NotBlank(message = "Status is required")
     private String status;
+
+    // Optional; when either is missing the position is looked up from the location
+    @Min(value = -90, message = "Latitude must be between -90 and 90")
+    @Max(value = 90, message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @Min(value = -180, message = "Longitude must be between -180 and 180")
+    @Max(value = 180, message = "Longitude must be between -180 and 180")
+    private Double longitude;
 }
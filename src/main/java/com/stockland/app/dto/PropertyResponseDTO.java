@@ -18,6 +18,8 @@ public class PropertyResponseDTO {
     private Long id;
     private String title;
     private String location;
+    private Double latitude;
+    private Double longitude;
     private Double price;
     private Double Area;
     private Integer roomCount;
@@ -31,7 +33,11 @@ public class PropertyResponseDTO {
     private String username;
     //Images
     private String[] images;
+    // Photos the listing has; cards of the admin grid and "My listings" load only the cover and leave it 0
+    private int imageCount;
     private LocalDateTime createdAt;
     private boolean featured;
+    // Users who saved the listing, as last flushed to the database
+    private long favoriteCount;
 }
 
@@ -0,0 +1,21 @@
+package com.stockland.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A saved search as the dashboard lists it, with the number of matches the user has not seen yet
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SavedSearchDTO {
+    private Long id;
+    private String name;
+    private PropertyFilterRequestDTO filters;
+    private LocalDateTime createdAt;
+    private long unseenMatches;
+}
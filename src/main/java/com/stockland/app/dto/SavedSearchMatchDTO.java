@@ -0,0 +1,23 @@
+package com.stockland.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A newly approved listing that matched one of the user's saved searches
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SavedSearchMatchDTO {
+    private Long savedSearchId;
+    private String savedSearchName;
+    private Long propertyId;
+    private String title;
+    private String location;
+    private Double price;
+    private LocalDateTime matchedAt;
+}
@@ -0,0 +1,24 @@
+package com.stockland.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Counters of the listings search result cache, for sizing its byte cap
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchCacheStatsDTO {
+    private boolean enabled;
+    private long entries;
+    private long estimatedBytes;
+    private long maxBytes;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long evictedBytes;
+    private long invalidations;
+}
@@ -0,0 +1,35 @@
+package com.stockland.app.event;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@code PropertyService} after every write to a listing.
+ * Listeners that keep derived state (search indexes, caches) react to it
+ * once the surrounding transaction has committed.
+ */
+@Getter
+@AllArgsConstructor
+public class PropertyChangedEvent {
+
+    public enum Change {
+        CREATED,
+        UPDATED,
+        APPROVED,
+        REJECTED,
+        FEATURED,
+        DELETED
+    }
+
+    private final Change change;
+    private final Long propertyId;
+    // Current state of the listing, null when it was deleted
+    private final PropertyResponseDTO property;
+    // State before the write, null for a new listing or when the publisher did not capture it
+    private final PropertyResponseDTO previous;
+
+    public PropertyChangedEvent(Change change, Long propertyId, PropertyResponseDTO property) {
+        this(change, propertyId, property, null);
+    }
+}
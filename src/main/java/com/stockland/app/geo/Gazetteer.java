@@ -0,0 +1,135 @@
+package com.stockland.app.geo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Offline geocoder for listing locations, backed by the place list bundled in
+ * {@code geo/gazetteer.csv}. A location is reduced to its words, house numbers
+ * dropped, and the longest runs of words naming a place are looked up. A
+ * district wins over its city when both are named ("Riga, Teika 12"); a
+ * district named alone is used when no other place shares its name.
+ */
+@Component
+public class Gazetteer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}]+");
+
+    private final Map<String, List<Place>> places = new HashMap<>();
+    private int longestName = 1;
+
+    public Gazetteer(@Value("${listing.geo.gazetteer:classpath:geo/gazetteer.csv}") Resource resource) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the gazetteer " + resource, e);
+        }
+    }
+
+    // Number of names, spellings included, that can be resolved
+    public int size() {
+        return places.size();
+    }
+
+    // Coordinates of the most specific place named in the location, or null when none is known
+    public GeoPoint resolve(String location) {
+        String[] words = words(location);
+        List<Place> found = new ArrayList<>();
+        for (int i = 0; i < words.length; ) {
+            int matched = 0;
+            for (int length = Math.min(longestName, words.length - i); length > 0 && matched == 0; length--) {
+                List<Place> named = places.get(String.join(" ", Arrays.copyOfRange(words, i, i + length)));
+                if (named != null) {
+                    found.addAll(named);
+                    matched = length;
+                }
+            }
+            i += Math.max(matched, 1);
+        }
+
+        Place city = null;
+        Place lonelyDistrict = null;
+        for (Place place : found) {
+            if (place.parent == null) {
+                city = city != null ? city : place;
+            } else if (places.get(place.key).size() == 1) {
+                lonelyDistrict = lonelyDistrict != null ? lonelyDistrict : place;
+            }
+        }
+        if (city != null) {
+            for (Place place : found) {
+                if (city.key.equals(place.parent)) {
+                    return place.point;
+                }
+            }
+            return city.point;
+        }
+        return lonelyDistrict != null ? lonelyDistrict.point : null;
+    }
+
+    private void add(String line) {
+        String[] fields = line.split(";", -1);
+        if (fields.length != 4) {
+            throw new IllegalStateException("Gazetteer line needs 4 fields: " + line);
+        }
+        String[] names = fields[0].split("\\|");
+        String parent = fields[1].isBlank() ? null : key(fields[1].split("\\|")[0]);
+        GeoPoint point = new GeoPoint(Double.parseDouble(fields[2].strip()), Double.parseDouble(fields[3].strip()));
+
+        String primary = key(names[0]);
+        for (String name : names) {
+            String key = key(name);
+            places.computeIfAbsent(key, k -> new ArrayList<>()).add(new Place(primary, parent, point));
+            longestName = Math.max(longestName, key.split(" ").length);
+        }
+    }
+
+    private static String key(String name) {
+        return String.join(" ", words(name));
+    }
+
+    // Lower-cased words without diacritics; digits and punctuation only separate them
+    private static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String cleaned = NON_WORD.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+        return cleaned.isEmpty() ? new String[0] : cleaned.split(" ");
+    }
+
+    private static final class Place {
+        // Primary name of the place, the same for all of its spellings
+        final String key;
+        final String parent;
+        final GeoPoint point;
+
+        Place(String key, String parent, GeoPoint point) {
+            this.key = key;
+            this.parent = parent;
+            this.point = point;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.stockland.app.geo;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+
+/**
+ * The area of a radius search. Distances use the equirectangular projection
+ * around the centre: the longitude difference is scaled by the cosine of the
+ * centre's latitude and the result is treated as flat. Within the few hundred
+ * kilometres a listing search covers this stays well within 1% of the great
+ * circle distance, and being plain arithmetic it is evaluated identically by
+ * the search engine, the result cache and the database fallback.
+ */
+public final class GeoCircle {
+
+    // Mean Earth radius of 6371 km, per degree of arc
+    public static final double KM_PER_DEGREE = 6371.0 * Math.PI / 180;
+
+    private final double latitude;
+    private final double longitude;
+    private final double radiusKm;
+    private final double longitudeScale;
+    private final double radiusDegrees;
+
+    public GeoCircle(double latitude, double longitude, double radiusKm) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radiusKm = radiusKm;
+        // Kept away from zero so the bounding box stays finite next to the poles
+        this.longitudeScale = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        this.radiusDegrees = radiusKm / KM_PER_DEGREE;
+    }
+
+    // The circle a filter asks for, or null unless it carries a centre and a positive radius
+    public static GeoCircle of(PropertyFilterRequestDTO filters) {
+        if (filters.getLatitude() == null || filters.getLongitude() == null
+                || filters.getRadiusKm() == null || !(filters.getRadiusKm() > 0)) {
+            return null;
+        }
+        return new GeoCircle(filters.getLatitude(), filters.getLongitude(), filters.getRadiusKm());
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getRadiusKm() {
+        return radiusKm;
+    }
+
+    // Kilometres per degree of longitude relative to a degree of latitude at the centre
+    public double getLongitudeScale() {
+        return longitudeScale;
+    }
+
+    public double getRadiusDegreesSquared() {
+        return radiusDegrees * radiusDegrees;
+    }
+
+    public double getMinLatitude() {
+        return latitude - radiusDegrees;
+    }
+
+    public double getMaxLatitude() {
+        return latitude + radiusDegrees;
+    }
+
+    public double getMinLongitude() {
+        return longitude - radiusDegrees / longitudeScale;
+    }
+
+    public double getMaxLongitude() {
+        return longitude + radiusDegrees / longitudeScale;
+    }
+
+    // NaN, a listing without coordinates, is never inside
+    public boolean contains(double pointLatitude, double pointLongitude) {
+        double dLat = pointLatitude - latitude;
+        double dLon = (pointLongitude - longitude) * longitudeScale;
+        return dLat * dLat + dLon * dLon <= getRadiusDegreesSquared();
+    }
+
+    public boolean contains(Double pointLatitude, Double pointLongitude) {
+        return pointLatitude != null && pointLongitude != null && contains(pointLatitude.doubleValue(), pointLongitude.doubleValue());
+    }
+}
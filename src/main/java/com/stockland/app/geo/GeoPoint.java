@@ -0,0 +1,10 @@
+package com.stockland.app.geo;
+
+import lombok.Value;
+
+// A WGS84 position in decimal degrees
+@Value
+public class GeoPoint {
+    double latitude;
+    double longitude;
+}
@@ -2,11 +2,14 @@ package com.stockland.app.model;
 
 import jakarta.persistence.*;
 
+// A user favorites a listing once, see the V2 migration; FavoriteService relies on it when two adds race
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_favorite_user_property", columnNames = {"user_id", "property_property_id"}))
 public class Favorite {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "favorite_seq")
+    @SequenceGenerator(name = "favorite_seq", sequenceName = "favorite_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -0,0 +1,66 @@
+package com.stockland.app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of an approved listing: everything a card shows and the
+ * public search filters on, in one row, so the list views read this table
+ * alone instead of joining property, users and images. PropertyService
+ * writes it in the same transaction as the listing, see the V5 migration.
+ * Location, status and the searchable text are stored lower-cased, the way
+ * the filters compare them. The favorite count is only here for the "Most
+ * saved" sort and follows property's, see FavoriteCounter.
+ */
+@Entity
+@Table(name = "listing_card")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListingCard {
+    // The listing's id; the row goes with the listing, see the foreign key in V5
+    @Id
+    @Column(name = "property_id")
+    private Long id;
+    private String title;
+    private String location;
+    private String locationLower;
+    private Double latitude;
+    private Double longitude;
+    private Double price;
+    private Double area;
+    private Integer roomCount;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action_type")
+    private ActionType actionType;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "property_type")
+    private PropertyType propertyType;
+    private String status;
+    private String statusLower;
+    // Lower-cased title and description, for the keyword filter
+    @Column(columnDefinition = "TEXT")
+    private String searchText;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Column(nullable = false)
+    private boolean featured;
+    // Never written from the entity: copied from property when the card is written and by FavoriteCounter,
+    // so neither an insert nor a rewrite can carry a count read before the last flush
+    @Column(name = "favorite_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private long favoriteCount;
+    // Owner, copied from users; a rename updates every card of the owner
+    private Long userId;
+    private String username;
+    // The first uploaded image, and how many there are
+    private String coverUrl;
+    @Column(nullable = false)
+    private int imageCount;
+}
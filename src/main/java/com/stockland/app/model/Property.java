@@ -2,23 +2,36 @@ package com.stockland.app.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 import java.util.ArrayList;
 import java.util.List;
 
+// Fetch plans of the entity reads: indexing a listing needs its owner, the detail page its images as well
+@NamedEntityGraph(name = "Property.card", attributeNodes = @NamedAttributeNode("user"))
+@NamedEntityGraph(name = "Property.detail", attributeNodes = {@NamedAttributeNode("user"), @NamedAttributeNode("images")})
+// Second-level cached with its image ids, see entity-cache.conf
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "property")
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Property {
+    // Pooled sequence, see the V4 migration: ids come 50 at a time, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_seq")
+    @SequenceGenerator(name = "property_seq", sequenceName = "property_seq", allocationSize = 50)
     @Column(name = "property_id")
     private Long id;
     private String title;
     private String location;
+    // WGS84 position, from the listing form or looked up from the location
+    private Double latitude;
+    private Double longitude;
     private Double price;
     private Double area;
     private Integer roomCount;
@@ -36,15 +49,16 @@ public class Property {
     @Enumerated(EnumType.STRING)
     @Column(name = "moderation_status")
     private ModerationStatus moderationStatus;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
     @Builder.Default
     @OneToMany(mappedBy = "property", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "property_images")
     private List<Image> images = new ArrayList<>();
 
     @Column(name = "created_at")
@@ -53,6 +67,11 @@ public class Property {
     @Column(name = "featured", nullable = false, columnDefinition = "boolean default false")
     private boolean featured;
 
+    // Kept by FavoriteCounter with bulk updates; entity writes leave it alone so they cannot undo a flush
+    @Column(name = "favorite_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private long favoriteCount;
+
     @PrePersist
     protected void onCreate() {
         if (this.createdAt == null) {
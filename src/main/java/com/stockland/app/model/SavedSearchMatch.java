@@ -0,0 +1,44 @@
+package com.stockland.app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A listing that matched a saved search when it was approved; unseen ones are the user's notifications
+@Entity
+@Table(name = "saved_search_match",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"saved_search_id", "property_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SavedSearchMatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saved_search_match_seq")
+    @SequenceGenerator(name = "saved_search_match_seq", sequenceName = "saved_search_match_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "saved_search_id", nullable = false)
+    private SavedSearch savedSearch;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "property_id", nullable = false)
+    private Property property;
+
+    @Column(name = "matched_at")
+    private LocalDateTime matchedAt;
+
+    private boolean seen;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.matchedAt == null) {
+            this.matchedAt = LocalDateTime.now();
+        }
+    }
+}
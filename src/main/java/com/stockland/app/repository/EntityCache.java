@@ -0,0 +1,86 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.dto.EntityCacheRegionStatsDTO;
+import com.stockland.app.model.Property;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The Hibernate second-level cache of listings, users and images, whose
+ * regions are sized in entity-cache.conf. Reports the hit ratio of every
+ * region for admins.
+ * <p>
+ * A listing is also evicted once its entity update commits. Entity writes
+ * never touch the favorite count column, but the cached entry is built from
+ * the entity as written, so a listing merged from a stale copy would
+ * otherwise be cached with a stale count until the next counter flush.
+ * A flush evicts only the listings whose count it wrote.
+ */
+@Component
+public class EntityCache {
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public EntityCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_COMMIT_UPDATE, new EvictUpdatedListing());
+    }
+
+    // Drops the listings from the cache, for writes that bypass the entity, see PropertyRepository#addFavoriteCount
+    public void evictListings(Collection<Long> ids) {
+        ids.forEach(id -> sessionFactory.getCache().evictEntityData(Property.class, id));
+    }
+
+    // Every region, by name
+    public List<EntityCacheRegionStatsDTO> stats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(statistics::getCacheRegionStatistics)
+                .map(EntityCache::toDTO)
+                .toList();
+    }
+
+    private static EntityCacheRegionStatsDTO toDTO(CacheRegionStatistics region) {
+        long lookups = region.getHitCount() + region.getMissCount();
+        return EntityCacheRegionStatsDTO.builder()
+                .region(region.getRegionName())
+                .hits(region.getHitCount())
+                .misses(region.getMissCount())
+                .puts(region.getPutCount())
+                .hitRate(lookups == 0 ? 1.0 : (double) region.getHitCount() / lookups)
+                .build();
+    }
+
+    private final class EvictUpdatedListing implements PostCommitUpdateEventListener {
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof Property) {
+                sessionFactory.getCache().evictEntityData(Property.class, event.getId());
+            }
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.getMappedClass() == Property.class;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.stockland.app.repository;
+
+// One row of the favorites table, the favorited listing's columns it shows
+public interface FavoriteCardView {
+    Long getPropertyId();
+
+    String getTitle();
+
+    String getLocation();
+
+    Double getPrice();
+}
@@ -3,8 +3,15 @@ package com.stockland.app.repository;
 import com.stockland.app.model.Favorite;
 import com.stockland.app.model.Property;
 import com.stockland.app.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,11 +19,26 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
 
     boolean existsByUserAndProperty(User user, Property property);
 
-    void deleteByUserAndProperty(User user, Property property);
+    // Returns how many rows went, so of two concurrent removes only the one that deleted the row sees 1
+    @Transactional
+    @Modifying
+    @Query("delete from Favorite f where f.user = :user and f.property = :property")
+    int deleteByUserAndProperty(@Param("user") User user, @Param("property") Property property);
 
     Optional<Favorite> findByUserAndProperty(User user, Property property);
 
     List<Favorite> findByUser(User user);
 
-    void deleteByProperty(Property property);
+    // Favorite cards of a user in one statement; the sort comes with the pageable, see FavoriteService
+    @Query("select p.id as propertyId, p.title as title, p.location as location, p.price as price "
+            + "from Favorite f join f.property p where f.user.id = :userId")
+    Slice<FavoriteCardView> findCardsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // One statement however many listings and favorites, where a derived delete would load and remove them row by row
+    @Modifying
+    @Query("delete from Favorite f where f.property.id in :propertyIds")
+    int deleteByPropertyIds(@Param("propertyIds") Collection<Long> propertyIds);
+
+    @Query("select f.property.id from Favorite f where f.user.id = :userId")
+    List<Long> findPropertyIdsByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -2,11 +2,33 @@ package com.stockland.app.repository;
 
 import com.stockland.app.model.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Long> {
     Optional<Image> findByUrl(String url);
+
+    // Image URLs of a batch of listings in one query, in upload order
+    @Query("select i.property.id as propertyId, i.url as url from Image i "
+            + "where i.property.id in :propertyIds order by i.id")
+    List<ImageUrlView> findUrlsByPropertyIds(Collection<Long> propertyIds);
+
+    // The cover, the first uploaded image, of each of a batch of listings
+    @Query("select i.property.id as propertyId, i.url as url from Image i "
+            + "where i.id in (select min(c.id) from Image c where c.property.id in :propertyIds group by c.property.id)")
+    List<ImageUrlView> findCoverUrlsByPropertyIds(Collection<Long> propertyIds);
+
+    // Cloudinary public ids of a batch of listings, removed once their rows are gone, see ImageAssetCleanup
+    @Query("select i.public_id from Image i where i.property.id in :propertyIds")
+    List<String> findPublicIdsByPropertyIds(Collection<Long> propertyIds);
+
+    @Modifying
+    @Query("delete from Image i where i.property.id in :propertyIds")
+    int deleteByPropertyIds(Collection<Long> propertyIds);
 }
@@ -0,0 +1,8 @@
+package com.stockland.app.repository;
+
+// One image URL of a listing, for building a page of listing DTOs without touching each image collection
+public interface ImageUrlView {
+    Long getPropertyId();
+
+    String getUrl();
+}
@@ -0,0 +1,63 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.model.ListingCard;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+// The listing_card read model, see ListingCard; PropertyService is its only writer
+public interface ListingCardRepository extends JpaRepository<ListingCard, Long>, JpaSpecificationExecutor<ListingCard> {
+
+    // Home page featured listings, in id order
+    List<ListingCardView> findByFeaturedTrueOrderByIdAsc();
+
+    // The pattern is matched against the lower-cased location and may escape wildcards with a backslash
+    @Query("select c.location as location, count(c) as listings from ListingCard c "
+            + "where c.locationLower like :pattern escape '\\' "
+            + "group by c.location order by count(c) desc, c.location")
+    List<LocationCountView> countLocationsLike(String pattern, Pageable pageable);
+
+    @Modifying
+    @Query("update ListingCard c set c.username = :username where c.userId = :userId")
+    int renameOwner(@Param("userId") Long userId, @Param("username") String username);
+
+    @Modifying
+    @Query("update ListingCard c set c.latitude = :latitude, c.longitude = :longitude where c.id = :id")
+    int place(@Param("id") Long id, @Param("latitude") Double latitude, @Param("longitude") Double longitude);
+
+    // The favorite counts are copied from property, see FavoriteCounter
+    @Transactional
+    @Modifying
+    @Query("update ListingCard c set c.favoriteCount = (select p.favoriteCount from Property p where p.id = c.id) "
+            + "where c.id in :ids")
+    int copyFavoriteCounts(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update ListingCard c set c.favoriteCount = (select p.favoriteCount from Property p where p.id = c.id) "
+            + "where c.favoriteCount <> (select p.favoriteCount from Property p where p.id = c.id)")
+    int reconcileFavoriteCounts();
+
+    // Every approved listing's card in one INSERT ... SELECT, the statement the V5 migration filled the table with.
+    // Native, as Hibernate aliases the target table of an INSERT, which H2 does not accept.
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into listing_card (property_id, title, location, location_lower, latitude, longitude, "
+            + "price, area, room_count, action_type, property_type, status, status_lower, search_text, created_at, featured, "
+            + "favorite_count, user_id, username, cover_url, image_count) "
+            + "select p.property_id, p.title, p.location, lower(p.location), p.latitude, p.longitude, p.price, p.area, p.room_count, "
+            + "p.action_type, p.property_type, p.status, lower(p.status), "
+            + "lower(coalesce(p.title, '') || ' ' || coalesce(p.description, '')), p.created_at, p.featured, p.favorite_count, "
+            + "u.id, u.username, "
+            + "(select i.url_image from images i where i.id = (select min(c.id) from images c where c.property_id = p.property_id)), "
+            + "(select count(*) from images i where i.property_id = p.property_id) "
+            + "from property p left join users u on u.id = p.user_id "
+            + "where p.moderation_status = 'APPROVED'")
+    int insertApprovedCards();
+}
@@ -0,0 +1,45 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.PropertyType;
+
+import java.time.LocalDateTime;
+
+// Closed projection of a listing_card row without the TEXT search column, everything a card renders
+public interface ListingCardView {
+    Long getId();
+
+    String getTitle();
+
+    String getLocation();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    Double getPrice();
+
+    Double getArea();
+
+    Integer getRoomCount();
+
+    ActionType getActionType();
+
+    PropertyType getPropertyType();
+
+    String getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    boolean isFeatured();
+
+    long getFavoriteCount();
+
+    Long getUserId();
+
+    String getUsername();
+
+    String getCoverUrl();
+
+    int getImageCount();
+}
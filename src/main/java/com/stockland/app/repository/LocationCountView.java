@@ -0,0 +1,8 @@
+package com.stockland.app.repository;
+
+// A distinct location and its number of listings, for typeahead before the in-memory trie is loaded
+public interface LocationCountView {
+    String getLocation();
+
+    long getListings();
+}
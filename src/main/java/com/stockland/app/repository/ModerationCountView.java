@@ -0,0 +1,10 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.model.ModerationStatus;
+
+// One row of the per-status listing counts
+public interface ModerationCountView {
+    ModerationStatus getModerationStatus();
+
+    long getListings();
+}
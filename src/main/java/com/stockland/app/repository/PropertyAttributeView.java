@@ -0,0 +1,18 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import com.stockland.app.model.PropertyType;
+
+// Closed projection with the low-cardinality columns kept in the listing attribute bitmaps
+public interface PropertyAttributeView {
+    Long getId();
+
+    ActionType getActionType();
+
+    PropertyType getPropertyType();
+
+    ModerationStatus getModerationStatus();
+
+    boolean isFeatured();
+}
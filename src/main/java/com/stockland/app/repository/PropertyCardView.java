@@ -0,0 +1,48 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import com.stockland.app.model.PropertyType;
+
+import java.time.LocalDateTime;
+
+// Closed projection with the columns a listing card renders; the TEXT description stays in the table
+public interface PropertyCardView {
+    Long getId();
+
+    String getTitle();
+
+    String getLocation();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    Double getPrice();
+
+    Double getArea();
+
+    Integer getRoomCount();
+
+    ActionType getActionType();
+
+    PropertyType getPropertyType();
+
+    String getStatus();
+
+    ModerationStatus getModerationStatus();
+
+    LocalDateTime getCreatedAt();
+
+    boolean isFeatured();
+
+    long getFavoriteCount();
+
+    Owner getUser();
+
+    interface Owner {
+        Long getId();
+
+        String getUsername();
+    }
+}
@@ -0,0 +1,17 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.PropertyType;
+
+// Closed projection with only the faceted columns, so counting does not load whole listings
+public interface PropertyFacetView {
+    ActionType getActionType();
+
+    PropertyType getPropertyType();
+
+    Double getPrice();
+
+    Integer getRoomCount();
+
+    Double getArea();
+}
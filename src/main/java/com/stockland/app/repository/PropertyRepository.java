@@ -3,14 +3,28 @@ package com.stockland.app.repository;
 import com.stockland.app.model.ActionType;
 import com.stockland.app.model.ModerationStatus;
 import com.stockland.app.model.Property;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property> {
+    // Entity reads name their fetch plan, see Property; the list views read PropertyCardView instead
+    @EntityGraph("Property.detail")
+    Optional<Property> findById(Long id);
+
     List<Property> findByPrice(Double price);
 
     List<Property> findByPriceLessThanEqual(Double price);
@@ -27,7 +41,45 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSp
 
     List<Property> findByUserId(Long userId);
 
+    @EntityGraph("Property.card")
     List<Property> findByModerationStatus(ModerationStatus moderationStatus);
 
     List<Property> findByFeaturedTrue();
+
+    // The listings a bulk delete removes, read once for the events announcing it
+    @EntityGraph("Property.card")
+    List<Property> findByIdIn(Collection<Long> ids);
+
+    // Favorites, saved search matches and images of the listings must be gone first, see PropertyService.deleteByIds
+    @Modifying
+    @Query("delete from Property p where p.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    List<Property> findByLatitudeIsNull();
+
+    List<PropertyAttributeView> findAllProjectedBy();
+
+    // Card reads for the list views, see PropertyCardView; search pages project the same view through findBy
+    List<PropertyCardView> findCardsBy();
+
+    @Query("select p.moderationStatus as moderationStatus, count(p) as listings from Property p group by p.moderationStatus")
+    List<ModerationCountView> countByModerationStatus();
+
+    @Query("select p.moderationStatus as moderationStatus, count(p) as listings from Property p where p.user.id = :userId group by p.moderationStatus")
+    List<ModerationCountView> countByModerationStatusForUser(@Param("userId") Long userId);
+
+    // Favorite counts are only written here, see FavoriteCounter. Native and synchronized on the favorite
+    // table only: a JPQL update of Property would empty the whole listing cache region on every flush,
+    // so the caller evicts just the listings it changed, see EntityCache#evictListings
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "favorite"))
+    @Query(nativeQuery = true, value = "update property set favorite_count = favorite_count + :delta where property_id in :ids")
+    int addFavoriteCount(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying
+    @Query("update Property p set p.favoriteCount = (select count(f) from Favorite f where f.property = p) "
+            + "where p.favoriteCount <> (select count(f) from Favorite f where f.property = p)")
+    int reconcileFavoriteCounts();
 }
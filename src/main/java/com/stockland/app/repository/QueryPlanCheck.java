@@ -0,0 +1,155 @@
+package com.stockland.app.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs EXPLAIN over the hot repository queries on startup and reports every
+ * one whose plan still reads a whole table, so a query added without its
+ * index shows up on a developer's database before it shows up in
+ * production. Each probe is the SQL Hibernate renders for a query in
+ * {@link ListingCardRepository}, {@link PropertyRepository},
+ * {@link ImageRepository} or {@link FavoriteRepository}, with sample values
+ * bound.
+ * <p>
+ * On PostgreSQL sequential scans are switched off for the check: on a small
+ * local table the planner would rightly prefer one, and what matters is
+ * whether an index could serve the query. H2 marks a table scan in its plan.
+ * Queries that inherently read every row, such as the unfiltered admin grid
+ * in its default order, are not probed.
+ */
+@Component
+@ConditionalOnProperty(name = "schema.plan-check.enabled", havingValue = "true")
+public class QueryPlanCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanCheck.class);
+
+    static final Map<String, String> PROBES = new LinkedHashMap<>();
+
+    static {
+        // ListingCardRepository and the search Specifications
+        PROBES.put("listing cards, newest first",
+                "select property_id, title, price from listing_card "
+                        + "order by property_id desc fetch first 20 rows only");
+        PROBES.put("listing cards in a price range",
+                "select property_id, title, price from listing_card where price between 100000 and 200000");
+        PROBES.put("featured listing cards",
+                "select property_id, title from listing_card where featured = true");
+        PROBES.put("most saved listing cards",
+                "select property_id, title from listing_card "
+                        + "order by favorite_count desc, property_id desc fetch first 20 rows only");
+        PROBES.put("radius search box",
+                "select property_id from listing_card where latitude between 56.9 and 57.0 "
+                        + "and longitude between 24.0 and 24.2");
+        PROBES.put("cards of an owner",
+                "select property_id from listing_card where user_id = 1");
+
+        // PropertyRepository, for the admin grid and "My listings"
+        PROBES.put("admin grid, most saved in one status",
+                "select property_id, title from property where moderation_status = 'APPROVED' "
+                        + "order by favorite_count desc, property_id desc fetch first 20 rows only");
+        PROBES.put("admin grid, one moderation status",
+                "select property_id, title from property where moderation_status = 'PENDING' "
+                        + "order by created_at desc nulls last, property_id desc fetch first 25 rows only");
+        PROBES.put("my listings page",
+                "select property_id, title from property where user_id = 1 "
+                        + "order by created_at desc nulls last, property_id desc fetch first 25 rows only");
+        PROBES.put("my listings counts",
+                "select moderation_status, count(*) from property where user_id = 1 group by moderation_status");
+
+        // ImageRepository
+        PROBES.put("image urls of a page",
+                "select property_id, url_image from images where property_id in (1, 2, 3) order by id");
+        PROBES.put("covers of a page",
+                "select property_id, url_image from images where id in "
+                        + "(select min(c.id) from images c where c.property_id in (1, 2, 3) group by c.property_id)");
+        PROBES.put("image by url",
+                "select id from images where url_image = 'https://img.example.com/1.jpg'");
+
+        // FavoriteRepository
+        PROBES.put("favorite ids of a user",
+                "select property_property_id from favorite where user_id = 1");
+        PROBES.put("favorite of a user and listing",
+                "select id from favorite where user_id = 1 and property_property_id = 2");
+        PROBES.put("favorites of a listing",
+                "select id from favorite where property_property_id = 2");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QueryPlanCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Names of the probes that scan a whole table, each logged with its plan
+    @EventListener(ApplicationReadyEvent.class)
+    public List<String> check() {
+        List<String> scanning = new ArrayList<>();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean postgres = isPostgres(connection);
+            try (Statement statement = connection.createStatement()) {
+                if (postgres) {
+                    statement.execute("set enable_seqscan = off");
+                }
+                try {
+                    for (Map.Entry<String, String> probe : PROBES.entrySet()) {
+                        String plan = explain(statement, probe.getValue());
+                        if (scansTable(plan, postgres)) {
+                            scanning.add(probe.getKey());
+                            log.warn("Query plan check: '{}' scans a whole table\n{}\n{}", probe.getKey(), probe.getValue(), plan);
+                        }
+                    }
+                } finally {
+                    if (postgres) {
+                        statement.execute("reset enable_seqscan");
+                    }
+                }
+            }
+            return null;
+        });
+        log.info("Query plan check: {} of {} probed queries scan a whole table", scanning.size(), PROBES.size());
+        return scanning;
+    }
+
+    // Whether the plan of one query reads a whole table
+    public boolean scansTable(String sql) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                return scansTable(explain(statement, sql), isPostgres(connection));
+            }
+        }));
+    }
+
+    private static String explain(Statement statement, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet rows = statement.executeQuery("explain " + sql)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static boolean scansTable(String plan, boolean postgres) {
+        return postgres ? plan.contains("Seq Scan") : plan.contains(".tableScan");
+    }
+
+    private static boolean isPostgres(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+    }
+}
@@ -0,0 +1,35 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.model.SavedSearch;
+import com.stockland.app.model.SavedSearchMatch;
+import com.stockland.app.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface SavedSearchMatchRepository extends JpaRepository<SavedSearchMatch, Long> {
+
+    // Unseen matches of every saved search of the user, newest first, with the listing loaded
+    @Query("select m from SavedSearchMatch m join fetch m.property join fetch m.savedSearch s " +
+            "where s.user = :user and m.seen = false order by m.matchedAt desc, m.id desc")
+    List<SavedSearchMatch> findUnseenByUser(@Param("user") User user);
+
+    @Modifying
+    @Query("update SavedSearchMatch m set m.seen = true where m.savedSearch = :savedSearch and m.seen = false")
+    int markSeen(@Param("savedSearch") SavedSearch savedSearch);
+
+    // The saved searches the listing already matched, e.g. before it was rejected and approved again
+    @Query("select m.savedSearch.id from SavedSearchMatch m where m.property.id = :propertyId")
+    Set<Long> findSavedSearchIdsByPropertyId(@Param("propertyId") Long propertyId);
+
+    void deleteBySavedSearch(SavedSearch savedSearch);
+
+    @Modifying
+    @Query("delete from SavedSearchMatch m where m.property.id in :propertyIds")
+    int deleteByPropertyIds(@Param("propertyIds") Collection<Long> propertyIds);
+}
@@ -0,0 +1,14 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.model.SavedSearch;
+import com.stockland.app.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    List<SavedSearch> findByUserOrderByCreatedAtDesc(User user);
+
+    long countByUser(User user);
+}
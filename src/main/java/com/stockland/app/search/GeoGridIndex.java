@@ -0,0 +1,112 @@
+package com.stockland.app.search;
+
+import com.stockland.app.geo.GeoCircle;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Spatial index over the coordinates in {@link ListingColumns}: the map is cut
+ * into a fixed grid of {@link #CELL_DEGREES} cells and every cell holds a
+ * sorted posting list of the slots inside it. A radius query reads only the
+ * cells overlapping the circle's bounding box; the candidates still have to
+ * be checked against the circle itself. Listings without coordinates are not
+ * indexed and never match a radius.
+ * Not thread safe, the engine guards it with its own lock.
+ */
+class GeoGridIndex {
+
+    // About 5.6 km north to south, and 3.0 km east to west at Riga's latitude
+    static final double CELL_DEGREES = 0.05;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Long, Postings> cells = new HashMap<>();
+
+    int cellCount() {
+        return cells.size();
+    }
+
+    void add(int slot, double latitude, double longitude) {
+        if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return;
+        }
+        cells.computeIfAbsent(cell(row(latitude), column(longitude)), c -> new Postings()).add(slot);
+    }
+
+    void remove(int slot, double latitude, double longitude) {
+        if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return;
+        }
+        long cell = cell(row(latitude), column(longitude));
+        Postings list = cells.get(cell);
+        if (list != null) {
+            list.remove(slot);
+            if (list.size == 0) {
+                cells.remove(cell);
+            }
+        }
+    }
+
+    // Sorted slots of every cell overlapping the circle's bounding box
+    int[] candidates(GeoCircle circle) {
+        int minRow = row(circle.getMinLatitude());
+        int maxRow = row(circle.getMaxLatitude());
+        int minColumn = column(circle.getMinLongitude());
+        int maxColumn = column(circle.getMaxLongitude());
+
+        int total = 0;
+        Postings[] hits;
+        int count = 0;
+        long boxCells = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+        if (boxCells <= cells.size()) {
+            hits = new Postings[(int) boxCells];
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    Postings list = cells.get(cell(row, column));
+                    if (list != null) {
+                        hits[count++] = list;
+                        total += list.size;
+                    }
+                }
+            }
+        } else {
+            // A box wider than the occupied part of the map: visiting the occupied cells is cheaper
+            hits = new Postings[cells.size()];
+            for (Map.Entry<Long, Postings> entry : cells.entrySet()) {
+                int row = (int) (entry.getKey() >> 32);
+                int column = (int) (long) entry.getKey();
+                if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn) {
+                    hits[count++] = entry.getValue();
+                    total += entry.getValue().size;
+                }
+            }
+        }
+        if (total == 0) {
+            return EMPTY;
+        }
+
+        int[] slots = new int[total];
+        int at = 0;
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(hits[i].slots, 0, slots, at, hits[i].size);
+            at += hits[i].size;
+        }
+        // A slot sits in exactly one cell, so the concatenation has no duplicates
+        Arrays.sort(slots);
+        return slots;
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor(latitude / CELL_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.floor(longitude / CELL_DEGREES);
+    }
+
+    private static long cell(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+}
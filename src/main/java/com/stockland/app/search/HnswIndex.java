@@ -0,0 +1,365 @@
+package com.stockland.app.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Approximate nearest neighbours over fixed-length float vectors, as a
+ * hierarchical navigable small world graph. Every vector is a node on layer
+ * 0 and, with geometrically falling odds, on the layers above; each layer
+ * links a node to a few close neighbours. A query greedily descends from the
+ * single top node to layer 0 and there runs a best-first search keeping the
+ * {@code ef} closest nodes seen, so it visits O(log n) nodes per layer rather
+ * than all of them. Distances are squared Euclidean.
+ * <p>
+ * Removed nodes stay in the graph, still routing queries, but are never
+ * returned; the owner rebuilds once they make up too much of it. Not thread
+ * safe for writes, the owner guards it with its own lock. Concurrent queries
+ * are fine, they keep their state on the stack.
+ */
+class HnswIndex {
+
+    // Links per node on the upper layers, twice that on layer 0
+    private static final int M = 12;
+    private static final int EF_CONSTRUCTION = 100;
+
+    private final int dimensions;
+    private final double levelFactor = 1 / Math.log(M);
+    private final Random random;
+
+    private float[][] vectors = new float[16][];
+    private long[] ids = new long[16];
+    private boolean[] removed = new boolean[16];
+    // links[node][layer] holds the neighbour count followed by the neighbours
+    private int[][][] links = new int[16][][];
+    private int nodes;
+    private int removedCount;
+    private int entryPoint = -1;
+    private int topLayer = -1;
+
+    HnswIndex(int dimensions, long seed) {
+        this.dimensions = dimensions;
+        this.random = new Random(seed);
+    }
+
+    // Nodes that can be returned
+    int size() {
+        return nodes - removedCount;
+    }
+
+    // Nodes in the graph, removed ones included
+    int nodes() {
+        return nodes;
+    }
+
+    // Adds a vector under the id and returns its node
+    int add(long id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        int node = nodes++;
+        ensureCapacity(node);
+        int layer = (int) (-Math.log(1 - random.nextDouble()) * levelFactor);
+        vectors[node] = vector;
+        ids[node] = id;
+        links[node] = new int[layer + 1][];
+        for (int l = 0; l <= layer; l++) {
+            links[node][l] = new int[1 + maxLinks(l) + 1];
+        }
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLayer = layer;
+            return node;
+        }
+
+        int nearest = entryPoint;
+        for (int l = topLayer; l > layer; l--) {
+            nearest = greedy(vector, nearest, l);
+        }
+        for (int l = Math.min(layer, topLayer); l >= 0; l--) {
+            Heap found = searchLayer(vector, nearest, EF_CONSTRUCTION, l);
+            nearest = found.nearest();
+            for (int neighbour : selectNeighbours(vector, found, M)) {
+                link(node, neighbour, l);
+                link(neighbour, node, l);
+            }
+        }
+        if (layer > topLayer) {
+            entryPoint = node;
+            topLayer = layer;
+        }
+        return node;
+    }
+
+    void remove(int node) {
+        if (!removed[node]) {
+            removed[node] = true;
+            removedCount++;
+        }
+    }
+
+    boolean isRemoved(int node) {
+        return removed[node];
+    }
+
+    /**
+     * Nodes of the {@code k} vectors closest to the query, nearest first,
+     * searching with a candidate list of {@code ef}; a larger one finds the
+     * true neighbours more often at a higher cost.
+     */
+    int[] search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || k <= 0) {
+            return new int[0];
+        }
+        int nearest = entryPoint;
+        for (int l = topLayer; l > 0; l--) {
+            nearest = greedy(query, nearest, l);
+        }
+        // Removed nodes are still found but dropped, so widen the search by their share of the graph
+        int widened = (int) Math.min(nodes, (long) Math.max(ef, k) * nodes / Math.max(1, size()));
+        Heap found = searchLayer(query, nearest, widened, 0);
+
+        int[] ordered = found.drainNearestFirst();
+        int[] result = new int[Math.min(k, ordered.length)];
+        int n = 0;
+        for (int i = 0; i < ordered.length && n < result.length; i++) {
+            if (!removed[ordered[i]]) {
+                result[n++] = ordered[i];
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    long id(int node) {
+        return ids[node];
+    }
+
+    private int maxLinks(int layer) {
+        return layer == 0 ? 2 * M : M;
+    }
+
+    // Walks to ever closer neighbours on one layer until none is closer
+    private int greedy(float[] query, int from, int layer) {
+        int current = from;
+        float best = distance(query, vectors[current]);
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            int[] neighbours = links[current][layer];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                float d = distance(query, vectors[neighbours[i]]);
+                if (d < best) {
+                    best = d;
+                    current = neighbours[i];
+                    moved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Best-first search of one layer, returning up to ef of the closest nodes reached
+    private Heap searchLayer(float[] query, int from, int ef, int layer) {
+        BitSet visited = new BitSet(nodes);
+        visited.set(from);
+        float d = distance(query, vectors[from]);
+        Heap candidates = new Heap(ef, false);
+        Heap found = new Heap(ef, true);
+        candidates.push(from, d);
+        found.push(from, d);
+
+        while (candidates.size > 0) {
+            float closest = candidates.topDistance();
+            if (found.size >= ef && closest > found.topDistance()) {
+                break;
+            }
+            int current = candidates.pop();
+            int[] neighbours = links[current][layer];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float nd = distance(query, vectors[neighbour]);
+                if (found.size < ef || nd < found.topDistance()) {
+                    candidates.push(neighbour, nd);
+                    found.push(neighbour, nd);
+                    if (found.size > ef) {
+                        found.pop();
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Up to {@code max} of the found nodes, closest first, skipping any that
+     * is closer to an already chosen neighbour than to the new vector. Links
+     * then spread in every direction instead of bunching in one cluster, which
+     * keeps the graph navigable across clusters. Places left over go to the
+     * skipped nodes, nearest first.
+     */
+    private int[] selectNeighbours(float[] vector, Heap found, int max) {
+        int[] ordered = found.drainNearestFirst();
+        int[] chosen = new int[Math.min(max, ordered.length)];
+        int n = 0;
+        for (int i = 0; i < ordered.length && n < chosen.length; i++) {
+            int candidate = ordered[i];
+            float d = distance(vector, vectors[candidate]);
+            boolean diverse = true;
+            for (int j = 0; j < n && diverse; j++) {
+                diverse = distance(vectors[chosen[j]], vectors[candidate]) >= d;
+            }
+            if (diverse) {
+                chosen[n++] = candidate;
+                ordered[i] = -1;
+            }
+        }
+        for (int i = 0; i < ordered.length && n < chosen.length; i++) {
+            if (ordered[i] >= 0) {
+                chosen[n++] = ordered[i];
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Links from node to neighbour. A node with too many links keeps the ones
+     * the diversity rule picks, so the links bridging to other clusters
+     * survive rather than just the closest ones.
+     */
+    private void link(int node, int neighbour, int layer) {
+        int[] list = links[node][layer];
+        int count = list[0];
+        list[++count] = neighbour;
+        list[0] = count;
+        int max = maxLinks(layer);
+        if (count <= max) {
+            return;
+        }
+        float[] vector = vectors[node];
+        Heap held = new Heap(count, true);
+        for (int i = 1; i <= count; i++) {
+            held.push(list[i], distance(vector, vectors[list[i]]));
+        }
+        int[] kept = selectNeighbours(vector, held, max);
+        System.arraycopy(kept, 0, list, 1, kept.length);
+        list[0] = kept.length;
+    }
+
+    private void ensureCapacity(int node) {
+        if (node == vectors.length) {
+            int capacity = node * 2;
+            vectors = Arrays.copyOf(vectors, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            removed = Arrays.copyOf(removed, capacity);
+            links = Arrays.copyOf(links, capacity);
+        }
+    }
+
+    static float distance(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            float diff = a[i] - b[i];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    // Binary heap of nodes keyed by distance, nearest or farthest on top
+    private static final class Heap {
+        private final boolean farthestOnTop;
+        private int[] nodes;
+        private float[] distances;
+        private int size;
+
+        Heap(int capacity, boolean farthestOnTop) {
+            this.farthestOnTop = farthestOnTop;
+            this.nodes = new int[Math.max(capacity + 1, 4)];
+            this.distances = new float[nodes.length];
+        }
+
+        void push(int node, float distance) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(distance, distances[parent])) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                distances[i] = distances[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            distances[i] = distance;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            size--;
+            int node = nodes[size];
+            float distance = distances[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && above(distances[child + 1], distances[child])) {
+                    child++;
+                }
+                if (!above(distances[child], distance)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            nodes[i] = node;
+            distances[i] = distance;
+            return top;
+        }
+
+        float topDistance() {
+            return distances[0];
+        }
+
+        // The nearest node held, without changing the heap
+        int nearest() {
+            int best = 0;
+            for (int i = 1; i < size; i++) {
+                if (distances[i] < distances[best]) {
+                    best = i;
+                }
+            }
+            return nodes[best];
+        }
+
+        // Empties the heap into an array ordered nearest first
+        int[] drainNearestFirst() {
+            int[] ordered = new int[size];
+            if (farthestOnTop) {
+                for (int i = ordered.length - 1; i >= 0; i--) {
+                    ordered[i] = pop();
+                }
+            } else {
+                for (int i = 0; i < ordered.length; i++) {
+                    ordered[i] = pop();
+                }
+            }
+            return ordered;
+        }
+
+        private boolean above(float a, float b) {
+            return farthestOnTop ? a > b : a < b;
+        }
+    }
+}
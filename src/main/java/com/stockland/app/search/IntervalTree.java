@@ -0,0 +1,245 @@
+package com.stockland.app.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntConsumer;
+
+/**
+ * Closed intervals of doubles, each tagged with an int slot, answering "which
+ * intervals contain this point". Built as a centered interval tree laid out
+ * in flat arrays: every node keeps the intervals that cross its center twice,
+ * once sorted by low end and once by high end, so a stabbing query walks one
+ * root-to-leaf path and scans each node's lists only as far as they hit,
+ * O(log n + k) for k hits. Open ends are infinities.
+ * <p>
+ * The tree itself is static. Added intervals wait in a small unsorted list
+ * and removed ones are masked until either grows past the square root of the
+ * tree size, then the tree is rebuilt; a query scans at most that many extra
+ * intervals. Bulk loads go through {@link #append} and a single
+ * {@link #rebuild}. Not thread safe, the owner guards it with its own lock.
+ */
+class IntervalTree {
+
+    private static final int MIN_BUFFER = 64;
+
+    // Current interval of every slot
+    private double[] lows = new double[16];
+    private double[] highs = new double[16];
+    private boolean[] present = new boolean[16];
+    // Whether the slot's current interval is the one filed in the tree
+    private boolean[] inTree = new boolean[16];
+    private int size;
+
+    // Node k holds positions [starts[k], ends[k]) of the two sorted lists, which carry their own copy of the ends
+    private double[] centers = new double[0];
+    private int[] lefts = new int[0];
+    private int[] rights = new int[0];
+    private int[] starts = new int[0];
+    private int[] ends = new int[0];
+    private int[] byLow = new int[0];
+    private double[] lowEnds = new double[0];
+    private int[] byHigh = new int[0];
+    private double[] highEnds = new double[0];
+    private int nodes;
+    private int masked;
+
+    private int[] pending = new int[MIN_BUFFER];
+    private int pendingSize;
+
+    int size() {
+        return size;
+    }
+
+    void add(int slot, double low, double high) {
+        append(slot, low, high);
+        rebuildIfDue();
+    }
+
+    // Adds without rebuilding, for bulk loads that end with rebuild()
+    void append(int slot, double low, double high) {
+        ensureCapacity(slot);
+        if (present[slot]) {
+            unlink(slot);
+        }
+        if (inTree[slot]) {
+            // The tree still files the slot's old interval, which now only counts as masked
+            inTree[slot] = false;
+        }
+        lows[slot] = low;
+        highs[slot] = high;
+        present[slot] = true;
+        size++;
+        if (pendingSize == pending.length) {
+            pending = Arrays.copyOf(pending, pendingSize * 2);
+        }
+        pending[pendingSize++] = slot;
+    }
+
+    boolean remove(int slot) {
+        if (slot >= present.length || !present[slot]) {
+            return false;
+        }
+        unlink(slot);
+        rebuildIfDue();
+        return true;
+    }
+
+    // Calls back the slot of every interval containing the point
+    void stab(double point, IntConsumer hit) {
+        int node = nodes > 0 ? 0 : -1;
+        while (node >= 0) {
+            int end = ends[node];
+            if (point < centers[node]) {
+                for (int i = starts[node]; i < end && lowEnds[i] <= point; i++) {
+                    emit(byLow[i], hit);
+                }
+                node = lefts[node];
+            } else if (point > centers[node]) {
+                for (int i = starts[node]; i < end && highEnds[i] >= point; i++) {
+                    emit(byHigh[i], hit);
+                }
+                node = rights[node];
+            } else {
+                for (int i = starts[node]; i < end; i++) {
+                    emit(byLow[i], hit);
+                }
+                node = -1;
+            }
+        }
+        for (int i = 0; i < pendingSize; i++) {
+            int slot = pending[i];
+            if (lows[slot] <= point && point <= highs[slot]) {
+                hit.accept(slot);
+            }
+        }
+    }
+
+    void rebuild() {
+        int[] slots = new int[size];
+        int n = 0;
+        for (int slot = 0; slot < present.length; slot++) {
+            inTree[slot] = present[slot];
+            // An inverted interval contains no point, it only counts towards the size
+            if (present[slot] && lows[slot] <= highs[slot]) {
+                slots[n++] = slot;
+            }
+        }
+        masked = 0;
+        pendingSize = 0;
+
+        int capacity = Math.max(1, n);
+        centers = new double[capacity];
+        lefts = new int[capacity];
+        rights = new int[capacity];
+        starts = new int[capacity];
+        ends = new int[capacity];
+        byLow = new int[n];
+        lowEnds = new double[n];
+        byHigh = new int[n];
+        highEnds = new double[n];
+        nodes = 0;
+
+        // Sorting once up front lets every node take its lists in order by a stable partition
+        Integer[] sortedByLow = sorted(slots, n, (a, b) -> Double.compare(lows[a], lows[b]));
+        Integer[] sortedByHigh = sorted(slots, n, (a, b) -> Double.compare(highs[b], highs[a]));
+        build(sortedByLow, sortedByHigh, new int[1]);
+    }
+
+    private void emit(int slot, IntConsumer hit) {
+        if (inTree[slot]) {
+            hit.accept(slot);
+        }
+    }
+
+    private void unlink(int slot) {
+        present[slot] = false;
+        size--;
+        if (inTree[slot]) {
+            inTree[slot] = false;
+            masked++;
+            return;
+        }
+        for (int i = 0; i < pendingSize; i++) {
+            if (pending[i] == slot) {
+                pending[i] = pending[--pendingSize];
+                return;
+            }
+        }
+    }
+
+    private void rebuildIfDue() {
+        int buffer = Math.max(MIN_BUFFER, (int) Math.sqrt(size));
+        if (pendingSize > buffer || masked > buffer) {
+            rebuild();
+        }
+    }
+
+    // Builds the subtree over the slots, given in both orders, and returns its node index
+    private int build(Integer[] sortedByLow, Integer[] sortedByHigh, int[] cursor) {
+        if (sortedByLow.length == 0) {
+            return -1;
+        }
+        int node = nodes++;
+        double center = center(sortedByLow);
+
+        int start = cursor[0];
+        int at = start;
+        for (Integer slot : sortedByLow) {
+            if (lows[slot] <= center && center <= highs[slot]) {
+                byLow[at] = slot;
+                lowEnds[at++] = lows[slot];
+            }
+        }
+        at = start;
+        for (Integer slot : sortedByHigh) {
+            if (lows[slot] <= center && center <= highs[slot]) {
+                byHigh[at] = slot;
+                highEnds[at++] = highs[slot];
+            }
+        }
+        cursor[0] = at;
+        centers[node] = center;
+        starts[node] = start;
+        ends[node] = at;
+
+        lefts[node] = build(side(sortedByLow, center, true), side(sortedByHigh, center, true), cursor);
+        rights[node] = build(side(sortedByLow, center, false), side(sortedByHigh, center, false), cursor);
+        return node;
+    }
+
+    // The intervals wholly left (or right) of the center, keeping their order
+    private Integer[] side(Integer[] slots, double center, boolean left) {
+        int n = 0;
+        Integer[] kept = new Integer[slots.length];
+        for (Integer slot : slots) {
+            if (left ? highs[slot] < center : lows[slot] > center) {
+                kept[n++] = slot;
+            }
+        }
+        return Arrays.copyOf(kept, n);
+    }
+
+    // The median low end: the interval holding it crosses the center, and at most half lie wholly right of it
+    private double center(Integer[] sortedByLow) {
+        return lows[sortedByLow[sortedByLow.length / 2]];
+    }
+
+    private static Integer[] sorted(int[] slots, int n, Comparator<Integer> order) {
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            boxed[i] = slots[i];
+        }
+        Arrays.sort(boxed, order);
+        return boxed;
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot >= present.length) {
+            int capacity = Math.max(slot + 1, present.length * 2);
+            lows = Arrays.copyOf(lows, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+            present = Arrays.copyOf(present, capacity);
+            inTree = Arrays.copyOf(inTree, capacity);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import com.stockland.app.model.PropertyType;
+import com.stockland.app.repository.PropertyAttributeView;
+import lombok.Builder;
+import lombok.Getter;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of listing ids for the low-cardinality listing fields:
+ * one bitmap per action type, property type and moderation status, plus one
+ * for featured listings. Unlike {@link ListingSearchEngine} it covers every
+ * listing whatever its moderation status, so moderation queues and the
+ * featured list resolve to bitmap AND/OR instead of a table scan.
+ * Listing ids are stored as ints; the identity sequence stays far below that.
+ */
+@Component
+public class ListingAttributeIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Bitmaps bitmaps = new Bitmaps();
+    private final RebuildJournal<PropertyResponseDTO> journal = new RebuildJournal<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return bitmaps.all.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Call before reading the snapshot for rebuild, so changes made until the swap are replayed onto it
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            journal.begin();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<? extends PropertyAttributeView> listings) {
+        Bitmaps rebuilt = new Bitmaps();
+        for (PropertyAttributeView listing : listings) {
+            rebuilt.set(toInt(listing.getId()), listing.getActionType(), listing.getPropertyType(),
+                    listing.getModerationStatus(), listing.isFeatured());
+        }
+        rebuilt.runOptimize();
+
+        lock.writeLock().lock();
+        try {
+            bitmaps = rebuilt;
+            journal.replay((id, listing) -> index(listing), this::remove);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(PropertyResponseDTO dto) {
+        lock.writeLock().lock();
+        try {
+            int id = toInt(dto.getId());
+            bitmaps.clear(id);
+            bitmaps.set(id, dto.getActionType(), dto.getPropertyType(), dto.getModerationStatus(), dto.isFeatured());
+            journal.indexed(dto.getId(), dto);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long listingId) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear(toInt(listingId));
+            journal.removed(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getProperty() == null) {
+            remove(event.getPropertyId());
+        } else {
+            index(event.getProperty());
+        }
+    }
+
+    // Ids of the listings matching the filter, ascending
+    public List<Long> ids(Filter filter) {
+        RoaringBitmap selected = select(filter);
+        List<Long> ids = new ArrayList<>(selected.getCardinality());
+        selected.forEach((int id) -> ids.add((long) id));
+        return ids;
+    }
+
+    public int count(Filter filter) {
+        return select(filter).getCardinality();
+    }
+
+    public boolean matches(long listingId, Filter filter) {
+        if (listingId < 0 || listingId > Integer.MAX_VALUE) {
+            return false;
+        }
+        int id = (int) listingId;
+
+        lock.readLock().lock();
+        try {
+            Bitmaps b = bitmaps;
+            if (!b.all.contains(id)) return false;
+            if (filter.actionType != null && !b.actionType[filter.actionType.ordinal()].contains(id)) return false;
+            if (filter.propertyType != null && !b.propertyType[filter.propertyType.ordinal()].contains(id)) return false;
+            if (filter.featured != null && b.featured.contains(id) != filter.featured) return false;
+            if (filter.moderationStatuses != null && !filter.moderationStatuses.isEmpty()) {
+                for (ModerationStatus status : filter.moderationStatuses) {
+                    if (b.moderation[status.ordinal()].contains(id)) return true;
+                }
+                return false;
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // AND of every constrained field; the moderation statuses of a filter are OR-ed together
+    private RoaringBitmap select(Filter filter) {
+        lock.readLock().lock();
+        try {
+            Bitmaps b = bitmaps;
+            List<RoaringBitmap> terms = new ArrayList<>(4);
+            if (filter.moderationStatuses != null && !filter.moderationStatuses.isEmpty()) {
+                if (filter.moderationStatuses.size() == 1) {
+                    terms.add(b.moderation[filter.moderationStatuses.iterator().next().ordinal()]);
+                } else {
+                    RoaringBitmap[] statuses = filter.moderationStatuses.stream()
+                            .map(status -> b.moderation[status.ordinal()])
+                            .toArray(RoaringBitmap[]::new);
+                    terms.add(FastAggregation.or(statuses));
+                }
+            }
+            if (filter.actionType != null) {
+                terms.add(b.actionType[filter.actionType.ordinal()]);
+            }
+            if (filter.propertyType != null) {
+                terms.add(b.propertyType[filter.propertyType.ordinal()]);
+            }
+            if (filter.featured != null) {
+                terms.add(filter.featured ? b.featured : RoaringBitmap.andNot(b.all, b.featured));
+            }
+
+            if (terms.isEmpty()) {
+                return b.all.clone();
+            }
+            if (terms.size() == 1) {
+                return terms.get(0).clone();
+            }
+            return FastAggregation.and(terms.toArray(new RoaringBitmap[0]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int toInt(Long listingId) {
+        return Math.toIntExact(listingId);
+    }
+
+    /**
+     * Field values to select listings by. A null field matches any value;
+     * several moderation statuses match a listing in any of them.
+     */
+    @Getter
+    @Builder
+    public static class Filter {
+        private final Set<ModerationStatus> moderationStatuses;
+        private final ActionType actionType;
+        private final PropertyType propertyType;
+        private final Boolean featured;
+
+        public static Filter moderation(ModerationStatus status) {
+            return builder().moderationStatuses(Set.of(status)).build();
+        }
+    }
+
+    private static final class Bitmaps {
+        final RoaringBitmap all = new RoaringBitmap();
+        final RoaringBitmap featured = new RoaringBitmap();
+        final RoaringBitmap[] actionType = newBitmaps(ActionType.values().length);
+        final RoaringBitmap[] propertyType = newBitmaps(PropertyType.values().length);
+        final RoaringBitmap[] moderation = newBitmaps(ModerationStatus.values().length);
+
+        void set(int id, ActionType action, PropertyType type, ModerationStatus status, boolean isFeatured) {
+            all.add(id);
+            if (action != null) actionType[action.ordinal()].add(id);
+            if (type != null) propertyType[type.ordinal()].add(id);
+            if (status != null) moderation[status.ordinal()].add(id);
+            if (isFeatured) featured.add(id);
+        }
+
+        // Clearing every bitmap is cheaper than remembering which ones hold the id
+        void clear(int id) {
+            all.remove(id);
+            featured.remove(id);
+            for (RoaringBitmap bitmap : actionType) bitmap.remove(id);
+            for (RoaringBitmap bitmap : propertyType) bitmap.remove(id);
+            for (RoaringBitmap bitmap : moderation) bitmap.remove(id);
+        }
+
+        void runOptimize() {
+            all.runOptimize();
+            featured.runOptimize();
+            for (RoaringBitmap bitmap : actionType) bitmap.runOptimize();
+            for (RoaringBitmap bitmap : propertyType) bitmap.runOptimize();
+            for (RoaringBitmap bitmap : moderation) bitmap.runOptimize();
+        }
+
+        private static RoaringBitmap[] newBitmaps(int count) {
+            RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+            for (int i = 0; i < count; i++) {
+                bitmaps[i] = new RoaringBitmap();
+            }
+            return bitmaps;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column store for the listings held by {@link ListingSearchEngine}.
+ * Every listing occupies a slot; a slot keeps its position until the listing
+ * is removed, after which it is recycled for the next insert.
+ * Location and status are also kept in trigram indexes for substring search,
+ * price, area and room count in sorted range indexes, title and description
+ * in a full-text index, coordinates in a grid index. Every write to a slot
+ * bumps its version, which is how the range indexes tell stale entries apart.
+ * Not thread safe, the engine guards it with its own lock.
+ */
+class ListingColumns {
+
+    static final byte NULL_ENUM = -1;
+    static final int NULL_INT = Integer.MIN_VALUE;
+    // Sorts after every real timestamp, like NULL does in PostgreSQL
+    static final long NULL_TIME = Long.MAX_VALUE;
+
+    long[] id;
+    double[] price;
+    double[] area;
+    int[] roomCount;
+    byte[] actionType;
+    byte[] propertyType;
+    long[] createdAt;
+    double[] latitude;
+    double[] longitude;
+    String[] location;
+    String[] status;
+    PropertyResponseDTO[] rows;
+    int[] version;
+
+    final BitSet live = new BitSet();
+    final TrigramIndex locationTrigrams = new TrigramIndex();
+    final TrigramIndex statusTrigrams = new TrigramIndex();
+    final RangeIndex priceIndex = new RangeIndex(this, slot -> price[slot]);
+    final RangeIndex areaIndex = new RangeIndex(this, slot -> area[slot]);
+    final TextIndex text;
+    final RangeIndex roomIndex = new RangeIndex(this, slot -> roomCount[slot] != NULL_INT ? roomCount[slot] : Double.NaN);
+    final GeoGridIndex geoGrid = new GeoGridIndex();
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;
+    // False during a bulk load, the range indexes are then built once at the end
+    private boolean rangeIndexed = true;
+
+    ListingColumns(int initialCapacity) {
+        this(initialCapacity, TextAnalyzer.standard());
+    }
+
+    ListingColumns(int initialCapacity, TextAnalyzer analyzer) {
+        text = new TextIndex(analyzer);
+        int capacity = Math.max(initialCapacity, 16);
+        id = new long[capacity];
+        price = new double[capacity];
+        area = new double[capacity];
+        roomCount = new int[capacity];
+        actionType = new byte[capacity];
+        propertyType = new byte[capacity];
+        createdAt = new long[capacity];
+        latitude = new double[capacity];
+        longitude = new double[capacity];
+        location = new String[capacity];
+        status = new String[capacity];
+        rows = new PropertyResponseDTO[capacity];
+        version = new int[capacity];
+    }
+
+    int size() {
+        return slotById.size();
+    }
+
+    // Upper bound (exclusive) of the slots that have ever been used
+    int highWater() {
+        return highWater;
+    }
+
+    int slotOf(long listingId) {
+        Integer slot = slotById.get(listingId);
+        return slot != null ? slot : -1;
+    }
+
+    int upsert(PropertyResponseDTO dto) {
+        int slot = slotOf(dto.getId());
+        if (slot < 0) {
+            slot = freeCount > 0 ? freeSlots[--freeCount] : highWater++;
+            ensureCapacity(slot + 1);
+            slotById.put(dto.getId(), slot);
+            live.set(slot);
+        } else {
+            locationTrigrams.remove(slot, location[slot]);
+            statusTrigrams.remove(slot, status[slot]);
+            text.remove(slot, rows[slot].getTitle(), rows[slot].getDescription());
+            geoGrid.remove(slot, latitude[slot], longitude[slot]);
+        }
+
+        id[slot] = dto.getId();
+        price[slot] = dto.getPrice() != null ? dto.getPrice() : Double.NaN;
+        area[slot] = dto.getArea() != null ? dto.getArea() : Double.NaN;
+        roomCount[slot] = dto.getRoomCount() != null ? dto.getRoomCount() : NULL_INT;
+        actionType[slot] = dto.getActionType() != null ? (byte) dto.getActionType().ordinal() : NULL_ENUM;
+        propertyType[slot] = dto.getPropertyType() != null ? (byte) dto.getPropertyType().ordinal() : NULL_ENUM;
+        createdAt[slot] = toMicros(dto.getCreatedAt());
+        latitude[slot] = dto.getLatitude() != null ? dto.getLatitude() : Double.NaN;
+        longitude[slot] = dto.getLongitude() != null ? dto.getLongitude() : Double.NaN;
+        location[slot] = lower(dto.getLocation());
+        status[slot] = lower(dto.getStatus());
+        rows[slot] = dto;
+        version[slot]++;
+
+        locationTrigrams.add(slot, location[slot]);
+        statusTrigrams.add(slot, status[slot]);
+        text.add(slot, dto.getTitle(), dto.getDescription());
+        geoGrid.add(slot, latitude[slot], longitude[slot]);
+        if (rangeIndexed) {
+            priceIndex.add(slot);
+            areaIndex.add(slot);
+            roomIndex.add(slot);
+        }
+        return slot;
+    }
+
+    int remove(long listingId) {
+        Integer slot = slotById.remove(listingId);
+        if (slot == null) {
+            return -1;
+        }
+
+        live.clear(slot);
+        locationTrigrams.remove(slot, location[slot]);
+        statusTrigrams.remove(slot, status[slot]);
+        text.remove(slot, rows[slot].getTitle(), rows[slot].getDescription());
+        geoGrid.remove(slot, latitude[slot], longitude[slot]);
+        location[slot] = null;
+        status[slot] = null;
+        rows[slot] = null;
+        version[slot]++;
+        if (rangeIndexed) {
+            priceIndex.removed();
+            areaIndex.removed();
+            roomIndex.removed();
+        }
+
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return slot;
+    }
+
+    // Inserts many listings at once; the range indexes are sorted in one go instead of through their deltas
+    void bulkLoad(Collection<PropertyResponseDTO> listings) {
+        rangeIndexed = false;
+        for (PropertyResponseDTO dto : listings) {
+            upsert(dto);
+        }
+        priceIndex.build();
+        areaIndex.build();
+        roomIndex.build();
+        rangeIndexed = true;
+    }
+
+    RangeIndex rangeIndex(String property) {
+        return switch (property) {
+            case "price"     -> priceIndex;
+            case "area"      -> areaIndex;
+            case "roomCount" -> roomIndex;
+            default          -> null;
+        };
+    }
+
+    boolean rangeIndexesNeedMerge() {
+        return priceIndex.needsMerge() || areaIndex.needsMerge() || roomIndex.needsMerge();
+    }
+
+    static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= id.length) {
+            return;
+        }
+
+        int capacity = Math.max(required, id.length + (id.length >> 1));
+        id = Arrays.copyOf(id, capacity);
+        price = Arrays.copyOf(price, capacity);
+        area = Arrays.copyOf(area, capacity);
+        roomCount = Arrays.copyOf(roomCount, capacity);
+        actionType = Arrays.copyOf(actionType, capacity);
+        propertyType = Arrays.copyOf(propertyType, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        latitude = Arrays.copyOf(latitude, capacity);
+        longitude = Arrays.copyOf(longitude, capacity);
+        location = Arrays.copyOf(location, capacity);
+        status = Arrays.copyOf(status, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+        version = Arrays.copyOf(version, capacity);
+    }
+}
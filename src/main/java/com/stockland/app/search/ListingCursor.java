@@ -0,0 +1,99 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position in a keyset-paginated listing search: the sort key and id of the
+ * last listing of the previous slice. It travels through the "after" request
+ * parameter as an opaque, URL-safe token.
+ * Ordering matches {@link ListingSearchEngine}: NULL keys sort as the largest
+ * value and ties break on id in the direction of the sort.
+ */
+@Getter
+public final class ListingCursor {
+
+    public static final Set<String> KEYSET_SORTABLE = Set.of("id", "price", "area", "createdAt");
+
+    private static final Sort.Order DEFAULT_ORDER = Sort.Order.desc("id");
+    private static final String NULL_KEY = "~";
+
+    private final Sort.Order order;
+    // Double for price/area, LocalDateTime for createdAt, null for id sorts or NULL columns
+    private final Object key;
+    private final long id;
+
+    private ListingCursor(Sort.Order order, Object key, long id) {
+        this.order = order;
+        this.key = key;
+        this.id = id;
+    }
+
+    // The single order a keyset search runs on; anything it cannot seek on falls back to id DESC
+    public static Sort.Order keysetOrder(Sort sort) {
+        Sort.Order first = sort.stream().findFirst().orElse(null);
+        if (first == null || !KEYSET_SORTABLE.contains(first.getProperty())) {
+            return DEFAULT_ORDER;
+        }
+        return first.isAscending() ? Sort.Order.asc(first.getProperty()) : Sort.Order.desc(first.getProperty());
+    }
+
+    public static ListingCursor after(Sort.Order order, PropertyResponseDTO last) {
+        Object key = switch (order.getProperty()) {
+            case "price"     -> last.getPrice();
+            case "area"      -> last.getArea();
+            case "createdAt" -> last.getCreatedAt();
+            default          -> null;
+        };
+        return new ListingCursor(order, key, last.getId());
+    }
+
+    public boolean isNullKey() {
+        return key == null && !"id".equals(order.getProperty());
+    }
+
+    public String encode() {
+        String raw = order.getProperty() + "|" + order.getDirection() + "|"
+                + (key != null ? key.toString() : NULL_KEY) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token for the given order. Returns null when there is no token,
+     * it is malformed, or it was issued for a different sort; the search then
+     * starts from the first slice.
+     */
+    public static ListingCursor decode(String token, Sort.Order order) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4
+                    || !parts[0].equals(order.getProperty())
+                    || !parts[1].equals(order.getDirection().name())) {
+                return null;
+            }
+
+            Object key = null;
+            if (!NULL_KEY.equals(parts[2])) {
+                key = switch (order.getProperty()) {
+                    case "price", "area" -> Double.valueOf(parts[2]);
+                    case "createdAt"     -> LocalDateTime.parse(parts[2]);
+                    default              -> null;
+                };
+            }
+            return new ListingCursor(order, key, Long.parseLong(parts[3]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
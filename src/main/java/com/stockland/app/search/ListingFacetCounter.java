@@ -0,0 +1,141 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.FacetBucketDTO;
+import com.stockland.app.dto.ListingFacetsDTO;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.PropertyType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts every facet of a result set in a single pass: each matching listing
+ * is added once and bumps one counter per facet. Used by
+ * {@link ListingSearchEngine} over its columns and by the database fallback
+ * over a projection of the same columns, so both produce identical buckets.
+ */
+public final class ListingFacetCounter {
+
+    // Lower bounds of the price and area buckets; the last bucket has no upper bound
+    static final double[] PRICE_BOUNDS = {0, 50_000, 100_000, 200_000, 500_000};
+    static final double[] AREA_BOUNDS = {0, 50, 100, 150, 250};
+
+    // Room counts up to this are counted in an array, the rare larger ones in a map
+    private static final int DENSE_ROOMS = 32;
+
+    private static final ActionType[] ACTION_TYPES = ActionType.values();
+    private static final PropertyType[] PROPERTY_TYPES = PropertyType.values();
+
+    private final long[] actionTypes = new long[ACTION_TYPES.length];
+    private final long[] propertyTypes = new long[PROPERTY_TYPES.length];
+    private final long[] priceRanges = new long[PRICE_BOUNDS.length];
+    private final long[] areaRanges = new long[AREA_BOUNDS.length];
+    // Highest value counted in each bucket, see FacetBucketDTO#highest
+    private final double[] priceHighest = new double[PRICE_BOUNDS.length];
+    private final double[] areaHighest = new double[AREA_BOUNDS.length];
+    private final long[] rooms = new long[DENSE_ROOMS];
+    private final Map<Integer, Long> sparseRooms = new TreeMap<>();
+    private long total;
+
+    // Column form: enum ordinals or NULL_ENUM, NaN for a NULL price or area, NULL_INT for NULL rooms
+    void add(byte actionType, byte propertyType, double price, int roomCount, double area) {
+        total++;
+        if (actionType != ListingColumns.NULL_ENUM) {
+            actionTypes[actionType]++;
+        }
+        if (propertyType != ListingColumns.NULL_ENUM) {
+            propertyTypes[propertyType]++;
+        }
+
+        int priceBucket = bucket(PRICE_BOUNDS, price);
+        if (priceBucket >= 0) {
+            priceRanges[priceBucket]++;
+            priceHighest[priceBucket] = Math.max(priceHighest[priceBucket], price);
+        }
+        int areaBucket = bucket(AREA_BOUNDS, area);
+        if (areaBucket >= 0) {
+            areaRanges[areaBucket]++;
+            areaHighest[areaBucket] = Math.max(areaHighest[areaBucket], area);
+        }
+
+        if (roomCount >= 0 && roomCount < DENSE_ROOMS) {
+            rooms[roomCount]++;
+        } else if (roomCount != ListingColumns.NULL_INT) {
+            sparseRooms.merge(roomCount, 1L, Long::sum);
+        }
+    }
+
+    public void add(ActionType actionType, PropertyType propertyType, Double price, Integer roomCount, Double area) {
+        add(actionType != null ? (byte) actionType.ordinal() : ListingColumns.NULL_ENUM,
+                propertyType != null ? (byte) propertyType.ordinal() : ListingColumns.NULL_ENUM,
+                price != null ? price : Double.NaN,
+                roomCount != null ? roomCount : ListingColumns.NULL_INT,
+                area != null ? area : Double.NaN);
+    }
+
+    public ListingFacetsDTO toDTO() {
+        Map<ActionType, Long> actionCounts = new EnumMap<>(ActionType.class);
+        for (int i = 0; i < ACTION_TYPES.length; i++) {
+            actionCounts.put(ACTION_TYPES[i], actionTypes[i]);
+        }
+
+        Map<PropertyType, Long> propertyCounts = new EnumMap<>(PropertyType.class);
+        for (int i = 0; i < PROPERTY_TYPES.length; i++) {
+            propertyCounts.put(PROPERTY_TYPES[i], propertyTypes[i]);
+        }
+
+        // Only room counts that occur, in ascending order
+        Map<Integer, Long> roomCounts = new TreeMap<>(sparseRooms);
+        for (int i = 0; i < DENSE_ROOMS; i++) {
+            if (rooms[i] > 0) {
+                roomCounts.put(i, rooms[i]);
+            }
+        }
+
+        return ListingFacetsDTO.builder()
+                .total(total)
+                .actionTypes(actionCounts)
+                .propertyTypes(propertyCounts)
+                .priceRanges(buckets(PRICE_BOUNDS, priceRanges, priceHighest, " €"))
+                .roomCounts(roomCounts)
+                .areaRanges(buckets(AREA_BOUNDS, areaRanges, areaHighest, " m²"))
+                .build();
+    }
+
+    // Index of the bucket holding the value, -1 for NULL (NaN) or values below the first bound
+    static int bucket(double[] bounds, double value) {
+        if (!(value >= bounds[0])) {
+            return -1;
+        }
+        int i = bounds.length - 1;
+        while (value < bounds[i]) {
+            i--;
+        }
+        return i;
+    }
+
+    private static List<FacetBucketDTO> buckets(double[] bounds, long[] counts, double[] highest, String unit) {
+        List<FacetBucketDTO> buckets = new ArrayList<>(bounds.length);
+        for (int i = 0; i < bounds.length; i++) {
+            boolean last = i == bounds.length - 1;
+            String label = last
+                    ? format(bounds[i]) + "+" + unit
+                    : format(bounds[i]) + " – " + format(bounds[i + 1]) + unit;
+            buckets.add(FacetBucketDTO.builder()
+                    .label(label)
+                    .min(bounds[i])
+                    .max(last ? null : bounds[i + 1])
+                    .highest(last || counts[i] == 0 ? null : highest[i])
+                    .count(counts[i])
+                    .build());
+        }
+        return buckets;
+    }
+
+    private static String format(double bound) {
+        return bound >= 1000 && bound % 1000 == 0 ? (long) (bound / 1000) + "k" : String.valueOf((long) bound);
+    }
+}
@@ -0,0 +1,128 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.PropertyType;
+
+import java.util.Collection;
+
+/**
+ * Turns a listing into the feature vector that similar listings are found
+ * by. Price and area enter as the logarithm, so a flat twice the price is as
+ * far off whether it costs 50k or 500k, and all three of price, area and room
+ * count are standardised against the listings they were fitted on. Property
+ * and deal type are one-hot. The location is the listing's point on the unit
+ * sphere scaled so that {@link #LOCATION_KM} apart weighs as much as one
+ * standard deviation of price; a listing without coordinates sits at the
+ * centre, near other such listings only. A missing number counts as average.
+ */
+final class ListingFeatures {
+
+    static final double LOCATION_KM = 25.0;
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    // Buying and renting are separate markets, further apart than listings a few hundred km away
+    private static final float ACTION_WEIGHT = 10.0f;
+    private static final float TYPE_WEIGHT = 1.5f;
+    private static final float ROOMS_WEIGHT = 0.5f;
+
+    private static final int PROPERTY_TYPES = PropertyType.values().length;
+    private static final int ACTION_TYPES = ActionType.values().length;
+    static final int DIMENSIONS = 3 + PROPERTY_TYPES + ACTION_TYPES + 3;
+
+    private final Scale price;
+    private final Scale area;
+    private final Scale rooms;
+
+    private ListingFeatures(Scale price, Scale area, Scale rooms) {
+        this.price = price;
+        this.area = area;
+        this.rooms = rooms;
+    }
+
+    // Standardises against the given listings; with none, against typical values
+    static ListingFeatures fit(Collection<PropertyResponseDTO> listings) {
+        Scale.Builder price = new Scale.Builder();
+        Scale.Builder area = new Scale.Builder();
+        Scale.Builder rooms = new Scale.Builder();
+        for (PropertyResponseDTO listing : listings) {
+            price.add(log(listing.getPrice()));
+            area.add(log(listing.getArea()));
+            rooms.add(listing.getRoomCount() != null ? listing.getRoomCount() : Double.NaN);
+        }
+        return new ListingFeatures(
+                price.build(Math.log1p(150_000), 1.0),
+                area.build(Math.log1p(70), 0.6),
+                rooms.build(3, 1.5));
+    }
+
+    float[] vector(PropertyResponseDTO listing) {
+        float[] vector = new float[DIMENSIONS];
+        vector[0] = price.standardise(log(listing.getPrice()));
+        vector[1] = area.standardise(log(listing.getArea()));
+        vector[2] = ROOMS_WEIGHT * rooms.standardise(listing.getRoomCount() != null ? listing.getRoomCount() : Double.NaN);
+
+        int at = 3;
+        if (listing.getPropertyType() != null) {
+            vector[at + listing.getPropertyType().ordinal()] = TYPE_WEIGHT;
+        }
+        at += PROPERTY_TYPES;
+        if (listing.getActionType() != null) {
+            vector[at + listing.getActionType().ordinal()] = ACTION_WEIGHT;
+        }
+        at += ACTION_TYPES;
+
+        if (listing.getLatitude() != null && listing.getLongitude() != null) {
+            double lat = Math.toRadians(listing.getLatitude());
+            double lon = Math.toRadians(listing.getLongitude());
+            double scale = EARTH_RADIUS_KM / LOCATION_KM;
+            vector[at] = (float) (scale * Math.cos(lat) * Math.cos(lon));
+            vector[at + 1] = (float) (scale * Math.cos(lat) * Math.sin(lon));
+            vector[at + 2] = (float) (scale * Math.sin(lat));
+        }
+        return vector;
+    }
+
+    private static double log(Double value) {
+        return value != null && value >= 0 ? Math.log1p(value) : Double.NaN;
+    }
+
+    // Mean and standard deviation of one feature
+    private static final class Scale {
+        private final double mean;
+        private final double deviation;
+
+        private Scale(double mean, double deviation) {
+            this.mean = mean;
+            this.deviation = deviation;
+        }
+
+        float standardise(double value) {
+            return Double.isNaN(value) ? 0f : (float) ((value - mean) / deviation);
+        }
+
+        private static final class Builder {
+            private long count;
+            private double sum;
+            private double sumOfSquares;
+
+            void add(double value) {
+                if (!Double.isNaN(value)) {
+                    count++;
+                    sum += value;
+                    sumOfSquares += value * value;
+                }
+            }
+
+            // Too few values, or all alike, fall back to the defaults
+            Scale build(double defaultMean, double defaultDeviation) {
+                if (count < 2) {
+                    return new Scale(defaultMean, defaultDeviation);
+                }
+                double mean = sum / count;
+                double deviation = Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+                return new Scale(mean, deviation > 1e-6 ? deviation : defaultDeviation);
+            }
+        }
+    }
+}
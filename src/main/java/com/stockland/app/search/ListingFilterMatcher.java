@@ -0,0 +1,206 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.geo.GeoCircle;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import com.stockland.app.model.PropertyType;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Listings filters evaluated outside a search: their canonical form, and
+ * whether a single listing satisfies them. Shared by the result cache, which
+ * drops the entries a write can affect, and the saved-search percolator,
+ * which finds the searches a newly approved listing matches.
+ */
+public class ListingFilterMatcher {
+
+    private final TextAnalyzer analyzer;
+
+    public ListingFilterMatcher(TextAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    /**
+     * The filters as they are cached and searched: text trimmed and lower-cased,
+     * blank text treated as absent, and the free text reduced to its distinct
+     * analyzed terms, so "Sea view" and "view the sea" share one entry. An
+     * incomplete radius filter, which no search applies, is dropped.
+     */
+    public PropertyFilterRequestDTO canonical(PropertyFilterRequestDTO filters) {
+        List<String> terms = analyzer.terms(filters.getQ());
+        boolean radius = GeoCircle.of(filters) != null;
+        return PropertyFilterRequestDTO.builder()
+                .q(terms.isEmpty() ? null : String.join(" ", new TreeSet<>(terms)))
+                .location(normalise(filters.getLocation()))
+                .status(normalise(filters.getStatus()))
+                .minPrice(filters.getMinPrice())
+                .maxPrice(filters.getMaxPrice())
+                .minArea(filters.getMinArea())
+                .maxArea(filters.getMaxArea())
+                .minRooms(filters.getMinRooms())
+                .maxRooms(filters.getMaxRooms())
+                .actionType(filters.getActionType())
+                .propertyType(filters.getPropertyType())
+                .latitude(radius ? filters.getLatitude() : null)
+                .longitude(radius ? filters.getLongitude() : null)
+                .radiusKm(radius ? filters.getRadiusKm() : null)
+                .build();
+    }
+
+    /**
+     * Whether an approved listing satisfies canonical filters. Errs towards
+     * true: the free text counts as found when it is a term of the listing or
+     * a substring of its title or description, which covers both the full-text
+     * index and the database fallback.
+     */
+    public boolean matches(PropertyFilterRequestDTO f, PropertyResponseDTO p) {
+        return compile(f).matches(prepare(p));
+    }
+
+    public boolean matches(PropertyFilterRequestDTO f, Prepared listing) {
+        return compile(f).matches(listing);
+    }
+
+    // Canonical filters in the flat form they are checked in, for filters held on to and checked often
+    public Compiled compile(PropertyFilterRequestDTO canonical) {
+        return new Compiled(canonical);
+    }
+
+    // The listing lower-cased and analyzed once, for checking it against many filters
+    public Prepared prepare(PropertyResponseDTO p) {
+        return new Prepared(p, analyzer);
+    }
+
+    private static double low(Number value) {
+        return value != null ? value.doubleValue() : Double.NEGATIVE_INFINITY;
+    }
+
+    private static double high(Number value) {
+        return value != null ? value.doubleValue() : Double.POSITIVE_INFINITY;
+    }
+
+    private static double value(Number value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    // An open range takes anything, a missing value (NaN) is outside every other one
+    private static boolean within(double value, double low, double high) {
+        if (low == Double.NEGATIVE_INFINITY && high == Double.POSITIVE_INFINITY) {
+            return true;
+        }
+        return value >= low && value <= high;
+    }
+
+    private static boolean contains(String lowerValue, String part) {
+        return lowerValue != null && lowerValue.contains(part);
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String normalise(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Canonical filters with the ranges unboxed into doubles, open ends being
+     * infinities, the free text split into its terms and the radius resolved
+     * to its circle.
+     */
+    public static final class Compiled {
+        private final double minPrice;
+        private final double maxPrice;
+        private final double minArea;
+        private final double maxArea;
+        private final double minRooms;
+        private final double maxRooms;
+        private final ActionType actionType;
+        private final PropertyType propertyType;
+        private final String location;
+        private final String status;
+        private final GeoCircle circle;
+        private final String[] terms;
+
+        private Compiled(PropertyFilterRequestDTO f) {
+            minPrice = low(f.getMinPrice());
+            maxPrice = high(f.getMaxPrice());
+            minArea = low(f.getMinArea());
+            maxArea = high(f.getMaxArea());
+            minRooms = low(f.getMinRooms());
+            maxRooms = high(f.getMaxRooms());
+            actionType = f.getActionType();
+            propertyType = f.getPropertyType();
+            location = f.getLocation();
+            status = f.getStatus();
+            circle = GeoCircle.of(f);
+            terms = f.getQ() != null ? f.getQ().split(" ") : new String[0];
+        }
+
+        public boolean matches(Prepared p) {
+            if (!p.approved) return false;
+            if (!within(p.price, minPrice, maxPrice)) return false;
+            if (!within(p.area, minArea, maxArea)) return false;
+            if (!within(p.rooms, minRooms, maxRooms)) return false;
+            if (actionType != null && p.actionType != actionType) return false;
+            if (propertyType != null && p.propertyType != propertyType) return false;
+            if (location != null && !contains(p.location, location)) return false;
+            if (status != null && !contains(p.status, status)) return false;
+            if (circle != null && !circle.contains(p.latitude, p.longitude)) return false;
+            for (String term : terms) {
+                boolean found = p.terms.contains(term) || contains(p.title, term) || contains(p.description, term);
+                if (!found) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A listing as the filters see it. Canonical filters carry lower-case
+     * text, so the listing's text is lower-cased here once rather than
+     * compared ignoring case for every filter.
+     */
+    public static final class Prepared {
+        private final boolean approved;
+        private final double price;
+        private final double area;
+        private final double rooms;
+        private final double latitude;
+        private final double longitude;
+        private final ActionType actionType;
+        private final PropertyType propertyType;
+        private final String location;
+        private final String status;
+        private final String title;
+        private final String description;
+        private final Set<String> terms = new HashSet<>();
+
+        private Prepared(PropertyResponseDTO listing, TextAnalyzer analyzer) {
+            PropertyResponseDTO p = listing != null ? listing : new PropertyResponseDTO();
+            approved = listing != null && p.getModerationStatus() == ModerationStatus.APPROVED;
+            price = value(p.getPrice());
+            area = value(p.getArea());
+            rooms = value(p.getRoomCount());
+            latitude = value(p.getLatitude());
+            longitude = value(p.getLongitude());
+            actionType = p.getActionType();
+            propertyType = p.getPropertyType();
+            location = lower(p.getLocation());
+            status = lower(p.getStatus());
+            title = lower(p.getTitle());
+            description = lower(p.getDescription());
+            terms.addAll(analyzer.terms(p.getTitle()));
+            terms.addAll(analyzer.terms(p.getDescription()));
+        }
+    }
+}
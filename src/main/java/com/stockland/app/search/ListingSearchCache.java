@@ -0,0 +1,204 @@
+package com.stockland.app.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.stockland.app.dto.ListingFacetsDTO;
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.dto.SearchCacheStatsDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of listings search results, keyed by the canonical form of
+ * the filters plus the page, sort and cursor. Eviction is Caffeine's
+ * W-TinyLFU, so a burst of one-off searches cannot push out the popular
+ * ones, and the cap is an estimate of the bytes held rather than a count.
+ * A listing write only drops the entries whose filters matched the listing
+ * before or after the change; everything else stays cached.
+ */
+@Component
+public class ListingSearchCache {
+
+    // Rough JVM sizes used by the weigher, they only have to be proportionate
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final int LISTING_OVERHEAD = 192;
+    private static final int FACETS_SIZE = 2048;
+
+    private enum Kind { PAGE, SLICE, FACETS }
+
+    private final ListingFilterMatcher matcher;
+    private final long maxBytes;
+    private final Cache<Key, Object> cache;
+
+    // Bumped by every write; a result loaded while it moved may predate the write and is not cached
+    private final AtomicLong writes = new AtomicLong();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ListingSearchCache(@Value("${listing.search.cache.max-bytes:33554432}") long maxBytes, TextAnalyzer analyzer) {
+        this.matcher = new ListingFilterMatcher(analyzer);
+        this.maxBytes = Math.max(0, maxBytes);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(this.maxBytes)
+                .weigher((Key key, Object value) -> weigh(key, value))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    // The filters as they are cached and searched, see ListingFilterMatcher#canonical
+    public PropertyFilterRequestDTO canonical(PropertyFilterRequestDTO filters) {
+        return matcher.canonical(filters);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Page<PropertyResponseDTO> page(PropertyFilterRequestDTO canonical, Pageable pageable,
+                                          Supplier<Page<PropertyResponseDTO>> search) {
+        return (Page<PropertyResponseDTO>) get(new Key(Kind.PAGE, canonical, pageable, null), search);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Slice<PropertyResponseDTO> slice(PropertyFilterRequestDTO canonical, Pageable pageable, String after,
+                                            Supplier<Slice<PropertyResponseDTO>> search) {
+        return (Slice<PropertyResponseDTO>) get(new Key(Kind.SLICE, canonical, pageable, after), search);
+    }
+
+    public ListingFacetsDTO facets(PropertyFilterRequestDTO canonical, Supplier<ListingFacetsDTO> count) {
+        return (ListingFacetsDTO) get(new Key(Kind.FACETS, canonical, null, null), count);
+    }
+
+    private Object get(Key key, Supplier<?> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long before = writes.get();
+        Object loaded = loader.get();
+        if (writes.get() == before) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    // Runs after the search engine has applied the same event, so a reload sees the new state
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        writes.incrementAndGet();
+
+        PropertyResponseDTO before = event.getPrevious();
+        PropertyResponseDTO after = event.getProperty();
+        if (before == null && event.getChange() != PropertyChangedEvent.Change.CREATED) {
+            invalidateAll();
+            return;
+        }
+
+        ListingFilterMatcher.Prepared was = matcher.prepare(before);
+        ListingFilterMatcher.Prepared is = matcher.prepare(after);
+        cache.asMap().keySet().removeIf(key -> {
+            boolean stale = matcher.matches(key.filters, was) || matcher.matches(key.filters, is);
+            if (stale) {
+                invalidations.increment();
+            }
+            return stale;
+        });
+    }
+
+    // Drops the pages sorted by a value that changes without a listing write, such as favoriteCount
+    public void invalidateSortedBy(String property) {
+        writes.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> {
+            boolean stale = key.pageable != null && key.pageable.getSort().getOrderFor(property) != null;
+            if (stale) {
+                invalidations.increment();
+            }
+            return stale;
+        });
+    }
+
+    public void invalidateAll() {
+        writes.incrementAndGet();
+        invalidations.add(cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    public SearchCacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        long bytes = cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+        return SearchCacheStatsDTO.builder()
+                .enabled(isEnabled())
+                .entries(cache.estimatedSize())
+                .estimatedBytes(bytes)
+                .maxBytes(maxBytes)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .evictedBytes(stats.evictionWeight())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    private static int weigh(Key key, Object value) {
+        long bytes = ENTRY_OVERHEAD;
+        if (value instanceof Slice<?> slice) {
+            for (Object row : slice.getContent()) {
+                bytes += weigh((PropertyResponseDTO) row);
+            }
+        } else {
+            bytes += FACETS_SIZE;
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long weigh(PropertyResponseDTO p) {
+        long bytes = LISTING_OVERHEAD + chars(p.getTitle()) + chars(p.getLocation()) + chars(p.getDescription())
+                + chars(p.getStatus()) + chars(p.getUsername());
+        if (p.getImages() != null) {
+            for (String image : p.getImages()) {
+                bytes += 16 + chars(image);
+            }
+        }
+        return bytes;
+    }
+
+    private static long chars(String value) {
+        return value != null ? 40 + 2L * value.length() : 0;
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        final Kind kind;
+        final PropertyFilterRequestDTO filters;
+        final Pageable pageable;
+        final String after;
+
+        Key(Kind kind, PropertyFilterRequestDTO filters, Pageable pageable, String after) {
+            this.kind = kind;
+            this.filters = filters;
+            this.pageable = pageable;
+            this.after = after;
+        }
+    }
+}
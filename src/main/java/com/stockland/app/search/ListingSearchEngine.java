@@ -0,0 +1,622 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.ListingFacetsDTO;
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.geo.GeoCircle;
+import com.stockland.app.model.ModerationStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Answers listing searches from memory instead of PostgreSQL.
+ * Only APPROVED listings are held, so the moderation predicate is implicit.
+ * Filter columns live in primitive arrays (see {@link ListingColumns}) and
+ * the ready-made response DTO is kept per slot, so a search costs no query.
+ * Location and status substrings are narrowed through trigram postings first
+ * and only the candidates are checked against the full predicate. Selective
+ * price, area and room ranges are narrowed the same way through the sorted
+ * range indexes, and pages sorted by one of those columns are read straight
+ * off its index instead of sorting the matches. A free-text query is answered
+ * by the full-text index over title and description, which narrows the
+ * candidates like the others and supplies the BM25 scores for relevance sorting.
+ * A radius filter reads only the grid cells around its circle.
+ */
+@Component
+public class ListingSearchEngine {
+
+    private static final Set<String> SORTABLE = Set.of("id", "price", "area", "roomCount", "createdAt", "relevance");
+
+    // A range narrows the candidates only when it keeps at most 1/8 of the listings, otherwise a scan is cheaper
+    private static final int RANGE_SELECTIVITY = 8;
+    private static final String[] RANGE_PROPERTIES = {"price", "area", "roomCount"};
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TextAnalyzer analyzer;
+    private ListingColumns columns;
+    private final RebuildJournal<PropertyResponseDTO> journal = new RebuildJournal<>();
+    private volatile boolean ready;
+
+    // Folds the range index deltas into their sorted runs off the request threads
+    private final ExecutorService merger = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "listing-range-merge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean mergeScheduled = new AtomicBoolean();
+
+    public ListingSearchEngine() {
+        this(TextAnalyzer.standard());
+    }
+
+    @Autowired
+    public ListingSearchEngine(TextAnalyzer analyzer) {
+        this.analyzer = analyzer;
+        this.columns = new ListingColumns(1024, analyzer);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Only properties with a column here can be sorted in memory, others go to the database
+    public boolean supports(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Call before reading the snapshot for rebuild, so changes made until the swap are replayed onto it
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            journal.begin();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<PropertyResponseDTO> approvedListings) {
+        ListingColumns rebuilt = new ListingColumns(approvedListings.size(), analyzer);
+        rebuilt.bulkLoad(approvedListings);
+
+        lock.writeLock().lock();
+        try {
+            columns = rebuilt;
+            journal.replay((id, listing) -> index(listing), this::remove);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(PropertyResponseDTO dto) {
+        if (dto.getModerationStatus() != ModerationStatus.APPROVED) {
+            remove(dto.getId());
+            return;
+        }
+
+        boolean mergeDue;
+        lock.writeLock().lock();
+        try {
+            columns.upsert(dto);
+            journal.indexed(dto.getId(), dto);
+            mergeDue = columns.rangeIndexesNeedMerge();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (mergeDue) {
+            scheduleMerge();
+        }
+    }
+
+    public void remove(long listingId) {
+        boolean mergeDue;
+        lock.writeLock().lock();
+        try {
+            columns.remove(listingId);
+            journal.removed(listingId);
+            mergeDue = columns.rangeIndexesNeedMerge();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (mergeDue) {
+            scheduleMerge();
+        }
+    }
+
+    private void scheduleMerge() {
+        if (mergeScheduled.compareAndSet(false, true)) {
+            merger.execute(() -> {
+                try {
+                    mergeRangeIndexes();
+                } finally {
+                    mergeScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Merges the range index deltas into new sorted runs. The runs are built
+     * under the read lock, so searches carry on meanwhile; only swapping them in
+     * takes the write lock. Writes made during the merge stay in the deltas.
+     */
+    void mergeRangeIndexes() {
+        ListingColumns c;
+        RangeIndex[] indexes;
+        RangeIndex.Run[] runs;
+        int[] deltaCounts;
+        int[] changeCounts;
+
+        lock.readLock().lock();
+        try {
+            c = columns;
+            indexes = new RangeIndex[] {c.priceIndex, c.areaIndex, c.roomIndex};
+            runs = new RangeIndex.Run[indexes.length];
+            deltaCounts = new int[indexes.length];
+            changeCounts = new int[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                deltaCounts[i] = indexes[i].deltaSize();
+                changeCounts[i] = indexes[i].pendingChanges();
+                runs[i] = indexes[i].merge(deltaCounts[i]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            // A rebuild in the meantime replaced the columns and their indexes
+            if (columns == c) {
+                for (int i = 0; i < indexes.length; i++) {
+                    indexes[i].publish(runs[i], deltaCounts[i], changeCounts[i]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        merger.shutdownNow();
+    }
+
+    // Ahead of the result cache, which reloads from here once it has dropped its stale entries
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getProperty() == null) {
+            remove(event.getPropertyId());
+        } else {
+            index(event.getProperty());
+        }
+    }
+
+    public Page<PropertyResponseDTO> search(PropertyFilterRequestDTO filters, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            ListingColumns c = columns;
+            Query query = new Query(filters, c);
+            Page<PropertyResponseDTO> walked = searchByIndexWalk(c, query, pageable);
+            if (walked != null) {
+                return walked;
+            }
+
+            int[] matches = matchingSlots(c, query, null);
+            int total = matches.length;
+
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            int limit = pageable.isPaged() ? (int) Math.min(offset + pageable.getPageSize(), total) : total;
+
+            int[] ordered = SlotOrder.firstN(matches, total, limit, order(c, pageable.getSort(), query.text));
+
+            List<PropertyResponseDTO> content = new ArrayList<>();
+            for (int i = (int) Math.min(offset, ordered.length); i < ordered.length; i++) {
+                content.add(c.rows[ordered[i]]);
+            }
+
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant of {@link #search}: the slice of up to {@code size} listings
+     * that follow the cursor in the given order, or the first slice without one.
+     * Listings approved in the meantime never shift what comes after the cursor.
+     */
+    public Slice<PropertyResponseDTO> searchAfter(PropertyFilterRequestDTO filters, Sort.Order order,
+                                                  ListingCursor cursor, int size) {
+        lock.readLock().lock();
+        try {
+            ListingColumns c = columns;
+            Query query = new Query(filters, c);
+            int[] ordered;
+            if (c.rangeIndex(order.getProperty()) != null) {
+                ordered = walk(c, query, order.getProperty(), order.isDescending(), cursor, 0, size + 1);
+            } else {
+                int[] matches = matchingSlots(c, query, cursor);
+                ordered = SlotOrder.firstN(matches, matches.length, size + 1, order(c, Sort.by(order), query.text));
+            }
+
+            List<PropertyResponseDTO> content = new ArrayList<>();
+            for (int i = 0; i < Math.min(size, ordered.length); i++) {
+                content.add(c.rows[ordered[i]]);
+            }
+
+            return new SliceImpl<>(content, PageRequest.of(0, size, Sort.by(order)), ordered.length > size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts for every listing matching the filters, gathered in one pass
+     * over the candidates without sorting or materialising the matches.
+     */
+    public ListingFacetsDTO facets(PropertyFilterRequestDTO filters) {
+        ListingFacetCounter counter = new ListingFacetCounter();
+
+        lock.readLock().lock();
+        try {
+            ListingColumns c = columns;
+            Query query = new Query(filters, c);
+            forEachMatch(c, query, null, slot ->
+                    counter.add(c.actionType[slot], c.propertyType[slot], c.price[slot], c.roomCount[slot], c.area[slot]));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counter.toDTO();
+    }
+
+    /**
+     * A page sorted by price, area or room count, read in order off the range
+     * index so that only the listings up to the end of the page are visited.
+     * Returns null when the sort or the expected walk length do not suit it.
+     */
+    private static Page<PropertyResponseDTO> searchByIndexWalk(ListingColumns c, Query query, Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().stream().count() != 1) {
+            return null;
+        }
+        Sort.Order order = pageable.getSort().iterator().next();
+        RangeIndex index = c.rangeIndex(order.getProperty());
+        if (index == null) {
+            return null;
+        }
+
+        int total = query.unfiltered ? c.size() : countMatches(c, query);
+        if (total == 0 || pageable.getOffset() >= total) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+
+        // Matches are spread over the walked stretch, so reaching the end of the page visits about this many entries
+        String property = order.getProperty();
+        long stretch = query.hasRange(property) ? index.estimate(query.min(property), query.max(property)) : c.size();
+        long expectedVisits = (pageable.getOffset() + pageable.getPageSize()) * stretch / total;
+        if (expectedVisits > total) {
+            return null;
+        }
+
+        int[] slots = walk(c, query, property, order.isDescending(), null, pageable.getOffset(), pageable.getPageSize());
+        List<PropertyResponseDTO> content = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            content.add(c.rows[slot]);
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Up to {@code limit} matching slots in the order of the property's range
+     * index, after skipping {@code skip} matches or starting past the cursor.
+     * A range filter on the same property bounds the walk at both ends.
+     */
+    private static int[] walk(ListingColumns c, Query query, String property, boolean descending,
+                              ListingCursor cursor, long skip, int limit) {
+        RangeIndex index = c.rangeIndex(property);
+        boolean bounded = query.hasRange(property);
+        double min = query.min(property);
+        double max = query.max(property);
+
+        boolean hasStart = cursor != null || bounded;
+        double startKey;
+        long startId;
+        if (cursor != null) {
+            startKey = cursor.getKey() != null ? (Double) cursor.getKey() : Double.NaN;
+            startId = cursor.getId();
+        } else {
+            startKey = descending ? max : min;
+            startId = descending ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+
+        int[] result = new int[limit];
+        int[] count = new int[1];
+        long[] skipped = new long[1];
+        index.walk(descending, hasStart, startKey, startId, slot -> {
+            // Ascending, NULLs come after the range and end it; descending they come first and just fail the filter
+            if (bounded) {
+                double value = index.keyOf(slot);
+                if (descending ? value < min : !(value <= max)) {
+                    return false;
+                }
+            }
+            if (!query.matches(c, slot)) {
+                return true;
+            }
+            if (skipped[0] < skip) {
+                skipped[0]++;
+                return true;
+            }
+            result[count[0]++] = slot;
+            return count[0] < limit;
+        });
+        return count[0] == limit ? result : Arrays.copyOf(result, count[0]);
+    }
+
+    private static int countMatches(ListingColumns c, Query query) {
+        int[] count = new int[1];
+        forEachMatch(c, query, null, slot -> count[0]++);
+        return count[0];
+    }
+
+    private static int[] matchingSlots(ListingColumns c, Query query, ListingCursor cursor) {
+        int[] matches = new int[c.size()];
+        int[] count = new int[1];
+        forEachMatch(c, query, cursor, slot -> matches[count[0]++] = slot);
+        return count[0] == matches.length ? matches : Arrays.copyOf(matches, count[0]);
+    }
+
+    // Visits the matching slots in slot order, through the trigram candidates when there are any
+    private static void forEachMatch(ListingColumns c, Query query, ListingCursor cursor, IntConsumer action) {
+        int[] candidates = candidates(c, query);
+        if (candidates != null) {
+            for (int slot : candidates) {
+                if (query.matches(c, slot) && (cursor == null || isAfter(c, slot, cursor))) {
+                    action.accept(slot);
+                }
+            }
+        } else {
+            for (int slot = c.live.nextSetBit(0); slot >= 0; slot = c.live.nextSetBit(slot + 1)) {
+                if (query.matches(c, slot) && (cursor == null || isAfter(c, slot, cursor))) {
+                    action.accept(slot);
+                }
+            }
+        }
+    }
+
+    // True when the slot comes strictly after the cursor position, using the same rules as order()
+    private static boolean isAfter(ListingColumns c, int slot, ListingCursor cursor) {
+        Object key = cursor.getKey();
+        int result = switch (cursor.getOrder().getProperty()) {
+            case "price"     -> Double.compare(c.price[slot], key != null ? (Double) key : Double.NaN);
+            case "area"      -> Double.compare(c.area[slot], key != null ? (Double) key : Double.NaN);
+            case "createdAt" -> Long.compare(c.createdAt[slot], ListingColumns.toMicros((LocalDateTime) key));
+            default          -> 0;
+        };
+        if (result == 0) {
+            result = Long.compare(c.id[slot], cursor.getId());
+        }
+        return cursor.getOrder().isDescending() ? result < 0 : result > 0;
+    }
+
+    // Slots that can match the text, substring, radius and range filters, or null when they have to be scanned
+    private static int[] candidates(ListingColumns c, Query query) {
+        int[] byText = query.text != null ? query.text.slots : null;
+        int[] byLocation = c.locationTrigrams.candidates(query.location);
+        int[] byStatus = c.statusTrigrams.candidates(query.status);
+        int[] byArea = query.circle != null ? c.geoGrid.candidates(query.circle) : null;
+        int[] byRange = rangeCandidates(c, query);
+        return intersect(intersect(intersect(byText, byArea), intersect(byLocation, byStatus)), byRange);
+    }
+
+    // Slots in the most selective range filter, or null when no range is selective enough to beat a scan
+    private static int[] rangeCandidates(ListingColumns c, Query query) {
+        String best = null;
+        int bestEstimate = c.size() / RANGE_SELECTIVITY;
+        for (String property : RANGE_PROPERTIES) {
+            if (query.hasRange(property)) {
+                int estimate = c.rangeIndex(property).estimate(query.min(property), query.max(property));
+                if (estimate <= bestEstimate) {
+                    best = property;
+                    bestEstimate = estimate;
+                }
+            }
+        }
+        return best != null ? c.rangeIndex(best).slotsInRange(query.min(best), query.max(best)) : null;
+    }
+
+    // Common slots of two sorted candidate sets, where null stands for "every slot"
+    private static int[] intersect(int[] a, int[] b) {
+        if (a == null || b == null) {
+            return a != null ? a : b;
+        }
+
+        int[] common = new int[Math.min(a.length, b.length)];
+        int length = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                common[length++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(common, length);
+    }
+
+    static SlotOrder order(ListingColumns c, Sort sort) {
+        return order(c, sort, null);
+    }
+
+    // Builds the slot comparator for a Sort; null values sort as the largest, ties break on id.
+    // Relevance compares the BM25 scores of the text match, without a text query every listing ties.
+    static SlotOrder order(ListingColumns c, Sort sort, TextIndex.Match text) {
+        SlotOrder order = (a, b) -> 0;
+        Sort.Direction tieBreak = Sort.Direction.ASC;
+
+        for (Sort.Order o : sort) {
+            SlotOrder next = switch (o.getProperty()) {
+                case "price"     -> (a, b) -> Double.compare(c.price[a], c.price[b]);
+                case "area"      -> (a, b) -> Double.compare(c.area[a], c.area[b]);
+                case "roomCount" -> (a, b) -> compareRooms(c.roomCount[a], c.roomCount[b]);
+                case "createdAt" -> (a, b) -> Long.compare(c.createdAt[a], c.createdAt[b]);
+                case "relevance" -> text != null ? (a, b) -> Double.compare(text.score(a), text.score(b)) : (a, b) -> 0;
+                default          -> (a, b) -> Long.compare(c.id[a], c.id[b]);
+            };
+            order = then(order, o.isDescending() ? reversed(next) : next);
+            tieBreak = o.getDirection();
+        }
+
+        SlotOrder byId = (a, b) -> Long.compare(c.id[a], c.id[b]);
+        return then(order, tieBreak.isDescending() ? reversed(byId) : byId);
+    }
+
+    private static int compareRooms(int a, int b) {
+        if (a == b) return 0;
+        if (a == ListingColumns.NULL_INT) return 1;
+        if (b == ListingColumns.NULL_INT) return -1;
+        return Integer.compare(a, b);
+    }
+
+    private static SlotOrder then(SlotOrder first, SlotOrder second) {
+        return (a, b) -> {
+            int result = first.compare(a, b);
+            return result != 0 ? result : second.compare(a, b);
+        };
+    }
+
+    private static SlotOrder reversed(SlotOrder order) {
+        return (a, b) -> order.compare(b, a);
+    }
+
+    /**
+     * A filter request compiled to primitives. Missing bounds become infinities,
+     * and NaN (a NULL column) fails every comparison just like SQL NULL does.
+     * The free text is resolved against the columns' text index up front, so
+     * it has to be built under the lock.
+     */
+    private static final class Query {
+        final boolean priceFilter;
+        final double minPrice;
+        final double maxPrice;
+        final boolean areaFilter;
+        final double minArea;
+        final double maxArea;
+        final boolean roomsFilter;
+        final int minRooms;
+        final int maxRooms;
+        final byte actionType;
+        final byte propertyType;
+        final String location;
+        final String status;
+        final TextIndex.Match text;
+        final GeoCircle circle;
+        final boolean unfiltered;
+
+        Query(PropertyFilterRequestDTO filters, ListingColumns c) {
+            priceFilter = filters.getMinPrice() != null || filters.getMaxPrice() != null;
+            minPrice = filters.getMinPrice() != null ? filters.getMinPrice() : Double.NEGATIVE_INFINITY;
+            maxPrice = filters.getMaxPrice() != null ? filters.getMaxPrice() : Double.POSITIVE_INFINITY;
+            areaFilter = filters.getMinArea() != null || filters.getMaxArea() != null;
+            minArea = filters.getMinArea() != null ? filters.getMinArea() : Double.NEGATIVE_INFINITY;
+            maxArea = filters.getMaxArea() != null ? filters.getMaxArea() : Double.POSITIVE_INFINITY;
+            roomsFilter = filters.getMinRooms() != null || filters.getMaxRooms() != null;
+            minRooms = filters.getMinRooms() != null ? filters.getMinRooms() : Integer.MIN_VALUE;
+            maxRooms = filters.getMaxRooms() != null ? filters.getMaxRooms() : Integer.MAX_VALUE;
+            actionType = filters.getActionType() != null ? (byte) filters.getActionType().ordinal() : ListingColumns.NULL_ENUM;
+            propertyType = filters.getPropertyType() != null ? (byte) filters.getPropertyType().ordinal() : ListingColumns.NULL_ENUM;
+            location = ListingColumns.lower(filters.getLocation());
+            status = ListingColumns.lower(filters.getStatus());
+            text = c.text.search(c.text.analyzer().terms(filters.getQ()));
+            circle = GeoCircle.of(filters);
+            unfiltered = !priceFilter && !areaFilter && !roomsFilter
+                    && actionType == ListingColumns.NULL_ENUM && propertyType == ListingColumns.NULL_ENUM
+                    && location == null && status == null && text == null && circle == null;
+        }
+
+        boolean hasRange(String property) {
+            return switch (property) {
+                case "price"     -> priceFilter;
+                case "area"      -> areaFilter;
+                case "roomCount" -> roomsFilter;
+                default          -> false;
+            };
+        }
+
+        // Bounds as the range index keys them; an open end is an infinity
+        double min(String property) {
+            return switch (property) {
+                case "price"     -> minPrice;
+                case "area"      -> minArea;
+                case "roomCount" -> minRooms == Integer.MIN_VALUE ? Double.NEGATIVE_INFINITY : minRooms;
+                default          -> Double.NEGATIVE_INFINITY;
+            };
+        }
+
+        double max(String property) {
+            return switch (property) {
+                case "price"     -> maxPrice;
+                case "area"      -> maxArea;
+                case "roomCount" -> maxRooms == Integer.MAX_VALUE ? Double.POSITIVE_INFINITY : maxRooms;
+                default          -> Double.POSITIVE_INFINITY;
+            };
+        }
+
+        boolean matches(ListingColumns c, int slot) {
+            if (priceFilter && !(c.price[slot] >= minPrice && c.price[slot] <= maxPrice)) return false;
+            if (areaFilter && !(c.area[slot] >= minArea && c.area[slot] <= maxArea)) return false;
+            if (roomsFilter) {
+                int rooms = c.roomCount[slot];
+                if (rooms == ListingColumns.NULL_INT || rooms < minRooms || rooms > maxRooms) return false;
+            }
+            if (actionType != ListingColumns.NULL_ENUM && c.actionType[slot] != actionType) return false;
+            if (propertyType != ListingColumns.NULL_ENUM && c.propertyType[slot] != propertyType) return false;
+            if (location != null && (c.location[slot] == null || !c.location[slot].contains(location))) return false;
+            if (status != null && (c.status[slot] == null || !c.status[slot].contains(status))) return false;
+            if (text != null && !text.contains(slot)) return false;
+            if (circle != null && !circle.contains(c.latitude[slot], c.longitude[slot])) return false;
+            return true;
+        }
+    }
+}
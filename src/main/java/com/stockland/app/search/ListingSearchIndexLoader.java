@@ -0,0 +1,32 @@
+package com.stockland.app.search;
+
+import com.stockland.app.service.PropertyService;
+import com.stockland.app.service.SavedSearchService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the {@link ListingSearchEngine} once the application has started.
+ * Until then searches keep going to the database. Listings stored before
+ * they had coordinates are placed first, so radius searches can find them.
+ * The saved searches are loaded into their percolator at the same time.
+ */
+@Component
+public class ListingSearchIndexLoader {
+
+    private final PropertyService propertyService;
+    private final SavedSearchService savedSearchService;
+
+    public ListingSearchIndexLoader(PropertyService propertyService, SavedSearchService savedSearchService) {
+        this.propertyService = propertyService;
+        this.savedSearchService = savedSearchService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        propertyService.backfillCoordinates();
+        propertyService.rebuildSearchIndex();
+        savedSearchService.rebuildIndex();
+    }
+}
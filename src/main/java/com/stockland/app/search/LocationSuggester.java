@@ -0,0 +1,162 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.LocationSuggestionDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.model.ModerationStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Location typeahead over the approved listings. Distinct locations live in
+ * a {@link LocationTrie} with their listing counts, so a prefix resolves to
+ * its most common completions without touching the database. Locations are
+ * matched case-insensitively with runs of whitespace collapsed; the
+ * suggestion shows the spelling of the first listing seen at the location.
+ * Kept in step with listing writes through {@link PropertyChangedEvent}.
+ */
+@Component
+public class LocationSuggester {
+
+    public static final int DEFAULT_LIMIT = 8;
+    public static final int MAX_LIMIT = 20;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private LocationTrie trie = new LocationTrie();
+    // Normalised location of every approved listing counted in the trie, to uncount it on the next change
+    private Map<Long, String> locations = new HashMap<>();
+    private final RebuildJournal<PropertyResponseDTO> journal = new RebuildJournal<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Distinct locations that can be suggested
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Location as it is stored in the trie: trimmed, lower-cased, whitespace
+     * collapsed to single spaces; null when nothing is left.
+     */
+    public static String normalise(String location) {
+        if (location == null) {
+            return null;
+        }
+        String normalised = WHITESPACE.matcher(location.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return normalised.isEmpty() ? null : normalised;
+    }
+
+    // Call before reading the snapshot for rebuild, so changes made until the swap are replayed onto it
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            journal.begin();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<PropertyResponseDTO> listings) {
+        LocationTrie rebuilt = new LocationTrie();
+        Map<Long, String> indexed = new HashMap<>();
+        for (PropertyResponseDTO dto : listings) {
+            String key = countable(dto);
+            if (key != null) {
+                rebuilt.add(key, dto.getLocation().strip());
+                indexed.put(dto.getId(), key);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            trie = rebuilt;
+            locations = indexed;
+            journal.replay((id, listing) -> index(listing), this::remove);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(PropertyResponseDTO dto) {
+        String key = countable(dto);
+        lock.writeLock().lock();
+        try {
+            uncount(dto.getId());
+            if (key != null) {
+                trie.add(key, dto.getLocation().strip());
+                locations.put(dto.getId(), key);
+            }
+            journal.indexed(dto.getId(), dto);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long listingId) {
+        lock.writeLock().lock();
+        try {
+            uncount(listingId);
+            journal.removed(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getProperty() == null) {
+            remove(event.getPropertyId());
+        } else {
+            index(event.getProperty());
+        }
+    }
+
+    // Most listed locations starting with the prefix; a blank prefix suggests nothing
+    public List<LocationSuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalise(prefix);
+        if (key == null) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return trie.complete(key, Math.min(limit, MAX_LIMIT));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void uncount(long listingId) {
+        String previous = locations.remove(listingId);
+        if (previous != null) {
+            trie.remove(previous);
+        }
+    }
+
+    // The normalised location of an approved listing, null for a listing that is not suggested
+    private static String countable(PropertyResponseDTO dto) {
+        if (dto.getModerationStatus() != ModerationStatus.APPROVED) {
+            return null;
+        }
+        return normalise(dto.getLocation());
+    }
+}
@@ -0,0 +1,288 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.LocationSuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Compressed prefix trie (radix tree) of normalised locations with the
+ * number of listings at each. Chains of single-child nodes are collapsed
+ * into one edge label, so a location costs one node plus at most one split.
+ * Every node also keeps the highest count in its subtree, which lets
+ * {@link #complete} pull the top completions best-first and stop after
+ * {@code limit} of them instead of visiting every location under the prefix.
+ * Not thread safe, {@link LocationSuggester} guards it with its own lock.
+ */
+class LocationTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    // Highest count first, then the path in alphabetical order; a node's own location precedes its subtree
+    private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingInt((Candidate c) -> -c.priority)
+            .thenComparing(c -> c.path)
+            .thenComparing(c -> !c.terminal);
+
+    private final Node root = new Node("");
+    private int size;
+
+    // Distinct locations with at least one listing
+    int size() {
+        return size;
+    }
+
+    int count(String key) {
+        Node node = find(key);
+        return node != null ? node.count : 0;
+    }
+
+    // Counts one more listing at the location; the first spelling added is the one suggested
+    void add(String key, String display) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        path.add(node);
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.insert(child);
+                path.add(child);
+                node = child;
+                break;
+            }
+
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                child = split(node, child, common);
+            }
+            path.add(child);
+            node = child;
+            i += common;
+        }
+
+        if (node.count == 0) {
+            node.display = display;
+            size++;
+        }
+        node.count++;
+        for (int j = path.size() - 1; j >= 0; j--) {
+            path.get(j).best = Math.max(path.get(j).best, node.count);
+        }
+    }
+
+    // Counts one listing less at the location; a location left without listings is pruned
+    void remove(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        path.add(node);
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return;
+            }
+            path.add(child);
+            node = child;
+            i += child.label.length();
+        }
+        if (node.count == 0) {
+            return;
+        }
+
+        node.count--;
+        if (node.count == 0) {
+            node.display = null;
+            size--;
+            if (node != root) {
+                Node parent = path.get(path.size() - 2);
+                if (node.children.length == 0) {
+                    parent.delete(node);
+                    path.remove(path.size() - 1);
+                } else {
+                    compact(node);
+                }
+                compact(parent);
+            }
+        }
+
+        for (int j = path.size() - 1; j >= 0; j--) {
+            path.get(j).updateBest();
+        }
+    }
+
+    /**
+     * Up to {@code limit} locations starting with the prefix, most listings
+     * first and alphabetical among equal counts. An empty prefix ranks every
+     * location.
+     */
+    List<LocationSuggestionDTO> complete(String prefix, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        Node node = root;
+        int i = 0;
+        StringBuilder path = new StringBuilder();
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return List.of();
+            }
+            // The prefix may end inside the child's label, then every completion runs through the child
+            int overlap = Math.min(child.label.length(), prefix.length() - i);
+            if (!child.label.regionMatches(0, prefix, i, overlap)) {
+                return List.of();
+            }
+            path.append(child.label);
+            node = child;
+            i += overlap;
+        }
+
+        List<LocationSuggestionDTO> result = new ArrayList<>(Math.min(limit, 16));
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(BEST_FIRST);
+        queue.add(new Candidate(node, path.toString(), node.best, false));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate next = queue.poll();
+            if (next.terminal) {
+                result.add(new LocationSuggestionDTO(next.node.display, next.node.count));
+                continue;
+            }
+            if (next.node.count > 0) {
+                queue.add(new Candidate(next.node, next.path, next.node.count, true));
+            }
+            for (Node child : next.node.children) {
+                queue.add(new Candidate(child, next.path + child.label, child.best, false));
+            }
+        }
+        return result;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return null;
+            }
+            node = child;
+            i += child.label.length();
+        }
+        return node;
+    }
+
+    // Cuts the child's edge after `at` characters and returns the new node holding the front part
+    private static Node split(Node parent, Node child, int at) {
+        Node front = new Node(child.label.substring(0, at));
+        parent.replace(child, front);
+        child.label = child.label.substring(at);
+        front.children = new Node[]{child};
+        front.best = child.best;
+        return front;
+    }
+
+    // Folds a node without a location of its own into its only child, keeping the node in place
+    private void compact(Node node) {
+        if (node == root || node.count > 0 || node.children.length != 1) {
+            return;
+        }
+        Node child = node.children[0];
+        node.label = node.label + child.label;
+        node.children = child.children;
+        node.count = child.count;
+        node.display = child.display;
+        node.best = child.best;
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        String label;
+        // Children ordered by the first character of their label, which is unique among siblings
+        Node[] children = NO_CHILDREN;
+        int count;
+        int best;
+        String display;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int at = indexOf(first);
+            return at >= 0 ? children[at] : null;
+        }
+
+        void insert(Node child) {
+            int at = -indexOf(child.label.charAt(0)) - 1;
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, at);
+            grown[at] = child;
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            children = grown;
+        }
+
+        void replace(Node child, Node with) {
+            children[indexOf(child.label.charAt(0))] = with;
+        }
+
+        void delete(Node child) {
+            int at = indexOf(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, at);
+            System.arraycopy(children, at + 1, shrunk, at, children.length - at - 1);
+            children = shrunk;
+        }
+
+        void updateBest() {
+            int max = count;
+            for (Node child : children) {
+                max = Math.max(max, child.best);
+            }
+            best = max;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    // A subtree still to expand, or with terminal set the location of its node ready to be emitted
+    private static final class Candidate {
+        final Node node;
+        final String path;
+        final int priority;
+        final boolean terminal;
+
+        Candidate(Node node, String path, int priority, boolean terminal) {
+            this.node = node;
+            this.path = path;
+            this.priority = priority;
+            this.terminal = terminal;
+        }
+    }
+}
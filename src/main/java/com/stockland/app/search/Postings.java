@@ -0,0 +1,65 @@
+package com.stockland.app.search;
+
+import java.util.Arrays;
+
+/**
+ * The slots one key of an index points at, kept sorted so lists intersect
+ * and merge in one pass, growing by doubling. Shared by the trigram, text
+ * and geo grid indexes; the text index also keeps each slot's term
+ * frequency, in a parallel array the others never allocate. Not
+ * thread-safe: the owning index guards it.
+ */
+final class Postings {
+
+    int[] slots = new int[4];
+    // Parallel to slots, only for postings filled through add(int, int)
+    int[] frequencies;
+    int size;
+
+    void add(int slot) {
+        int at = Arrays.binarySearch(slots, 0, size, slot);
+        if (at < 0) {
+            insert(-at - 1, slot);
+        }
+    }
+
+    // Adds the slot, or replaces its frequency if it is already there
+    void add(int slot, int frequency) {
+        if (frequencies == null) {
+            frequencies = new int[slots.length];
+        }
+        int at = Arrays.binarySearch(slots, 0, size, slot);
+        if (at < 0) {
+            at = -at - 1;
+            insert(at, slot);
+        }
+        frequencies[at] = frequency;
+    }
+
+    void remove(int slot) {
+        int at = Arrays.binarySearch(slots, 0, size, slot);
+        if (at < 0) {
+            return;
+        }
+        System.arraycopy(slots, at + 1, slots, at, size - at - 1);
+        if (frequencies != null) {
+            System.arraycopy(frequencies, at + 1, frequencies, at, size - at - 1);
+        }
+        size--;
+    }
+
+    private void insert(int at, int slot) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+            if (frequencies != null) {
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+        }
+        System.arraycopy(slots, at, slots, at + 1, size - at);
+        if (frequencies != null) {
+            System.arraycopy(frequencies, at, frequencies, at + 1, size - at);
+        }
+        slots[at] = slot;
+        size++;
+    }
+}
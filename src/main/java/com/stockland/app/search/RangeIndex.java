@@ -0,0 +1,324 @@
+package com.stockland.app.search;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Sorted index over one numeric column of {@link ListingColumns}.
+ * The main run keeps (value, id, slot) entries ordered by value then id in
+ * primitive arrays, so a range lookup is two binary searches and a sort by
+ * the column is a walk along the run. NULL values are kept as NaN and sort
+ * last, like NULL does in PostgreSQL.
+ * Writes do not touch the run: they are appended to a small delta buffer and
+ * folded in by {@link #merge}, which {@link ListingSearchEngine} runs in the
+ * background once the buffer fills up. Every entry carries the slot version
+ * it was written for; an entry whose slot has been rewritten or removed since
+ * is stale, skipped by lookups and dropped by the next merge.
+ * Not thread safe, the engine guards it with its own lock.
+ */
+class RangeIndex {
+
+    // Pending writes after which a merge is due
+    static final int DELTA_CAPACITY = 1024;
+
+    @FunctionalInterface
+    interface Key {
+        double of(int slot);
+    }
+
+    private final ListingColumns columns;
+    private final Key key;
+
+    private Run main = Run.EMPTY;
+
+    private double[] deltaKeys = new double[64];
+    private long[] deltaIds = new long[64];
+    private int[] deltaSlots = new int[64];
+    private int[] deltaVersions = new int[64];
+    private int deltaSize;
+    private int pendingChanges;
+
+    RangeIndex(ListingColumns columns, Key key) {
+        this.columns = columns;
+        this.key = key;
+    }
+
+    double keyOf(int slot) {
+        return key.of(slot);
+    }
+
+    int deltaSize() {
+        return deltaSize;
+    }
+
+    boolean needsMerge() {
+        return pendingChanges >= DELTA_CAPACITY;
+    }
+
+    void add(int slot) {
+        if (deltaSize == deltaKeys.length) {
+            int capacity = deltaSize * 2;
+            deltaKeys = Arrays.copyOf(deltaKeys, capacity);
+            deltaIds = Arrays.copyOf(deltaIds, capacity);
+            deltaSlots = Arrays.copyOf(deltaSlots, capacity);
+            deltaVersions = Arrays.copyOf(deltaVersions, capacity);
+        }
+        deltaKeys[deltaSize] = key.of(slot);
+        deltaIds[deltaSize] = columns.id[slot];
+        deltaSlots[deltaSize] = slot;
+        deltaVersions[deltaSize] = columns.version[slot];
+        deltaSize++;
+        pendingChanges++;
+    }
+
+    // The removed slot's entries are already stale through its version, this only counts towards the next merge
+    void removed() {
+        pendingChanges++;
+    }
+
+    // Replaces the run with every live slot and empties the delta, used after a bulk load
+    void build() {
+        int[] slots = new int[columns.size()];
+        int count = 0;
+        for (int slot = columns.live.nextSetBit(0); slot >= 0; slot = columns.live.nextSetBit(slot + 1)) {
+            slots[count++] = slot;
+        }
+        main = Run.of(columns, key, slots, count);
+        deltaSize = 0;
+        pendingChanges = 0;
+    }
+
+    /**
+     * Builds a new run from the valid entries of the current run and of the
+     * first {@code deltaCount} delta entries. Only reads, so it can run while
+     * searches continue; {@link #publish} swaps it in afterwards.
+     */
+    Run merge(int deltaCount) {
+        int[] fresh = new int[deltaCount];
+        int freshCount = 0;
+        for (int i = 0; i < deltaCount; i++) {
+            if (deltaVersions[i] == columns.version[deltaSlots[i]]) {
+                fresh[freshCount++] = deltaSlots[i];
+            }
+        }
+        Run delta = Run.of(columns, key, fresh, freshCount);
+
+        Run run = main;
+        int size = 0;
+        double[] keys = new double[run.size + delta.size];
+        long[] ids = new long[keys.length];
+        int[] slots = new int[keys.length];
+        int[] versions = new int[keys.length];
+
+        int i = 0;
+        int j = 0;
+        while (i < run.size || j < delta.size) {
+            boolean fromRun = j >= delta.size
+                    || (i < run.size && compare(run.keys[i], run.ids[i], delta.keys[j], delta.ids[j]) <= 0);
+            Run source = fromRun ? run : delta;
+            int at = fromRun ? i++ : j++;
+            if (source.versions[at] != columns.version[source.slots[at]]) {
+                continue;
+            }
+            keys[size] = source.keys[at];
+            ids[size] = source.ids[at];
+            slots[size] = source.slots[at];
+            versions[size] = source.versions[at];
+            size++;
+        }
+        return new Run(keys, ids, slots, versions, size);
+    }
+
+    // Installs a merged run and drops the delta entries it absorbed; changes made meanwhile stay pending
+    void publish(Run merged, int deltaCount, int changesCounted) {
+        main = merged;
+        System.arraycopy(deltaKeys, deltaCount, deltaKeys, 0, deltaSize - deltaCount);
+        System.arraycopy(deltaIds, deltaCount, deltaIds, 0, deltaSize - deltaCount);
+        System.arraycopy(deltaSlots, deltaCount, deltaSlots, 0, deltaSize - deltaCount);
+        System.arraycopy(deltaVersions, deltaCount, deltaVersions, 0, deltaSize - deltaCount);
+        deltaSize -= deltaCount;
+        pendingChanges -= changesCounted;
+    }
+
+    int pendingChanges() {
+        return pendingChanges;
+    }
+
+    // Upper bound of the entries in [min, max]; stale entries are still counted
+    int estimate(double min, double max) {
+        return Math.max(0, upperBound(main, max) - lowerBound(main, min)) + deltaSize;
+    }
+
+    // Ascending slots whose value lies in [min, max]; NULL values never do
+    int[] slotsInRange(double min, double max) {
+        Run run = main;
+        int from = lowerBound(run, min);
+        int to = upperBound(run, max);
+        int[] result = new int[Math.max(0, to - from) + deltaSize];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (run.versions[i] == columns.version[run.slots[i]]) {
+                result[count++] = run.slots[i];
+            }
+        }
+        for (int i = 0; i < deltaSize; i++) {
+            if (deltaKeys[i] >= min && deltaKeys[i] <= max && deltaVersions[i] == columns.version[deltaSlots[i]]) {
+                result[count++] = deltaSlots[i];
+            }
+        }
+        Arrays.sort(result, 0, count);
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Visits live slots in (value, id) order, descending when asked, until the
+     * visitor returns false. With a start position only the entries strictly
+     * after it in that direction are visited.
+     */
+    void walk(boolean descending, boolean hasStart, double startKey, long startId, IntPredicate visitor) {
+        Run run = main;
+        Run delta = deltaSize == 0 ? Run.EMPTY : sortedDelta();
+
+        int i;
+        int j;
+        if (!descending) {
+            i = hasStart ? after(run, startKey, startId) : 0;
+            j = hasStart ? after(delta, startKey, startId) : 0;
+            while (i < run.size || j < delta.size) {
+                boolean fromRun = j >= delta.size
+                        || (i < run.size && compare(run.keys[i], run.ids[i], delta.keys[j], delta.ids[j]) <= 0);
+                Run source = fromRun ? run : delta;
+                int at = fromRun ? i++ : j++;
+                if (source.versions[at] == columns.version[source.slots[at]] && !visitor.test(source.slots[at])) {
+                    return;
+                }
+            }
+        } else {
+            i = (hasStart ? before(run, startKey, startId) : run.size) - 1;
+            j = (hasStart ? before(delta, startKey, startId) : delta.size) - 1;
+            while (i >= 0 || j >= 0) {
+                boolean fromRun = j < 0
+                        || (i >= 0 && compare(run.keys[i], run.ids[i], delta.keys[j], delta.ids[j]) >= 0);
+                Run source = fromRun ? run : delta;
+                int at = fromRun ? i-- : j--;
+                if (source.versions[at] == columns.version[source.slots[at]] && !visitor.test(source.slots[at])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // The valid delta entries as a sorted run; the buffer is small, so sorting per walk is cheap
+    private Run sortedDelta() {
+        int[] fresh = new int[deltaSize];
+        int count = 0;
+        for (int i = 0; i < deltaSize; i++) {
+            if (deltaVersions[i] == columns.version[deltaSlots[i]]) {
+                fresh[count++] = deltaSlots[i];
+            }
+        }
+        return Run.of(columns, key, fresh, count);
+    }
+
+    // (key, id) order with NaN last, as Double.compare does
+    private static int compare(double keyA, long idA, double keyB, long idB) {
+        int result = Double.compare(keyA, keyB);
+        return result != 0 ? result : Long.compare(idA, idB);
+    }
+
+    // First entry with key >= min
+    private static int lowerBound(Run run, double min) {
+        int low = 0;
+        int high = run.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (run.keys[mid] < min) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First entry with key > max; NaN entries sit past every number
+    private static int upperBound(Run run, double max) {
+        int low = 0;
+        int high = run.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (run.keys[mid] <= max) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First entry ordered strictly after (key, id)
+    private static int after(Run run, double key, long id) {
+        int low = 0;
+        int high = run.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(run.keys[mid], run.ids[mid], key, id) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Number of entries ordered strictly before (key, id)
+    private static int before(Run run, double key, long id) {
+        int low = 0;
+        int high = run.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(run.keys[mid], run.ids[mid], key, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static final class Run {
+        static final Run EMPTY = new Run(new double[0], new long[0], new int[0], new int[0], 0);
+
+        final double[] keys;
+        final long[] ids;
+        final int[] slots;
+        final int[] versions;
+        final int size;
+
+        Run(double[] keys, long[] ids, int[] slots, int[] versions, int size) {
+            this.keys = keys;
+            this.ids = ids;
+            this.slots = slots;
+            this.versions = versions;
+            this.size = size;
+        }
+
+        // Sorts current slots by (value, id) and captures their values and versions
+        static Run of(ListingColumns columns, Key key, int[] slots, int count) {
+            if (count == 0) {
+                return EMPTY;
+            }
+            SlotOrder.sort(slots, count, (a, b) -> compare(key.of(a), columns.id[a], key.of(b), columns.id[b]));
+
+            double[] keys = new double[count];
+            long[] ids = new long[count];
+            int[] versions = new int[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = key.of(slots[i]);
+                ids[i] = columns.id[slots[i]];
+                versions[i] = columns.version[slots[i]];
+            }
+            return new Run(keys, ids, Arrays.copyOf(slots, count), versions, count);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.stockland.app.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * The changes an in-memory index received while it was being rebuilt, a
+ * listing or a saved search by id. A rebuild reads its snapshot from the
+ * database and swaps the result in later; a change committed in between
+ * lands in the structure about to be thrown away, so it is also noted here
+ * and replayed onto the rebuilt one before the swap. Only the latest change
+ * per id is kept, a null value meaning it was removed. Not thread-safe: the
+ * owning index only touches it under its write lock.
+ */
+final class RebuildJournal<T> {
+
+    private Map<Long, T> changes;
+
+    // Starts noting changes; a second call while already noting keeps what was noted so far
+    void begin() {
+        if (changes == null) {
+            changes = new LinkedHashMap<>();
+        }
+    }
+
+    void indexed(long id, T value) {
+        if (changes != null) {
+            changes.remove(id);
+            changes.put(id, value);
+        }
+    }
+
+    void removed(long id) {
+        if (changes != null) {
+            changes.remove(id);
+            changes.put(id, null);
+        }
+    }
+
+    // Stops noting changes and applies the noted ones in the order they last happened
+    void replay(BiConsumer<Long, T> index, LongConsumer remove) {
+        Map<Long, T> noted = changes;
+        changes = null;
+        if (noted == null) {
+            return;
+        }
+        noted.forEach((id, value) -> {
+            if (value == null) {
+                remove.accept(id);
+            } else {
+                index.accept(id, value);
+            }
+        });
+    }
+}
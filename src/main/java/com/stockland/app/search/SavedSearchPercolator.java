@@ -0,0 +1,337 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.PropertyType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Reverse search over the saved searches: given one listing, which saved
+ * filters does it satisfy. Searches are bucketed by their deal and property
+ * type, a missing type being a bucket of its own, so a listing reads at most
+ * four buckets. Inside a bucket each search sits in one {@link IntervalTree},
+ * on its price range when it has one, else its area, else its rooms; searches
+ * with none of the three are kept in a plain list. A listing then only
+ * reaches the searches whose types and leading range it falls into, and just
+ * those are checked against the full filters.
+ */
+@Component
+public class SavedSearchPercolator {
+
+    private static final int ANY_TYPE = -1;
+
+    private enum Anchor { PRICE, AREA, ROOMS, NONE }
+
+    private final ListingFilterMatcher matcher;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    private final RebuildJournal<PropertyFilterRequestDTO> journal = new RebuildJournal<>();
+    private volatile boolean ready;
+
+    public SavedSearchPercolator(TextAnalyzer analyzer) {
+        this.matcher = new ListingFilterMatcher(analyzer);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Call before reading the snapshot for rebuild, so searches saved or deleted until the swap are replayed onto it
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            journal.begin();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Map<Long, PropertyFilterRequestDTO> searches) {
+        Index rebuilt = new Index();
+        searches.forEach((id, filters) -> rebuilt.add(id, entry(id, filters), false));
+        for (Bucket bucket : rebuilt.buckets.values()) {
+            bucket.rebuild();
+        }
+
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+            journal.replay(this::add, this::remove);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(long id, PropertyFilterRequestDTO filters) {
+        Entry entry = entry(id, filters);
+        lock.writeLock().lock();
+        try {
+            index.remove(id);
+            index.add(id, entry, true);
+            journal.indexed(id, filters);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            index.remove(id);
+            journal.removed(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of the saved searches the listing satisfies, in no particular order
+    public List<Long> percolate(PropertyResponseDTO listing) {
+        lock.readLock().lock();
+        try {
+            // A search is filed in exactly one bucket and one tree, so the candidates hold no duplicates
+            Hits candidates = new Hits();
+            for (long key : bucketKeys(listing)) {
+                Bucket bucket = index.buckets.get(key);
+                if (bucket != null) {
+                    bucket.candidates(listing, candidates);
+                }
+            }
+
+            ListingFilterMatcher.Prepared prepared = matcher.prepare(listing);
+            List<Long> matched = new ArrayList<>();
+            for (int i = 0; i < candidates.size; i++) {
+                Entry entry = index.entries[candidates.slots[i]];
+                if (entry.filter.matches(prepared)) {
+                    matched.add(entry.id);
+                }
+            }
+            return matched;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Whether the listing satisfies the filters, for callers that have to check searches one by one
+    public boolean matches(PropertyFilterRequestDTO filters, PropertyResponseDTO listing) {
+        return matcher.matches(matcher.canonical(filters), listing);
+    }
+
+    private Entry entry(long id, PropertyFilterRequestDTO filters) {
+        PropertyFilterRequestDTO canonical = matcher.canonical(filters);
+        return new Entry(id, canonical, matcher.compile(canonical),
+                bucketKey(ordinal(canonical.getActionType()), ordinal(canonical.getPropertyType())));
+    }
+
+    private static long[] bucketKeys(PropertyResponseDTO listing) {
+        int action = ordinal(listing.getActionType());
+        int type = ordinal(listing.getPropertyType());
+        return new long[]{
+                bucketKey(action, type),
+                bucketKey(action, ANY_TYPE),
+                bucketKey(ANY_TYPE, type),
+                bucketKey(ANY_TYPE, ANY_TYPE)
+        };
+    }
+
+    private static long bucketKey(int actionType, int propertyType) {
+        return ((long) actionType << 32) | (propertyType & 0xFFFFFFFFL);
+    }
+
+    private static int ordinal(ActionType actionType) {
+        return actionType != null ? actionType.ordinal() : ANY_TYPE;
+    }
+
+    private static int ordinal(PropertyType propertyType) {
+        return propertyType != null ? propertyType.ordinal() : ANY_TYPE;
+    }
+
+    // Open ends of a range are infinite
+    private static double lowEnd(Number value) {
+        return value != null ? value.doubleValue() : Double.NEGATIVE_INFINITY;
+    }
+
+    private static double highEnd(Number value) {
+        return value != null ? value.doubleValue() : Double.POSITIVE_INFINITY;
+    }
+
+    // Every saved search under a dense int slot, which is what the trees and lists hold
+    private static final class Index {
+        final Map<Long, Integer> slots = new HashMap<>();
+        final Map<Long, Bucket> buckets = new HashMap<>();
+        Entry[] entries = new Entry[16];
+        int[] free = new int[16];
+        int freeCount;
+        int used;
+
+        void add(long id, Entry entry, boolean rebuildIfDue) {
+            int slot;
+            if (freeCount > 0) {
+                slot = free[--freeCount];
+            } else {
+                slot = used++;
+                if (slot == entries.length) {
+                    entries = Arrays.copyOf(entries, slot * 2);
+                }
+            }
+            entries[slot] = entry;
+            slots.put(id, slot);
+            buckets.computeIfAbsent(entry.bucket, key -> new Bucket()).add(slot, entry, rebuildIfDue);
+        }
+
+        void remove(long id) {
+            Integer slot = slots.remove(id);
+            if (slot == null) {
+                return;
+            }
+            Entry entry = entries[slot];
+            entries[slot] = null;
+            Bucket bucket = buckets.get(entry.bucket);
+            bucket.remove(slot, entry);
+            if (bucket.isEmpty()) {
+                buckets.remove(entry.bucket);
+            }
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = slot;
+        }
+    }
+
+    // A saved search as it is indexed: its compiled filters and where they are filed
+    private static final class Entry {
+        final long id;
+        final ListingFilterMatcher.Compiled filter;
+        final long bucket;
+        final Anchor anchor;
+        final double low;
+        final double high;
+
+        Entry(long id, PropertyFilterRequestDTO filters, ListingFilterMatcher.Compiled filter, long bucket) {
+            this.id = id;
+            this.filter = filter;
+            this.bucket = bucket;
+            if (filters.getMinPrice() != null || filters.getMaxPrice() != null) {
+                anchor = Anchor.PRICE;
+                low = lowEnd(filters.getMinPrice());
+                high = highEnd(filters.getMaxPrice());
+            } else if (filters.getMinArea() != null || filters.getMaxArea() != null) {
+                anchor = Anchor.AREA;
+                low = lowEnd(filters.getMinArea());
+                high = highEnd(filters.getMaxArea());
+            } else if (filters.getMinRooms() != null || filters.getMaxRooms() != null) {
+                anchor = Anchor.ROOMS;
+                low = lowEnd(filters.getMinRooms());
+                high = highEnd(filters.getMaxRooms());
+            } else {
+                anchor = Anchor.NONE;
+                low = Double.NEGATIVE_INFINITY;
+                high = Double.POSITIVE_INFINITY;
+            }
+        }
+    }
+
+    // The saved searches of one deal and property type combination
+    private static final class Bucket {
+        final IntervalTree price = new IntervalTree();
+        final IntervalTree area = new IntervalTree();
+        final IntervalTree rooms = new IntervalTree();
+        int[] unbounded = new int[4];
+        int unboundedSize;
+
+        void add(int slot, Entry entry, boolean rebuildIfDue) {
+            IntervalTree tree = tree(entry.anchor);
+            if (tree == null) {
+                if (unboundedSize == unbounded.length) {
+                    unbounded = Arrays.copyOf(unbounded, unboundedSize * 2);
+                }
+                unbounded[unboundedSize++] = slot;
+            } else if (rebuildIfDue) {
+                tree.add(slot, entry.low, entry.high);
+            } else {
+                tree.append(slot, entry.low, entry.high);
+            }
+        }
+
+        void remove(int slot, Entry entry) {
+            IntervalTree tree = tree(entry.anchor);
+            if (tree != null) {
+                tree.remove(slot);
+                return;
+            }
+            for (int i = 0; i < unboundedSize; i++) {
+                if (unbounded[i] == slot) {
+                    unbounded[i] = unbounded[--unboundedSize];
+                    return;
+                }
+            }
+        }
+
+        void rebuild() {
+            price.rebuild();
+            area.rebuild();
+            rooms.rebuild();
+        }
+
+        boolean isEmpty() {
+            return price.size() == 0 && area.size() == 0 && rooms.size() == 0 && unboundedSize == 0;
+        }
+
+        // A listing without the anchored value cannot satisfy a range on it
+        void candidates(PropertyResponseDTO listing, Hits into) {
+            if (listing.getPrice() != null) {
+                price.stab(listing.getPrice(), into);
+            }
+            if (listing.getArea() != null) {
+                area.stab(listing.getArea(), into);
+            }
+            if (listing.getRoomCount() != null) {
+                rooms.stab(listing.getRoomCount(), into);
+            }
+            for (int i = 0; i < unboundedSize; i++) {
+                into.accept(unbounded[i]);
+            }
+        }
+
+        private IntervalTree tree(Anchor anchor) {
+            return switch (anchor) {
+                case PRICE -> price;
+                case AREA -> area;
+                case ROOMS -> rooms;
+                case NONE -> null;
+            };
+        }
+    }
+
+    // Slots collected from the trees and lists, without boxing
+    private static final class Hits implements IntConsumer {
+        int[] slots = new int[64];
+        int size;
+
+        @Override
+        public void accept(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.model.ModerationStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Similar listings" for the property page: the approved listings whose
+ * {@link ListingFeatures} vectors lie closest to the one shown, looked up in
+ * an {@link HnswIndex} so a page costs a few hundred distance computations
+ * whatever the number of listings. Kept in step with listing writes through
+ * {@link PropertyChangedEvent}; an edit that moves the vector files the
+ * listing under a new node and retires the old one, and once retired nodes
+ * outnumber the live ones the graph is rebuilt off the request threads. The
+ * feature scaling is fitted on every full rebuild.
+ */
+@Component
+public class SimilarListings {
+
+    public static final int DEFAULT_LIMIT = 6;
+    public static final int MAX_LIMIT = 24;
+
+    // Candidate list of a lookup; recall on 100k listings is close to exact from here on
+    private static final int EF_SEARCH = 64;
+    private static final long SEED = 42L;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ListingFeatures features = ListingFeatures.fit(List.of());
+    private HnswIndex graph = new HnswIndex(ListingFeatures.DIMENSIONS, SEED);
+    // Live node and current state of every indexed listing
+    private Map<Long, Integer> nodes = new HashMap<>();
+    private Map<Long, PropertyResponseDTO> rows = new HashMap<>();
+    // Listings written while a compaction builds its graph, replayed onto it before the swap
+    private Set<Long> writtenDuringCompaction;
+    private final RebuildJournal<PropertyResponseDTO> journal = new RebuildJournal<>();
+    private volatile boolean ready;
+
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "similar-listings-compact");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Call before reading the snapshot for rebuild, so changes made until the swap are replayed onto it
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            journal.begin();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<PropertyResponseDTO> listings) {
+        List<PropertyResponseDTO> approved = listings.stream()
+                .filter(listing -> listing.getModerationStatus() == ModerationStatus.APPROVED)
+                .toList();
+        ListingFeatures fitted = ListingFeatures.fit(approved);
+        HnswIndex rebuilt = new HnswIndex(ListingFeatures.DIMENSIONS, SEED);
+        Map<Long, Integer> indexed = new HashMap<>();
+        Map<Long, PropertyResponseDTO> current = new HashMap<>();
+        for (PropertyResponseDTO listing : approved) {
+            indexed.put(listing.getId(), rebuilt.add(listing.getId(), fitted.vector(listing)));
+            current.put(listing.getId(), listing);
+        }
+
+        lock.writeLock().lock();
+        try {
+            features = fitted;
+            graph = rebuilt;
+            nodes = indexed;
+            rows = current;
+            journal.replay((id, listing) -> index(listing), this::remove);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(PropertyResponseDTO listing) {
+        if (listing.getModerationStatus() != ModerationStatus.APPROVED) {
+            remove(listing.getId());
+            return;
+        }
+
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            float[] vector = features.vector(listing);
+            PropertyResponseDTO previous = rows.put(listing.getId(), listing);
+            // Edits that leave the features alone, such as a new title, keep the node
+            if (previous == null || !Arrays.equals(features.vector(previous), vector)) {
+                file(graph, nodes, listing.getId(), vector);
+                written(listing.getId());
+            }
+            journal.indexed(listing.getId(), listing);
+            compact = compactionDue();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            scheduleCompaction();
+        }
+    }
+
+    public void remove(long listingId) {
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            rows.remove(listingId);
+            retire(graph, nodes, listingId);
+            written(listingId);
+            journal.removed(listingId);
+            compact = compactionDue();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            scheduleCompaction();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getProperty() == null) {
+            remove(event.getPropertyId());
+        } else {
+            index(event.getProperty());
+        }
+    }
+
+    /**
+     * Up to {@code limit} approved listings most like the given one, most
+     * alike first, never the listing itself. The listing does not have to be
+     * indexed, so a pending one is compared all the same.
+     */
+    public List<PropertyResponseDTO> similar(PropertyResponseDTO listing, int limit) {
+        int capped = Math.min(limit, MAX_LIMIT);
+        if (capped <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] found = graph.search(features.vector(listing), capped + 1, EF_SEARCH);
+            List<PropertyResponseDTO> similar = new ArrayList<>(capped);
+            for (int node : found) {
+                long id = graph.id(node);
+                if (listing.getId() == null || id != listing.getId()) {
+                    similar.add(rows.get(id));
+                }
+                if (similar.size() == capped) {
+                    break;
+                }
+            }
+            return similar;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the graph from the live listings, dropping the retired nodes.
+     * The graph is built outside the lock from a copy of the listings, so
+     * lookups and writes carry on meanwhile; the listings written in the
+     * meantime are filed again in the new graph just before it is swapped in.
+     */
+    void compact() {
+        ListingFeatures fitted;
+        HnswIndex current;
+        List<PropertyResponseDTO> live;
+        lock.writeLock().lock();
+        try {
+            fitted = features;
+            current = graph;
+            live = new ArrayList<>(rows.values());
+            writtenDuringCompaction = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        HnswIndex rebuilt = new HnswIndex(ListingFeatures.DIMENSIONS, SEED);
+        Map<Long, Integer> indexed = new HashMap<>();
+        for (PropertyResponseDTO listing : live) {
+            indexed.put(listing.getId(), rebuilt.add(listing.getId(), fitted.vector(listing)));
+        }
+
+        lock.writeLock().lock();
+        try {
+            // A full rebuild in the meantime replaced the graph and maybe the scaling
+            if (graph == current) {
+                for (Long id : writtenDuringCompaction) {
+                    PropertyResponseDTO listing = rows.get(id);
+                    if (listing != null) {
+                        file(rebuilt, indexed, id, features.vector(listing));
+                    } else {
+                        retire(rebuilt, indexed, id);
+                    }
+                }
+                graph = rebuilt;
+                nodes = indexed;
+            }
+            writtenDuringCompaction = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void scheduleCompaction() {
+        if (compactionScheduled.compareAndSet(false, true)) {
+            compactor.execute(() -> {
+                try {
+                    compact();
+                } finally {
+                    compactionScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private boolean compactionDue() {
+        return graph.nodes() > 2 * graph.size() + 64;
+    }
+
+    private void written(long listingId) {
+        if (writtenDuringCompaction != null) {
+            writtenDuringCompaction.add(listingId);
+        }
+    }
+
+    // Files the listing under a new node, retiring the one it had
+    private static void file(HnswIndex graph, Map<Long, Integer> nodes, long listingId, float[] vector) {
+        Integer node = nodes.put(listingId, graph.add(listingId, vector));
+        if (node != null) {
+            graph.remove(node);
+        }
+    }
+
+    private static void retire(HnswIndex graph, Map<Long, Integer> nodes, long listingId) {
+        Integer node = nodes.remove(listingId);
+        if (node != null) {
+            graph.remove(node);
+        }
+    }
+}
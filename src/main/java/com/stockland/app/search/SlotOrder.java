@@ -0,0 +1,105 @@
+package com.stockland.app.search;
+
+import java.util.Arrays;
+
+/**
+ * Orders slots of a {@link ListingColumns} without boxing them.
+ */
+@FunctionalInterface
+interface SlotOrder {
+
+    int compare(int a, int b);
+
+    /**
+     * Sorts {@code slots[0..length)} and returns the first {@code limit} of them.
+     * Small limits use a bounded heap so a page from a large result set does not
+     * pay for a full sort.
+     */
+    static int[] firstN(int[] slots, int length, int limit, SlotOrder order) {
+        if (limit <= 0) {
+            return new int[0];
+        }
+        if (limit >= length || limit > 4096) {
+            int[] sorted = Arrays.copyOf(slots, length);
+            mergeSort(sorted, new int[length], 0, length, order);
+            return limit >= length ? sorted : Arrays.copyOf(sorted, limit);
+        }
+
+        // Max-heap of the best "limit" slots seen so far, root is the worst of them
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        for (int i = 0; i < length; i++) {
+            int slot = slots[i];
+            if (heapSize < limit) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize++, order);
+            } else if (order.compare(slot, heap[0]) < 0) {
+                heap[0] = slot;
+                siftDown(heap, heapSize, order);
+            }
+        }
+
+        int[] result = Arrays.copyOf(heap, heapSize);
+        mergeSort(result, new int[heapSize], 0, heapSize, order);
+        return result;
+    }
+
+    // Stable sort of slots[0..length)
+    static void sort(int[] slots, int length, SlotOrder order) {
+        mergeSort(slots, new int[length], 0, length, order);
+    }
+
+    private static void siftUp(int[] heap, int index, SlotOrder order) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(slot, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private static void siftDown(int[] heap, int size, SlotOrder order) {
+        int slot = heap[0];
+        int index = 0;
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(slot, heap[child]) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+
+    private static void mergeSort(int[] a, int[] buffer, int from, int to, SlotOrder order) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, buffer, from, mid, order);
+        mergeSort(a, buffer, mid, to, order);
+        if (order.compare(a[mid - 1], a[mid]) <= 0) {
+            return;
+        }
+
+        System.arraycopy(a, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && order.compare(buffer[left], buffer[right]) <= 0)) {
+                a[i] = buffer[left++];
+            } else {
+                a[i] = buffer[right++];
+            }
+        }
+    }
+}
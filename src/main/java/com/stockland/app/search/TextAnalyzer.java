@@ -0,0 +1,90 @@
+package com.stockland.app.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns listing text and search queries into index terms: splits on anything
+ * that is not a letter or digit, lower-cases, optionally folds diacritics
+ * ("Jūrmala" matches "jurmala"), and drops stopwords and too short tokens.
+ * The same analyzer has to be used for indexing and querying.
+ */
+public final class TextAnalyzer {
+
+    public static final String DEFAULT_STOPWORDS = "a,an,and,at,by,for,from,in,is,of,on,or,the,to,with";
+    public static final int DEFAULT_MIN_TOKEN_LENGTH = 2;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final Set<String> stopwords;
+    private final int minTokenLength;
+    private final boolean foldDiacritics;
+
+    public TextAnalyzer(Collection<String> stopwords, int minTokenLength, boolean foldDiacritics) {
+        this.minTokenLength = Math.max(1, minTokenLength);
+        this.foldDiacritics = foldDiacritics;
+        // Stopwords go through the same normalisation as the text they are compared with
+        Set<String> normalised = new HashSet<>();
+        for (String stopword : stopwords) {
+            if (!stopword.isBlank()) {
+                normalised.add(normalise(stopword.strip()));
+            }
+        }
+        this.stopwords = Set.copyOf(normalised);
+    }
+
+    public static TextAnalyzer standard() {
+        return new TextAnalyzer(List.of(DEFAULT_STOPWORDS.split(",")), DEFAULT_MIN_TOKEN_LENGTH, true);
+    }
+
+    // Terms in text order, repeats included; empty for null or blank text
+    public List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && isWordChar(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = normalise(text.substring(start, i));
+                if (term.length() >= minTokenLength && !stopwords.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // Combining marks belong to the letter before them in decomposed input
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK;
+    }
+
+    private String normalise(String token) {
+        String lower = token.toLowerCase(Locale.ROOT);
+        if (!foldDiacritics || isAscii(lower)) {
+            return lower;
+        }
+        return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,161 @@
+package com.stockland.app.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index over the title and description of the listings in
+ * {@link ListingColumns}. Every term maps to a sorted posting list of slots
+ * with the term's frequency in each; a query keeps the slots holding all of
+ * its terms and scores them with BM25. A title occurrence counts as
+ * {@link #TITLE_BOOST} description occurrences, a simplified BM25F.
+ * Not thread safe, the engine guards it with its own lock.
+ */
+class TextIndex {
+
+    static final int TITLE_BOOST = 3;
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    private final TextAnalyzer analyzer;
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    // Weighted term count per slot, the BM25 document length
+    private int[] lengths = new int[16];
+    private long totalLength;
+    private int documents;
+
+    TextIndex(TextAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    TextAnalyzer analyzer() {
+        return analyzer;
+    }
+
+    int termCount() {
+        return postings.size();
+    }
+
+    void add(int slot, String title, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = frequencies(title, description, frequencies);
+
+        if (slot >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(slot + 1, lengths.length * 2));
+        }
+        lengths[slot] = length;
+        totalLength += length;
+        documents++;
+
+        frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new Postings()).add(slot, frequency));
+    }
+
+    // Takes the same text the slot was added with, which the columns still hold at that point
+    void remove(int slot, String title, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        frequencies(title, description, frequencies);
+
+        totalLength -= lengths[slot];
+        lengths[slot] = 0;
+        documents--;
+
+        for (String term : frequencies.keySet()) {
+            Postings list = postings.get(term);
+            if (list != null) {
+                list.remove(slot);
+                if (list.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Slots containing every term, ascending, with their BM25 scores; null when
+     * the terms are empty and the query puts no constraint on the text.
+     */
+    Match search(List<String> terms) {
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        Set<String> distinct = new LinkedHashSet<>(terms);
+        Postings[] lists = new Postings[distinct.size()];
+        int n = 0;
+        for (String term : distinct) {
+            lists[n] = postings.get(term);
+            if (lists[n++] == null) {
+                return Match.EMPTY;
+            }
+        }
+
+        // Start from the rarest term so every step only shrinks a small set
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] slots = Arrays.copyOf(lists[0].slots, lists[0].size);
+        int length = slots.length;
+        for (int i = 1; i < lists.length && length > 0; i++) {
+            length = TrigramIndex.intersect(slots, length, lists[i].slots, lists[i].size);
+        }
+        slots = length == slots.length ? slots : Arrays.copyOf(slots, length);
+
+        double averageLength = documents > 0 ? Math.max(1.0, (double) totalLength / documents) : 1.0;
+        double[] scores = new double[length];
+        for (Postings list : lists) {
+            double idf = Math.log(1 + (documents - list.size + 0.5) / (list.size + 0.5));
+            int from = 0;
+            for (int i = 0; i < length; i++) {
+                int at = Arrays.binarySearch(list.slots, from, list.size, slots[i]);
+                int frequency = list.frequencies[at];
+                double norm = K1 * (1 - B + B * lengths[slots[i]] / averageLength);
+                scores[i] += idf * frequency * (K1 + 1) / (frequency + norm);
+                from = at + 1;
+            }
+        }
+        return new Match(slots, scores);
+    }
+
+    // Fills the weighted frequency of every term and returns the weighted length
+    private int frequencies(String title, String description, Map<String, Integer> frequencies) {
+        int length = 0;
+        for (String term : analyzer.terms(title)) {
+            frequencies.merge(term, TITLE_BOOST, Integer::sum);
+            length += TITLE_BOOST;
+        }
+        for (String term : analyzer.terms(description)) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * The result of a text query: matching slots in ascending order and the
+     * score of each at the same position.
+     */
+    static final class Match {
+        static final Match EMPTY = new Match(new int[0], new double[0]);
+
+        final int[] slots;
+        final double[] scores;
+
+        Match(int[] slots, double[] scores) {
+            this.slots = slots;
+            this.scores = scores;
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, slot) >= 0;
+        }
+
+        // Score of a matching slot, 0 for any other
+        double score(int slot) {
+            int at = Arrays.binarySearch(slots, slot);
+            return at >= 0 ? scores[at] : 0;
+        }
+    }
+}
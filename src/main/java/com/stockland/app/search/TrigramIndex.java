@@ -0,0 +1,125 @@
+package com.stockland.app.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Substring index over one lower-cased text column of {@link ListingColumns}.
+ * Every three-character window of a value maps to a sorted posting list of
+ * slots. A query of three or more characters is answered by intersecting the
+ * postings of its trigrams; the result is a candidate set that still has to be
+ * verified with {@link String#contains}, since trigrams do not keep order.
+ */
+class TrigramIndex {
+
+    static final int MIN_QUERY_LENGTH = 3;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    int trigramCount() {
+        return postings.size();
+    }
+
+    void add(int slot, String value) {
+        if (value == null) {
+            return;
+        }
+        for (long trigram : trigrams(value)) {
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(slot);
+        }
+    }
+
+    void remove(int slot, String value) {
+        if (value == null) {
+            return;
+        }
+        for (long trigram : trigrams(value)) {
+            Postings list = postings.get(trigram);
+            if (list != null) {
+                list.remove(slot);
+                if (list.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the sorted candidate slots for a lower-cased query, or null when
+     * the query is too short to be served by trigrams and the caller has to scan.
+     */
+    int[] candidates(String query) {
+        if (query == null || query.length() < MIN_QUERY_LENGTH) {
+            return null;
+        }
+
+        long[] grams = trigrams(query);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return EMPTY;
+            }
+        }
+
+        // Start from the rarest trigram so every step only shrinks a small set
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] result = Arrays.copyOf(lists[0].slots, lists[0].size);
+        int length = result.length;
+        for (int i = 1; i < lists.length && length > 0; i++) {
+            length = intersect(result, length, lists[i].slots, lists[i].size);
+        }
+        return length == result.length ? result : Arrays.copyOf(result, length);
+    }
+
+    // Keeps the entries of result[0..length) that are also in other[0..otherSize), returns the new length
+    static int intersect(int[] result, int length, int[] other, int otherSize) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < length && from < otherSize; i++) {
+            int target = result[i];
+
+            // Gallop ahead from the last position, then binary search the bracketed window
+            int step = 1;
+            int to = from;
+            while (to < otherSize && other[to] < target) {
+                from = to + 1;
+                to += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(other, from, Math.min(to + 1, otherSize), target);
+            if (found >= 0) {
+                result[kept++] = target;
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    // Distinct trigrams of a value, each packed as three 16-bit chars
+    static long[] trigrams(String value) {
+        int count = value.length() - MIN_QUERY_LENGTH + 1;
+        if (count <= 0) {
+            return new long[0];
+        }
+
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == count ? grams : Arrays.copyOf(grams, distinct);
+    }
+}
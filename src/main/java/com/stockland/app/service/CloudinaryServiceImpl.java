@@ -1,16 +1,23 @@
 package com.stockland.app.service;
 
 import com.cloudinary.Cloudinary;
+import com.cloudinary.api.ApiResponse;
 import com.cloudinary.utils.ObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class CloudinaryServiceImpl{
+
+    // Per-asset statuses of a bulk delete that mean the asset is gone
+    private static final Set<String> DELETED_STATUSES = Set.of("deleted", "not_found");
+
     @Autowired
     private Cloudinary cloudinary;
 
@@ -33,4 +40,23 @@ public class CloudinaryServiceImpl{
             throw new RuntimeException("Cloudinary deletion failed");
         }
     }
+
+    /**
+     * Deletes up to 100 assets in one Admin API call and returns the public
+     * ids Cloudinary did not delete. The call succeeds as a whole even when
+     * single assets fail, so each id's status in the response is checked;
+     * ids Cloudinary does not know count as deleted.
+     */
+    public List<String> deleteFiles(List<String> publicIds) {
+        ApiResponse response;
+        try {
+            response = cloudinary.api().deleteResources(publicIds, ObjectUtils.emptyMap());
+        } catch (Exception e) {
+            throw new RuntimeException("Cloudinary deletion failed");
+        }
+        Map<?, ?> statuses = response != null && response.get("deleted") instanceof Map<?, ?> deleted ? deleted : Map.of();
+        return publicIds.stream()
+                .filter(publicId -> !DELETED_STATUSES.contains(String.valueOf(statuses.get(publicId))))
+                .toList();
+    }
 }
@@ -0,0 +1,171 @@
+package com.stockland.app.service;
+
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.repository.EntityCache;
+import com.stockland.app.repository.ListingCardRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.search.ListingSearchCache;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How many users saved each listing, kept in the {@code favorite_count}
+ * column so cards and the admin grid read and sort by it without counting
+ * favorites. Adding or removing a favorite only bumps a {@link LongAdder}
+ * for the listing; a scheduled flush drains the deltas and writes them with
+ * one {@code UPDATE ... WHERE id IN} per distinct delta, which for the usual
+ * +1 and -1 is a couple of statements however many listings changed.
+ * <p>
+ * Reads see the column as of the last flush; {@link #count(long, long)}
+ * adds what is still pending. A delta that fails to write is put back for
+ * the next flush. On startup, and so after a crash lost pending deltas, the
+ * column is reconciled against the favorite rows.
+ * <p>
+ * The listing_card read model sorts the "Most saved" search by its own copy
+ * of the count, which each flush sets from property for the listings it
+ * wrote. The copy is idempotent, so one that fails is simply repeated on
+ * the next flush. Once copied, the cached "Most saved" pages are dropped.
+ */
+@Component
+public class FavoriteCounter {
+
+    // Listing ids per UPDATE, well below the bind parameter limits
+    static final int FLUSH_BATCH = 500;
+
+    private final PropertyRepository propertyRepository;
+    private final ListingCardRepository listingCardRepository;
+    private final ListingSearchCache listingSearchCache;
+    private final EntityCache entityCache;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // Listings whose count was written but not yet copied onto their card
+    private final Set<Long> uncopied = ConcurrentHashMap.newKeySet();
+
+    public FavoriteCounter(PropertyRepository propertyRepository, ListingCardRepository listingCardRepository,
+                           ListingSearchCache listingSearchCache, EntityCache entityCache) {
+        this.propertyRepository = propertyRepository;
+        this.listingCardRepository = listingCardRepository;
+        this.listingSearchCache = listingSearchCache;
+        this.entityCache = entityCache;
+    }
+
+    public void increment(long propertyId) {
+        add(propertyId, 1);
+    }
+
+    public void decrement(long propertyId) {
+        add(propertyId, -1);
+    }
+
+    // Under the map's lock for the listing, so the flush cannot drop the adder in between
+    private void add(long propertyId, long delta) {
+        pending.compute(propertyId, (id, adder) -> {
+            LongAdder target = adder != null ? adder : new LongAdder();
+            target.add(delta);
+            return target;
+        });
+    }
+
+    // The stored count plus the changes not flushed yet
+    public long count(long propertyId, long stored) {
+        LongAdder delta = pending.get(propertyId);
+        return Math.max(0, stored + (delta != null ? delta.sum() : 0));
+    }
+
+    /**
+     * Writes the pending deltas and returns how many listings changed.
+     * An increment racing the drain lands either in this flush or the next
+     * one. A drained adder is dropped only if nothing was added since, which
+     * is checked under the same lock the increments take.
+     */
+    @Scheduled(fixedDelayString = "${favorite.count.flush-ms:5000}", initialDelayString = "${favorite.count.flush-ms:5000}")
+    public int flush() {
+        Map<Long, List<Long>> idsByDelta = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(entry.getKey());
+            }
+            pending.computeIfPresent(entry.getKey(), (id, adder) -> adder.sum() == 0 ? null : adder);
+        }
+
+        int flushed = 0;
+        RuntimeException failure = null;
+        for (Map.Entry<Long, List<Long>> group : idsByDelta.entrySet()) {
+            long delta = group.getKey();
+            List<Long> ids = group.getValue();
+            for (int from = 0; from < ids.size(); from += FLUSH_BATCH) {
+                List<Long> batch = ids.subList(from, Math.min(from + FLUSH_BATCH, ids.size()));
+                try {
+                    propertyRepository.addFavoriteCount(batch, delta);
+                    entityCache.evictListings(batch);
+                    uncopied.addAll(batch);
+                    flushed += batch.size();
+                } catch (RuntimeException e) {
+                    batch.forEach(id -> add(id, delta));
+                    failure = e;
+                }
+            }
+        }
+
+        List<Long> copy = new ArrayList<>(uncopied);
+        boolean copied = false;
+        for (int from = 0; from < copy.size(); from += FLUSH_BATCH) {
+            List<Long> batch = copy.subList(from, Math.min(from + FLUSH_BATCH, copy.size()));
+            try {
+                listingCardRepository.copyFavoriteCounts(batch);
+                batch.forEach(uncopied::remove);
+                copied = true;
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        if (copied) {
+            listingSearchCache.invalidateSortedBy("favoriteCount");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return flushed;
+    }
+
+    // Sets every count from the favorite rows, and every card's from its listing; returns how many listings were off
+    @EventListener(ApplicationReadyEvent.class)
+    public int reconcile() {
+        int reconciled = propertyRepository.reconcileFavoriteCounts();
+        if (listingCardRepository.reconcileFavoriteCounts() > 0) {
+            listingSearchCache.invalidateSortedBy("favoriteCount");
+        }
+        return reconciled;
+    }
+
+    // Listings with an adder in the map, flushed or not
+    int pendingListings() {
+        return pending.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // A deleted listing takes its favorites and its column with it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getChange() == PropertyChangedEvent.Change.DELETED) {
+            pending.remove(event.getPropertyId());
+            uncopied.remove(event.getPropertyId());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.stockland.app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.repository.FavoriteRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The ids of the listings each user has favorited, so the heart on a
+ * listing costs a lookup in memory instead of a query. A user's ids are a
+ * sorted {@code long[]}, loaded on first use and searched by bisection;
+ * writes swap in a copy, so readers never lock. The cache is capped by an
+ * estimate of the bytes held and drops users idle for a while; a dropped
+ * user is simply loaded again on the next visit.
+ * <p>
+ * {@link FavoriteService} reports its writes after they reach the database.
+ * An update only touches a user already cached, and Caffeine runs it after
+ * a load in flight for that user, so the ids never miss a committed write.
+ */
+@Component
+public class FavoriteIdCache {
+
+    // Rough JVM sizes used by the weigher, they only have to be proportionate
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final long[] NONE = new long[0];
+
+    private final FavoriteRepository favoriteRepository;
+    private final Cache<Long, long[]> cache;
+
+    public FavoriteIdCache(FavoriteRepository favoriteRepository,
+                           @Value("${favorite.id.cache.max-bytes:8388608}") long maxBytes,
+                           @Value("${favorite.id.cache.idle-minutes:30}") long idleMinutes) {
+        this.favoriteRepository = favoriteRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, maxBytes))
+                .weigher((Long userId, long[] ids) -> ENTRY_OVERHEAD + 8 * ids.length)
+                .expireAfterAccess(Duration.ofMinutes(Math.max(1, idleMinutes)))
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public boolean contains(long userId, long propertyId) {
+        return Arrays.binarySearch(ids(userId), propertyId) >= 0;
+    }
+
+    // The given listings that the user has favorited
+    public Set<Long> among(long userId, Collection<Long> propertyIds) {
+        long[] ids = ids(userId);
+        Set<Long> favorites = new HashSet<>();
+        for (Long propertyId : propertyIds) {
+            if (propertyId != null && Arrays.binarySearch(ids, propertyId) >= 0) {
+                favorites.add(propertyId);
+            }
+        }
+        return favorites;
+    }
+
+    public void added(long userId, long propertyId) {
+        cache.asMap().computeIfPresent(userId, (id, ids) -> {
+            int at = Arrays.binarySearch(ids, propertyId);
+            if (at >= 0) {
+                return ids;
+            }
+            int insert = -at - 1;
+            long[] grown = new long[ids.length + 1];
+            System.arraycopy(ids, 0, grown, 0, insert);
+            grown[insert] = propertyId;
+            System.arraycopy(ids, insert, grown, insert + 1, ids.length - insert);
+            return grown;
+        });
+    }
+
+    public void removed(long userId, long propertyId) {
+        cache.asMap().computeIfPresent(userId, (id, ids) -> without(ids, propertyId));
+    }
+
+    // A deleted listing leaves every user's favorites along with its rows
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getChange() == PropertyChangedEvent.Change.DELETED) {
+            long propertyId = event.getPropertyId();
+            for (Long userId : cache.asMap().keySet()) {
+                cache.asMap().computeIfPresent(userId, (id, ids) -> without(ids, propertyId));
+            }
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private long[] ids(long userId) {
+        return cache.get(userId, id -> {
+            long[] ids = favoriteRepository.findPropertyIdsByUserId(id).stream()
+                    .mapToLong(Long::longValue).sorted().distinct().toArray();
+            return ids.length > 0 ? ids : NONE;
+        });
+    }
+
+    private static long[] without(long[] ids, long propertyId) {
+        int at = Arrays.binarySearch(ids, propertyId);
+        if (at < 0) {
+            return ids;
+        }
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, at);
+        System.arraycopy(ids, at + 1, shrunk, at, ids.length - at - 1);
+        return shrunk;
+    }
+}
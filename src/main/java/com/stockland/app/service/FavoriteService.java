@@ -3,36 +3,116 @@ package com.stockland.app.service;
 import com.stockland.app.model.Favorite;
 import com.stockland.app.model.Property;
 import com.stockland.app.model.User;
+import com.stockland.app.repository.FavoriteCardView;
 import com.stockland.app.repository.FavoriteRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class FavoriteService {
 
     private final FavoriteRepository favoriteRepository;
+    private final FavoriteIdCache favoriteIdCache;
+    private final FavoriteCounter favoriteCounter;
 
-    public FavoriteService(FavoriteRepository favoriteRepository) {
+    public FavoriteService(FavoriteRepository favoriteRepository, FavoriteIdCache favoriteIdCache,
+                           FavoriteCounter favoriteCounter) {
         this.favoriteRepository = favoriteRepository;
+        this.favoriteIdCache = favoriteIdCache;
+        this.favoriteCounter = favoriteCounter;
     }
 
+    // A concurrent add of the same favorite hits the unique constraint; the row is there either way.
+    // Only the add whose row was saved counts it
     public void addFavorite(User user, Property property) {
-        if (!favoriteRepository.existsByUserAndProperty(user, property)) {
-            favoriteRepository.save(new Favorite(user, property));
+        if (!isFavorite(user, property.getId())) {
+            try {
+                favoriteRepository.save(new Favorite(user, property));
+                afterCommit(() -> favoriteCounter.increment(property.getId()));
+            } catch (DataIntegrityViolationException alreadyFavorite) {
+                // counted by the add that won
+            }
+            afterCommit(() -> favoriteIdCache.added(user.getId(), property.getId()));
         }
     }
 
+    // Only the remove that deleted the row counts it, so a double-clicked toggle takes one save off
     public void removeFavorite(User user, Property property) {
-        favoriteRepository.findByUserAndProperty(user, property)
-                .ifPresent(favoriteRepository::delete);
+        if (favoriteRepository.deleteByUserAndProperty(user, property) == 1) {
+            afterCommit(() -> favoriteCounter.decrement(property.getId()));
+        }
+        afterCommit(() -> favoriteIdCache.removed(user.getId(), property.getId()));
+    }
+
+    // The count and the cached ids follow a write once it commits, or right away outside of a transaction
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
     }
 
     public List<Favorite> getFavorites(User user) {
         return favoriteRepository.findByUser(user);
     }
 
+    /**
+     * One page of the user's favorites as table rows, read with a single
+     * statement: the listing columns come from a join, sorted and cut to the
+     * page by the database, and the slice asks for one row more instead of
+     * counting. Sorts by title or location, case-insensitively, or by price,
+     * a missing value as empty or zero; ties, and an unknown key, keep the
+     * order the favorites were added in.
+     */
+    public Slice<FavoriteCardView> getFavoriteCards(User user, String sortField, String sortDir, int page, int size) {
+        return favoriteRepository.findCardsByUserId(user.getId(),
+                PageRequest.of(Math.max(page, 0), size, favoriteOrder(sortField, "desc".equalsIgnoreCase(sortDir))));
+    }
+
+    // Unsafe because the keys are expressions; they only ever come from this switch
+    private static Sort favoriteOrder(String sortField, boolean desc) {
+        String key = switch (sortField != null ? sortField.trim().toLowerCase() : "") {
+            case "title"    -> "lower(coalesce(p.title, ''))";
+            case "location" -> "lower(coalesce(p.location, ''))";
+            case "price"    -> "coalesce(p.price, 0)";
+            default         -> null;
+        };
+        Sort addedFirst = JpaSort.unsafe(Sort.Direction.ASC, "f.id");
+        return key == null ? addedFirst : JpaSort.unsafe(desc ? Sort.Direction.DESC : Sort.Direction.ASC, key).and(addedFirst);
+    }
+
     public boolean isFavorite(User user, Property property) {
-        return favoriteRepository.existsByUserAndProperty(user, property);
+        return isFavorite(user, property.getId());
+    }
+
+    // Answered from the user's cached favorite ids, see FavoriteIdCache
+    public boolean isFavorite(User user, Long propertyId) {
+        return favoriteIdCache.contains(user.getId(), propertyId);
+    }
+
+    // Which of the listings on a page the user has favorited, without a query per listing
+    public Set<Long> favoritesAmong(User user, Collection<Long> propertyIds) {
+        return favoriteIdCache.among(user.getId(), propertyIds);
+    }
+
+    // Users who saved the listing: the stored count plus saves not flushed yet, see FavoriteCounter
+    public long favoriteCount(Long propertyId, long stored) {
+        return favoriteCounter.count(propertyId, stored);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.stockland.app.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Removes the Cloudinary assets of deleted images in the background, so
+ * deleting a listing or a photo never waits on Cloudinary. Public ids are
+ * queued once the deleting transaction commits, never before, so a rollback
+ * leaves the photos of a listing that still exists in place. A scheduled
+ * flush sends them {@value #DELETE_BATCH} to a call of the Admin API.
+ * <p>
+ * A batch that fails goes back on the queue for the next flush, as do the
+ * assets of a batch Cloudinary reports as not deleted, up to
+ * {@value #MAX_ATTEMPTS} attempts; after that they are only logged and stay
+ * in Cloudinary as orphans. The queue lives in memory, so whatever a
+ * crash loses is orphaned the same way.
+ */
+@Component
+public class ImageAssetCleanup {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageAssetCleanup.class);
+
+    // Public ids per delete call, the most Cloudinary's Admin API accepts
+    static final int DELETE_BATCH = 100;
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private final CloudinaryServiceImpl cloudinaryService;
+    private final Queue<Asset> pending = new ConcurrentLinkedQueue<>();
+
+    public ImageAssetCleanup(CloudinaryServiceImpl cloudinaryService) {
+        this.cloudinaryService = cloudinaryService;
+    }
+
+    // Queues the assets when the current transaction commits, or right away outside of one
+    public void removeAfterCommit(Collection<String> publicIds) {
+        List<String> ids = publicIds.stream().filter(id -> id != null && !id.isBlank()).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(ids, 0);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(ids, 0);
+            }
+        });
+    }
+
+    // Assets waiting for the next flush
+    public int pending() {
+        return pending.size();
+    }
+
+    /**
+     * Deletes the queued assets and returns how many went. Only what was
+     * queued when the flush started is taken, so a failed batch put back
+     * waits for the next flush instead of being retried in a loop.
+     */
+    @Scheduled(fixedDelayString = "${image.cleanup.flush-ms:5000}", initialDelayString = "${image.cleanup.flush-ms:5000}")
+    public int flush() {
+        int removed = 0;
+        int queued = pending.size();
+        while (queued > 0) {
+            List<Asset> batch = new ArrayList<>(Math.min(queued, DELETE_BATCH));
+            Asset asset;
+            while (batch.size() < DELETE_BATCH && queued > 0 && (asset = pending.poll()) != null) {
+                batch.add(asset);
+                queued--;
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                Set<String> failed = new HashSet<>(cloudinaryService.deleteFiles(batch.stream().map(Asset::publicId).toList()));
+                removed += batch.size() - failed.size();
+                if (!failed.isEmpty()) {
+                    retry(batch.stream().filter(failedAsset -> failed.contains(failedAsset.publicId())).toList(), "not deleted by Cloudinary");
+                }
+            } catch (RuntimeException e) {
+                retry(batch, e.getMessage());
+            }
+        }
+        return removed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void retry(List<Asset> batch, String reason) {
+        List<String> dropped = new ArrayList<>();
+        for (Asset asset : batch) {
+            if (asset.attempts() + 1 >= MAX_ATTEMPTS) {
+                dropped.add(asset.publicId());
+            } else {
+                pending.add(new Asset(asset.publicId(), asset.attempts() + 1));
+            }
+        }
+        if (!dropped.isEmpty()) {
+            log.warn("Giving up on removing {} image assets after {} attempts: {} ({})",
+                    dropped.size(), MAX_ATTEMPTS, dropped, reason);
+        }
+    }
+
+    private void enqueue(List<String> publicIds, int attempts) {
+        publicIds.forEach(id -> pending.add(new Asset(id, attempts)));
+    }
+
+    private record Asset(String publicId, int attempts) {
+    }
+}
@@ -1,33 +1,80 @@
 package com.stockland.app.service;
 
+import com.stockland.app.dto.ListingFacetsDTO;
+import com.stockland.app.dto.LocationSuggestionDTO;
 import com.stockland.app.dto.PropertyFilterRequestDTO;
 import com.stockland.app.dto.PropertyRequestDTO;
 import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.geo.Gazetteer;
+import com.stockland.app.geo.GeoCircle;
+import com.stockland.app.geo.GeoPoint;
 import com.stockland.app.model.Image;
+import com.stockland.app.model.ListingCard;
 import com.stockland.app.model.Property;
 import com.stockland.app.model.User;
 import com.stockland.app.repository.FavoriteRepository;
 import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.ImageUrlView;
+import com.stockland.app.repository.ListingCardRepository;
+import com.stockland.app.repository.ListingCardView;
+import com.stockland.app.repository.ModerationCountView;
+import com.stockland.app.repository.PropertyCardView;
+import com.stockland.app.repository.PropertyFacetView;
 import com.stockland.app.repository.PropertyRepository;
 import com.stockland.app.model.ModerationStatus;
 import com.stockland.app.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.stockland.app.search.ListingAttributeIndex;
+import com.stockland.app.search.ListingCursor;
+import com.stockland.app.search.ListingFacetCounter;
+import com.stockland.app.search.ListingSearchCache;
+import com.stockland.app.search.ListingSearchEngine;
+import com.stockland.app.search.LocationSuggester;
+import com.stockland.app.search.SimilarListings;
+import com.stockland.app.search.TextAnalyzer;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Nulls;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class PropertyService {
 
+    // Listing ids per image query, well under the bind parameter limit of any driver
+    private static final int IMAGE_BATCH = 500;
+
+    // Listing ids per round of bulk delete statements, for the same reason
+    private static final int DELETE_BATCH = 500;
+
     @Autowired
     CloudinaryServiceImpl cloudinaryService;
 
@@ -35,16 +82,42 @@ public class PropertyService {
     private final UserRepository userRepository;
     private final ImageRepository imageRepository;
     private final FavoriteRepository favoriteRepository;
-
-    public PropertyService(PropertyRepository propertyRepository, UserRepository userRepository, ImageRepository imageRepository, FavoriteRepository favoriteRepository){
+    private final ListingCardRepository listingCardRepository;
+    private final ListingSearchEngine listingSearchEngine;
+    private final ListingAttributeIndex listingAttributeIndex;
+    private final TextAnalyzer textAnalyzer;
+    private final ListingSearchCache listingSearchCache;
+    private final LocationSuggester locationSuggester;
+    private final Gazetteer gazetteer;
+    private final SavedSearchService savedSearchService;
+    private final SimilarListings similarListings;
+    private final ImageAssetCleanup imageAssetCleanup;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PropertyService(PropertyRepository propertyRepository, UserRepository userRepository, ImageRepository imageRepository, FavoriteRepository favoriteRepository,
+                           ListingCardRepository listingCardRepository, ListingSearchEngine listingSearchEngine, ListingAttributeIndex listingAttributeIndex,
+                           TextAnalyzer textAnalyzer, ListingSearchCache listingSearchCache, LocationSuggester locationSuggester,
+                           Gazetteer gazetteer, SavedSearchService savedSearchService, SimilarListings similarListings,
+                           ImageAssetCleanup imageAssetCleanup, ApplicationEventPublisher eventPublisher){
         this.propertyRepository = propertyRepository;
         this.userRepository = userRepository;
         this.imageRepository = imageRepository;
         this.favoriteRepository = favoriteRepository;
+        this.listingCardRepository = listingCardRepository;
+        this.listingSearchEngine = listingSearchEngine;
+        this.listingAttributeIndex = listingAttributeIndex;
+        this.textAnalyzer = textAnalyzer;
+        this.listingSearchCache = listingSearchCache;
+        this.locationSuggester = locationSuggester;
+        this.gazetteer = gazetteer;
+        this.savedSearchService = savedSearchService;
+        this.similarListings = similarListings;
+        this.imageAssetCleanup = imageAssetCleanup;
+        this.eventPublisher = eventPublisher;
     }
 
     private Property PropertyBuilder(PropertyRequestDTO propertyRequestDTO){
-        return Property
+        Property property = Property
                 .builder()
                 .title(propertyRequestDTO.getTitle())
                 .location(propertyRequestDTO.getLocation())
@@ -56,6 +129,20 @@ public class PropertyService {
                 .roomCount(propertyRequestDTO.getRoomCount())
                 .area(propertyRequestDTO.getArea())
                 .build();
+        locate(property, propertyRequestDTO.getLatitude(), propertyRequestDTO.getLongitude());
+        return property;
+    }
+
+    // Keeps coordinates sent with the listing, otherwise looks its location up in the gazetteer
+    private void locate(Property property, Double latitude, Double longitude) {
+        if (latitude != null && longitude != null) {
+            property.setLatitude(latitude);
+            property.setLongitude(longitude);
+            return;
+        }
+        GeoPoint point = gazetteer.resolve(property.getLocation());
+        property.setLatitude(point != null ? point.getLatitude() : null);
+        property.setLongitude(point != null ? point.getLongitude() : null);
     }
 
     private Double parsePrice(String price) {
@@ -64,8 +151,6 @@ public class PropertyService {
     }
 
     private PropertyResponseDTO PropertyResponseDTOBuilder(Property property){
-        User user = property.getUser();
-
         List<Image> storedImages = property.getImages();
         int s = (storedImages != null) ? storedImages.size(): 0;
         String[] imageUrls = new String[s];
@@ -76,11 +161,136 @@ public class PropertyService {
             }
         }
 
+        return PropertyResponseDTOBuilder(property, imageUrls);
+    }
+
+    /**
+     * DTOs for a batch of listings. The image URLs of every listing whose
+     * images are not loaded yet come from one IN query per
+     * {@value #IMAGE_BATCH} listings instead of one select per listing.
+     */
+    private List<PropertyResponseDTO> toResponseDTOs(List<Property> properties) {
+        List<Long> unloaded = new ArrayList<>();
+        for (Property property : properties) {
+            if (!Hibernate.isInitialized(property.getImages())) {
+                unloaded.add(property.getId());
+            }
+        }
+
+        Map<Long, List<String>> urls = new HashMap<>();
+        for (int from = 0; from < unloaded.size(); from += IMAGE_BATCH) {
+            List<Long> batch = unloaded.subList(from, Math.min(from + IMAGE_BATCH, unloaded.size()));
+            for (ImageUrlView image : imageRepository.findUrlsByPropertyIds(batch)) {
+                urls.computeIfAbsent(image.getPropertyId(), id -> new ArrayList<>()).add(image.getUrl());
+            }
+        }
+
+        List<PropertyResponseDTO> responseList = new ArrayList<>(properties.size());
+        for (Property property : properties) {
+            if (Hibernate.isInitialized(property.getImages())) {
+                responseList.add(PropertyResponseDTOBuilder(property));
+            } else {
+                String[] imageUrls = urls.getOrDefault(property.getId(), List.of()).toArray(String[]::new);
+                responseList.add(PropertyResponseDTOBuilder(property, imageUrls));
+            }
+        }
+        return responseList;
+    }
+
+    /**
+     * Card DTOs for the list views: no description, and for images only the
+     * cover, which is all a card shows. The covers of the batch come from one
+     * IN query per {@value #IMAGE_BATCH} listings.
+     */
+    private List<PropertyResponseDTO> toCardDTOs(List<PropertyCardView> cards) {
+        Map<Long, String> covers = new HashMap<>();
+        for (int from = 0; from < cards.size(); from += IMAGE_BATCH) {
+            List<Long> batch = cards.subList(from, Math.min(from + IMAGE_BATCH, cards.size())).stream()
+                    .map(PropertyCardView::getId)
+                    .toList();
+            for (ImageUrlView cover : imageRepository.findCoverUrlsByPropertyIds(batch)) {
+                covers.put(cover.getPropertyId(), cover.getUrl());
+            }
+        }
+
+        List<PropertyResponseDTO> responseList = new ArrayList<>(cards.size());
+        for (PropertyCardView card : cards) {
+            String cover = covers.get(card.getId());
+            responseList.add(PropertyCardDTOBuilder(card, cover != null ? new String[]{cover} : new String[0]));
+        }
+        return responseList;
+    }
+
+    private PropertyResponseDTO PropertyCardDTOBuilder(PropertyCardView card, String[] imageUrls){
+        PropertyCardView.Owner user = card.getUser();
+
+        return PropertyResponseDTO
+                .builder()
+                .id(card.getId())
+                .title(card.getTitle())
+                .location(card.getLocation())
+                .latitude(card.getLatitude())
+                .longitude(card.getLongitude())
+                .price(card.getPrice())
+                .actionType(card.getActionType())
+                .propertyType(card.getPropertyType())
+                .status(card.getStatus())
+                .moderationStatus(card.getModerationStatus())
+                .userID(user.getId())
+                .username(user.getUsername())
+                .images(imageUrls)
+                .Area(card.getArea())
+                .roomCount(card.getRoomCount())
+                .createdAt(card.getCreatedAt())
+                .featured(card.isFeatured())
+                .favoriteCount(card.getFavoriteCount())
+                .build();
+    }
+
+    // Card DTO straight off a listing_card row: an approved listing, its cover and owner, no joins
+    private PropertyResponseDTO ListingCardDTOBuilder(ListingCardView card){
+        return PropertyResponseDTO
+                .builder()
+                .id(card.getId())
+                .title(card.getTitle())
+                .location(card.getLocation())
+                .latitude(card.getLatitude())
+                .longitude(card.getLongitude())
+                .price(card.getPrice())
+                .actionType(card.getActionType())
+                .propertyType(card.getPropertyType())
+                .status(card.getStatus())
+                .moderationStatus(ModerationStatus.APPROVED)
+                .userID(card.getUserId() != null ? card.getUserId() : 0)
+                .username(card.getUsername())
+                .images(card.getCoverUrl() != null ? new String[]{card.getCoverUrl()} : new String[0])
+                .imageCount(card.getImageCount())
+                .Area(card.getArea())
+                .roomCount(card.getRoomCount())
+                .createdAt(card.getCreatedAt())
+                .featured(card.isFeatured())
+                .favoriteCount(card.getFavoriteCount())
+                .build();
+    }
+
+    private List<PropertyResponseDTO> toListingCardDTOs(List<ListingCardView> cards) {
+        List<PropertyResponseDTO> responseList = new ArrayList<>(cards.size());
+        for (ListingCardView card : cards) {
+            responseList.add(ListingCardDTOBuilder(card));
+        }
+        return responseList;
+    }
+
+    private PropertyResponseDTO PropertyResponseDTOBuilder(Property property, String[] imageUrls){
+        User user = property.getUser();
+
         return PropertyResponseDTO
                 .builder()
                 .id(property.getId())
                 .title(property.getTitle())
                 .location(property.getLocation())
+                .latitude(property.getLatitude())
+                .longitude(property.getLongitude())
                 .price(property.getPrice())
                 .description(property.getDescription())
                 .actionType(property.getActionType())
@@ -90,13 +300,76 @@ public class PropertyService {
                 .userID(user.getId())
                 .username(user.getUsername())
                 .images(imageUrls)
+                .imageCount(imageUrls.length)
                 .Area(property.getArea())
                 .roomCount(property.getRoomCount())
                 .createdAt(property.getCreatedAt())
                 .featured(property.isFeatured())
+                .favoriteCount(property.getFavoriteCount())
                 .build();
     }
 
+    // Tells the search engine and other listeners about a write, they act after commit; the listing card is written right away
+    private PropertyResponseDTO publishChange(PropertyChangedEvent.Change change, PropertyResponseDTO dto) {
+        return publishChange(change, null, dto);
+    }
+
+    private PropertyResponseDTO publishChange(PropertyChangedEvent.Change change, PropertyResponseDTO previous, PropertyResponseDTO dto) {
+        writeListingCard(previous, dto);
+        eventPublisher.publishEvent(new PropertyChangedEvent(change, dto.getId(), dto, previous));
+        return dto;
+    }
+
+    /**
+     * Keeps the listing_card row in step with a write, in the write's
+     * transaction: an approved listing gets its card inserted or updated, one
+     * that was approved before and no longer is loses it. Deleted listings
+     * take their card with them through the foreign key. The favorite count
+     * is not part of the card written; it is copied from property's column
+     * right after, as the listing's may predate the last FavoriteCounter
+     * flush. A write that changed the listing holds its row lock, so a flush
+     * commits its count either before that copy or after this transaction,
+     * whose card its own copy then finds.
+     */
+    private void writeListingCard(PropertyResponseDTO previous, PropertyResponseDTO listing) {
+        if (listing.getModerationStatus() == ModerationStatus.APPROVED) {
+            listingCardRepository.save(toListingCard(listing));
+            listingCardRepository.copyFavoriteCounts(List.of(listing.getId()));
+        } else if (previous != null && previous.getModerationStatus() == ModerationStatus.APPROVED) {
+            listingCardRepository.deleteById(listing.getId());
+        }
+    }
+
+    private static ListingCard toListingCard(PropertyResponseDTO listing) {
+        String[] images = listing.getImages() != null ? listing.getImages() : new String[0];
+        return ListingCard.builder()
+                .id(listing.getId())
+                .title(listing.getTitle())
+                .location(listing.getLocation())
+                .locationLower(lower(listing.getLocation()))
+                .latitude(listing.getLatitude())
+                .longitude(listing.getLongitude())
+                .price(listing.getPrice())
+                .area(listing.getArea())
+                .roomCount(listing.getRoomCount())
+                .actionType(listing.getActionType())
+                .propertyType(listing.getPropertyType())
+                .status(listing.getStatus())
+                .statusLower(lower(listing.getStatus()))
+                .searchText(lower(Objects.toString(listing.getTitle(), "") + " " + Objects.toString(listing.getDescription(), "")))
+                .createdAt(listing.getCreatedAt())
+                .featured(listing.isFeatured())
+                .userId(listing.getUserID())
+                .username(listing.getUsername())
+                .coverUrl(images.length > 0 ? images[0] : null)
+                .imageCount(images.length)
+                .build();
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
     public Property getPropertyById(Long id) {
         return propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
@@ -129,7 +402,9 @@ public class PropertyService {
 
         Property savedProperty = propertyRepository.save(newProperty);
 
+        // The images go in as one insert batch at commit
         if (files != null && files.length > 0) {
+            List<Image> images = new ArrayList<>();
             for (MultipartFile file : files) {
                 if (!file.isEmpty()) {
                     Map uploadResult = cloudinaryService.uploadFile(file, "properties");
@@ -141,16 +416,17 @@ public class PropertyService {
                             .property(savedProperty)
                             .build();
 
-                    imageRepository.save(img);
-                    savedProperty.getImages().add(img);
+                    images.add(img);
                 }
             }
+            imageRepository.saveAll(images);
+            savedProperty.getImages().addAll(images);
         }
 
-        return PropertyResponseDTOBuilder(savedProperty);
+        return publishChange(PropertyChangedEvent.Change.CREATED, PropertyResponseDTOBuilder(savedProperty));
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public PropertyResponseDTO findById(long id) {
         Optional<Property> propertyOptional = propertyRepository.findById(id);
 
@@ -165,10 +441,41 @@ public class PropertyService {
 
     @Transactional
     public void deleteById(long id) {
-        Property property = propertyRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
-        favoriteRepository.deleteByProperty(property);
-        propertyRepository.delete(property);
+        if (deleteByIds(List.of(id)) == 0) {
+            throw new RuntimeException("Property not found with id: " + id);
+        }
+    }
+
+    /**
+     * Deletes the listings with their favorites, saved search matches and
+     * images, one DELETE per table for up to {@value #DELETE_BATCH} listings,
+     * all in one transaction, and returns how many of the ids existed. Their
+     * Cloudinary assets are queued once it commits, see {@link ImageAssetCleanup}.
+     */
+    @Transactional
+    public int deleteByIds(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        int deleted = 0;
+        for (int from = 0; from < distinct.size(); from += DELETE_BATCH) {
+            List<Property> properties = propertyRepository.findByIdIn(distinct.subList(from, Math.min(from + DELETE_BATCH, distinct.size())));
+            if (properties.isEmpty()) {
+                continue;
+            }
+            List<PropertyResponseDTO> previous = toResponseDTOs(properties);
+            List<Long> found = properties.stream().map(Property::getId).toList();
+            List<String> publicIds = imageRepository.findPublicIdsByPropertyIds(found);
+
+            favoriteRepository.deleteByPropertyIds(found);
+            savedSearchService.deleteMatches(found);
+            imageRepository.deleteByPropertyIds(found);
+            deleted += propertyRepository.deleteByIds(found);
+
+            imageAssetCleanup.removeAfterCommit(publicIds);
+            for (PropertyResponseDTO listing : previous) {
+                eventPublisher.publishEvent(new PropertyChangedEvent(PropertyChangedEvent.Change.DELETED, listing.getId(), null, listing));
+            }
+        }
+        return deleted;
     }
 
 //    public PropertyResponseDTO updateProperty(Long id, PropertyRequestDTO dto) {
@@ -178,20 +485,23 @@ public class PropertyService {
     public PropertyResponseDTO updateProperty(Long id, PropertyRequestDTO dto, MultipartFile[] newImages, List<String> imageUrlsToDelete, boolean isAdmin) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
+        PropertyResponseDTO previous = PropertyResponseDTOBuilder(property);
 
-        // Deletes marked images
+        // Deletes marked images, their Cloudinary assets once the update commits
         if(imageUrlsToDelete != null && !imageUrlsToDelete.isEmpty()){
+            List<String> removedAssets = new ArrayList<>();
             for(String url : imageUrlsToDelete){
                 Optional<Image> optionalImg = imageRepository.findByUrl(url);
                 if (!optionalImg.isEmpty()) {
                     Image img = optionalImg.get();
 
-                    cloudinaryService.deleteFile(img.getPublic_id());
+                    removedAssets.add(img.getPublic_id());
 
                     imageRepository.delete(img);
                     property.getImages().remove(img);
                 }
             }
+            imageAssetCleanup.removeAfterCommit(removedAssets);
         }
 
         property.setTitle(dto.getTitle());
@@ -203,9 +513,11 @@ public class PropertyService {
         property.setStatus(dto.getStatus());
         property.setArea(dto.getArea());
         property.setRoomCount(dto.getRoomCount());
+        locate(property, dto.getLatitude(), dto.getLongitude());
 
-        // Adds additionally provided images
+        // Adds additionally provided images, inserted as one batch at commit
         if (newImages != null && newImages.length > 0) {
+            List<Image> added = new ArrayList<>();
             for (MultipartFile file : newImages) {
                 if (!file.isEmpty()) {
                     Map uploadResult = cloudinaryService.uploadFile(file, "properties");
@@ -214,10 +526,11 @@ public class PropertyService {
                             .public_id(uploadResult.get("public_id").toString())
                             .property(property)
                             .build();
-                    imageRepository.save(newImg);
-                    property.getImages().add(newImg);
+                    added.add(newImg);
                 }
             }
+            imageRepository.saveAll(added);
+            property.getImages().addAll(added);
         }
 
         if (!isAdmin) {
@@ -225,7 +538,7 @@ public class PropertyService {
         }
 
         Property saved = propertyRepository.save(property);
-        return PropertyResponseDTOBuilder(saved);
+        return publishChange(PropertyChangedEvent.Change.UPDATED, previous, PropertyResponseDTOBuilder(saved));
     }
 
 //    public List<PropertyResponseDTO> findPropertiesByUser(Long userId){
@@ -363,88 +676,250 @@ public class PropertyService {
 //        return responseList;
 //    }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<PropertyResponseDTO> findAll(){
-        List<Property> propertyList = propertyRepository.findAll();
-
-        List<PropertyResponseDTO> responseList = new ArrayList<>();
-
-        for(var property :  propertyList){
-            PropertyResponseDTO newProperty = PropertyResponseDTOBuilder(property);
+        return toCardDTOs(propertyRepository.findCardsBy());
+    }
 
-            responseList.add(newProperty);
+    /**
+     * One page of the admin moderation grid. The moderation filter, the sort
+     * and the page are all applied by the database, and the total comes from
+     * {@link #countByModerationStatus()}, so a page costs no COUNT query. An
+     * unknown filter shows every listing; an unknown sort field falls back to
+     * the default order, pending first, then approved, then rejected, newest
+     * first within each.
+     */
+    public Page<PropertyResponseDTO> findAllForAdmin(String moderationFilter, String sortField, String sortDir, int page, int size) {
+        ModerationStatus status = moderationStatus(moderationFilter);
+        Specification<Property> spec = adminOrdering(sortField, "desc".equalsIgnoreCase(sortDir));
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("moderationStatus"), status));
         }
 
-        return responseList;
-    }
+        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
+        // The ordering lives in the specification, so the fluent query is left unsorted
+        Slice<PropertyCardView> cards = propertyRepository.findBy(spec, query -> query.as(PropertyCardView.class).slice(pageable));
 
-    public List<PropertyResponseDTO> findAllForAdmin(String moderationFilter) {
-        return findAllForAdmin(moderationFilter, null, null);
+        return new PageImpl<>(toCardDTOs(cards.getContent()), pageable, total(countByModerationStatus(), status));
     }
 
-    public List<PropertyResponseDTO> findAllForAdmin(String moderationFilter, String sortField, String sortDir) {
-        List<Property> propertyList;
-
-        if (moderationFilter != null && !moderationFilter.isBlank()) {
-            try {
-                ModerationStatus status = ModerationStatus.valueOf(moderationFilter.toUpperCase());
-                propertyList = propertyRepository.findByModerationStatus(status);
-            } catch (IllegalArgumentException e) {
-                propertyList = propertyRepository.findAll();
+    /**
+     * Listings per moderation status, for the admin grid's totals and tabs.
+     * Read off the attribute bitmaps, which every write keeps current, so
+     * they cost no query; until the bitmaps are loaded one GROUP BY does.
+     */
+    public Map<ModerationStatus, Long> countByModerationStatus() {
+        Map<ModerationStatus, Long> counts = new EnumMap<>(ModerationStatus.class);
+        for (ModerationStatus status : ModerationStatus.values()) {
+            counts.put(status, 0L);
+        }
+        if (listingAttributeIndex.isReady()) {
+            for (ModerationStatus status : ModerationStatus.values()) {
+                counts.put(status, (long) listingAttributeIndex.count(ListingAttributeIndex.Filter.moderation(status)));
             }
         } else {
-            propertyList = propertyRepository.findAll();
+            addCounts(counts, propertyRepository.countByModerationStatus());
         }
+        return counts;
+    }
 
-        List<PropertyResponseDTO> responseList = new ArrayList<>();
-        for (Property property : propertyList) {
-            responseList.add(PropertyResponseDTOBuilder(property));
+    // Listings of one owner per moderation status, one grouped query over the owner's index range
+    public Map<ModerationStatus, Long> countByModerationStatus(Long userId) {
+        Map<ModerationStatus, Long> counts = new EnumMap<>(ModerationStatus.class);
+        for (ModerationStatus status : ModerationStatus.values()) {
+            counts.put(status, 0L);
         }
+        addCounts(counts, propertyRepository.countByModerationStatusForUser(userId));
+        return counts;
+    }
 
-        boolean desc = "desc".equalsIgnoreCase(sortDir);
+    private static void addCounts(Map<ModerationStatus, Long> counts, List<ModerationCountView> rows) {
+        for (ModerationCountView row : rows) {
+            if (row.getModerationStatus() != null) {
+                counts.put(row.getModerationStatus(), row.getListings());
+            }
+        }
+    }
+
+    // Listings under the filter, or all of them without one
+    private static long total(Map<ModerationStatus, Long> counts, ModerationStatus status) {
+        return status != null
+                ? counts.get(status)
+                : counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static ModerationStatus moderationStatus(String moderationFilter) {
+        if (moderationFilter == null || moderationFilter.isBlank()) {
+            return null;
+        }
+        try {
+            return ModerationStatus.valueOf(moderationFilter.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        if (sortField != null && !sortField.isBlank()) {
-            Comparator<PropertyResponseDTO> comparator = switch (sortField.toLowerCase()) {
-                case "id"        -> Comparator.comparingLong(p -> p.getId() != null ? p.getId() : 0L);
-                case "title"     -> Comparator.comparing(p -> p.getTitle() != null ? p.getTitle().toLowerCase() : "");
-                case "owner"     -> Comparator.comparing(p -> p.getUsername() != null ? p.getUsername().toLowerCase() : "");
-                case "price"     -> Comparator.comparingDouble(p -> p.getPrice() != null ? p.getPrice() : 0.0);
-                case "location"  -> Comparator.comparing(p -> p.getLocation() != null ? p.getLocation().toLowerCase() : "");
-                case "status"    -> Comparator.comparing(p -> p.getStatus() != null ? p.getStatus().toLowerCase() : "");
-                case "createdat" -> Comparator.comparing(
-                        PropertyResponseDTO::getCreatedAt,
-                        Comparator.nullsLast(Comparator.naturalOrder()));
-                case "featured"  -> Comparator.comparingInt(p -> p.isFeatured() ? 0 : 1);
+    /**
+     * Order of the admin grid. Text compares case-insensitively and a missing
+     * value sorts as the smallest, except a missing creation time, which sorts
+     * as the latest; ascending by featured puts featured listings first. Ties
+     * break on id in the same direction so pages do not overlap.
+     */
+    private static Specification<Property> adminOrdering(String sortField, boolean desc) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            List<Order> orders = new ArrayList<>();
+            String field = sortField != null ? sortField.trim().toLowerCase() : "";
+            Expression<?> key = switch (field) {
+                case "id"        -> id;
+                case "title"     -> cb.lower(root.get("title"));
+                case "owner"     -> cb.lower(root.join("user", JoinType.LEFT).get("username"));
+                case "price"     -> root.get("price");
+                case "location"  -> cb.lower(root.get("location"));
+                case "status"    -> cb.lower(root.get("status"));
+                case "createdat" -> root.get("createdAt");
+                case "featured"  -> root.get("featured");
+                case "favorites" -> root.get("favoriteCount");
                 default          -> null;
             };
 
-            if (comparator != null) {
-                if (desc) comparator = comparator.reversed();
-                responseList.sort(comparator);
+            if (key == null) {
+                Expression<Integer> rank = cb.<Integer>selectCase()
+                        .when(cb.equal(root.get("moderationStatus"), ModerationStatus.PENDING), 0)
+                        .when(cb.equal(root.get("moderationStatus"), ModerationStatus.APPROVED), 1)
+                        .otherwise(2);
+                orders.add(cb.asc(rank));
+                orders.add(cb.desc(root.get("createdAt"), Nulls.LAST));
+                orders.add(cb.desc(id));
+            } else {
+                boolean descending = "featured".equals(field) != desc;
+                boolean nullsSmallest = !"createdat".equals(field);
+                Nulls nulls = nullsSmallest != descending ? Nulls.FIRST : Nulls.LAST;
+                if (key != id) {
+                    orders.add(descending ? cb.desc(key, nulls) : cb.asc(key, nulls));
+                }
+                orders.add(desc ? cb.desc(id) : cb.asc(id));
             }
-        } else {
-            // Default: PENDING first, then APPROVED, then REJECTED; within each group newest first
-            responseList.sort(Comparator
-                    .<PropertyResponseDTO, Integer>comparing(p -> {
-                        if (p.getModerationStatus() == ModerationStatus.PENDING)  return 0;
-                        if (p.getModerationStatus() == ModerationStatus.APPROVED) return 1;
-                        return 2;
-                    })
-                    .thenComparing(PropertyResponseDTO::getCreatedAt,
-                            Comparator.nullsLast(Comparator.reverseOrder()))
-            );
-        }
 
-        return responseList;
+            query.orderBy(orders);
+            return cb.conjunction();
+        };
     }
 
-    @Transactional
+    // Order of "My listings": the admin sort keys the tab offers, otherwise newest first, which the owner index serves
+    private static Specification<Property> ownerOrdering(String sortField, boolean desc) {
+        String field = sortField != null ? sortField.trim().toLowerCase() : "";
+        return switch (field) {
+            case "title", "location", "price", "status", "createdat" -> adminOrdering(field, desc);
+            default -> (root, query, cb) -> {
+                query.orderBy(cb.desc(root.get("createdAt"), Nulls.LAST), cb.desc(root.get("id")));
+                return cb.conjunction();
+            };
+        };
+    }
+
+    // Searches go through the result cache with canonical filters, so equivalent requests share an entry
+    @Transactional(readOnly = true)
     public Page<PropertyResponseDTO> searchPropertiesWithFilterSortAndPagination(
             PropertyFilterRequestDTO filters,
             Pageable pageable
     ){
-        Specification<Property> spec = Specification.where((root, query, cb) ->
-                cb.equal(root.get("moderationStatus"), ModerationStatus.APPROVED));
+        PropertyFilterRequestDTO canonical = listingSearchCache.canonical(filters);
+        return listingSearchCache.page(canonical, pageable, () -> searchPage(canonical, pageable));
+    }
+
+    private Page<PropertyResponseDTO> searchPage(PropertyFilterRequestDTO filters, Pageable pageable) {
+        if (listingSearchEngine.isReady() && listingSearchEngine.supports(pageable)) {
+            return listingSearchEngine.search(filters, pageable);
+        }
+
+        Page<ListingCardView> cards = listingCardRepository.findBy(buildSearchSpecification(filters),
+                query -> query.as(ListingCardView.class).page(withoutRelevance(pageable)));
+
+        return new PageImpl<>(toListingCardDTOs(cards.getContent()), cards.getPageable(), cards.getTotalElements());
+    }
+
+    // The database cannot rank by relevance, so that order is dropped and the default newest-first applies
+    private static Pageable withoutRelevance(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor("relevance") == null) {
+            return pageable;
+        }
+        Sort rest = Sort.by(sort.stream().filter(order -> !"relevance".equals(order.getProperty())).toList());
+        Sort effective = rest.isSorted() ? rest : Sort.by(Sort.Direction.DESC, "id");
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), effective) : Pageable.unpaged(effective);
+    }
+
+    /**
+     * Keyset (seek) variant of the listing search. Instead of an offset it takes
+     * the "after" token of the previous slice and returns the next one, without
+     * a count query. Only the first sort order is used, see {@link ListingCursor}.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PropertyResponseDTO> searchPropertiesWithFilterSortAndPagination(
+            PropertyFilterRequestDTO filters,
+            Pageable pageable,
+            String after
+    ){
+        PropertyFilterRequestDTO canonical = listingSearchCache.canonical(filters);
+        return listingSearchCache.slice(canonical, pageable, after, () -> searchSlice(canonical, pageable, after));
+    }
+
+    private Slice<PropertyResponseDTO> searchSlice(PropertyFilterRequestDTO filters, Pageable pageable, String after) {
+        Sort.Order order = ListingCursor.keysetOrder(pageable.getSort());
+        ListingCursor cursor = ListingCursor.decode(after, order);
+        int size = pageable.getPageSize();
+
+        if (listingSearchEngine.isReady()) {
+            return listingSearchEngine.searchAfter(filters, order, cursor, size);
+        }
+
+        Specification<ListingCard> spec = buildSearchSpecification(filters).and(keysetOrdering(order));
+        if (cursor != null) {
+            spec = spec.and(keysetSpecification(cursor));
+        }
+
+        // The ordering lives in the specification, so the fluent query is left unsorted
+        List<ListingCardView> cards = listingCardRepository.findBy(spec, query -> query.as(ListingCardView.class).limit(size + 1).all());
+
+        List<PropertyResponseDTO> content = toListingCardDTOs(cards.subList(0, Math.min(size, cards.size())));
+
+        return new SliceImpl<>(content, PageRequest.of(0, size, Sort.by(order)), cards.size() > size);
+    }
+
+    /**
+     * Facet counts for the listings sidebar under the same filters as the search.
+     * Without the in-memory engine the faceted columns are fetched in one
+     * projected query and counted in a single pass, not one GROUP BY per facet.
+     */
+    @Transactional(readOnly = true)
+    public ListingFacetsDTO getListingFacets(PropertyFilterRequestDTO filters) {
+        PropertyFilterRequestDTO canonical = listingSearchCache.canonical(filters);
+        return listingSearchCache.facets(canonical, () -> countFacets(canonical));
+    }
+
+    private ListingFacetsDTO countFacets(PropertyFilterRequestDTO filters) {
+        if (listingSearchEngine.isReady()) {
+            return listingSearchEngine.facets(filters);
+        }
+
+        List<PropertyFacetView> rows = listingCardRepository.findBy(buildSearchSpecification(filters),
+                query -> query.as(PropertyFacetView.class).all());
+
+        ListingFacetCounter counter = new ListingFacetCounter();
+        for (PropertyFacetView row : rows) {
+            counter.add(row.getActionType(), row.getPropertyType(), row.getPrice(), row.getRoomCount(), row.getArea());
+        }
+        return counter.toDTO();
+    }
+
+    /**
+     * The search filters over listing_card, which only holds approved
+     * listings. Location, status and the keyword text are stored lower-cased,
+     * so the substring filters compare the columns as they are.
+     */
+    private Specification<ListingCard> buildSearchSpecification(PropertyFilterRequestDTO filters) {
+        Specification<ListingCard> spec = Specification.unrestricted();
 
         if (filters.getMinArea() != null) {
             spec = spec.and((root, query, cb) ->
@@ -468,7 +943,7 @@ public class PropertyService {
 
         if (filters.getLocation() != null) {
             spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("location")), "%" + filters.getLocation().toLowerCase() + "%"));
+                    cb.like(root.get("locationLower"), "%" + filters.getLocation().toLowerCase() + "%"));
         }
 
         if (filters.getMinPrice() != null) {
@@ -493,99 +968,222 @@ public class PropertyService {
 
         if (filters.getStatus() != null) {
             spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("status")), "%" + filters.getStatus().toLowerCase() + "%"));
+                    cb.like(root.get("statusLower"), "%" + filters.getStatus().toLowerCase() + "%"));
         }
 
-        Page<Property> entities = propertyRepository.findAll(spec, pageable);
+        // Bounding box first so an index on (latitude, longitude) narrows the rows, then the exact circle
+        GeoCircle circle = GeoCircle.of(filters);
+        if (circle != null) {
+            spec = spec.and((root, query, cb) -> {
+                Expression<Double> latitude = root.get("latitude");
+                Expression<Double> longitude = root.get("longitude");
+                Expression<Double> dLat = cb.diff(latitude, circle.getLatitude());
+                Expression<Double> dLon = cb.prod(cb.diff(longitude, circle.getLongitude()), circle.getLongitudeScale());
+                return cb.and(
+                        cb.between(latitude, circle.getMinLatitude(), circle.getMaxLatitude()),
+                        cb.between(longitude, circle.getMinLongitude(), circle.getMaxLongitude()),
+                        cb.le(cb.sum(cb.prod(dLat, dLat), cb.prod(dLon, dLon)), circle.getRadiusDegreesSquared()));
+            });
+        }
 
-        return entities.map(entity -> PropertyResponseDTOBuilder(entity));
+        // Only used until the search engine is loaded: every analyzed term has to occur in the title or description.
+        // Diacritic folding and whole-word matching are left to the engine's full-text index.
+        for (String term : new LinkedHashSet<>(textAnalyzer.terms(filters.getQ()))) {
+            spec = spec.and((root, query, cb) -> cb.like(root.get("searchText"), "%" + term + "%"));
+        }
+
+        return spec;
     }
 
-    @Transactional
-    public List<PropertyResponseDTO> getPropertiesByUserId(Long userId) {
-        return getPropertiesByUserId(userId, null, null, null);
+    // NULL keys sort as the largest value, the same way the search engine orders them, then ties break on id
+    private Specification<ListingCard> keysetOrdering(Sort.Order order) {
+        return (root, query, cb) -> {
+            boolean desc = order.isDescending();
+            Path<Long> id = root.get("id");
+            List<Order> orders = new ArrayList<>();
+
+            if (!"id".equals(order.getProperty())) {
+                Path<?> key = root.get(order.getProperty());
+                Expression<Integer> nullRank = cb.<Integer>selectCase().when(cb.isNull(key), 1).otherwise(0);
+                orders.add(desc ? cb.desc(nullRank) : cb.asc(nullRank));
+                orders.add(desc ? cb.desc(key) : cb.asc(key));
+            }
+            orders.add(desc ? cb.desc(id) : cb.asc(id));
+
+            query.orderBy(orders);
+            return cb.conjunction();
+        };
     }
 
-    public List<PropertyResponseDTO> getPropertiesByUserId(Long userId, String sortField, String sortDir) {
-        return getPropertiesByUserId(userId, sortField, sortDir, null);
+    // Rows strictly after the cursor: (key, id) beyond the cursor's, with NULL keys after every value
+    private Specification<ListingCard> keysetSpecification(ListingCursor cursor) {
+        return (root, query, cb) -> {
+            boolean desc = cursor.getOrder().isDescending();
+            Path<Long> id = root.get("id");
+            Predicate idAfter = desc ? cb.lessThan(id, cursor.getId()) : cb.greaterThan(id, cursor.getId());
+
+            String property = cursor.getOrder().getProperty();
+            if ("id".equals(property)) {
+                return idAfter;
+            }
+
+            Path<?> key = root.get(property);
+            if (cursor.isNullKey()) {
+                Predicate nullTie = cb.and(cb.isNull(key), idAfter);
+                return desc ? cb.or(nullTie, cb.isNotNull(key)) : nullTie;
+            }
+
+            Predicate beyond = "createdAt".equals(property)
+                    ? keyBeyond(cb, root.get(property), (LocalDateTime) cursor.getKey(), desc)
+                    : keyBeyond(cb, root.get(property), (Double) cursor.getKey(), desc);
+            Predicate tie = cb.and(cb.equal(key, cursor.getKey()), idAfter);
+            return desc ? cb.or(beyond, tie) : cb.or(beyond, tie, cb.isNull(key));
+        };
     }
 
-    public List<PropertyResponseDTO> getPropertiesByUserId(Long userId, String sortField, String sortDir, String moderationFilter) {
-        List<Property> properties = propertyRepository.findByUserId(userId);
+    private static <T extends Comparable<? super T>> Predicate keyBeyond(CriteriaBuilder cb, Path<T> key, T value, boolean desc) {
+        return desc ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+    }
 
-        List<PropertyResponseDTO> responseList = new ArrayList<>();
+    // Reloads every approved listing into the in-memory search engine and location trie, and every listing into the attribute bitmaps.
+    // Requests are served meanwhile; the indexes note the changes committed from here on and replay them onto their rebuilt state.
+    @Transactional
+    public void rebuildSearchIndex() {
+        listingAttributeIndex.beginRebuild();
+        listingSearchEngine.beginRebuild();
+        locationSuggester.beginRebuild();
+        similarListings.beginRebuild();
 
-        for (Property property : properties) {
-            responseList.add(PropertyResponseDTOBuilder(property));
-        }
-
-        // Apply moderation filter
-        if (moderationFilter != null && !moderationFilter.isBlank()) {
-            try {
-                ModerationStatus status = ModerationStatus.valueOf(moderationFilter.toUpperCase());
-                responseList.removeIf(p -> p.getModerationStatus() != status);
-            } catch (IllegalArgumentException ignored) {}
-        }
-
-        // Apply sort
-        boolean desc = "desc".equalsIgnoreCase(sortDir);
-        if (sortField != null && !sortField.isBlank()) {
-            Comparator<PropertyResponseDTO> comparator = switch (sortField.toLowerCase()) {
-                case "title"     -> Comparator.comparing(p -> p.getTitle() != null ? p.getTitle().toLowerCase() : "");
-                case "price"     -> Comparator.comparingDouble(p -> p.getPrice() != null ? p.getPrice() : 0.0);
-                case "status"    -> Comparator.comparing(p -> p.getStatus() != null ? p.getStatus().toLowerCase() : "");
-                case "createdat" -> Comparator.comparing(
-                        PropertyResponseDTO::getCreatedAt,
-                        Comparator.nullsLast(Comparator.naturalOrder()));
-                default          -> null;
-            };
-            if (comparator != null) {
-                if (desc) comparator = comparator.reversed();
-                responseList.sort(comparator);
+        listingAttributeIndex.rebuild(propertyRepository.findAllProjectedBy());
+
+        List<PropertyResponseDTO> responseList = toResponseDTOs(propertyRepository.findByModerationStatus(ModerationStatus.APPROVED));
+
+        listingSearchEngine.rebuild(responseList);
+        locationSuggester.rebuild(responseList);
+        similarListings.rebuild(responseList);
+        listingSearchCache.invalidateAll();
+    }
+
+    /**
+     * Refills listing_card from property, images and users, one row per
+     * approved listing, and returns the number of rows. For a table that
+     * drifted from the listings, e.g. after rows were edited by hand; the
+     * write methods keep it current otherwise. Cached search results are
+     * dropped, they may hold cards from before.
+     */
+    @Transactional
+    public int rebuildListingCards() {
+        listingCardRepository.deleteAllInBatch();
+        int cards = listingCardRepository.insertApprovedCards();
+        listingSearchCache.invalidateAll();
+        return cards;
+    }
+
+    // Places the listings saved without coordinates, returns how many could be placed
+    @Transactional
+    public int backfillCoordinates() {
+        int placed = 0;
+        for (Property property : propertyRepository.findByLatitudeIsNull()) {
+            GeoPoint point = gazetteer.resolve(property.getLocation());
+            if (point != null) {
+                property.setLatitude(point.getLatitude());
+                property.setLongitude(point.getLongitude());
+                listingCardRepository.place(property.getId(), point.getLatitude(), point.getLongitude());
+                placed++;
             }
         }
+        return placed;
+    }
 
-        return responseList;
+    /**
+     * Locations of approved listings starting with the prefix, most listings
+     * first. Served from the in-memory trie, or by a grouped LIKE query until
+     * the trie is loaded.
+     */
+    public List<LocationSuggestionDTO> suggestLocations(String prefix, int limit) {
+        String normalised = LocationSuggester.normalise(prefix);
+        int capped = Math.min(limit, LocationSuggester.MAX_LIMIT);
+        if (normalised == null || capped <= 0) {
+            return List.of();
+        }
+        if (locationSuggester.isReady()) {
+            return locationSuggester.suggest(normalised, capped);
+        }
+
+        String pattern = normalised.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return listingCardRepository.countLocationsLike(pattern, PageRequest.of(0, capped)).stream()
+                .map(view -> new LocationSuggestionDTO(view.getLocation(), view.getListings()))
+                .toList();
+    }
+
+    /**
+     * Approved listings most like the given one for the property page, from
+     * the nearest neighbour index. The strip is left empty until the index is
+     * loaded rather than approximated with a query.
+     */
+    public List<PropertyResponseDTO> findSimilar(PropertyResponseDTO property, int limit) {
+        if (!similarListings.isReady()) {
+            return List.of();
+        }
+        return similarListings.similar(property, limit);
     }
 
+    /**
+     * One page of the owner's listings for the "My listings" tab, filtered,
+     * sorted and paged by the database, so a seller with thousands of
+     * listings loads just the page shown. Sorts by title, location, price,
+     * status or creation time, otherwise newest first; the total comes from
+     * {@link #countByModerationStatus(Long)} instead of a COUNT query.
+     */
+    public Page<PropertyResponseDTO> getPropertiesByUserId(Long userId, String sortField, String sortDir, String moderationFilter, int page, int size) {
+        ModerationStatus status = moderationStatus(moderationFilter);
+        Specification<Property> spec = ownerOrdering(sortField, "desc".equalsIgnoreCase(sortDir))
+                .and((root, query, cb) -> cb.equal(root.get("user").get("id"), userId));
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("moderationStatus"), status));
+        }
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
+        Slice<PropertyCardView> cards = propertyRepository.findBy(spec, query -> query.as(PropertyCardView.class).slice(pageable));
+        return new PageImpl<>(toCardDTOs(cards.getContent()), pageable, total(countByModerationStatus(userId), status));
+    }
+
+    @Transactional
     public PropertyResponseDTO approveProperty(Long id) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
+        PropertyResponseDTO previous = PropertyResponseDTOBuilder(property);
         property.setModerationStatus(ModerationStatus.APPROVED);
-        return PropertyResponseDTOBuilder(propertyRepository.save(property));
+        PropertyResponseDTO approved = PropertyResponseDTOBuilder(propertyRepository.save(property));
+        // Saved searches are told about a listing once, when it first goes live
+        if (previous.getModerationStatus() != ModerationStatus.APPROVED) {
+            savedSearchService.recordMatches(property, approved);
+        }
+        return publishChange(PropertyChangedEvent.Change.APPROVED, previous, approved);
     }
 
+    @Transactional
     public PropertyResponseDTO rejectProperty(Long id) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
+        PropertyResponseDTO previous = PropertyResponseDTOBuilder(property);
         property.setModerationStatus(ModerationStatus.REJECTED);
-        return PropertyResponseDTOBuilder(propertyRepository.save(property));
-    }
-
-    public List<PropertyResponseDTO> findPendingProperties() {
-        List<Property> properties = propertyRepository.findByModerationStatus(ModerationStatus.PENDING);
-        List<PropertyResponseDTO> responseList = new ArrayList<>();
-        for (Property property : properties) {
-            responseList.add(PropertyResponseDTOBuilder(property));
-        }
-
-        return responseList;
+        return publishChange(PropertyChangedEvent.Change.REJECTED, previous, PropertyResponseDTOBuilder(propertyRepository.save(property)));
     }
 
+    @Transactional
     public PropertyResponseDTO toggleFeatured(Long id) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
+        PropertyResponseDTO previous = PropertyResponseDTOBuilder(property);
         property.setFeatured(!property.isFeatured());
-        return PropertyResponseDTOBuilder(propertyRepository.save(property));
+        return publishChange(PropertyChangedEvent.Change.FEATURED, previous, PropertyResponseDTOBuilder(propertyRepository.save(property)));
     }
 
+    // Featured approved listings for the home page, one read of listing_card
+    @Transactional(readOnly = true)
     public List<PropertyResponseDTO> findFeatured() {
-        List<Property> properties = propertyRepository.findByFeaturedTrue();
-        List<PropertyResponseDTO> responseList = new ArrayList<>();
-        for (Property property : properties) {
-            responseList.add(PropertyResponseDTOBuilder(property));
-        }
-        return responseList;
+        return toListingCardDTOs(listingCardRepository.findByFeaturedTrueOrderByIdAsc());
     }
 
 //    public Page<PropertyResponseDTO> findAll(Pageable pageable) {
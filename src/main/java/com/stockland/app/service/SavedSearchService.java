@@ -0,0 +1,235 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.dto.SavedSearchDTO;
+import com.stockland.app.dto.SavedSearchMatchDTO;
+import com.stockland.app.model.Property;
+import com.stockland.app.model.SavedSearch;
+import com.stockland.app.model.SavedSearchMatch;
+import com.stockland.app.model.User;
+import com.stockland.app.repository.SavedSearchMatchRepository;
+import com.stockland.app.repository.SavedSearchRepository;
+import com.stockland.app.search.SavedSearchPercolator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class SavedSearchService {
+
+    public static final int MAX_PER_USER = 25;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final SavedSearchMatchRepository savedSearchMatchRepository;
+    private final SavedSearchPercolator savedSearchPercolator;
+
+    public SavedSearchService(SavedSearchRepository savedSearchRepository,
+                              SavedSearchMatchRepository savedSearchMatchRepository,
+                              SavedSearchPercolator savedSearchPercolator) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.savedSearchMatchRepository = savedSearchMatchRepository;
+        this.savedSearchPercolator = savedSearchPercolator;
+    }
+
+    @Transactional
+    public SavedSearchDTO save(User user, String name, PropertyFilterRequestDTO filters) {
+        if (savedSearchRepository.countByUser(user) >= MAX_PER_USER) {
+            throw new RuntimeException("You can keep at most " + MAX_PER_USER + " saved searches");
+        }
+        SavedSearch savedSearch = toEntity(filters);
+        savedSearch.setUser(user);
+        savedSearch.setName(name != null && !name.isBlank() ? name.strip() : defaultName(filters));
+        savedSearch = savedSearchRepository.save(savedSearch);
+        long id = savedSearch.getId();
+        afterCommit(() -> savedSearchPercolator.add(id, filters));
+        return toDTO(savedSearch, 0);
+    }
+
+    @Transactional
+    public void delete(User user, Long id) {
+        SavedSearch savedSearch = findOwned(user, id);
+        savedSearchMatchRepository.deleteBySavedSearch(savedSearch);
+        savedSearchRepository.delete(savedSearch);
+        afterCommit(() -> savedSearchPercolator.remove(id));
+    }
+
+    @Transactional
+    public void markSeen(User user, Long id) {
+        savedSearchMatchRepository.markSeen(findOwned(user, id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchDTO> getSavedSearches(User user) {
+        Map<Long, Long> unseen = new HashMap<>();
+        for (SavedSearchMatch match : savedSearchMatchRepository.findUnseenByUser(user)) {
+            unseen.merge(match.getSavedSearch().getId(), 1L, Long::sum);
+        }
+        List<SavedSearchDTO> result = new ArrayList<>();
+        for (SavedSearch savedSearch : savedSearchRepository.findByUserOrderByCreatedAtDesc(user)) {
+            result.add(toDTO(savedSearch, unseen.getOrDefault(savedSearch.getId(), 0L)));
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchMatchDTO> getUnseenMatches(User user) {
+        List<SavedSearchMatchDTO> result = new ArrayList<>();
+        for (SavedSearchMatch match : savedSearchMatchRepository.findUnseenByUser(user)) {
+            Property property = match.getProperty();
+            result.add(SavedSearchMatchDTO.builder()
+                    .savedSearchId(match.getSavedSearch().getId())
+                    .savedSearchName(match.getSavedSearch().getName())
+                    .propertyId(property.getId())
+                    .title(property.getTitle())
+                    .location(property.getLocation())
+                    .price(property.getPrice())
+                    .matchedAt(match.getMatchedAt())
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Records a match for every saved search the newly approved listing
+     * satisfies and returns how many were recorded. The percolator only
+     * visits the searches the listing can match; until it is loaded every
+     * saved search is checked in turn. The searches the listing matched
+     * before are looked up once, and the new matches go in as batched
+     * inserts on pooled ids; the unique key on search and listing rejects a
+     * match a concurrent approval recorded first.
+     */
+    @Transactional
+    public int recordMatches(Property property, PropertyResponseDTO listing) {
+        List<Long> matched;
+        if (savedSearchPercolator.isReady()) {
+            matched = savedSearchPercolator.percolate(listing);
+        } else {
+            matched = new ArrayList<>();
+            for (SavedSearch savedSearch : savedSearchRepository.findAll()) {
+                if (savedSearchPercolator.matches(toFilter(savedSearch), listing)) {
+                    matched.add(savedSearch.getId());
+                }
+            }
+        }
+        if (matched.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> recorded = savedSearchMatchRepository.findSavedSearchIdsByPropertyId(property.getId());
+        List<SavedSearchMatch> matches = new ArrayList<>();
+        for (Long savedSearchId : matched) {
+            if (!recorded.contains(savedSearchId)) {
+                matches.add(SavedSearchMatch.builder()
+                        .savedSearch(savedSearchRepository.getReferenceById(savedSearchId))
+                        .property(property)
+                        .build());
+            }
+        }
+        savedSearchMatchRepository.saveAll(matches);
+        return matches.size();
+    }
+
+    // Drops the matches pointing at listings that are about to be deleted, in one statement
+    @Transactional
+    public int deleteMatches(Collection<Long> propertyIds) {
+        return savedSearchMatchRepository.deleteByPropertyIds(propertyIds);
+    }
+
+    // Reloads every saved search into the percolator; searches saved or deleted meanwhile are replayed onto it
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        savedSearchPercolator.beginRebuild();
+        Map<Long, PropertyFilterRequestDTO> searches = new HashMap<>();
+        for (SavedSearch savedSearch : savedSearchRepository.findAll()) {
+            searches.put(savedSearch.getId(), toFilter(savedSearch));
+        }
+        savedSearchPercolator.rebuild(searches);
+    }
+
+    // The percolator only learns of a search once it is committed, or right away outside of a transaction
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private SavedSearch findOwned(User user, Long id) {
+        return savedSearchRepository.findById(id)
+                .filter(savedSearch -> savedSearch.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new RuntimeException("Saved search not found with id: " + id));
+    }
+
+    private static String defaultName(PropertyFilterRequestDTO filters) {
+        if (filters.getLocation() != null && !filters.getLocation().isBlank()) {
+            return filters.getLocation().strip();
+        }
+        if (filters.getQ() != null && !filters.getQ().isBlank()) {
+            return filters.getQ().strip();
+        }
+        return "All listings";
+    }
+
+    private static SavedSearch toEntity(PropertyFilterRequestDTO filters) {
+        return SavedSearch.builder()
+                .q(filters.getQ())
+                .location(filters.getLocation())
+                .minPrice(filters.getMinPrice())
+                .maxPrice(filters.getMaxPrice())
+                .minArea(filters.getMinArea())
+                .maxArea(filters.getMaxArea())
+                .minRooms(filters.getMinRooms())
+                .maxRooms(filters.getMaxRooms())
+                .actionType(filters.getActionType())
+                .propertyType(filters.getPropertyType())
+                .status(filters.getStatus())
+                .latitude(filters.getLatitude())
+                .longitude(filters.getLongitude())
+                .radiusKm(filters.getRadiusKm())
+                .build();
+    }
+
+    private static PropertyFilterRequestDTO toFilter(SavedSearch savedSearch) {
+        return PropertyFilterRequestDTO.builder()
+                .q(savedSearch.getQ())
+                .location(savedSearch.getLocation())
+                .minPrice(savedSearch.getMinPrice())
+                .maxPrice(savedSearch.getMaxPrice())
+                .minArea(savedSearch.getMinArea())
+                .maxArea(savedSearch.getMaxArea())
+                .minRooms(savedSearch.getMinRooms())
+                .maxRooms(savedSearch.getMaxRooms())
+                .actionType(savedSearch.getActionType())
+                .propertyType(savedSearch.getPropertyType())
+                .status(savedSearch.getStatus())
+                .latitude(savedSearch.getLatitude())
+                .longitude(savedSearch.getLongitude())
+                .radiusKm(savedSearch.getRadiusKm())
+                .build();
+    }
+
+    private static SavedSearchDTO toDTO(SavedSearch savedSearch, long unseenMatches) {
+        return SavedSearchDTO.builder()
+                .id(savedSearch.getId())
+                .name(savedSearch.getName())
+                .filters(toFilter(savedSearch))
+                .createdAt(savedSearch.getCreatedAt())
+                .unseenMatches(unseenMatches)
+                .build();
+    }
+}
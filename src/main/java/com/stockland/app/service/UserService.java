@@ -3,6 +3,7 @@ package com.stockland.app.service;
 import com.stockland.app.dto.UserRegistrationDTO;
 import com.stockland.app.dto.UserResponseDTO;
 import com.stockland.app.model.User;
+import com.stockland.app.repository.ListingCardRepository;
 import com.stockland.app.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,6 +11,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -17,11 +19,13 @@ import java.util.Optional;
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ListingCardRepository listingCardRepository;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, ListingCardRepository listingCardRepository) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.listingCardRepository = listingCardRepository;
     }
 
     public boolean usernameExists(String username) {
@@ -95,7 +99,14 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("Provided username does not exist: " + username));
     }
 
+    // The owner's name is copied onto their listing cards, so a rename rewrites those in the same transaction;
+    // saves that keep the name, and new users, leave the cards alone
+    @Transactional
     public void saveUser(User user) {
-        userRepository.save(user);
+        String previousUsername = user.getId() != null ? userRepository.findUsernameById(user.getId()).orElse(null) : null;
+        User saved = userRepository.save(user);
+        if (previousUsername != null && !previousUsername.equals(saved.getUsername())) {
+            listingCardRepository.renameOwner(saved.getId(), saved.getUsername());
+        }
     }
 }
\ No newline at end of file
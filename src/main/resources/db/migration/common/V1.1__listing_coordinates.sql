@@ -0,0 +1,4 @@
+-- Coordinates of a listing for the radius search, empty until the listing is
+-- placed. A database whose ddl-auto schema already grew them keeps its columns.
+ALTER TABLE property ADD COLUMN IF NOT EXISTS latitude float(53);
+ALTER TABLE property ADD COLUMN IF NOT EXISTS longitude float(53);
@@ -0,0 +1,37 @@
+-- Saved searches and the approved listings that matched them. The foreign keys
+-- are declared inline so a database that already has the tables skips them too.
+
+create table if not exists saved_search (
+    latitude float(53),
+    longitude float(53),
+    max_area float(53),
+    max_price float(53),
+    max_rooms integer,
+    min_area float(53),
+    min_price float(53),
+    min_rooms integer,
+    radius_km float(53),
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    action_type varchar(255) check ((action_type in ('BUY','RENT'))),
+    location varchar(255),
+    name varchar(255) not null,
+    property_type varchar(255) check ((property_type in ('HOUSE','CONDO','MULTIFAMILY','LAND','APARTMENTS','COMMERCIAL'))),
+    q varchar(255),
+    status varchar(255),
+    primary key (id),
+    constraint fk_saved_search_user foreign key (user_id) references users
+);
+
+create table if not exists saved_search_match (
+    seen boolean not null,
+    id bigint generated by default as identity,
+    matched_at timestamp(6),
+    property_id bigint not null,
+    saved_search_id bigint not null,
+    primary key (id),
+    unique (saved_search_id, property_id),
+    constraint fk_saved_search_match_property foreign key (property_id) references property,
+    constraint fk_saved_search_match_search foreign key (saved_search_id) references saved_search
+);
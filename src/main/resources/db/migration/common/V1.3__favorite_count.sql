@@ -0,0 +1,3 @@
+-- How many users saved each listing, kept by FavoriteCounter, which reconciles
+-- the values against the favorite rows on startup.
+ALTER TABLE property ADD COLUMN IF NOT EXISTS favorite_count bigint DEFAULT 0 NOT NULL;
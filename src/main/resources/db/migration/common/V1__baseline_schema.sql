@@ -0,0 +1,74 @@
+-- Baseline: the schema Hibernate's ddl-auto=update created from the entities
+-- before the migrations existed. Databases that already have these tables are
+-- baselined at this version instead, so only the later migrations run on them.
+
+create table favorite (
+    id bigint generated by default as identity,
+    property_property_id bigint,
+    user_id bigint,
+    primary key (id)
+);
+
+create table images (
+    id bigint generated by default as identity,
+    property_id bigint,
+    image_id varchar(255),
+    name_image varchar(255),
+    url_image varchar(255),
+    primary key (id)
+);
+
+create table property (
+    area float(53),
+    featured boolean default false not null,
+    price float(53),
+    room_count integer,
+    created_at timestamp(6),
+    owner_id bigint,
+    property_id bigint generated by default as identity,
+    user_id bigint,
+    action_type varchar(255) check ((action_type in ('BUY','RENT'))),
+    description TEXT,
+    location varchar(255),
+    moderation_status varchar(255) check ((moderation_status in ('PENDING','APPROVED','REJECTED'))),
+    property_type varchar(255) check ((property_type in ('HOUSE','CONDO','MULTIFAMILY','LAND','APARTMENTS','COMMERCIAL'))),
+    status varchar(255),
+    title varchar(255),
+    primary key (property_id)
+);
+
+create table users (
+    id bigint generated by default as identity,
+    email varchar(255) not null unique,
+    full_name varchar(255),
+    password varchar(255) not null,
+    phone_number varchar(255),
+    role varchar(255) not null,
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+alter table if exists favorite
+   add constraint FKejqilko99xx1w9cmk20qv3vmn
+   foreign key (property_property_id)
+   references property;
+
+alter table if exists favorite
+   add constraint FKa2lwa7bjrnbti5v12mga2et1y
+   foreign key (user_id)
+   references users;
+
+alter table if exists images
+   add constraint FKfchyaea44ur8sd0fwjvwgfd4n
+   foreign key (property_id)
+   references property;
+
+alter table if exists property
+   add constraint FKqje3em0djsxgnxwy7klv6yju9
+   foreign key (owner_id)
+   references users;
+
+alter table if exists property
+   add constraint FKo76rpd66l7rdheheo63pmpmy5
+   foreign key (user_id)
+   references users;
@@ -0,0 +1,8 @@
+-- A user favorites a listing at most once. Duplicates left by concurrent
+-- adds are dropped first, keeping the oldest row. The unique index also
+-- serves every favorite lookup by user, and by user and listing.
+DELETE FROM favorite
+WHERE id NOT IN (SELECT MIN(id) FROM favorite GROUP BY user_id, property_property_id);
+
+ALTER TABLE favorite
+    ADD CONSTRAINT uk_favorite_user_property UNIQUE (user_id, property_property_id);
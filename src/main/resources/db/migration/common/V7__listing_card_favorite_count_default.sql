@@ -0,0 +1,3 @@
+-- Cards are inserted without a favorite count and then take property's, in the
+-- writing transaction, so an insert cannot carry a count older than the column.
+ALTER TABLE listing_card ALTER COLUMN favorite_count SET DEFAULT 0;
@@ -0,0 +1,49 @@
+-- The hot path indexes of the PostgreSQL migration for H2, which runs the
+-- tests. H2 has no trigram, expression or partial indexes, so those become
+-- plain column indexes or are left out; see the PostgreSQL script for the
+-- queries each index serves.
+
+CREATE INDEX IF NOT EXISTS idx_property_moderation_id
+    ON property (moderation_status, property_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_property_moderation_price
+    ON property (moderation_status, price, property_id);
+
+CREATE INDEX IF NOT EXISTS idx_property_featured
+    ON property (featured, property_id);
+
+CREATE INDEX IF NOT EXISTS idx_property_moderation_favorite_count
+    ON property (moderation_status, favorite_count DESC, property_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_property_lat_lon
+    ON property (latitude, longitude);
+
+CREATE INDEX IF NOT EXISTS idx_property_moderation_created
+    ON property (moderation_status, created_at DESC NULLS LAST, property_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_property_price_sort
+    ON property (price NULLS FIRST, property_id);
+
+CREATE INDEX IF NOT EXISTS idx_property_created_sort
+    ON property (created_at, property_id);
+
+CREATE INDEX IF NOT EXISTS idx_property_user_moderation_created
+    ON property (user_id, moderation_status, created_at DESC NULLS LAST, property_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_images_property_id
+    ON images (property_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_images_url
+    ON images (url_image);
+
+CREATE INDEX IF NOT EXISTS idx_favorite_property
+    ON favorite (property_property_id);
+
+CREATE INDEX IF NOT EXISTS idx_saved_search_user_created
+    ON saved_search (user_id, created_at DESC);
+
+CREATE INDEX IF NOT EXISTS idx_saved_search_match_unseen
+    ON saved_search_match (saved_search_id, seen, matched_at DESC);
+
+CREATE INDEX IF NOT EXISTS idx_saved_search_match_property
+    ON saved_search_match (property_id);
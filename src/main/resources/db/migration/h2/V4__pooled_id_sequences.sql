@@ -0,0 +1,14 @@
+-- The pooled id sequences of the PostgreSQL migration for H2; see the
+-- PostgreSQL script for how the start values are chosen.
+
+CREATE SEQUENCE IF NOT EXISTS property_seq INCREMENT BY 50;
+ALTER SEQUENCE property_seq RESTART WITH (SELECT COALESCE(MAX(property_id), 0) + 50 FROM property);
+ALTER TABLE property ALTER COLUMN property_id DROP IDENTITY;
+
+CREATE SEQUENCE IF NOT EXISTS images_seq INCREMENT BY 50;
+ALTER SEQUENCE images_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM images);
+ALTER TABLE images ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE IF NOT EXISTS favorite_seq INCREMENT BY 50;
+ALTER SEQUENCE favorite_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM favorite);
+ALTER TABLE favorite ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,61 @@
+-- The listing_card read model of the PostgreSQL migration for H2, which runs
+-- the tests. H2 has no trigram or partial indexes, so those become plain
+-- column indexes or are left out; see the PostgreSQL script.
+
+create table listing_card (
+    area float(53),
+    featured boolean not null,
+    favorite_count bigint not null,
+    image_count integer not null,
+    latitude float(53),
+    longitude float(53),
+    price float(53),
+    room_count integer,
+    created_at timestamp(6),
+    property_id bigint not null,
+    user_id bigint,
+    action_type varchar(255) check ((action_type in ('BUY','RENT'))),
+    cover_url varchar(255),
+    location varchar(255),
+    location_lower varchar(255),
+    property_type varchar(255) check ((property_type in ('HOUSE','CONDO','MULTIFAMILY','LAND','APARTMENTS','COMMERCIAL'))),
+    search_text TEXT,
+    status varchar(255),
+    status_lower varchar(255),
+    title varchar(255),
+    username varchar(255),
+    primary key (property_id),
+    constraint fk_listing_card_property foreign key (property_id) references property on delete cascade
+);
+
+-- Cards of the listings approved so far; ListingCardRepository.insertApprovedCards builds the same rows
+insert into listing_card (property_id, title, location, location_lower, latitude, longitude, price, area, room_count,
+                          action_type, property_type, status, status_lower, search_text, created_at, featured,
+                          favorite_count, user_id, username, cover_url, image_count)
+select p.property_id, p.title, p.location, lower(p.location), p.latitude, p.longitude, p.price, p.area, p.room_count,
+       p.action_type, p.property_type, p.status, lower(p.status),
+       lower(coalesce(p.title, '') || ' ' || coalesce(p.description, '')), p.created_at, p.featured,
+       p.favorite_count, u.id, u.username,
+       (select i.url_image from images i where i.id = (select min(c.id) from images c where c.property_id = p.property_id)),
+       (select count(*) from images i where i.property_id = p.property_id)
+from property p
+left join users u on u.id = p.user_id
+where p.moderation_status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS idx_listing_card_price
+    ON listing_card (price, property_id);
+
+CREATE INDEX IF NOT EXISTS idx_listing_card_created
+    ON listing_card (created_at, property_id);
+
+CREATE INDEX IF NOT EXISTS idx_listing_card_featured
+    ON listing_card (featured, property_id);
+
+CREATE INDEX IF NOT EXISTS idx_listing_card_lat_lon
+    ON listing_card (latitude, longitude);
+
+CREATE INDEX IF NOT EXISTS idx_listing_card_user
+    ON listing_card (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_listing_card_favorite_count
+    ON listing_card (favorite_count DESC, property_id DESC);
@@ -0,0 +1,5 @@
+-- The pooled id sequence of the PostgreSQL migration for H2.
+
+CREATE SEQUENCE IF NOT EXISTS saved_search_match_seq INCREMENT BY 50;
+ALTER SEQUENCE saved_search_match_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM saved_search_match);
+ALTER TABLE saved_search_match ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,7 @@
+-- The property search indexes of the PostgreSQL migration dropped for H2; see
+-- the PostgreSQL script for why listing_card made them obsolete.
+
+DROP INDEX IF EXISTS idx_property_moderation_id;
+DROP INDEX IF EXISTS idx_property_moderation_price;
+DROP INDEX IF EXISTS idx_property_featured;
+DROP INDEX IF EXISTS idx_property_lat_lon;
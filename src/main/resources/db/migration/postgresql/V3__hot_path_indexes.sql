@@ -0,0 +1,98 @@
+-- Secondary indexes for the repository queries on the hot paths. Each one
+-- names the queries it serves; QueryPlanCheck runs EXPLAIN over the same
+-- queries and reports any that still scan a whole table. Earlier databases
+-- got some of these from the old schema scripts, hence IF NOT EXISTS.
+
+-- ── listings: search and card reads ─────────────────────────────────────
+
+-- Approved cards newest first (search fallback, findCardsByModerationStatus,
+-- the keyset "Next" pages) and the moderation counts
+CREATE INDEX IF NOT EXISTS idx_property_moderation_id
+    ON property (moderation_status, property_id DESC);
+
+-- Price range filters and sorts within the approved listings
+CREATE INDEX IF NOT EXISTS idx_property_moderation_price
+    ON property (moderation_status, price, property_id);
+
+-- Home page featured listings (findCardsByFeaturedTrue); only a few rows are featured
+CREATE INDEX IF NOT EXISTS idx_property_featured
+    ON property (property_id) WHERE featured;
+
+-- "Most saved" orderings over favorite_count, kept by FavoriteCounter
+CREATE INDEX IF NOT EXISTS idx_property_moderation_favorite_count
+    ON property (moderation_status, favorite_count DESC, property_id DESC);
+
+-- Trigram GIN indexes for the location and status substring filters and the
+-- location suggestions. The search Specification filters with
+-- lower(column) LIKE '%x%', so the indexes are built on the same lower()
+-- expressions. Needs the right to create the pg_trgm extension.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_property_location_trgm
+    ON property USING gin (lower(location) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_property_status_trgm
+    ON property USING gin (lower(status) gin_trgm_ops);
+
+-- Radius searches: the Specification bounds latitude and longitude with
+-- BETWEEN before testing the exact distance, so only the box is read
+CREATE INDEX IF NOT EXISTS idx_property_lat_lon
+    ON property (latitude, longitude);
+
+-- ── admin grid ──────────────────────────────────────────────────────────
+-- Each sort key is indexed in the order the grid asks for it, id last as
+-- the tie-break, so a page is read straight off the index in either
+-- direction. Text keys sort by lower() with NULLs first ascending; a missing
+-- creation time sorts as the latest. The default order ranks the status
+-- through a CASE, which no index covers; with a moderation filter the first
+-- index serves it.
+CREATE INDEX IF NOT EXISTS idx_property_moderation_created
+    ON property (moderation_status, created_at DESC NULLS LAST, property_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_property_title_sort
+    ON property (lower(title) NULLS FIRST, property_id);
+
+CREATE INDEX IF NOT EXISTS idx_property_location_sort
+    ON property (lower(location) NULLS FIRST, property_id);
+
+CREATE INDEX IF NOT EXISTS idx_property_price_sort
+    ON property (price NULLS FIRST, property_id);
+
+CREATE INDEX IF NOT EXISTS idx_property_created_sort
+    ON property (created_at, property_id);
+
+-- ── my listings ─────────────────────────────────────────────────────────
+-- A seller's listings are one range, per moderation status newest first, so
+-- a tab page and the per-status counts read only that range
+CREATE INDEX IF NOT EXISTS idx_property_user_moderation_created
+    ON property (user_id, moderation_status, created_at DESC NULLS LAST, property_id DESC);
+
+-- ── images ──────────────────────────────────────────────────────────────
+
+-- Image URLs and covers of a batch of listings (findUrlsByPropertyIds,
+-- findCoverUrlsByPropertyIds): the min(id) per listing is the first entry
+CREATE INDEX IF NOT EXISTS idx_images_property_id
+    ON images (property_id, id);
+
+-- findByUrl, when an image is removed by its URL
+CREATE INDEX IF NOT EXISTS idx_images_url
+    ON images (url_image);
+
+-- ── favorites and saved searches ────────────────────────────────────────
+-- Lookups by user go through uk_favorite_user_property
+
+-- deleteByProperty and the favorite count reconciliation
+CREATE INDEX IF NOT EXISTS idx_favorite_property
+    ON favorite (property_property_id);
+
+-- A user's saved searches, newest first
+CREATE INDEX IF NOT EXISTS idx_saved_search_user_created
+    ON saved_search (user_id, created_at DESC);
+
+-- Unseen matches of a saved search (findUnseenByUser, markSeen)
+CREATE INDEX IF NOT EXISTS idx_saved_search_match_unseen
+    ON saved_search_match (saved_search_id, matched_at DESC) WHERE NOT seen;
+
+-- deleteByProperty when a listing goes away
+CREATE INDEX IF NOT EXISTS idx_saved_search_match_property
+    ON saved_search_match (property_id);
@@ -0,0 +1,18 @@
+-- Listings, images and favorites take their ids from sequences instead of
+-- identity columns, so Hibernate can batch their inserts. Each sequence
+-- steps by 50, the allocationSize of the entity: one nextval hands out the
+-- 50 ids ending at the value returned (the pooled optimizer). Each sequence
+-- starts 50 past the current maximum id, so the first block begins right
+-- after the ids already used.
+
+CREATE SEQUENCE IF NOT EXISTS property_seq INCREMENT BY 50;
+SELECT setval('property_seq', (SELECT COALESCE(MAX(property_id), 0) + 50 FROM property), false);
+ALTER TABLE property ALTER COLUMN property_id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS images_seq INCREMENT BY 50;
+SELECT setval('images_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM images), false);
+ALTER TABLE images ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS favorite_seq INCREMENT BY 50;
+SELECT setval('favorite_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM favorite), false);
+ALTER TABLE favorite ALTER COLUMN id DROP IDENTITY IF EXISTS;
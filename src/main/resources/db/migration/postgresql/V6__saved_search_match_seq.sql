@@ -0,0 +1,7 @@
+-- Saved search matches take pooled sequence ids like the tables in V4, so
+-- approving a listing that matches thousands of saved searches inserts their
+-- matches in batches.
+
+CREATE SEQUENCE IF NOT EXISTS saved_search_match_seq INCREMENT BY 50;
+SELECT setval('saved_search_match_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM saved_search_match), false);
+ALTER TABLE saved_search_match ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,13 @@
+-- Public search, the featured listings and the location suggestions read
+-- listing_card since V5, which carries its own indexes for them, so these
+-- V3 indexes on property are only maintained by every listing write and
+-- never read. The admin grid and "My listings" keep theirs; the moderation
+-- counts group over idx_property_moderation_created. pg_trgm stays for the
+-- listing_card trigram indexes.
+
+DROP INDEX IF EXISTS idx_property_moderation_id;
+DROP INDEX IF EXISTS idx_property_moderation_price;
+DROP INDEX IF EXISTS idx_property_featured;
+DROP INDEX IF EXISTS idx_property_location_trgm;
+DROP INDEX IF EXISTS idx_property_status_trgm;
+DROP INDEX IF EXISTS idx_property_lat_lon;
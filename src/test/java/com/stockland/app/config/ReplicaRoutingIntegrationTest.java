@@ -0,0 +1,242 @@
+package com.stockland.app.config;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingAttributeIndex;
+import com.stockland.app.service.CloudinaryServiceImpl;
+import com.stockland.app.service.PropertyService;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing between the test database as the primary and a second in-memory
+ * H2 database as its replica, migrated by the same scripts. Nothing
+ * replicates between them, so the replica holds each listing under another
+ * title, and the title read back tells which database served the read. The
+ * replica's lag is whatever its replica_lag table says.
+ */
+@SpringBootTest(properties = {
+        "datasource.replica.urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "datasource.replica.lag-query=SELECT seconds FROM replica_lag",
+        "datasource.replica.max-lag-ms=5000",
+        "datasource.replica.lag-check-ms=3600000"})
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static JdbcTemplate replica;
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @MockitoBean
+    private ListingAttributeIndex listingAttributeIndex;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Property flat;
+
+    // One connection kept open throughout: H2 evaluates a check constraint in the session that created it
+    @BeforeAll
+    static void migrateReplica() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(REPLICA_URL, "sa", "", true);
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(dataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE)");
+    }
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+        replica.update("DELETE FROM property");
+        replica.update("DELETE FROM users");
+        entityManagerFactory.getCache().evictAll();
+
+        User seller = userRepository.save(User.builder()
+                .username("seller").email("seller@example.com").password("encoded").role("ROLE_USER").build());
+        flat = propertyRepository.save(Property.builder()
+                .title("Flat")
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .moderationStatus(ModerationStatus.APPROVED)
+                .user(seller)
+                .build());
+        replica.update("INSERT INTO users (id, username, email, password, role) VALUES (?, 'seller', 'seller@example.com', 'encoded', 'ROLE_USER')",
+                seller.getId());
+        replica.update("INSERT INTO property (property_id, title, action_type, property_type, moderation_status, user_id) "
+                + "VALUES (?, 'Flat on the replica', 'BUY', 'APARTMENTS', 'APPROVED', ?)", flat.getId(), seller.getId());
+
+        lag(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private void lag(double seconds) {
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag VALUES (?)", seconds);
+        routingDataSource.checkReplicas();
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    // The title the next read-only lookup of the listing sees, read past the entity cache
+    private String readTitle() {
+        entityManagerFactory.getCache().evictAll();
+        return propertyService.findById(flat.getId()).getTitle();
+    }
+
+    // ── routing ──────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("a read-only transaction is served by the replica")
+    void readOnly_GoesToReplica() {
+        assertEquals(List.of("replica-0"), routingDataSource.usableReplicas());
+        assertEquals("Flat on the replica", readTitle());
+    }
+
+    @Test
+    @DisplayName("a read-write transaction writes to the primary only")
+    void readWrite_GoesToPrimary() {
+        propertyService.toggleFeatured(flat.getId());
+
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT featured FROM property WHERE property_id = ?", Boolean.class, flat.getId()));
+        assertEquals(Boolean.FALSE, replica.queryForObject(
+                "SELECT featured FROM property WHERE property_id = ?", Boolean.class, flat.getId()));
+    }
+
+    // ── lag ──────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("a replica lagging past the limit is skipped until it catches up")
+    void laggingReplica_ReadsFallBackToPrimary() {
+        lag(60);
+
+        assertEquals(List.of(), routingDataSource.usableReplicas());
+        assertEquals("Flat", readTitle());
+
+        lag(1);
+        assertEquals("Flat on the replica", readTitle());
+    }
+
+    @Test
+    @DisplayName("a replica whose lag check fails is skipped")
+    void failingLagCheck_ReadsFallBackToPrimary() {
+        replica.execute("DROP TABLE replica_lag");
+        try {
+            routingDataSource.checkReplicas();
+
+            assertEquals("Flat", readTitle());
+        } finally {
+            replica.execute("CREATE TABLE replica_lag (seconds DOUBLE)");
+        }
+    }
+
+    // ── read your writes ─────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("a user who just wrote reads from the primary, other users from the replica")
+    void recentWriter_ReadsFromPrimary() {
+        signIn("seller");
+        propertyService.toggleFeatured(flat.getId());
+
+        assertEquals("Flat", readTitle());
+
+        signIn("visitor");
+        assertEquals("Flat on the replica", readTitle());
+    }
+
+    @Test
+    @DisplayName("a visitor's read from a lagging replica is not cached, so the writer still sees their edit")
+    void replicaRead_DoesNotFillEntityCache() {
+        signIn("seller");
+        propertyService.toggleFeatured(flat.getId());
+        entityManagerFactory.getCache().evictAll();
+
+        signIn("visitor");
+        assertEquals("Flat on the replica", propertyService.findById(flat.getId()).getTitle());
+        assertFalse(entityManagerFactory.getCache().contains(Property.class, flat.getId()));
+
+        signIn("seller");
+        PropertyResponseDTO edited = propertyService.findById(flat.getId());
+        assertEquals("Flat", edited.getTitle());
+        assertTrue(edited.isFeatured());
+    }
+
+    @Test
+    @DisplayName("a read from the primary still fills the entity cache")
+    void primaryRead_FillsEntityCache() {
+        lag(60);
+
+        propertyService.findById(flat.getId());
+
+        assertTrue(entityManagerFactory.getCache().contains(Property.class, flat.getId()));
+    }
+
+    @Test
+    @DisplayName("a visitor's writes do not pin anyone to the primary")
+    void anonymousWrite_DoesNotStick() {
+        propertyService.toggleFeatured(flat.getId());
+
+        signIn("seller");
+        assertEquals("Flat on the replica", readTitle());
+    }
+}
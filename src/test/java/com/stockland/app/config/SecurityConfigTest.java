@@ -1,5 +1,9 @@
 package com.stockland.app.config;
 
+import com.stockland.app.dto.LocationSuggestionDTO;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.PropertyType;
+import com.stockland.app.search.ListingFacetCounter;
 import com.stockland.app.service.PropertyService;
 import com.stockland.app.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +14,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
@@ -17,6 +22,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -80,6 +86,30 @@ class SecurityConfigTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("GET /listings?after= renders the keyset page without authentication")
+    void listingsKeyset_IsPermitted_WithoutAuth() throws Exception {
+        when(propertyService.searchPropertiesWithFilterSortAndPagination(any(), any(Pageable.class), any()))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        mockMvc.perform(get("/listings").param("after", "cursor"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /listings renders the facet sidebar when counts are present")
+    void listings_RendersFacets_WithoutAuth() throws Exception {
+        ListingFacetCounter counter = new ListingFacetCounter();
+        counter.add(ActionType.BUY, PropertyType.HOUSE, 120000.0, 3, 90.0);
+        when(propertyService.getListingFacets(any())).thenReturn(counter.toDTO());
+
+        String html = mockMvc.perform(get("/listings"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(html.contains("100k – 200k €"));
+    }
+
     @Test
     @DisplayName("GET /properties is accessible without authentication (no security redirect)")
     void properties_IsPermitted_WithoutAuth() throws Exception {
@@ -130,6 +160,18 @@ class SecurityConfigTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("GET /api/locations/suggest is accessible without authentication")
+    void locationSuggest_IsPermitted_WithoutAuth() throws Exception {
+        when(propertyService.suggestLocations("ri", 8))
+                .thenReturn(List.of(new LocationSuggestionDTO("Riga", 4)));
+
+        mockMvc.perform(get("/api/locations/suggest").param("prefix", "ri"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].location").value("Riga"))
+                .andExpect(jsonPath("$[0].count").value(4));
+    }
+
     @Test
     @DisplayName("GET /css/** static resource is accessible without authentication")
     void cssResource_IsPermitted_WithoutAuth() throws Exception {
@@ -253,6 +295,13 @@ class SecurityConfigTest {
         }
     }
 
+    @Test
+    @DisplayName("POST /saved-searches without auth triggers customAuthenticationEntryPoint")
+    void saveSearch_WithoutAuth_TriggersEntryPoint() throws Exception {
+        mockMvc.perform(post("/saved-searches").with(csrf()).param("location", "Riga"))
+                .andExpect(forwardedUrl("/error"));
+    }
+
     // =========================================================================
     // POST /properties/delete/** — requires authentication
     // =========================================================================
@@ -490,6 +539,28 @@ class SecurityConfigTest {
                 .andExpect(redirectedUrl("/login?error"));
     }
 
+    // =========================================================================
+    // GET /api/admin/** — ROLE_ADMIN only
+    // =========================================================================
+
+    @Test
+    @WithMockUser(username = "john", roles = "USER")
+    @DisplayName("GET /api/admin/search-cache with ROLE_USER triggers customAccessDeniedHandler")
+    void searchCacheStats_WithRoleUser_TriggersAccessDeniedHandler() throws Exception {
+        mockMvc.perform(get("/api/admin/search-cache"))
+                .andExpect(forwardedUrl("/error"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    @DisplayName("GET /api/admin/search-cache with ROLE_ADMIN returns the cache counters")
+    void searchCacheStats_WithRoleAdmin_ReturnsStats() throws Exception {
+        mockMvc.perform(get("/api/admin/search-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").exists())
+                .andExpect(jsonPath("$.evictions").exists());
+    }
+
     // =========================================================================
     // PasswordEncoder bean
     // =========================================================================
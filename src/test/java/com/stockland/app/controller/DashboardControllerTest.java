@@ -1,12 +1,14 @@
 package com.stockland.app.controller;
 
 import com.stockland.app.dto.PropertyResponseDTO;
-import com.stockland.app.model.Favorite;
-import com.stockland.app.model.Property;
+import com.stockland.app.dto.SavedSearchDTO;
+import com.stockland.app.repository.FavoriteCardView;
+import com.stockland.app.model.ModerationStatus;
 import com.stockland.app.model.User;
 import com.stockland.app.repository.UserRepository;
 import com.stockland.app.service.FavoriteService;
 import com.stockland.app.service.PropertyService;
+import com.stockland.app.service.SavedSearchService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,15 +17,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,6 +49,9 @@ class DashboardControllerTest {
     @Mock
     private FavoriteService favoriteService;
 
+    @Mock
+    private SavedSearchService savedSearchService;
+
     @InjectMocks
     private DashboardController dashboardController;
 
@@ -79,8 +91,10 @@ class DashboardControllerTest {
         user.setUsername("john");
 
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of(new PropertyResponseDTO()));
-        when(favoriteService.getFavorites(user)).thenReturn(List.of());
+        when(propertyService.getPropertiesByUserId(1L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of(new PropertyResponseDTO())));
+        when(favoriteService.getFavoriteCards(user, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         mockMvc.perform(get("/dashboard"))
                 .andExpect(status().isOk())
@@ -89,7 +103,31 @@ class DashboardControllerTest {
                 .andExpect(model().attributeExists("myListings"))
                 .andExpect(model().attributeExists("favorites"));
 
-        verify(propertyService).getPropertiesByUserId(1L, null, null, null);
+        verify(propertyService).getPropertiesByUserId(1L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE);
+    }
+
+    // Test that dashboard lists the user's saved searches and their unseen matches
+    @Test
+    @DisplayName("GET /dashboard adds saved searches and their new matches to the model")
+    void dashboard_AddsSavedSearches() throws Exception {
+        authenticateAs("john");
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("john");
+
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(propertyService.getPropertiesByUserId(1L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(Page.empty());
+        when(favoriteService.getFavoriteCards(user, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(savedSearchService.getSavedSearches(user)).thenReturn(List.of(SavedSearchDTO.builder().id(5L).name("Riga").build()));
+        when(savedSearchService.getUnseenMatches(user)).thenReturn(List.of());
+
+        mockMvc.perform(get("/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("savedSearches", hasSize(1)))
+                .andExpect(model().attributeExists("savedSearchMatches"));
     }
 
     // Test that dashboard falls back to findByEmail when username lookup returns empty
@@ -104,8 +142,10 @@ class DashboardControllerTest {
 
         when(userRepository.findByUsername("john@example.com")).thenReturn(Optional.empty());
         when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(2L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(List.of());
+        when(propertyService.getPropertiesByUserId(2L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(favoriteService.getFavoriteCards(user, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         mockMvc.perform(get("/dashboard"))
                 .andExpect(status().isOk())
@@ -113,7 +153,7 @@ class DashboardControllerTest {
                 .andExpect(model().attributeExists("user"));
 
         verify(userRepository).findByEmail("john@example.com");
-        verify(propertyService).getPropertiesByUserId(2L, null, null, null);
+        verify(propertyService).getPropertiesByUserId(2L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE);
     }
 
     // Test that myListings model attribute contains the correct number of listings
@@ -130,17 +170,19 @@ class DashboardControllerTest {
         PropertyResponseDTO p2 = new PropertyResponseDTO();
 
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of(p1, p2));
-        when(favoriteService.getFavorites(user)).thenReturn(List.of());
+        when(propertyService.getPropertiesByUserId(1L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of(p1, p2)));
+        when(favoriteService.getFavoriteCards(user, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         mockMvc.perform(get("/dashboard"))
                 .andExpect(status().isOk())
                 .andExpect(model().attribute("myListings", List.of(p1, p2)));
     }
 
-    // Test that favorites is always an empty list
+    // Test that no favorites gives an empty list
     @Test
-    @DisplayName("GET /dashboard always sets favorites to an empty list")
+    @DisplayName("GET /dashboard sets favorites to an empty list when the user has none")
     void dashboard_SetsFavoritesToEmptyList() throws Exception {
         authenticateAs("john");
 
@@ -149,17 +191,19 @@ class DashboardControllerTest {
         user.setUsername("john");
 
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(List.of());
+        when(propertyService.getPropertiesByUserId(1L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(favoriteService.getFavoriteCards(user, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         mockMvc.perform(get("/dashboard"))
                 .andExpect(status().isOk())
                 .andExpect(model().attribute("favorites", List.of()));
     }
 
-    // Test that an admin user sees allListings and pendingListings in the model
+    // Test that an admin user sees the admin page of listings and the moderation counts in the model
     @Test
-    @DisplayName("GET /dashboard populates allListings and pendingListings for ROLE_ADMIN user")
+    @DisplayName("GET /dashboard populates the admin page and moderation counts for ROLE_ADMIN user")
     void dashboard_PopulatesAdminAttributes_WhenUserIsAdmin() throws Exception {
         authenticateAs("admin");
 
@@ -172,24 +216,33 @@ class DashboardControllerTest {
         adminProp.setTitle("Admin Property");
 
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
-        when(propertyService.getPropertiesByUserId(2L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(admin)).thenReturn(List.of());
-        when(propertyService.findAllForAdmin(null, null, null)).thenReturn(List.of(adminProp));
-        when(propertyService.findPendingProperties()).thenReturn(List.of());
+        when(propertyService.getPropertiesByUserId(2L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(favoriteService.getFavoriteCards(admin, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(propertyService.findAllForAdmin(null, null, null, 0, DashboardController.ADMIN_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of(adminProp)));
+        Map<ModerationStatus, Long> counts = new EnumMap<>(ModerationStatus.class);
+        counts.put(ModerationStatus.PENDING, 2L);
+        counts.put(ModerationStatus.APPROVED, 5L);
+        counts.put(ModerationStatus.REJECTED, 1L);
+        when(propertyService.countByModerationStatus()).thenReturn(counts);
+        when(propertyService.countByModerationStatus(2L)).thenReturn(new EnumMap<>(ModerationStatus.class));
 
         mockMvc.perform(get("/dashboard"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("dashboard"))
-                .andExpect(model().attributeExists("allListings"))
-                .andExpect(model().attributeExists("pendingListings"));
+                .andExpect(model().attribute("allListings", hasSize(1)))
+                .andExpect(model().attributeExists("adminPage"))
+                .andExpect(model().attribute("moderationCounts", hasEntry("PENDING", 2L)))
+                .andExpect(model().attribute("moderationCounts", hasEntry("ALL", 8L)));
 
-        verify(propertyService).findAllForAdmin(null, null, null);
-        verify(propertyService).findPendingProperties();
+        verify(propertyService).findAllForAdmin(null, null, null, 0, DashboardController.ADMIN_PAGE_SIZE);
     }
 
-    // Test that non-admin user does NOT see allListings / pendingListings in the model
+    // Test that non-admin user does NOT see allListings / moderationCounts in the model
     @Test
-    @DisplayName("GET /dashboard does not expose allListings or pendingListings for regular users")
+    @DisplayName("GET /dashboard does not expose allListings or moderationCounts for regular users")
     void dashboard_DoesNotExposeAdminAttributes_ForRegularUser() throws Exception {
         authenticateAs("john");
 
@@ -199,252 +252,75 @@ class DashboardControllerTest {
         user.setRole("ROLE_USER");
 
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(List.of());
+        when(propertyService.getPropertiesByUserId(1L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(favoriteService.getFavoriteCards(user, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         mockMvc.perform(get("/dashboard"))
                 .andExpect(status().isOk())
                 .andExpect(model().attributeDoesNotExist("allListings"))
-                .andExpect(model().attributeDoesNotExist("pendingListings"));
-    }
-
-    // Test that listSort and listDir params are forwarded to the service overload
-    @Test
-    @DisplayName("GET /dashboard forwards listSort and listDir params to PropertyService")
-    void dashboard_ForwardsListSortAndDir_ToPropertyService() throws Exception {
-        authenticateAs("john");
-
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("john");
-
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, "price", "asc", null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(List.of());
-
-        mockMvc.perform(get("/dashboard")
-                        .param("listSort", "price")
-                        .param("listDir",  "asc"))
-                .andExpect(status().isOk())
-                .andExpect(model().attribute("listSort", "price"))
-                .andExpect(model().attribute("listDir",  "asc"));
-
-        verify(propertyService).getPropertiesByUserId(1L, "price", "asc", null);
+                .andExpect(model().attributeDoesNotExist("moderationCounts"));
     }
 
-    // Test that favorites are sorted by location descending (covers line 66 + reversed branch line 71)
+    // Test that the listPage param selects the page and the owner's counts reach the model
     @Test
-    @DisplayName("GET /dashboard sorts favorites by location desc")
-    void dashboard_SortsFavorites_ByLocationDesc() throws Exception {
+    @DisplayName("GET /dashboard forwards listPage and adds the owner's moderation counts")
+    void dashboard_ForwardsListPage_AndAddsOwnerCounts() throws Exception {
         authenticateAs("john");
 
         User user = new User();
         user.setId(1L);
         user.setUsername("john");
 
-        Property propA = new Property();
-        propA.setTitle("A");
-        propA.setLocation("Riga");
-        propA.setPrice(100000.0);
-
-        Property propB = new Property();
-        propB.setTitle("B");
-        propB.setLocation("Tallinn");
-        propB.setPrice(200000.0);
-
-        Favorite favA = new Favorite(user, propA);
-        Favorite favB = new Favorite(user, propB);
+        Map<ModerationStatus, Long> counts = new EnumMap<>(ModerationStatus.class);
+        counts.put(ModerationStatus.PENDING, 1L);
+        counts.put(ModerationStatus.APPROVED, 40L);
 
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(favA, favB)));
+        when(propertyService.getPropertiesByUserId(1L, null, null, "APPROVED", 1, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(Page.empty());
+        when(propertyService.countByModerationStatus(1L)).thenReturn(counts);
+        when(favoriteService.getFavoriteCards(user, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         mockMvc.perform(get("/dashboard")
-                        .param("favSort", "location")
-                        .param("favDir",  "desc"))
+                        .param("listModeration", "APPROVED")
+                        .param("listPage",       "1"))
                 .andExpect(status().isOk())
-                .andExpect(model().attribute("favSort", "location"))
-                .andExpect(model().attribute("favDir",  "desc"));
-    }
+                .andExpect(model().attributeExists("myListingsPage"))
+                .andExpect(model().attribute("myListingCounts", hasEntry("APPROVED", 40L)))
+                .andExpect(model().attribute("myListingCounts", hasEntry("ALL", 41L)));
 
-    // Test that favorites are sorted by price ascending (covers line 67)
-    @Test
-    @DisplayName("GET /dashboard sorts favorites by price asc")
-    void dashboard_SortsFavorites_ByPriceAsc() throws Exception {
-        authenticateAs("john");
-
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("john");
-
-        Property propCheap = new Property();
-        propCheap.setTitle("Cheap");
-        propCheap.setLocation("Riga");
-        propCheap.setPrice(50000.0);
-
-        Property propExpensive = new Property();
-        propExpensive.setTitle("Expensive");
-        propExpensive.setLocation("Tallinn");
-        propExpensive.setPrice(500000.0);
-
-        Favorite favCheap    = new Favorite(user, propCheap);
-        Favorite favExpensive = new Favorite(user, propExpensive);
-
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(favExpensive, favCheap)));
-
-        mockMvc.perform(get("/dashboard")
-                        .param("favSort", "price")
-                        .param("favDir",  "asc"))
-                .andExpect(status().isOk())
-                .andExpect(model().attribute("favSort", "price"))
-                .andExpect(model().attribute("favDir",  "asc"));
+        verify(propertyService, never()).countByModerationStatus();
     }
 
-    // Test that an unknown favSort key results in no sorting (covers default -> null cmp branch, line 68 + 70)
-    @Test
-    @DisplayName("GET /dashboard does not sort favorites when favSort key is unknown")
-    void dashboard_DoesNotSort_WhenFavSortIsUnknown() throws Exception {
-        authenticateAs("john");
-
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("john");
-
-        Property prop = new Property();
-        prop.setTitle("House");
-        prop.setLocation("Riga");
-        prop.setPrice(100000.0);
-        Favorite fav = new Favorite(user, prop);
-
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(fav)));
-
-        mockMvc.perform(get("/dashboard")
-                        .param("favSort", "unknown")
-                        .param("favDir",  "asc"))
-                .andExpect(status().isOk())
-                .andExpect(model().attribute("favSort", "unknown"))
-                .andExpect(model().attribute("favDir",  "asc"));
-    }
-
-    // Test that favorites sorted by title desc exercises the reversed() branch (line 71)
+    // Test that listSort and listDir params are forwarded to the service overload
     @Test
-    @DisplayName("GET /dashboard sorts favorites by title desc (exercises reversed comparator)")
-    void dashboard_SortsFavorites_ByTitleDesc() throws Exception {
+    @DisplayName("GET /dashboard forwards listSort and listDir params to PropertyService")
+    void dashboard_ForwardsListSortAndDir_ToPropertyService() throws Exception {
         authenticateAs("john");
 
         User user = new User();
         user.setId(1L);
         user.setUsername("john");
 
-        Property propAlpha = new Property();
-        propAlpha.setTitle("Alpha");
-        propAlpha.setLocation("Riga");
-        propAlpha.setPrice(100000.0);
-
-        Property propZeta = new Property();
-        propZeta.setTitle("Zeta");
-        propZeta.setLocation("Tallinn");
-        propZeta.setPrice(200000.0);
-
-        Favorite favAlpha = new Favorite(user, propAlpha);
-        Favorite favZeta  = new Favorite(user, propZeta);
-
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(favAlpha, favZeta)));
+        when(propertyService.getPropertiesByUserId(1L, "price", "asc", null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(favoriteService.getFavoriteCards(user, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         mockMvc.perform(get("/dashboard")
-                        .param("favSort", "title")
-                        .param("favDir",  "desc"))
+                        .param("listSort", "price")
+                        .param("listDir",  "asc"))
                 .andExpect(status().isOk())
-                .andExpect(model().attribute("favSort", "title"))
-                .andExpect(model().attribute("favDir",  "desc"));
-    }
-
-    // Test sorting by title when property title is null (covers null-title branch in line 65)
-    @Test
-    @DisplayName("GET /dashboard handles null property title when sorting by title")
-    void dashboard_SortsFavoritesByTitle_WhenPropertyTitleIsNull() throws Exception {
-        authenticateAs("john");
-
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("john");
-
-        Property propNullTitle = new Property();
-        propNullTitle.setTitle(null);
-        propNullTitle.setLocation("Riga");
-        propNullTitle.setPrice(100000.0);
-
-        Favorite fav = new Favorite(user, propNullTitle);
-
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(fav)));
-
-        mockMvc.perform(get("/dashboard")
-                        .param("favSort", "title")
-                        .param("favDir",  "asc"))
-                .andExpect(status().isOk());
-    }
-
-    // Test sorting by location when property location is null (covers null-location branch in line 66)
-    @Test
-    @DisplayName("GET /dashboard handles null property location when sorting by location")
-    void dashboard_SortsFavoritesByLocation_WhenPropertyLocationIsNull() throws Exception {
-        authenticateAs("john");
-
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("john");
-
-        Property propNullLocation = new Property();
-        propNullLocation.setTitle("House");
-        propNullLocation.setLocation(null);
-        propNullLocation.setPrice(100000.0);
-
-        Favorite fav = new Favorite(user, propNullLocation);
-
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(fav)));
+                .andExpect(model().attribute("listSort", "price"))
+                .andExpect(model().attribute("listDir",  "asc"));
 
-        mockMvc.perform(get("/dashboard")
-                        .param("favSort", "location")
-                        .param("favDir",  "asc"))
-                .andExpect(status().isOk());
+        verify(propertyService).getPropertiesByUserId(1L, "price", "asc", null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE);
     }
 
-    // Test sorting by price when property price is null (covers null-price branch in line 67)
-    @Test
-    @DisplayName("GET /dashboard handles null property price when sorting by price")
-    void dashboard_SortsFavoritesByPrice_WhenPropertyPriceIsNull() throws Exception {
-        authenticateAs("john");
-
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("john");
-
-        Property propNullPrice = new Property();
-        propNullPrice.setTitle("House");
-        propNullPrice.setLocation("Riga");
-        propNullPrice.setPrice(null);
-
-        Favorite fav = new Favorite(user, propNullPrice);
-
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(fav)));
-
-        mockMvc.perform(get("/dashboard")
-                        .param("favSort", "price")
-                        .param("favDir",  "asc"))
-                .andExpect(status().isOk());
-    }
 
     // Test admin dashboard with non-null moderationFilter, sortField, sortDir (covers lines 82-84 non-null branches)
     @Test
@@ -458,21 +334,26 @@ class DashboardControllerTest {
         admin.setRole("ROLE_ADMIN");
 
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
-        when(propertyService.getPropertiesByUserId(2L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(admin)).thenReturn(List.of());
-        when(propertyService.findAllForAdmin("APPROVED", "price", "desc")).thenReturn(List.of());
-        when(propertyService.findPendingProperties()).thenReturn(List.of());
+        when(propertyService.getPropertiesByUserId(2L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(favoriteService.getFavoriteCards(admin, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(propertyService.findAllForAdmin("APPROVED", "price", "desc", 2, DashboardController.ADMIN_PAGE_SIZE))
+                .thenReturn(Page.empty());
+        when(propertyService.countByModerationStatus()).thenReturn(new EnumMap<>(ModerationStatus.class));
+        when(propertyService.countByModerationStatus(2L)).thenReturn(new EnumMap<>(ModerationStatus.class));
 
         mockMvc.perform(get("/dashboard")
                         .param("moderation", "APPROVED")
                         .param("sort",       "price")
-                        .param("dir",        "desc"))
+                        .param("dir",        "desc")
+                        .param("page",       "2"))
                 .andExpect(status().isOk())
                 .andExpect(model().attribute("moderationFilter", "APPROVED"))
                 .andExpect(model().attribute("sortField",        "price"))
                 .andExpect(model().attribute("sortDir",          "desc"));
 
-        verify(propertyService).findAllForAdmin("APPROVED", "price", "desc");
+        verify(propertyService).findAllForAdmin("APPROVED", "price", "desc", 2, DashboardController.ADMIN_PAGE_SIZE);
     }
 
     // Test that listModeration non-null param is uppercased in the model (covers line 56 true branch)
@@ -486,142 +367,45 @@ class DashboardControllerTest {
         user.setUsername("john");
 
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, "approved")).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(List.of());
+        when(propertyService.getPropertiesByUserId(1L, null, null, "approved", 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(favoriteService.getFavoriteCards(user, null, null, 0, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         mockMvc.perform(get("/dashboard")
                         .param("listModeration", "approved"))
                 .andExpect(status().isOk())
                 .andExpect(model().attribute("listModeration", "APPROVED"));
 
-        verify(propertyService).getPropertiesByUserId(1L, null, null, "approved");
+        verify(propertyService).getPropertiesByUserId(1L, null, null, "approved", 0, DashboardController.MY_LISTINGS_PAGE_SIZE);
     }
 
-    // Test sort by title with two favorites where one has a null title (covers both null and non-null branches of line 65 in a real comparison)
+    // Test that favSort, favDir and favPage are forwarded to FavoriteService and the rows reach the model
     @Test
-    @DisplayName("GET /dashboard sorts by title with mixed null/non-null titles covers both branches of null-title ternary")
-    void dashboard_SortsFavoritesByTitle_NullAndNonNullTitleMixed() throws Exception {
+    @DisplayName("GET /dashboard forwards favSort, favDir and favPage and exposes the favorite rows")
+    void dashboard_ForwardsFavoriteSortAndPage_ToFavoriteService() throws Exception {
         authenticateAs("john");
 
         User user = new User();
         user.setId(1L);
         user.setUsername("john");
 
-        Property propNullTitle = new Property();
-        propNullTitle.setTitle(null);
-        propNullTitle.setLocation("Riga");
-        propNullTitle.setPrice(100000.0);
-
-        Property propWithTitle = new Property();
-        propWithTitle.setTitle("Alpha");
-        propWithTitle.setLocation("Tallinn");
-        propWithTitle.setPrice(200000.0);
-
-        Favorite favNull = new Favorite(user, propNullTitle);
-        Favorite favTitle = new Favorite(user, propWithTitle);
+        FavoriteCardView row = mock(FavoriteCardView.class);
 
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(favTitle, favNull)));
+        when(propertyService.getPropertiesByUserId(1L, null, null, null, 0, DashboardController.MY_LISTINGS_PAGE_SIZE))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(favoriteService.getFavoriteCards(user, "Title", "DESC", 2, DashboardController.FAVORITES_PAGE_SIZE))
+                .thenReturn(new SliceImpl<>(List.of(row)));
 
         mockMvc.perform(get("/dashboard")
-                        .param("favSort", "title")
-                        .param("favDir",  "asc"))
-                .andExpect(status().isOk());
-    }
-
-    // Test sort by location with two favorites where one has a null location (covers both branches of null-location ternary on line 66)
-    @Test
-    @DisplayName("GET /dashboard sorts by location with mixed null/non-null locations covers both branches of null-location ternary")
-    void dashboard_SortsFavoritesByLocation_NullAndNonNullLocationMixed() throws Exception {
-        authenticateAs("john");
-
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("john");
-
-        Property propNullLocation = new Property();
-        propNullLocation.setTitle("House");
-        propNullLocation.setLocation(null);
-        propNullLocation.setPrice(100000.0);
-
-        Property propWithLocation = new Property();
-        propWithLocation.setTitle("Villa");
-        propWithLocation.setLocation("Tallinn");
-        propWithLocation.setPrice(200000.0);
-
-        Favorite favNull = new Favorite(user, propNullLocation);
-        Favorite favLocation = new Favorite(user, propWithLocation);
-
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(favLocation, favNull)));
-
-        mockMvc.perform(get("/dashboard")
-                        .param("favSort", "location")
-                        .param("favDir",  "asc"))
-                .andExpect(status().isOk());
-    }
-
-    // Test sort by price with two favorites where one has a null price (covers both branches of null-price ternary on line 67)
-    @Test
-    @DisplayName("GET /dashboard sorts by price with mixed null/non-null prices covers both branches of null-price ternary")
-    void dashboard_SortsFavoritesByPrice_NullAndNonNullPriceMixed() throws Exception {
-        authenticateAs("john");
-
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("john");
-
-        Property propNullPrice = new Property();
-        propNullPrice.setTitle("House");
-        propNullPrice.setLocation("Riga");
-        propNullPrice.setPrice(null);
-
-        Property propWithPrice = new Property();
-        propWithPrice.setTitle("Villa");
-        propWithPrice.setLocation("Tallinn");
-        propWithPrice.setPrice(500000.0);
-
-        Favorite favNull = new Favorite(user, propNullPrice);
-        Favorite favPrice = new Favorite(user, propWithPrice);
-
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(favPrice, favNull)));
-
-        mockMvc.perform(get("/dashboard")
-                        .param("favSort", "price")
-                        .param("favDir",  "asc"))
-                .andExpect(status().isOk());
-    }
-
-    // Test that favSort and favDir params are reflected in the model
-    @Test
-    @DisplayName("GET /dashboard reflects favSort and favDir in model attributes")
-    void dashboard_ReflectsFavSortAndDir_InModel() throws Exception {
-        authenticateAs("john");
-
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("john");
-
-        // Build a favorite with a property so sorting by title does not NPE
-        Property prop = new Property();
-        prop.setTitle("Alpha House");
-        prop.setLocation("Riga");
-        prop.setPrice(100000.0);
-        Favorite fav = new Favorite(user, prop);
-
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(propertyService.getPropertiesByUserId(1L, null, null, null)).thenReturn(List.of());
-        when(favoriteService.getFavorites(user)).thenReturn(new java.util.ArrayList<>(List.of(fav)));
-
-        mockMvc.perform(get("/dashboard")
-                        .param("favSort", "title")
-                        .param("favDir",  "asc"))
+                        .param("favSort", "Title")
+                        .param("favDir",  "DESC")
+                        .param("favPage", "2"))
                 .andExpect(status().isOk())
+                .andExpect(model().attribute("favorites", List.of(row)))
+                .andExpect(model().attributeExists("favoritesPage"))
                 .andExpect(model().attribute("favSort", "title"))
-                .andExpect(model().attribute("favDir",  "asc"));
+                .andExpect(model().attribute("favDir",  "desc"));
     }
 }
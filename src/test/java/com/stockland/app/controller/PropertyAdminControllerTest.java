@@ -0,0 +1,138 @@
+package com.stockland.app.controller;
+
+import com.stockland.app.service.CloudinaryServiceImpl;
+import com.stockland.app.service.PropertyService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The admin API through the security filter chain: who may call it, and the JSON it takes and returns
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PropertyAdminControllerTest {
+
+    private static final String DENIED_STATUS = "jakarta.servlet.error.status_code";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PropertyService propertyService;
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    // ── access ───────────────────────────────────────────────────────────────
+
+    @Test
+    @WithMockUser(username = "john", roles = "USER")
+    @DisplayName("POST /api/admin/properties/bulk-delete with ROLE_USER is denied with 403 and deletes nothing")
+    void bulkDelete_WithRoleUser_IsForbidden() throws Exception {
+        mockMvc.perform(post("/api/admin/properties/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2]}"))
+                .andExpect(forwardedUrl("/error"))
+                .andExpect(request().attribute(DENIED_STATUS, 403));
+
+        verify(propertyService, never()).deleteByIds(any());
+    }
+
+    @Test
+    @WithMockUser(username = "john", roles = "USER")
+    @DisplayName("POST /api/admin/listing-cards/rebuild with ROLE_USER is denied with 403 and rebuilds nothing")
+    void rebuildListingCards_WithRoleUser_IsForbidden() throws Exception {
+        mockMvc.perform(post("/api/admin/listing-cards/rebuild"))
+                .andExpect(forwardedUrl("/error"))
+                .andExpect(request().attribute(DENIED_STATUS, 403));
+
+        verify(propertyService, never()).rebuildListingCards();
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/properties/bulk-delete without authentication is answered as not found and deletes nothing")
+    void bulkDelete_WithoutAuth_IsNotFound() throws Exception {
+        mockMvc.perform(post("/api/admin/properties/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1]}"))
+                .andExpect(forwardedUrl("/error"))
+                .andExpect(request().attribute(DENIED_STATUS, 404));
+
+        verify(propertyService, never()).deleteByIds(any());
+    }
+
+    // ── bulk delete ──────────────────────────────────────────────────────────
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    @DisplayName("POST /api/admin/properties/bulk-delete returns how many ids were requested and how many listings went")
+    void bulkDelete_WithRoleAdmin_ReturnsRequestedAndDeleted() throws Exception {
+        when(propertyService.deleteByIds(List.of(1L, 2L, 3L))).thenReturn(2);
+
+        mockMvc.perform(post("/api/admin/properties/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        verify(propertyService).deleteByIds(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    @DisplayName("POST /api/admin/properties/bulk-delete without ids deletes nothing and reports zero")
+    void bulkDelete_WithoutIds_ReportsZero() throws Exception {
+        mockMvc.perform(post("/api/admin/properties/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(0))
+                .andExpect(jsonPath("$.deleted").value(0));
+
+        verify(propertyService).deleteByIds(List.of());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    @DisplayName("POST /api/admin/properties/bulk-delete with a form body is rejected with 415")
+    void bulkDelete_WithFormBody_IsUnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/api/admin/properties/bulk-delete")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("ids", "1"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(propertyService, never()).deleteByIds(any());
+    }
+
+    // ── listing card rebuild ─────────────────────────────────────────────────
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    @DisplayName("POST /api/admin/listing-cards/rebuild returns how many cards the table now holds")
+    void rebuildListingCards_WithRoleAdmin_ReturnsCardCount() throws Exception {
+        when(propertyService.rebuildListingCards()).thenReturn(7);
+
+        mockMvc.perform(post("/api/admin/listing-cards/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.cards").value(7));
+
+        verify(propertyService).rebuildListingCards();
+    }
+}
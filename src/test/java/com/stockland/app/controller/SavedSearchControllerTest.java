@@ -0,0 +1,108 @@
+package com.stockland.app.controller;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.model.User;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.service.SavedSearchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class SavedSearchControllerTest {
+
+    @Mock
+    private SavedSearchService savedSearchService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private SavedSearchController savedSearchController;
+
+    private MockMvc mockMvc;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(savedSearchController).build();
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("john");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("john", null, List.of()));
+        lenient().when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("POST /saved-searches saves the submitted filters for the current user")
+    void saveSearch_SavesFilters() throws Exception {
+        mockMvc.perform(post("/saved-searches")
+                        .param("name", "Riga flats")
+                        .param("location", "Riga")
+                        .param("maxPrice", "150000")
+                        .param("actionType", "BUY"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/dashboard"));
+
+        ArgumentCaptor<PropertyFilterRequestDTO> captor = ArgumentCaptor.forClass(PropertyFilterRequestDTO.class);
+        verify(savedSearchService).save(eq(user), eq("Riga flats"), captor.capture());
+        assertEquals("Riga", captor.getValue().getLocation());
+        assertEquals(150000.0, captor.getValue().getMaxPrice());
+    }
+
+    @Test
+    @DisplayName("POST /saved-searches with invalid filters saves nothing and reports it")
+    void saveSearch_InvalidFilters_NotSaved() throws Exception {
+        mockMvc.perform(post("/saved-searches").param("minPrice", "-5"))
+                .andExpect(redirectedUrl("/dashboard"))
+                .andExpect(flash().attributeExists("savedSearchError"));
+
+        verify(savedSearchService, never()).save(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /saved-searches reports the per-user limit")
+    void saveSearch_LimitReached_ReportsError() throws Exception {
+        when(savedSearchService.save(any(), any(), any())).thenThrow(new RuntimeException("You can keep at most 25 saved searches"));
+
+        mockMvc.perform(post("/saved-searches").param("location", "Riga"))
+                .andExpect(flash().attribute("savedSearchError", "You can keep at most 25 saved searches"));
+    }
+
+    @Test
+    @DisplayName("POST /saved-searches/{id}/seen and /delete act on the current user's search")
+    void markSeenAndDelete_DelegateToService() throws Exception {
+        mockMvc.perform(post("/saved-searches/7/seen")).andExpect(redirectedUrl("/dashboard"));
+        mockMvc.perform(post("/saved-searches/7/delete")).andExpect(redirectedUrl("/dashboard"));
+
+        verify(savedSearchService).markSeen(user, 7L);
+        verify(savedSearchService).delete(user, 7L);
+    }
+}
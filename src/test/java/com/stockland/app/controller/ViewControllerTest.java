@@ -1,13 +1,19 @@
 package com.stockland.app.controller;
 
+import com.stockland.app.dto.ListingFacetsDTO;
 import com.stockland.app.dto.PropertyFilterRequestDTO;
 import com.stockland.app.dto.PropertyRequestDTO;
 import com.stockland.app.dto.PropertyResponseDTO;
 import com.stockland.app.dto.UserResponseDTO;
 import com.stockland.app.model.ActionType;
 import com.stockland.app.model.PropertyType;
+import com.stockland.app.model.User;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.SimilarListings;
+import com.stockland.app.service.FavoriteService;
 import com.stockland.app.service.PropertyService;
 import com.stockland.app.service.UserService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,14 +23,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +51,12 @@ class ViewControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private FavoriteService favoriteService;
+
+    @Mock
+    private UserRepository userRepository;
+
     @InjectMocks
     private ViewController viewController;
 
@@ -55,6 +74,19 @@ class ViewControllerTest {
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private User authenticateAs(String username) {
+        User user = User.builder().id(3L).username(username).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        return user;
+    }
+
     // ── GET / and /index ──────────────────────────────────────────────────────
 
     @Test
@@ -186,6 +218,34 @@ class ViewControllerTest {
                 .andExpect(model().attributeExists("properties"));
     }
 
+    @Test
+    @DisplayName("GET /listings marks the signed-in user's favorites on the page with one bulk call")
+    void listings_AddsFavoriteIds_ForSignedInUser() throws Exception {
+        User user = authenticateAs("john");
+        PropertyResponseDTO first = PropertyResponseDTO.builder().id(1L).build();
+        PropertyResponseDTO second = PropertyResponseDTO.builder().id(2L).build();
+        when(propertyService.searchPropertiesWithFilterSortAndPagination(any(), any()))
+                .thenReturn(new PageImpl<>(List.of(first, second)));
+        when(favoriteService.favoritesAmong(user, List.of(1L, 2L))).thenReturn(Set.of(2L));
+
+        mockMvc.perform(get("/listings"))
+                .andExpect(model().attribute("favoriteIds", Set.of(2L)));
+
+        verify(favoriteService, never()).isFavorite(any(User.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /listings has no favorites for an anonymous visitor")
+    void listings_NoFavoriteIds_WhenAnonymous() throws Exception {
+        when(propertyService.searchPropertiesWithFilterSortAndPagination(any(), any()))
+                .thenReturn(new PageImpl<>(List.of(PropertyResponseDTO.builder().id(1L).build())));
+
+        mockMvc.perform(get("/listings"))
+                .andExpect(model().attribute("favoriteIds", Set.of()));
+
+        verifyNoInteractions(favoriteService);
+    }
+
     @Test
     @DisplayName("GET /listings passes filters object back into model")
     void listings_AddsFilters_ToModel() throws Exception {
@@ -196,6 +256,68 @@ class ViewControllerTest {
                 .andExpect(model().attributeExists("filters"));
     }
 
+    @Test
+    @DisplayName("GET /listings adds the facet counts for the same filters")
+    void listings_AddsFacets_ForFilters() throws Exception {
+        ListingFacetsDTO facets = ListingFacetsDTO.builder().total(1).build();
+        when(propertyService.searchPropertiesWithFilterSortAndPagination(any(), any()))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(propertyService.getListingFacets(any(PropertyFilterRequestDTO.class))).thenReturn(facets);
+
+        mockMvc.perform(get("/listings").param("location", "Riga"))
+                .andExpect(model().attribute("facets", facets));
+
+        verify(propertyService).getListingFacets(argThat(f -> "Riga".equals(f.getLocation())));
+    }
+
+    @Test
+    @DisplayName("GET /listings?after= switches to keyset mode and exposes the slice")
+    void listings_AfterCursor_UsesKeysetSearch() throws Exception {
+        PropertyResponseDTO dto = new PropertyResponseDTO();
+        dto.setTitle("House B");
+        SliceImpl<PropertyResponseDTO> slice = new SliceImpl<>(List.of(dto));
+
+        when(propertyService.searchPropertiesWithFilterSortAndPagination(any(), any(), eq("token")))
+                .thenReturn(slice);
+
+        mockMvc.perform(get("/listings").param("after", "token"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("listings"))
+                .andExpect(model().attribute("propertySlice", slice))
+                .andExpect(model().attribute("properties", List.of(dto)))
+                .andExpect(model().attributeDoesNotExist("propertyPage"));
+
+        verify(propertyService, never()).searchPropertiesWithFilterSortAndPagination(any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("GET /listings?q= without a sort ranks by relevance")
+    void listings_TextQueryWithoutSort_SortsByRelevance() throws Exception {
+        when(propertyService.searchPropertiesWithFilterSortAndPagination(any(), any()))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        mockMvc.perform(get("/listings").param("q", "sea view"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("listings"));
+
+        verify(propertyService).searchPropertiesWithFilterSortAndPagination(
+                argThat(f -> "sea view".equals(f.getQ())),
+                argThat(p -> p.getSort().getOrderFor("relevance") != null && p.getSort().getOrderFor("relevance").isDescending()));
+    }
+
+    @Test
+    @DisplayName("GET /listings?q= keeps an explicitly chosen sort")
+    void listings_TextQueryWithSort_KeepsSort() throws Exception {
+        when(propertyService.searchPropertiesWithFilterSortAndPagination(any(), any()))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        mockMvc.perform(get("/listings").param("q", "sea").param("sort", "price,asc"))
+                .andExpect(status().isOk());
+
+        verify(propertyService).searchPropertiesWithFilterSortAndPagination(any(),
+                argThat(p -> p.getSort().getOrderFor("price") != null && p.getSort().getOrderFor("relevance") == null));
+    }
+
     @Test
     @DisplayName("GET /listings with invalid filter (negative minPrice) returns listings view with errorMessage")
     void listings_InvalidFilter_ReturnsListingsView_WithErrorMessage() throws Exception {
@@ -319,6 +441,39 @@ class ViewControllerTest {
         verify(propertyService).findById(42L);
     }
 
+    @Test
+    @DisplayName("GET /property/{id} adds the similar listings to the model")
+    void property_AddsSimilarProperties() throws Exception {
+        PropertyResponseDTO property = new PropertyResponseDTO();
+        property.setId(7L);
+        property.setUsername("jane");
+        List<PropertyResponseDTO> similar = List.of(PropertyResponseDTO.builder().id(8L).build());
+
+        when(propertyService.findById(7L)).thenReturn(property);
+        when(userService.findByUsername("jane")).thenReturn(new UserResponseDTO());
+        when(propertyService.findSimilar(property, SimilarListings.DEFAULT_LIMIT)).thenReturn(similar);
+
+        mockMvc.perform(get("/property/7"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("similarProperties", similar));
+    }
+
+    @Test
+    @DisplayName("GET /property/{id} asks the favorite cache about the listing id for a signed-in user")
+    void property_SetsIsFavorite_ForSignedInUser() throws Exception {
+        User user = authenticateAs("john");
+        PropertyResponseDTO property = new PropertyResponseDTO();
+        property.setId(9L);
+        property.setUsername("jane");
+
+        when(propertyService.findById(9L)).thenReturn(property);
+        when(userService.findByUsername("jane")).thenReturn(new UserResponseDTO());
+        when(favoriteService.isFavorite(user, 9L)).thenReturn(true);
+
+        mockMvc.perform(get("/property/9"))
+                .andExpect(model().attribute("isFavorite", true));
+    }
+
     // ── GET /create-listing ───────────────────────────────────────────────────
 
     @Test
@@ -0,0 +1,68 @@
+package com.stockland.app.geo;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GazetteerTest {
+
+    private static final GeoPoint RIGA = new GeoPoint(56.9496, 24.1052);
+    private static final GeoPoint TEIKA = new GeoPoint(56.9780, 24.1820);
+
+    private static Gazetteer gazetteer;
+
+    @BeforeAll
+    static void load() {
+        gazetteer = new Gazetteer(new ClassPathResource("geo/gazetteer.csv"));
+    }
+
+    @Test
+    @DisplayName("A city resolves whatever its case, diacritics or surrounding text")
+    void resolve_City() {
+        assertEquals(RIGA, gazetteer.resolve("Riga"));
+        assertEquals(RIGA, gazetteer.resolve("  RĪGA "));
+        assertEquals(RIGA, gazetteer.resolve("Brīvības iela 100, Rīga, LV-1001"));
+    }
+
+    @Test
+    @DisplayName("A district named with its city wins over the city")
+    void resolve_DistrictOfCity() {
+        assertEquals(TEIKA, gazetteer.resolve("Riga, Teika 57"));
+        assertEquals(new GeoPoint(56.9470, 24.1066), gazetteer.resolve("Old Town, Riga"));
+    }
+
+    @Test
+    @DisplayName("A district of another city falls back to the named city")
+    void resolve_DistrictOfOtherCity_UsesCity() {
+        assertEquals(new GeoPoint(56.5047, 21.0108), gazetteer.resolve("Liepaja, Teika"));
+    }
+
+    @Test
+    @DisplayName("A district with a unique name resolves on its own")
+    void resolve_UniqueDistrictAlone() {
+        assertEquals(TEIKA, gazetteer.resolve("Teika"));
+        assertEquals(new GeoPoint(56.9713, 23.7989), gazetteer.resolve("Majori 3"));
+    }
+
+    @Test
+    @DisplayName("Unknown or blank locations resolve to null")
+    void resolve_Unknown_ReturnsNull() {
+        assertNull(gazetteer.resolve("Atlantis"));
+        assertNull(gazetteer.resolve("  "));
+        assertNull(gazetteer.resolve(null));
+    }
+
+    @Test
+    @DisplayName("A malformed gazetteer line fails loudly")
+    void load_MalformedLine_Throws() {
+        ByteArrayResource broken = new ByteArrayResource("Riga;56.9;24.1\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalStateException.class, () -> new Gazetteer(broken));
+    }
+}
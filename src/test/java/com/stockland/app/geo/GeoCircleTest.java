@@ -0,0 +1,77 @@
+package com.stockland.app.geo;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoCircleTest {
+
+    // Great circle distance, the reference the projection is checked against
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * 6371.0 * Math.asin(Math.sqrt(a));
+    }
+
+    @Test
+    @DisplayName("Points clearly inside or outside the radius are classified like the great circle distance")
+    void contains_AgreesWithHaversine() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            double lat = 55.5 + random.nextDouble() * 2.5;
+            double lon = 21 + random.nextDouble() * 6;
+            double radius = 1 + random.nextDouble() * 100;
+            GeoCircle circle = new GeoCircle(lat, lon, radius);
+
+            double pointLat = lat + (random.nextDouble() - 0.5) * 3;
+            double pointLon = lon + (random.nextDouble() - 0.5) * 5;
+            double distance = haversineKm(lat, lon, pointLat, pointLon);
+            if (Math.abs(distance - radius) > radius * 0.01) {
+                assertEquals(distance <= radius, circle.contains(pointLat, pointLon));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Every point inside the circle lies inside its bounding box")
+    void boundingBox_EnclosesCircle() {
+        GeoCircle circle = new GeoCircle(56.95, 24.1, 10);
+        for (int degree = 0; degree < 360; degree++) {
+            double angle = Math.toRadians(degree);
+            double lat = circle.getLatitude() + Math.sin(angle) * 10 / GeoCircle.KM_PER_DEGREE * 0.999;
+            double lon = circle.getLongitude() + Math.cos(angle) * 10 / GeoCircle.KM_PER_DEGREE / circle.getLongitudeScale() * 0.999;
+
+            assertTrue(circle.contains(lat, lon));
+            assertTrue(lat >= circle.getMinLatitude() && lat <= circle.getMaxLatitude());
+            assertTrue(lon >= circle.getMinLongitude() && lon <= circle.getMaxLongitude());
+        }
+    }
+
+    @Test
+    @DisplayName("A filter yields a circle only with a centre and a positive radius")
+    void of_RequiresCompleteFilter() {
+        PropertyFilterRequestDTO filter = PropertyFilterRequestDTO.builder().latitude(56.9).longitude(24.1).build();
+        assertNull(GeoCircle.of(filter));
+
+        filter.setRadiusKm(0.0);
+        assertNull(GeoCircle.of(filter));
+
+        filter.setRadiusKm(5.0);
+        assertEquals(5.0, GeoCircle.of(filter).getRadiusKm());
+    }
+
+    @Test
+    @DisplayName("Missing coordinates are never inside")
+    void contains_NullOrNaN_False() {
+        GeoCircle circle = new GeoCircle(56.95, 24.1, 10);
+
+        assertFalse(circle.contains(null, 24.1));
+        assertFalse(circle.contains(Double.NaN, 24.1));
+    }
+}
@@ -0,0 +1,196 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.dto.EntityCacheRegionStatsDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.search.ListingAttributeIndex;
+import com.stockland.app.service.CloudinaryServiceImpl;
+import com.stockland.app.service.FavoriteCounter;
+import com.stockland.app.service.FavoriteService;
+import com.stockland.app.service.PropertyService;
+import com.stockland.app.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Reads served by the second-level cache, and writes that must not leave it stale
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityCacheIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @MockitoBean
+    private ListingAttributeIndex listingAttributeIndex;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private FavoriteCounter favoriteCounter;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User seller;
+    private Property flat;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+
+        seller = userRepository.save(User.builder()
+                .username("seller").email("seller@example.com").password("encoded").role("ROLE_USER").build());
+        flat = propertyRepository.save(Property.builder()
+                .title("Flat")
+                .location("Riga")
+                .description("Bright flat")
+                .price(100000.0)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .moderationStatus(ModerationStatus.APPROVED)
+                .user(seller)
+                .build());
+        imageRepository.save(Image.builder()
+                .name("photo").public_id("p1").url("https://img.example.com/1.jpg").property(flat).build());
+        entityManagerFactory.getCache().evictAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // ── reads ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("a listing read again comes from the cache, owner and images included")
+    void findById_SecondReadRunsNoStatement() {
+        propertyService.findById(flat.getId());
+        statistics.clear();
+
+        PropertyResponseDTO listing = propertyService.findById(flat.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals("seller", listing.getUsername());
+        assertArrayEquals(new String[]{"https://img.example.com/1.jpg"}, listing.getImages());
+    }
+
+    @Test
+    @DisplayName("a user looked up again by username comes from the query and entity caches")
+    void findByUsername_SecondLookupRunsNoStatement() {
+        userRepository.findByUsername("seller");
+        statistics.clear();
+
+        assertEquals(seller.getId(), userRepository.findByUsername("seller").orElseThrow().getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    // ── writes ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("a listing edit is seen by the next read")
+    void updateProperty_NextReadSeesIt() {
+        propertyService.findById(flat.getId());
+
+        propertyService.approveProperty(flat.getId());
+        propertyService.toggleFeatured(flat.getId());
+
+        assertTrue(propertyService.findById(flat.getId()).isFeatured());
+    }
+
+    @Test
+    @DisplayName("a renamed user is found by the new username and no longer by the old one")
+    void saveUser_InvalidatesUsernameLookup() {
+        userRepository.findByUsername("seller");
+
+        User renamed = userService.getUserByUsername("seller");
+        renamed.setUsername("seller2");
+        userService.saveUser(renamed);
+
+        assertTrue(userRepository.findByUsername("seller").isEmpty());
+        assertEquals(seller.getId(), userRepository.findByUsername("seller2").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("an image added to a listing shows on the next read of the listing")
+    void imageSave_EvictsListingImages() {
+        propertyService.findById(flat.getId());
+
+        imageRepository.save(Image.builder()
+                .name("photo").public_id("p2").url("https://img.example.com/2.jpg").property(flat).build());
+
+        assertEquals(2, propertyService.findById(flat.getId()).getImages().length);
+    }
+
+    @Test
+    @DisplayName("a favorite count flush evicts only the listings it wrote, which then read the new count")
+    void favoriteFlush_EvictsWrittenListingsOnly() {
+        Property house = propertyRepository.save(Property.builder()
+                .title("House").location("Jurmala").price(250000.0)
+                .actionType(ActionType.BUY).propertyType(PropertyType.HOUSE)
+                .moderationStatus(ModerationStatus.APPROVED).user(seller).build());
+        favoriteCounter.flush();
+        propertyService.findById(flat.getId());
+        propertyService.findById(house.getId());
+
+        favoriteService.addFavorite(seller, flat);
+        favoriteCounter.flush();
+
+        assertFalse(entityManagerFactory.getCache().contains(Property.class, flat.getId()));
+        assertTrue(entityManagerFactory.getCache().contains(Property.class, house.getId()));
+        assertEquals(1, propertyService.findById(flat.getId()).getFavoriteCount());
+    }
+
+    // ── stats ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("stats report the hits of the listing region")
+    void stats_ReportRegionHits() {
+        propertyService.findById(flat.getId());
+        propertyService.findById(flat.getId());
+
+        EntityCacheRegionStatsDTO listings = entityCache.stats().stream()
+                .filter(region -> region.getRegion().equals("property"))
+                .findFirst().orElseThrow();
+
+        assertEquals(1, listings.getHits());
+        assertEquals(1, listings.getMisses());
+        assertEquals(0.5, listings.getHitRate());
+    }
+}
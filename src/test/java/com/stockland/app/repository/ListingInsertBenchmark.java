@@ -0,0 +1,175 @@
+package com.stockland.app.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Creating one listing with 30 photos, as the statements Hibernate sends for
+ * it: with identity ids every row is its own insert, 31 round trips; with
+ * pooled sequence ids the listing and the photos go as one batch each, 2
+ * round trips plus a sequence call per 50 rows of a table. Each round trip
+ * waits {@code rttMicros} on top of the in-memory H2 statement, standing in
+ * for the network to the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ListingInsertBenchmark {
+
+    private static final int PHOTOS = 30;
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param({"0", "200"})
+    public long rttMicros;
+
+    private Connection connection;
+    private long nextPropertyId;
+    private long propertyIdHi;
+    private long nextImageId;
+    private long imageIdHi;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:insert-bench", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE property_identity (property_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "title VARCHAR(255), user_id BIGINT)");
+            ddl.execute("CREATE TABLE images_identity (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "property_id BIGINT, url_image VARCHAR(255))");
+            ddl.execute("CREATE TABLE property (property_id BIGINT PRIMARY KEY, title VARCHAR(255), user_id BIGINT)");
+            ddl.execute("CREATE TABLE images (id BIGINT PRIMARY KEY, property_id BIGINT, url_image VARCHAR(255))");
+            ddl.execute("CREATE SEQUENCE property_seq START WITH 50 INCREMENT BY 50");
+            ddl.execute("CREATE SEQUENCE images_seq START WITH 50 INCREMENT BY 50");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    // Rows of the last iteration go, so every iteration inserts into tables of the same size
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("TRUNCATE TABLE property_identity");
+            ddl.execute("TRUNCATE TABLE images_identity");
+            ddl.execute("TRUNCATE TABLE property");
+            ddl.execute("TRUNCATE TABLE images");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private void roundTrip() {
+        if (rttMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(rttMicros));
+        }
+    }
+
+    @Benchmark
+    public long identityRows() throws SQLException {
+        long propertyId;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO property_identity (title, user_id) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            insert.setString(1, "Flat");
+            insert.setLong(2, 1L);
+            insert.executeUpdate();
+            roundTrip();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+                propertyId = keys.getLong(1);
+            }
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO images_identity (property_id, url_image) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int n = 0; n < PHOTOS; n++) {
+                insert.setLong(1, propertyId);
+                insert.setString(2, "https://img.example.com/" + propertyId + "/" + n + ".jpg");
+                insert.executeUpdate();
+                roundTrip();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        connection.commit();
+        return propertyId;
+    }
+
+    @Benchmark
+    public long pooledBatch() throws SQLException {
+        long propertyId = nextPropertyId();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO property (property_id, title, user_id) VALUES (?, ?, ?)")) {
+            insert.setLong(1, propertyId);
+            insert.setString(2, "Flat");
+            insert.setLong(3, 1L);
+            insert.addBatch();
+            insert.executeBatch();
+            roundTrip();
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO images (id, property_id, url_image) VALUES (?, ?, ?)")) {
+            for (int n = 0; n < PHOTOS; n++) {
+                insert.setLong(1, nextImageId());
+                insert.setLong(2, propertyId);
+                insert.setString(3, "https://img.example.com/" + propertyId + "/" + n + ".jpg");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            roundTrip();
+        }
+        connection.commit();
+        return propertyId;
+    }
+
+    // Hibernate's pooled optimizer: a sequence value ends a block of ALLOCATION_SIZE ids
+    private long nextPropertyId() throws SQLException {
+        if (nextPropertyId == 0 || nextPropertyId > propertyIdHi) {
+            propertyIdHi = nextValue("property_seq");
+            nextPropertyId = propertyIdHi - ALLOCATION_SIZE + 1;
+        }
+        return nextPropertyId++;
+    }
+
+    private long nextImageId() throws SQLException {
+        if (nextImageId == 0 || nextImageId > imageIdHi) {
+            imageIdHi = nextValue("images_seq");
+            nextImageId = imageIdHi - ALLOCATION_SIZE + 1;
+        }
+        return nextImageId++;
+    }
+
+    private long nextValue(String sequence) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet value = statement.executeQuery("SELECT NEXT VALUE FOR " + sequence)) {
+            roundTrip();
+            value.next();
+            return value.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.stockland.app.repository;
+
+import com.stockland.app.model.*;
+import com.stockland.app.service.CloudinaryServiceImpl;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The H2 schema as the Flyway migrations build it, checked with the startup query plan check
+@SpringBootTest(properties = "schema.plan-check.enabled=true")
+@ActiveProfiles("test")
+class SchemaMigrationIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @Autowired
+    private QueryPlanCheck queryPlanCheck;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("every migration is applied, in version order")
+    void migrations_AllApplied() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"success\" and \"version\" is not null order by \"installed_rank\"", String.class);
+
+        assertEquals(List.of("1", "1.1", "1.2", "1.3", "2", "3", "4", "5", "6", "7", "8"), versions);
+    }
+
+    @Test
+    @DisplayName("a database ddl-auto built before the migrations is baselined at V1 and gets every later object")
+    void baselinedDatabase_GetsLaterSchema() throws Exception {
+        // One connection kept open throughout: H2 evaluates a check constraint in the session that created it
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:baselined;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE", "sa", "", true);
+        try {
+            JdbcTemplate baselined = new JdbcTemplate(dataSource);
+            ScriptUtils.executeSqlScript(dataSource.getConnection(),
+                    new ClassPathResource("db/migration/common/V1__baseline_schema.sql"));
+
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+
+            assertEquals(List.of("LATITUDE", "LONGITUDE", "FAVORITE_COUNT"), baselined.queryForList(
+                    "select column_name from information_schema.columns where table_name = 'PROPERTY' "
+                            + "and column_name in ('LATITUDE', 'LONGITUDE', 'FAVORITE_COUNT') order by ordinal_position", String.class));
+            assertEquals(List.of("SAVED_SEARCH", "SAVED_SEARCH_MATCH"), baselined.queryForList(
+                    "select table_name from information_schema.tables where table_name like 'SAVED_SEARCH%' order by table_name", String.class));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("every probed repository query is served by an index")
+    void check_NoProbeScansATable() {
+        assertEquals(List.of(), queryPlanCheck.check());
+    }
+
+    @Test
+    @DisplayName("the check tells a table scan from an index lookup")
+    void scansTable_DetectsUnindexedQuery() {
+        assertTrue(queryPlanCheck.scansTable("select id from users where full_name = 'Anna'"));
+        assertFalse(queryPlanCheck.scansTable("select id from users where username = 'anna'"));
+    }
+
+    @Test
+    @DisplayName("a user cannot favorite the same listing twice")
+    void favorite_UniquePerUserAndListing() {
+        User user = userRepository.save(User.builder()
+                .username("anna").email("anna@example.com").password("encoded").role("ROLE_USER").build());
+        Property property = propertyRepository.save(Property.builder()
+                .title("Flat")
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .moderationStatus(ModerationStatus.APPROVED)
+                .user(user)
+                .build());
+        favoriteRepository.save(new Favorite(user, property));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> favoriteRepository.save(new Favorite(user, property)));
+        assertEquals(1, favoriteRepository.count());
+    }
+}
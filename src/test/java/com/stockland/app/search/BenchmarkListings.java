@@ -0,0 +1,60 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import com.stockland.app.model.PropertyType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic catalogue shared by the JMH benchmarks.
+ */
+final class BenchmarkListings {
+
+    static final String[] CITIES = {
+            "Riga", "Jurmala", "Liepaja", "Daugavpils", "Jelgava", "Ventspils", "Rezekne", "Valmiera",
+            "Jekabpils", "Ogre", "Tukums", "Cesis", "Salaspils", "Kuldiga", "Sigulda", "Bauska",
+            "Tallinn", "Tartu", "Parnu", "Vilnius", "Kaunas", "Klaipeda", "Helsinki", "Stockholm"
+    };
+
+    static final String[] DISTRICTS = {
+            "Centre", "Old Town", "Teika", "Purvciems", "Imanta", "Agenskalns", "Mezaparks", "Ziepniekkalns",
+            "Plavnieki", "Kengarags", "Dzirciems", "Bolderaja", "Vecmilgravis", "Jugla", "Sarkandaugava"
+    };
+
+    private BenchmarkListings() {
+    }
+
+    static List<PropertyResponseDTO> generate(int count, long seed) {
+        Random random = new Random(seed);
+        ActionType[] actions = ActionType.values();
+        PropertyType[] types = PropertyType.values();
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+        List<PropertyResponseDTO> listings = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String city = CITIES[random.nextInt(CITIES.length)];
+            String district = DISTRICTS[random.nextInt(DISTRICTS.length)];
+            listings.add(PropertyResponseDTO.builder()
+                    .id((long) i)
+                    .title(district + " listing " + i)
+                    .location(city + ", " + district + " " + (1 + random.nextInt(120)))
+                    .price(20000.0 + random.nextInt(980_000))
+                    .Area(20.0 + random.nextInt(400))
+                    .roomCount(1 + random.nextInt(8))
+                    .actionType(actions[random.nextInt(actions.length)])
+                    .propertyType(types[random.nextInt(types.length)])
+                    .status(random.nextBoolean() ? "NEW" : "OLD")
+                    .moderationStatus(ModerationStatus.APPROVED)
+                    .createdAt(start.plusMinutes(i))
+                    .featured(random.nextInt(50) == 0)
+                    .images(new String[0])
+                    .build());
+        }
+        return listings;
+    }
+}
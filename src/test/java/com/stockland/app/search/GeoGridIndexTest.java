@@ -0,0 +1,83 @@
+package com.stockland.app.search;
+
+import com.stockland.app.geo.GeoCircle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridIndexTest {
+
+    @Test
+    @DisplayName("Candidates include every point in the circle and only points from nearby cells")
+    void candidates_CoverCircle() {
+        Random random = new Random(11);
+        GeoGridIndex index = new GeoGridIndex();
+        int points = 20_000;
+        double[] lat = new double[points];
+        double[] lon = new double[points];
+        for (int slot = 0; slot < points; slot++) {
+            lat[slot] = 55.7 + random.nextDouble() * 2.3;
+            lon[slot] = 21 + random.nextDouble() * 7;
+            index.add(slot, lat[slot], lon[slot]);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            GeoCircle circle = new GeoCircle(56 + random.nextDouble(), 22 + random.nextDouble() * 5, 1 + random.nextDouble() * 30);
+            int[] candidates = index.candidates(circle);
+
+            for (int i = 1; i < candidates.length; i++) {
+                assertTrue(candidates[i - 1] < candidates[i]);
+            }
+            for (int slot = 0; slot < points; slot++) {
+                if (circle.contains(lat[slot], lon[slot])) {
+                    assertTrue(Arrays.binarySearch(candidates, slot) >= 0);
+                }
+            }
+            // A cell reaches at most one cell size past the bounding box
+            double margin = GeoGridIndex.CELL_DEGREES;
+            for (int slot : candidates) {
+                assertTrue(lat[slot] >= circle.getMinLatitude() - margin && lat[slot] <= circle.getMaxLatitude() + margin);
+                assertTrue(lon[slot] >= circle.getMinLongitude() - margin && lon[slot] <= circle.getMaxLongitude() + margin);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Removed points are no longer candidates and empty cells are dropped")
+    void remove_DropsPointAndCell() {
+        GeoGridIndex index = new GeoGridIndex();
+        index.add(0, 56.95, 24.10);
+        index.add(1, 56.95, 24.11);
+        index.add(2, 57.50, 25.40);
+
+        index.remove(1, 56.95, 24.11);
+        index.remove(2, 57.50, 25.40);
+
+        assertArrayEquals(new int[]{0}, index.candidates(new GeoCircle(56.95, 24.1, 5)));
+        assertEquals(1, index.cellCount());
+    }
+
+    @Test
+    @DisplayName("Listings without coordinates are not indexed")
+    void add_NaN_Ignored() {
+        GeoGridIndex index = new GeoGridIndex();
+        index.add(0, Double.NaN, 24.1);
+
+        assertEquals(0, index.cellCount());
+        assertEquals(0, index.candidates(new GeoCircle(56.95, 24.1, 500)).length);
+    }
+
+    @Test
+    @DisplayName("A box wider than the occupied cells still finds every point")
+    void candidates_WideBox_ScansOccupiedCells() {
+        GeoGridIndex index = new GeoGridIndex();
+        index.add(3, 56.95, 24.10);
+        index.add(7, 54.69, 25.28);
+
+        assertArrayEquals(new int[]{3, 7}, index.candidates(new GeoCircle(56, 24.5, 400)));
+    }
+}
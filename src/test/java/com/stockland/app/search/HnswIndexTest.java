@@ -0,0 +1,112 @@
+package com.stockland.app.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private static float[][] randomVectors(int count, int dimensions, long seed) {
+        Random random = new Random(seed);
+        float[][] vectors = new float[count][dimensions];
+        for (float[] vector : vectors) {
+            for (int d = 0; d < dimensions; d++) {
+                vector[d] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+
+    private static int[] exact(float[][] vectors, boolean[] removed, float[] query, int k) {
+        return IntStream.range(0, vectors.length)
+                .filter(i -> !removed[i])
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> HnswIndex.distance(query, vectors[i])))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // Share of the true k nearest that the index found, over the queries
+    private static double recall(HnswIndex index, float[][] vectors, boolean[] removed, float[][] queries, int k) {
+        int found = 0;
+        for (float[] query : queries) {
+            Set<Integer> truth = new HashSet<>();
+            Arrays.stream(exact(vectors, removed, query, k)).forEach(truth::add);
+            for (int node : index.search(query, k, 64)) {
+                if (truth.contains(node)) {
+                    found++;
+                }
+            }
+        }
+        return (double) found / (queries.length * k);
+    }
+
+    // ── search ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Finds nearly all of the true nearest neighbours, nearest first")
+    void search_MatchesBruteForce() {
+        float[][] vectors = randomVectors(3000, 12, 1L);
+        HnswIndex index = new HnswIndex(12, 7L);
+        for (int i = 0; i < vectors.length; i++) {
+            assertEquals(i, index.add(i, vectors[i]));
+        }
+
+        float[][] queries = randomVectors(50, 12, 2L);
+        assertTrue(recall(index, vectors, new boolean[vectors.length], queries, 6) > 0.95);
+
+        int[] result = index.search(queries[0], 6, 64);
+        for (int i = 1; i < result.length; i++) {
+            assertTrue(HnswIndex.distance(queries[0], vectors[result[i - 1]])
+                    <= HnswIndex.distance(queries[0], vectors[result[i]]));
+        }
+    }
+
+    @Test
+    @DisplayName("Removed nodes are never returned but the rest stay reachable")
+    void search_SkipsRemovedNodes() {
+        float[][] vectors = randomVectors(2000, 8, 3L);
+        HnswIndex index = new HnswIndex(8, 7L);
+        boolean[] removed = new boolean[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+        for (int i = 0; i < vectors.length; i += 3) {
+            index.remove(i);
+            removed[i] = true;
+        }
+        assertEquals(vectors.length - (vectors.length + 2) / 3, index.size());
+
+        float[][] queries = randomVectors(50, 8, 4L);
+        for (float[] query : queries) {
+            for (int node : index.search(query, 6, 64)) {
+                assertFalse(removed[node]);
+            }
+        }
+        assertTrue(recall(index, vectors, removed, queries, 6) > 0.95);
+    }
+
+    @Test
+    @DisplayName("An empty index finds nothing and a lone vector finds itself")
+    void search_EmptyAndSingle() {
+        HnswIndex index = new HnswIndex(2, 7L);
+        assertEquals(0, index.search(new float[]{0, 0}, 3, 16).length);
+
+        index.add(42L, new float[]{1, 1});
+        int[] result = index.search(new float[]{0, 0}, 3, 16);
+        assertEquals(1, result.length);
+        assertEquals(42L, index.id(result[0]));
+        assertThrows(IllegalArgumentException.class, () -> index.add(43L, new float[]{1}));
+    }
+}
@@ -0,0 +1,105 @@
+package com.stockland.app.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTreeTest {
+
+    private static TreeSet<Integer> stab(IntervalTree tree, double point) {
+        TreeSet<Integer> hits = new TreeSet<>();
+        tree.stab(point, hits::add);
+        return hits;
+    }
+
+    @Test
+    @DisplayName("Stabbing returns exactly the intervals containing the point, ends included")
+    void stab_MatchesBruteForce() {
+        Random random = new Random(5);
+        IntervalTree tree = new IntervalTree();
+        int count = 5_000;
+        double[] low = new double[count];
+        double[] high = new double[count];
+        for (int id = 0; id < count; id++) {
+            low[id] = random.nextInt(10) == 0 ? Double.NEGATIVE_INFINITY : random.nextInt(1000);
+            high[id] = random.nextInt(10) == 0 ? Double.POSITIVE_INFINITY : low[id] + random.nextInt(200);
+            tree.append(id, low[id], high[id]);
+        }
+        tree.rebuild();
+
+        for (int query = 0; query < 300; query++) {
+            double point = random.nextInt(1300) - 100;
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int id = 0; id < count; id++) {
+                if (low[id] <= point && point <= high[id]) {
+                    expected.add(id);
+                }
+            }
+            assertEquals(expected, stab(tree, point));
+        }
+    }
+
+    @Test
+    @DisplayName("Removed intervals are no longer found, equal intervals of other slots stay")
+    void remove_DropsOnlyThatSlot() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1, 100, 200);
+        tree.add(2, 100, 200);
+        tree.add(3, 150, 300);
+
+        tree.rebuild();
+        tree.add(4, 0, 1000);
+
+        assertTrue(tree.remove(1));
+        assertFalse(tree.remove(1));
+        assertTrue(tree.remove(4));
+
+        assertEquals(2, tree.size());
+        assertEquals(new TreeSet<>(List.of(2, 3)), stab(tree, 180));
+        assertEquals(new TreeSet<>(List.of(3)), stab(tree, 250));
+
+        // A slot removed from the tree and added again with another interval is only found at the new one
+        tree.add(2, 500, 600);
+        assertEquals(new TreeSet<>(List.of(3)), stab(tree, 180));
+        assertEquals(new TreeSet<>(List.of(2)), stab(tree, 550));
+    }
+
+    @Test
+    @DisplayName("The tree stays consistent through interleaved adds and removes")
+    void addAndRemove_Interleaved() {
+        Random random = new Random(9);
+        IntervalTree tree = new IntervalTree();
+        int slots = 2_000;
+        double[] low = new double[slots];
+        double[] high = new double[slots];
+        boolean[] live = new boolean[slots];
+        for (int step = 0; step < 20_000; step++) {
+            int slot = random.nextInt(slots);
+            if (live[slot] && random.nextBoolean()) {
+                assertTrue(tree.remove(slot));
+                live[slot] = false;
+            } else {
+                low[slot] = random.nextInt(500);
+                high[slot] = low[slot] + random.nextInt(50);
+                tree.add(slot, low[slot], high[slot]);
+                live[slot] = true;
+            }
+
+            if (step % 500 == 0) {
+                double point = random.nextInt(550);
+                TreeSet<Integer> expected = new TreeSet<>();
+                for (int i = 0; i < slots; i++) {
+                    if (live[i] && low[i] <= point && point <= high[i]) {
+                        expected.add(i);
+                    }
+                }
+                assertEquals(expected, stab(tree, point));
+            }
+        }
+    }
+}
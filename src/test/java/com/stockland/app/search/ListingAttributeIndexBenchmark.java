@@ -0,0 +1,160 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import com.stockland.app.model.PropertyType;
+import com.stockland.app.repository.PropertyAttributeView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moderation queue, featured list and a three-field combination over 1M listings:
+ * the equality queries the repository issues (on H2, no index on these columns)
+ * against the attribute bitmaps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class ListingAttributeIndexBenchmark {
+
+    private static final ListingAttributeIndex.Filter PENDING =
+            ListingAttributeIndex.Filter.moderation(ModerationStatus.PENDING);
+    private static final ListingAttributeIndex.Filter APPROVED_BUY_HOUSES = ListingAttributeIndex.Filter.builder()
+            .moderationStatuses(Set.of(ModerationStatus.APPROVED))
+            .actionType(ActionType.BUY)
+            .propertyType(PropertyType.HOUSE)
+            .build();
+
+    @Param({"1000000"})
+    public int listings;
+
+    private ListingAttributeIndex index;
+    private Connection connection;
+    private long probe;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        List<PropertyResponseDTO> catalogue = BenchmarkListings.generate(listings, 42L);
+
+        // Roughly 5% waiting for moderation and 2% rejected
+        List<PropertyAttributeView> rows = new ArrayList<>(catalogue.size());
+        for (PropertyResponseDTO dto : catalogue) {
+            long id = dto.getId();
+            ModerationStatus status = id % 20 == 0 ? ModerationStatus.PENDING
+                    : id % 50 == 1 ? ModerationStatus.REJECTED : ModerationStatus.APPROVED;
+            dto.setModerationStatus(status);
+            rows.add(view(dto));
+        }
+
+        index = new ListingAttributeIndex();
+        index.rebuild(rows);
+        probe = listings / 2;
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:attribute-bench;QUERY_CACHE_SIZE=0", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE property (property_id BIGINT PRIMARY KEY, action_type VARCHAR(255), "
+                    + "property_type VARCHAR(255), moderation_status VARCHAR(255), featured BOOLEAN)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO property VALUES (?, ?, ?, ?, ?)")) {
+            for (PropertyResponseDTO dto : catalogue) {
+                insert.setLong(1, dto.getId());
+                insert.setString(2, dto.getActionType().name());
+                insert.setString(3, dto.getPropertyType().name());
+                insert.setString(4, dto.getModerationStatus().name());
+                insert.setBoolean(5, dto.isFeatured());
+                insert.addBatch();
+                if (dto.getId() % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static PropertyAttributeView view(PropertyResponseDTO dto) {
+        return new PropertyAttributeView() {
+            public Long getId() { return dto.getId(); }
+            public ActionType getActionType() { return dto.getActionType(); }
+            public PropertyType getPropertyType() { return dto.getPropertyType(); }
+            public ModerationStatus getModerationStatus() { return dto.getModerationStatus(); }
+            public boolean isFeatured() { return dto.isFeatured(); }
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private long ids(String sql) throws SQLException {
+        long checksum = 0;
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                checksum += rs.getLong(1);
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long pendingQuery() throws SQLException {
+        return ids("SELECT property_id FROM property WHERE moderation_status = 'PENDING'");
+    }
+
+    @Benchmark
+    public int pendingBitmap() {
+        return index.ids(PENDING).size();
+    }
+
+    @Benchmark
+    public long featuredQuery() throws SQLException {
+        return ids("SELECT property_id FROM property WHERE featured = TRUE");
+    }
+
+    @Benchmark
+    public int featuredBitmap() {
+        return index.ids(ListingAttributeIndex.Filter.builder().featured(true).build()).size();
+    }
+
+    @Benchmark
+    public long combinationCountQuery() throws SQLException {
+        return ids("SELECT count(*) FROM property WHERE moderation_status = 'APPROVED' "
+                + "AND action_type = 'BUY' AND property_type = 'HOUSE'");
+    }
+
+    @Benchmark
+    public int combinationCountBitmap() {
+        return index.count(APPROVED_BUY_HOUSES);
+    }
+
+    @Benchmark
+    public boolean membershipBitmap() {
+        return index.matches(probe, APPROVED_BUY_HOUSES);
+    }
+}
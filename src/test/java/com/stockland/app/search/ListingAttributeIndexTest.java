@@ -0,0 +1,149 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import com.stockland.app.model.PropertyType;
+import com.stockland.app.repository.PropertyAttributeView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingAttributeIndexTest {
+
+    private ListingAttributeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ListingAttributeIndex();
+        index.rebuild(List.of(
+                row(1L, ActionType.BUY, PropertyType.HOUSE, ModerationStatus.APPROVED, true),
+                row(2L, ActionType.RENT, PropertyType.CONDO, ModerationStatus.PENDING, false),
+                row(3L, ActionType.BUY, PropertyType.CONDO, ModerationStatus.APPROVED, false),
+                row(4L, ActionType.BUY, PropertyType.LAND, ModerationStatus.REJECTED, true)
+        ));
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private PropertyAttributeView row(long id, ActionType actionType, PropertyType propertyType,
+                                      ModerationStatus moderationStatus, boolean featured) {
+        return new PropertyAttributeView() {
+            public Long getId() { return id; }
+            public ActionType getActionType() { return actionType; }
+            public PropertyType getPropertyType() { return propertyType; }
+            public ModerationStatus getModerationStatus() { return moderationStatus; }
+            public boolean isFeatured() { return featured; }
+        };
+    }
+
+    private PropertyResponseDTO listing(long id, ModerationStatus moderationStatus, boolean featured) {
+        return PropertyResponseDTO.builder()
+                .id(id)
+                .actionType(ActionType.RENT)
+                .propertyType(PropertyType.APARTMENTS)
+                .moderationStatus(moderationStatus)
+                .featured(featured)
+                .build();
+    }
+
+    // ── selection ─────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("A single moderation status selects its listings in id order")
+    void ids_ByModerationStatus() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L, 3L), index.ids(ListingAttributeIndex.Filter.moderation(ModerationStatus.APPROVED)));
+    }
+
+    @Test
+    @DisplayName("Different fields combine with AND")
+    void ids_FieldsCombineWithAnd() {
+        ListingAttributeIndex.Filter filter = ListingAttributeIndex.Filter.builder()
+                .moderationStatuses(Set.of(ModerationStatus.APPROVED))
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.CONDO)
+                .build();
+
+        assertEquals(List.of(3L), index.ids(filter));
+    }
+
+    @Test
+    @DisplayName("Several moderation statuses combine with OR")
+    void ids_ModerationStatusesCombineWithOr() {
+        ListingAttributeIndex.Filter filter = ListingAttributeIndex.Filter.builder()
+                .moderationStatuses(Set.of(ModerationStatus.PENDING, ModerationStatus.REJECTED))
+                .build();
+
+        assertEquals(List.of(2L, 4L), index.ids(filter));
+    }
+
+    @Test
+    @DisplayName("featured=false selects the complement of the featured listings")
+    void ids_NotFeatured() {
+        ListingAttributeIndex.Filter filter = ListingAttributeIndex.Filter.builder().featured(false).build();
+
+        assertEquals(List.of(2L, 3L), index.ids(filter));
+        assertEquals(4, index.count(ListingAttributeIndex.Filter.builder().build()));
+    }
+
+    @Test
+    @DisplayName("matches answers membership for a single listing")
+    void matches_SingleListing() {
+        ListingAttributeIndex.Filter approvedFeatured = ListingAttributeIndex.Filter.builder()
+                .moderationStatuses(Set.of(ModerationStatus.APPROVED))
+                .featured(true)
+                .build();
+
+        assertTrue(index.matches(1L, approvedFeatured));
+        assertFalse(index.matches(3L, approvedFeatured));
+        assertFalse(index.matches(4L, approvedFeatured));
+        assertFalse(index.matches(99L, ListingAttributeIndex.Filter.builder().build()));
+    }
+
+    // ── synchronisation ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("An update moves the listing out of the bitmaps of its old values")
+    void onPropertyChanged_UpdateMovesListing() {
+        index.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.APPROVED, 2L,
+                listing(2L, ModerationStatus.APPROVED, true)));
+
+        assertEquals(List.of(1L, 2L, 3L), index.ids(ListingAttributeIndex.Filter.moderation(ModerationStatus.APPROVED)));
+        assertTrue(index.ids(ListingAttributeIndex.Filter.moderation(ModerationStatus.PENDING)).isEmpty());
+        assertEquals(List.of(2L), index.ids(ListingAttributeIndex.Filter.builder().propertyType(PropertyType.APARTMENTS).build()));
+        assertEquals(List.of(3L), index.ids(ListingAttributeIndex.Filter.builder().propertyType(PropertyType.CONDO).build()));
+    }
+
+    @Test
+    @DisplayName("A deleted listing disappears from every bitmap")
+    void onPropertyChanged_DeleteClearsListing() {
+        index.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.DELETED, 1L, null));
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(4L), index.ids(ListingAttributeIndex.Filter.builder().featured(true).build()));
+    }
+
+    @Test
+    @DisplayName("Changes made between reading the rebuild snapshot and the swap survive the rebuild")
+    void rebuild_ReplaysChanges_MadeSinceBeginRebuild() {
+        List<PropertyAttributeView> snapshot = List.of(
+                row(1L, ActionType.BUY, PropertyType.HOUSE, ModerationStatus.APPROVED, true),
+                row(2L, ActionType.RENT, PropertyType.CONDO, ModerationStatus.PENDING, false));
+        index.beginRebuild();
+
+        index.index(listing(2L, ModerationStatus.APPROVED, false));
+        index.remove(1L);
+        index.rebuild(snapshot);
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(2L), index.ids(ListingAttributeIndex.Filter.moderation(ModerationStatus.APPROVED)));
+        assertTrue(index.ids(ListingAttributeIndex.Filter.builder().featured(true).build()).isEmpty());
+    }
+}
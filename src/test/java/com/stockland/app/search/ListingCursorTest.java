@@ -0,0 +1,79 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingCursorTest {
+
+    private PropertyResponseDTO listing(long id, Double price, LocalDateTime createdAt) {
+        return PropertyResponseDTO.builder().id(id).price(price).createdAt(createdAt).build();
+    }
+
+    @Test
+    @DisplayName("keysetOrder keeps a seekable first order and drops the rest")
+    void keysetOrder_KeepsFirstSeekableOrder() {
+        Sort sort = Sort.by(Sort.Order.asc("price"), Sort.Order.desc("title"));
+
+        assertEquals(Sort.Order.asc("price"), ListingCursor.keysetOrder(sort));
+    }
+
+    @Test
+    @DisplayName("keysetOrder falls back to id DESC for unsorted or unsupported sorts")
+    void keysetOrder_FallsBackToIdDesc() {
+        assertEquals(Sort.Order.desc("id"), ListingCursor.keysetOrder(Sort.unsorted()));
+        assertEquals(Sort.Order.desc("id"), ListingCursor.keysetOrder(Sort.by("roomCount")));
+    }
+
+    @Test
+    @DisplayName("A price cursor survives an encode/decode round trip")
+    void encodeDecode_RoundTrip_Price() {
+        Sort.Order order = Sort.Order.asc("price");
+        String token = ListingCursor.after(order, listing(7L, 120000.5, null)).encode();
+
+        ListingCursor decoded = ListingCursor.decode(token, order);
+
+        assertNotNull(decoded);
+        assertEquals(120000.5, decoded.getKey());
+        assertEquals(7L, decoded.getId());
+        assertFalse(decoded.isNullKey());
+    }
+
+    @Test
+    @DisplayName("A createdAt cursor keeps the exact timestamp")
+    void encodeDecode_RoundTrip_CreatedAt() {
+        Sort.Order order = Sort.Order.desc("createdAt");
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 4, 5, 6, 7, 123456000);
+        String token = ListingCursor.after(order, listing(3L, null, createdAt)).encode();
+
+        assertEquals(createdAt, ListingCursor.decode(token, order).getKey());
+    }
+
+    @Test
+    @DisplayName("A NULL sort key is encoded and reported as such")
+    void encodeDecode_NullKey() {
+        Sort.Order order = Sort.Order.asc("price");
+        String token = ListingCursor.after(order, listing(9L, null, null)).encode();
+
+        ListingCursor decoded = ListingCursor.decode(token, order);
+
+        assertTrue(decoded.isNullKey());
+        assertEquals(9L, decoded.getId());
+    }
+
+    @Test
+    @DisplayName("decode ignores tokens that are malformed or issued for another sort")
+    void decode_ReturnsNull_ForForeignOrBrokenTokens() {
+        String token = ListingCursor.after(Sort.Order.asc("price"), listing(1L, 10.0, null)).encode();
+
+        assertNull(ListingCursor.decode(token, Sort.Order.desc("price")));
+        assertNull(ListingCursor.decode(token, Sort.Order.asc("area")));
+        assertNull(ListingCursor.decode("not-a-cursor", Sort.Order.asc("price")));
+        assertNull(ListingCursor.decode(null, Sort.Order.asc("price")));
+    }
+}
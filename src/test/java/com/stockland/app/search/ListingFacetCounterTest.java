@@ -0,0 +1,86 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.FacetBucketDTO;
+import com.stockland.app.dto.ListingFacetsDTO;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.PropertyType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingFacetCounterTest {
+
+    @Test
+    @DisplayName("bucket bounds are inclusive below and exclusive above")
+    void bucket_LowerBoundInclusive_UpperBoundExclusive() {
+        double[] bounds = ListingFacetCounter.PRICE_BOUNDS;
+
+        assertEquals(0, ListingFacetCounter.bucket(bounds, 0));
+        assertEquals(0, ListingFacetCounter.bucket(bounds, 49_999.99));
+        assertEquals(1, ListingFacetCounter.bucket(bounds, 50_000));
+        assertEquals(4, ListingFacetCounter.bucket(bounds, 10_000_000));
+    }
+
+    @Test
+    @DisplayName("NULL and negative values fall in no bucket")
+    void bucket_NullOrNegative_IsNotCounted() {
+        assertEquals(-1, ListingFacetCounter.bucket(ListingFacetCounter.AREA_BOUNDS, Double.NaN));
+        assertEquals(-1, ListingFacetCounter.bucket(ListingFacetCounter.AREA_BOUNDS, -5));
+    }
+
+    @Test
+    @DisplayName("toDTO labels the buckets and leaves the last one open-ended")
+    void toDTO_LabelsBuckets() {
+        ListingFacetCounter counter = new ListingFacetCounter();
+        counter.add(ActionType.RENT, PropertyType.HOUSE, 650_000.0, 40, 260.0);
+
+        ListingFacetsDTO facets = counter.toDTO();
+        FacetBucketDTO first = facets.getPriceRanges().get(0);
+        FacetBucketDTO last = facets.getPriceRanges().get(facets.getPriceRanges().size() - 1);
+
+        assertEquals("0 – 50k €", first.getLabel());
+        assertEquals("500k+ €", last.getLabel());
+        assertNull(last.getMax());
+        assertEquals(1, last.getCount());
+        assertEquals("250+ m²", facets.getAreaRanges().get(4).getLabel());
+        assertEquals(Map.of(40, 1L), facets.getRoomCounts());
+    }
+
+    @Test
+    @DisplayName("a value on a bound is counted above it, and the bucket below stops at its highest value")
+    void toDTO_ValueOnBound_HighestStaysBelowBound() {
+        ListingFacetCounter counter = new ListingFacetCounter();
+        counter.add(ActionType.BUY, PropertyType.HOUSE, 20_000.0, 2, 40.0);
+        counter.add(ActionType.BUY, PropertyType.HOUSE, 50_000.0, 2, 50.0);
+
+        ListingFacetsDTO facets = counter.toDTO();
+        FacetBucketDTO below = facets.getPriceRanges().get(0);
+        FacetBucketDTO onBound = facets.getPriceRanges().get(1);
+
+        assertEquals(1, below.getCount());
+        assertEquals(50_000.0, below.getMax());
+        assertEquals(20_000.0, below.getHighest());
+        assertEquals(1, onBound.getCount());
+        assertEquals(50_000.0, onBound.getMin());
+        assertEquals(50_000.0, onBound.getHighest());
+        assertEquals(40.0, facets.getAreaRanges().get(0).getHighest());
+        assertNull(facets.getPriceRanges().get(2).getHighest());
+    }
+
+    @Test
+    @DisplayName("A listing with only NULL columns is counted in the total and nowhere else")
+    void add_NullColumns_CountOnlyTowardsTotal() {
+        ListingFacetCounter counter = new ListingFacetCounter();
+        counter.add(null, null, null, null, null);
+
+        ListingFacetsDTO facets = counter.toDTO();
+
+        assertEquals(1, facets.getTotal());
+        assertTrue(facets.getActionTypes().values().stream().allMatch(c -> c == 0));
+        assertTrue(facets.getPriceRanges().stream().allMatch(b -> b.getCount() == 0));
+        assertTrue(facets.getRoomCounts().isEmpty());
+    }
+}
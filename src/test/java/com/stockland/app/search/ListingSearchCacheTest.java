@@ -0,0 +1,282 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.dto.SearchCacheStatsDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingSearchCacheTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id"));
+
+    private ListingSearchCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ListingSearchCache(1 << 20, TextAnalyzer.standard());
+        loads = new AtomicInteger();
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private PropertyFilterRequestDTO location(String location) {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setLocation(location);
+        return filter;
+    }
+
+    private PropertyResponseDTO listing(long id, String location, ModerationStatus status) {
+        return PropertyResponseDTO.builder()
+                .id(id)
+                .title("Listing " + id)
+                .description("Bright rooms with a sea view")
+                .location(location)
+                .price(100000.0)
+                .actionType(ActionType.BUY)
+                .moderationStatus(status)
+                .build();
+    }
+
+    private Page<PropertyResponseDTO> search(PropertyFilterRequestDTO filters) {
+        return cache.page(cache.canonical(filters), FIRST_PAGE, () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(List.of(listing(1L, "Riga", ModerationStatus.APPROVED)));
+        });
+    }
+
+    private void changed(PropertyChangedEvent.Change change, PropertyResponseDTO before, PropertyResponseDTO after) {
+        long id = after != null ? after.getId() : before.getId();
+        cache.onPropertyChanged(new PropertyChangedEvent(change, id, after, before));
+    }
+
+    // ── keys ──────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Filters differing only in case, spacing or blank text share one entry")
+    void canonical_EquivalentFilters_ShareEntry() {
+        PropertyFilterRequestDTO blankStatus = location("Riga");
+        blankStatus.setStatus("  ");
+
+        search(location("  RIGA "));
+        search(blankStatus);
+
+        assertEquals(1, loads.get());
+        assertEquals("riga", cache.canonical(blankStatus).getLocation());
+        assertNull(cache.canonical(blankStatus).getStatus());
+    }
+
+    @Test
+    @DisplayName("Free text is reduced to its sorted distinct terms")
+    void canonical_FreeText_SortedTerms() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setQ("  View of the SEA, sea ");
+
+        assertEquals("sea view", cache.canonical(filter).getQ());
+
+        filter.setQ("the");
+        assertNull(cache.canonical(filter).getQ());
+    }
+
+    @Test
+    @DisplayName("An incomplete radius filter is dropped from the key")
+    void canonical_IncompleteRadius_Dropped() {
+        PropertyFilterRequestDTO filter = location("riga");
+        filter.setRadiusKm(5.0);
+
+        PropertyFilterRequestDTO canonical = cache.canonical(filter);
+
+        assertNull(canonical.getRadiusKm());
+        assertEquals(cache.canonical(location("riga")), canonical);
+    }
+
+    @Test
+    @DisplayName("Different pages of the same filters are separate entries")
+    void page_DifferentPageable_SeparateEntries() {
+        PropertyFilterRequestDTO canonical = cache.canonical(location("Riga"));
+        cache.page(canonical, FIRST_PAGE, () -> { loads.incrementAndGet(); return Page.empty(); });
+        cache.page(canonical, FIRST_PAGE.next(), () -> { loads.incrementAndGet(); return Page.empty(); });
+        cache.facets(canonical, () -> { loads.incrementAndGet(); return new ListingFacetCounter().toDTO(); });
+
+        assertEquals(3, loads.get());
+    }
+
+    // ── invalidation ──────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Approving a listing drops only the entries whose filters it matches")
+    void onPropertyChanged_Approve_DropsMatchingEntriesOnly() {
+        search(location("riga"));
+        search(location("jurmala"));
+
+        changed(PropertyChangedEvent.Change.APPROVED,
+                listing(5L, "Riga Centre", ModerationStatus.PENDING), listing(5L, "Riga Centre", ModerationStatus.APPROVED));
+        search(location("riga"));
+        search(location("jurmala"));
+
+        assertEquals(3, loads.get());
+        assertEquals(1, cache.stats().getInvalidations());
+    }
+
+    @Test
+    @DisplayName("An edit that moves a listing drops the entries of both its old and new location")
+    void onPropertyChanged_Update_DropsOldAndNewMatches() {
+        search(location("riga"));
+        search(location("jurmala"));
+        search(location("liepaja"));
+
+        changed(PropertyChangedEvent.Change.UPDATED,
+                listing(5L, "Riga", ModerationStatus.APPROVED), listing(5L, "Jurmala", ModerationStatus.APPROVED));
+
+        assertEquals(1, cache.stats().getEntries());
+    }
+
+    @Test
+    @DisplayName("Writes to listings outside every cached search keep the entries")
+    void onPropertyChanged_PendingOrUnrelated_KeepsEntries() {
+        PropertyFilterRequestDTO text = new PropertyFilterRequestDTO();
+        text.setQ("balcony");
+        search(location("riga"));
+        search(text);
+
+        changed(PropertyChangedEvent.Change.CREATED, null, listing(6L, "Riga", ModerationStatus.PENDING));
+        changed(PropertyChangedEvent.Change.FEATURED,
+                listing(7L, "Ventspils", ModerationStatus.APPROVED), listing(7L, "Ventspils", ModerationStatus.APPROVED));
+
+        assertEquals(2, cache.stats().getEntries());
+        assertEquals(0, cache.stats().getInvalidations());
+    }
+
+    @Test
+    @DisplayName("Deleting a listing uses its last state to find the affected entries")
+    void onPropertyChanged_Delete_UsesPreviousState() {
+        PropertyFilterRequestDTO text = new PropertyFilterRequestDTO();
+        text.setQ("Sea");
+        search(text);
+        search(location("jurmala"));
+
+        changed(PropertyChangedEvent.Change.DELETED, listing(1L, "Riga", ModerationStatus.APPROVED), null);
+
+        assertEquals(1, cache.stats().getEntries());
+    }
+
+    @Test
+    @DisplayName("A write outside a cached radius keeps the entry")
+    void onPropertyChanged_OutsideRadius_KeepsEntry() {
+        PropertyFilterRequestDTO near = PropertyFilterRequestDTO.builder().latitude(56.95).longitude(24.1).radiusKm(5.0).build();
+        search(near);
+        PropertyResponseDTO far = listing(5L, "Liepaja", ModerationStatus.APPROVED);
+        far.setLatitude(56.5);
+        far.setLongitude(21.0);
+        PropertyResponseDTO close = listing(6L, "Riga", ModerationStatus.APPROVED);
+        close.setLatitude(56.96);
+        close.setLongitude(24.11);
+
+        changed(PropertyChangedEvent.Change.FEATURED, far, far);
+        assertEquals(1, cache.stats().getEntries());
+
+        changed(PropertyChangedEvent.Change.FEATURED, close, close);
+        assertEquals(0, cache.stats().getEntries());
+    }
+
+    @Test
+    @DisplayName("A change without the previous state drops every entry")
+    void onPropertyChanged_NoPreviousState_DropsAll() {
+        search(location("riga"));
+        search(location("jurmala"));
+
+        cache.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.DELETED, 9L, null));
+
+        assertEquals(0, cache.stats().getEntries());
+    }
+
+    @Test
+    @DisplayName("Invalidating by sort drops only the pages sorted by that property")
+    void invalidateSortedBy_DropsPagesSortedByProperty() {
+        PropertyFilterRequestDTO canonical = cache.canonical(location("riga"));
+        Pageable mostSaved = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "favoriteCount"));
+        cache.page(canonical, mostSaved, () -> { loads.incrementAndGet(); return Page.empty(); });
+        cache.page(canonical, FIRST_PAGE, () -> { loads.incrementAndGet(); return Page.empty(); });
+        cache.facets(canonical, () -> { loads.incrementAndGet(); return new ListingFacetCounter().toDTO(); });
+
+        cache.invalidateSortedBy("favoriteCount");
+
+        assertEquals(2, cache.stats().getEntries());
+        assertEquals(1, cache.stats().getInvalidations());
+    }
+
+    @Test
+    @DisplayName("A result loaded while a write happened is returned but not cached")
+    void page_WriteDuringLoad_NotCached() {
+        cache.page(cache.canonical(location("riga")), FIRST_PAGE, () -> {
+            loads.incrementAndGet();
+            changed(PropertyChangedEvent.Change.CREATED, null, listing(8L, "Riga", ModerationStatus.PENDING));
+            return Page.empty();
+        });
+        search(location("riga"));
+
+        assertEquals(2, loads.get());
+    }
+
+    // ── size and metrics ──────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("The estimated size stays under the byte cap and evictions are counted")
+    void page_ByteCap_Evicts() {
+        cache = new ListingSearchCache(16 * 1024, TextAnalyzer.standard());
+        List<PropertyResponseDTO> rows = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            rows.add(listing(id, "Riga", ModerationStatus.APPROVED));
+        }
+
+        for (int i = 0; i < 50; i++) {
+            cache.page(cache.canonical(location("city " + i)), FIRST_PAGE, () -> new PageImpl<>(rows));
+        }
+
+        SearchCacheStatsDTO stats = cache.stats();
+        assertTrue(stats.getEvictions() > 0);
+        assertTrue(stats.getEstimatedBytes() <= stats.getMaxBytes());
+        assertTrue(stats.getEvictedBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Hits and misses are counted")
+    void stats_CountsHitsAndMisses() {
+        search(location("riga"));
+        search(location("riga"));
+        search(location("riga"));
+
+        SearchCacheStatsDTO stats = cache.stats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertTrue(stats.isEnabled());
+    }
+
+    @Test
+    @DisplayName("A zero byte cap turns the cache off")
+    void disabled_AlwaysLoads() {
+        cache = new ListingSearchCache(0, TextAnalyzer.standard());
+
+        search(location("riga"));
+        search(location("riga"));
+
+        assertEquals(2, loads.get());
+        assertFalse(cache.stats().isEnabled());
+    }
+}
@@ -0,0 +1,506 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.FacetBucketDTO;
+import com.stockland.app.dto.ListingFacetsDTO;
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import com.stockland.app.model.PropertyType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingSearchEngineTest {
+
+    private ListingSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ListingSearchEngine();
+        engine.rebuild(List.of(
+                listing(1L, "Riga", 120000.0, 80.0, 3, ActionType.BUY, PropertyType.APARTMENTS, "NEW"),
+                listing(2L, "Jurmala", 300000.0, 200.0, 6, ActionType.RENT, PropertyType.HOUSE, "OLD"),
+                listing(3L, "Riga Centre", 95000.0, 55.0, 2, ActionType.BUY, PropertyType.CONDO, "OLD"),
+                listing(4L, "Liepaja", null, null, null, ActionType.BUY, PropertyType.LAND, "NEW")
+        ));
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private PropertyResponseDTO listing(long id, String location, Double price, Double area, Integer rooms,
+                                        ActionType actionType, PropertyType propertyType, String status) {
+        return PropertyResponseDTO.builder()
+                .id(id)
+                .title("Listing " + id)
+                .location(location)
+                .price(price)
+                .Area(area)
+                .roomCount(rooms)
+                .actionType(actionType)
+                .propertyType(propertyType)
+                .status(status)
+                .moderationStatus(ModerationStatus.APPROVED)
+                .createdAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusDays(id))
+                .build();
+    }
+
+    private List<Long> ids(Slice<PropertyResponseDTO> page) {
+        List<Long> ids = new ArrayList<>();
+        page.getContent().forEach(p -> ids.add(p.getId()));
+        return ids;
+    }
+
+    // ── filtering ─────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Empty filter returns every indexed listing")
+    void search_EmptyFilter_ReturnsAll() {
+        Page<PropertyResponseDTO> result = engine.search(new PropertyFilterRequestDTO(), Pageable.unpaged());
+
+        assertEquals(4, result.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Location filter is a case-insensitive substring match")
+    void search_Location_MatchesSubstringIgnoringCase() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setLocation("RIGA");
+
+        Page<PropertyResponseDTO> result = engine.search(filter, PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(List.of(1L, 3L), ids(result));
+    }
+
+    @Test
+    @DisplayName("Range filters exclude listings whose column is null")
+    void search_RangeFilters_ExcludeNulls() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setMinPrice(0.0);
+        filter.setMaxRooms(5);
+
+        Page<PropertyResponseDTO> result = engine.search(filter, PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(List.of(1L, 3L), ids(result));
+    }
+
+    @Test
+    @DisplayName("Enum and status filters combine with AND")
+    void search_EnumAndStatus_Combined() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setActionType(ActionType.BUY);
+        filter.setStatus("old");
+
+        Page<PropertyResponseDTO> result = engine.search(filter, Pageable.unpaged());
+
+        assertEquals(List.of(3L), ids(result));
+    }
+
+    // ── sorting and paging ────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Price ascending puts null prices last")
+    void search_SortByPriceAsc_NullsLast() {
+        Page<PropertyResponseDTO> result = engine.search(new PropertyFilterRequestDTO(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "price")));
+
+        assertEquals(List.of(3L, 1L, 2L, 4L), ids(result));
+    }
+
+    @Test
+    @DisplayName("Pages slice the sorted result and report the full total")
+    void search_Paging_SlicesResult() {
+        Page<PropertyResponseDTO> result = engine.search(new PropertyFilterRequestDTO(),
+                PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertEquals(List.of(1L), ids(result));
+        assertEquals(4, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+    }
+
+    @Test
+    @DisplayName("supports rejects sort properties without a column")
+    void supports_RejectsUnknownSortProperty() {
+        assertTrue(engine.supports(PageRequest.of(0, 20, Sort.by("createdAt"))));
+        assertFalse(engine.supports(PageRequest.of(0, 20, Sort.by("title"))));
+    }
+
+    // ── keyset pagination ─────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("searchAfter walks all listings by price with NULL prices last")
+    void searchAfter_WalksAllSlices_ByPrice() {
+        Sort.Order order = Sort.Order.asc("price");
+        List<Long> seen = new ArrayList<>();
+
+        ListingCursor cursor = null;
+        Slice<PropertyResponseDTO> slice;
+        do {
+            slice = engine.searchAfter(new PropertyFilterRequestDTO(), order, cursor, 2);
+            seen.addAll(ids(slice));
+            List<PropertyResponseDTO> content = slice.getContent();
+            cursor = content.isEmpty() ? null : ListingCursor.after(order, content.get(content.size() - 1));
+        } while (slice.hasNext());
+
+        assertEquals(List.of(3L, 1L, 2L, 4L), seen);
+    }
+
+    @Test
+    @DisplayName("searchAfter breaks ties on equal keys by id")
+    void searchAfter_BreaksTiesById() {
+        engine.index(listing(5L, "Riga", 120000.0, 80.0, 3, ActionType.BUY, PropertyType.APARTMENTS, "NEW"));
+        Sort.Order order = Sort.Order.desc("price");
+
+        Slice<PropertyResponseDTO> first = engine.searchAfter(new PropertyFilterRequestDTO(), order, null, 2);
+        Slice<PropertyResponseDTO> second = engine.searchAfter(new PropertyFilterRequestDTO(), order,
+                ListingCursor.after(order, first.getContent().get(1)), 2);
+
+        // NULL price first in DESC, then 300k, then the two 120k listings newest id first
+        assertEquals(List.of(4L, 2L), ids(first));
+        assertEquals(List.of(5L, 1L), ids(second));
+    }
+
+    @Test
+    @DisplayName("Listings approved while paging do not shift the next slice")
+    void searchAfter_StableWhileListingsAreApproved() {
+        Sort.Order order = Sort.Order.desc("id");
+        Slice<PropertyResponseDTO> first = engine.searchAfter(new PropertyFilterRequestDTO(), order, null, 2);
+        ListingCursor cursor = ListingCursor.after(order, first.getContent().get(1));
+
+        engine.index(listing(10L, "Riga", 1.0, 1.0, 1, ActionType.BUY, PropertyType.LAND, "NEW"));
+        Slice<PropertyResponseDTO> second = engine.searchAfter(new PropertyFilterRequestDTO(), order, cursor, 2);
+
+        assertEquals(List.of(4L, 3L), ids(first));
+        assertEquals(List.of(2L, 1L), ids(second));
+        assertFalse(second.hasNext());
+    }
+
+    // ── facets ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("facets counts every facet over all listings when nothing is filtered")
+    void facets_EmptyFilter_CountsAllListings() {
+        ListingFacetsDTO facets = engine.facets(new PropertyFilterRequestDTO());
+
+        assertEquals(4, facets.getTotal());
+        assertEquals(3L, facets.getActionTypes().get(ActionType.BUY));
+        assertEquals(1L, facets.getActionTypes().get(ActionType.RENT));
+        assertEquals(1L, facets.getPropertyTypes().get(PropertyType.LAND));
+        assertEquals(0L, facets.getPropertyTypes().get(PropertyType.COMMERCIAL));
+        // Listing 4 has no rooms, so it is not counted under any room count
+        assertEquals(Map.of(2, 1L, 3, 1L, 6, 1L), facets.getRoomCounts());
+    }
+
+    @Test
+    @DisplayName("facets only count listings matching the filter")
+    void facets_FollowTheFilter() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setLocation("riga");
+
+        ListingFacetsDTO facets = engine.facets(filter);
+
+        assertEquals(2, facets.getTotal());
+        assertEquals(2L, facets.getActionTypes().get(ActionType.BUY));
+        assertEquals(0L, facets.getActionTypes().get(ActionType.RENT));
+        // 95k falls in 50k – 100k, 120k in 100k – 200k
+        assertEquals(List.of(0L, 1L, 1L, 0L, 0L),
+                facets.getPriceRanges().stream().map(FacetBucketDTO::getCount).toList());
+        // 55 m² and 80 m² both fall in 50 – 100 m²
+        assertEquals(List.of(0L, 2L, 0L, 0L, 0L),
+                facets.getAreaRanges().stream().map(FacetBucketDTO::getCount).toList());
+    }
+
+    // ── full-text ─────────────────────────────────────────────────────────────
+
+    private PropertyResponseDTO described(long id, String title, String description, Double price) {
+        PropertyResponseDTO dto = listing(id, "Riga", price, 60.0, 2, ActionType.BUY, PropertyType.APARTMENTS, "NEW");
+        dto.setTitle(title);
+        dto.setDescription(description);
+        return dto;
+    }
+
+    private void indexDescribedListings() {
+        engine.rebuild(List.of(
+                described(1L, "Sea view apartment", "Bright flat with a balcony.", 150000.0),
+                described(2L, "Family house", "Quiet street, a short walk to the sea.", 90000.0),
+                described(3L, "Studio", "Compact studio near the old town.", 60000.0)
+        ));
+    }
+
+    @Test
+    @DisplayName("Free text combines with the other filters")
+    void search_TextQuery_CombinesWithFilters() {
+        indexDescribedListings();
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setQ("sea");
+        filter.setMaxPrice(100000.0);
+
+        Page<PropertyResponseDTO> result = engine.search(filter, PageRequest.of(0, 10, Sort.by("price")));
+
+        assertEquals(List.of(2L), ids(result));
+        assertEquals(1, result.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Relevance sort puts title matches before description matches")
+    void search_TextQuery_SortsByRelevance() {
+        indexDescribedListings();
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setQ("SEA");
+
+        Page<PropertyResponseDTO> result = engine.search(filter, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance")));
+
+        assertEquals(List.of(1L, 2L), ids(result));
+    }
+
+    @Test
+    @DisplayName("Edits to title and description are searchable right after indexing")
+    void search_TextQuery_ReflectsUpdatesAndRemovals() {
+        indexDescribedListings();
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setQ("garden");
+
+        engine.index(described(3L, "Studio", "Compact studio with a private garden.", 60000.0));
+        assertEquals(List.of(3L), ids(engine.search(filter, Pageable.unpaged())));
+
+        engine.remove(3L);
+        assertEquals(0, engine.search(filter, Pageable.unpaged()).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Facets and keyset slices honour the text query")
+    void facetsAndSearchAfter_TextQuery() {
+        indexDescribedListings();
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setQ("sea");
+
+        assertEquals(2, engine.facets(filter).getTotal());
+        assertEquals(List.of(2L, 1L), ids(engine.searchAfter(filter, Sort.Order.asc("price"), null, 5)));
+    }
+
+    // ── range indexes ─────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Pages sorted by an indexed column match a full sort after many writes and merges")
+    void search_IndexWalk_MatchesFullSort_AfterRandomWrites() {
+        Random random = new Random(7);
+        Map<Long, PropertyResponseDTO> model = new HashMap<>();
+        List<PropertyResponseDTO> initial = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            PropertyResponseDTO dto = randomListing(random, id);
+            initial.add(dto);
+            model.put(id, dto);
+        }
+        engine.rebuild(initial);
+
+        // Enough writes to fill the deltas several times; merges run in the background and once more at the end
+        for (int i = 0; i < 3 * RangeIndex.DELTA_CAPACITY; i++) {
+            long id = 1 + random.nextInt(600);
+            if (random.nextInt(4) == 0) {
+                engine.remove(id);
+                model.remove(id);
+            } else {
+                PropertyResponseDTO dto = randomListing(random, id);
+                engine.index(dto);
+                model.put(id, dto);
+            }
+            if (i == RangeIndex.DELTA_CAPACITY / 2) {
+                engine.mergeRangeIndexes();
+            }
+        }
+
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setMinPrice(20000.0);
+        filter.setMaxPrice(60000.0);
+        filter.setMinRooms(2);
+
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            for (String property : List.of("price", "area", "roomCount")) {
+                for (PropertyFilterRequestDTO f : List.of(new PropertyFilterRequestDTO(), filter)) {
+                    assertPageMatchesModel(model, f, property, direction, 0);
+                    assertPageMatchesModel(model, f, property, direction, 3);
+                }
+            }
+        }
+
+        engine.mergeRangeIndexes();
+        assertPageMatchesModel(model, filter, "price", Sort.Direction.DESC, 1);
+    }
+
+    @Test
+    @DisplayName("searchAfter by price walks the index past the cursor")
+    void searchAfter_ByPrice_UsesRangeFilterBounds() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setMaxPrice(150000.0);
+        Sort.Order order = Sort.Order.desc("price");
+
+        Slice<PropertyResponseDTO> first = engine.searchAfter(filter, order, null, 1);
+        Slice<PropertyResponseDTO> second = engine.searchAfter(filter, order,
+                ListingCursor.after(order, first.getContent().get(0)), 1);
+
+        assertEquals(List.of(1L), ids(first));
+        assertEquals(List.of(3L), ids(second));
+        assertFalse(second.hasNext());
+    }
+
+    private PropertyResponseDTO randomListing(Random random, long id) {
+        Double price = random.nextInt(10) == 0 ? null : (double) random.nextInt(100) * 1000;
+        Double area = random.nextInt(10) == 0 ? null : (double) random.nextInt(50);
+        Integer rooms = random.nextInt(10) == 0 ? null : random.nextInt(6);
+        return listing(id, "Riga", price, area, rooms, ActionType.BUY, PropertyType.HOUSE, "NEW");
+    }
+
+    private void assertPageMatchesModel(Map<Long, PropertyResponseDTO> model, PropertyFilterRequestDTO filter,
+                                        String property, Sort.Direction direction, int page) {
+        Function<PropertyResponseDTO, Double> key = switch (property) {
+            case "price" -> PropertyResponseDTO::getPrice;
+            case "area"  -> PropertyResponseDTO::getArea;
+            default      -> p -> p.getRoomCount() != null ? p.getRoomCount().doubleValue() : null;
+        };
+        Comparator<PropertyResponseDTO> byKey = Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<PropertyResponseDTO> order = byKey.thenComparing(PropertyResponseDTO::getId);
+        if (direction.isDescending()) {
+            order = order.reversed();
+        }
+
+        List<Long> expected = model.values().stream()
+                .filter(p -> filter.getMinPrice() == null || (p.getPrice() != null && p.getPrice() >= filter.getMinPrice()))
+                .filter(p -> filter.getMaxPrice() == null || (p.getPrice() != null && p.getPrice() <= filter.getMaxPrice()))
+                .filter(p -> filter.getMinRooms() == null || (p.getRoomCount() != null && p.getRoomCount() >= filter.getMinRooms()))
+                .sorted(order)
+                .map(PropertyResponseDTO::getId)
+                .toList();
+
+        Page<PropertyResponseDTO> result = engine.search(filter, PageRequest.of(page, 10, Sort.by(direction, property)));
+
+        assertEquals(expected.size(), result.getTotalElements(), property + " " + direction);
+        assertEquals(expected.subList(Math.min(page * 10, expected.size()), Math.min(page * 10 + 10, expected.size())),
+                ids(result), property + " " + direction + " page " + page);
+    }
+
+    // ── radius ────────────────────────────────────────────────────────────────
+
+    private PropertyResponseDTO placed(long id, double latitude, double longitude, double price) {
+        PropertyResponseDTO dto = listing(id, "Somewhere", price, 60.0, 2, ActionType.BUY, PropertyType.APARTMENTS, "NEW");
+        dto.setLatitude(latitude);
+        dto.setLongitude(longitude);
+        return dto;
+    }
+
+    private PropertyFilterRequestDTO within(double latitude, double longitude, double radiusKm) {
+        return PropertyFilterRequestDTO.builder().latitude(latitude).longitude(longitude).radiusKm(radiusKm).build();
+    }
+
+    @Test
+    @DisplayName("A radius keeps the listings inside the circle and combines with other filters")
+    void search_Radius_CombinesWithPrice() {
+        engine.rebuild(List.of(
+                placed(1L, 56.9496, 24.1052, 100000),   // Riga centre
+                placed(2L, 56.9780, 24.1820, 250000),   // Teika, about 5.6 km away
+                placed(3L, 56.9680, 23.7704, 150000),   // Jurmala, about 20 km away
+                listing(4L, "Riga", 90000.0, 40.0, 1, ActionType.BUY, PropertyType.CONDO, "NEW")));
+
+        assertEquals(List.of(1L, 2L), ids(engine.search(within(56.9496, 24.1052, 8), Pageable.unpaged())));
+        assertEquals(List.of(1L, 2L, 3L), ids(engine.search(within(56.9496, 24.1052, 25), Pageable.unpaged())));
+
+        PropertyFilterRequestDTO cheap = within(56.9496, 24.1052, 8);
+        cheap.setMaxPrice(200000.0);
+        assertEquals(List.of(1L), ids(engine.search(cheap, Pageable.unpaged())));
+        assertEquals(1, engine.facets(cheap).getTotal());
+    }
+
+    @Test
+    @DisplayName("A radius without a centre is ignored")
+    void search_IncompleteRadius_Ignored() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setRadiusKm(5.0);
+
+        assertEquals(4, engine.search(filter, Pageable.unpaged()).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Moving or removing a listing updates radius results")
+    void search_Radius_FollowsWrites() {
+        engine.rebuild(List.of(placed(1L, 56.9496, 24.1052, 100000), placed(2L, 56.5047, 21.0108, 80000)));
+
+        engine.index(placed(2L, 56.9500, 24.1100, 80000));
+        assertEquals(List.of(1L, 2L), ids(engine.search(within(56.9496, 24.1052, 2), Pageable.unpaged())));
+
+        engine.remove(1L);
+        assertEquals(List.of(2L), ids(engine.search(within(56.9496, 24.1052, 2), Pageable.unpaged())));
+    }
+
+    // ── synchronisation ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("A listing that is no longer APPROVED is dropped from the index")
+    void onPropertyChanged_RemovesListing_WhenNoLongerApproved() {
+        PropertyResponseDTO rejected = listing(1L, "Riga", 120000.0, 80.0, 3, ActionType.BUY, PropertyType.APARTMENTS, "NEW");
+        rejected.setModerationStatus(ModerationStatus.REJECTED);
+
+        engine.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.REJECTED, 1L, rejected));
+
+        assertEquals(3, engine.size());
+    }
+
+    @Test
+    @DisplayName("Deleted slots are reused and updates overwrite the existing slot")
+    void index_ReusesSlots_AfterRemove() {
+        engine.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.DELETED, 2L, null));
+        engine.index(listing(5L, "Ventspils", 50000.0, 40.0, 1, ActionType.RENT, PropertyType.CONDO, "NEW"));
+        engine.index(listing(5L, "Ventspils", 70000.0, 40.0, 1, ActionType.RENT, PropertyType.CONDO, "NEW"));
+
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setActionType(ActionType.RENT);
+        Page<PropertyResponseDTO> result = engine.search(filter, Pageable.unpaged());
+
+        assertEquals(4, engine.size());
+        assertEquals(List.of(5L), ids(result));
+        assertEquals(70000.0, result.getContent().get(0).getPrice());
+    }
+
+    @Test
+    @DisplayName("Changes made between reading the rebuild snapshot and the swap survive the rebuild")
+    void rebuild_ReplaysChanges_MadeSinceBeginRebuild() {
+        List<PropertyResponseDTO> snapshot = List.of(
+                listing(1L, "Riga", 120000.0, 80.0, 3, ActionType.BUY, PropertyType.APARTMENTS, "NEW"),
+                listing(2L, "Jurmala", 300000.0, 200.0, 6, ActionType.RENT, PropertyType.HOUSE, "OLD"));
+        engine.beginRebuild();
+
+        engine.index(listing(5L, "Ventspils", 50000.0, 40.0, 1, ActionType.RENT, PropertyType.CONDO, "NEW"));
+        engine.remove(2L);
+        engine.rebuild(snapshot);
+
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setActionType(ActionType.RENT);
+        assertEquals(2, engine.size());
+        assertEquals(List.of(5L), ids(engine.search(filter, Pageable.unpaged())));
+    }
+
+    @Test
+    @DisplayName("A rebuild without beginRebuild replaces the index with the snapshot only")
+    void rebuild_ReplacesIndex_WithoutBeginRebuild() {
+        engine.index(listing(5L, "Ventspils", 50000.0, 40.0, 1, ActionType.RENT, PropertyType.CONDO, "NEW"));
+
+        engine.rebuild(List.of(listing(1L, "Riga", 120000.0, 80.0, 3, ActionType.BUY, PropertyType.APARTMENTS, "NEW")));
+
+        assertEquals(1, engine.size());
+    }
+}
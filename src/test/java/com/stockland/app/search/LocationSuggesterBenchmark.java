@@ -0,0 +1,67 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.LocationSuggestionDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-8 location completions over the ~43k distinct locations of 1M approved
+ * listings, for a short, a medium and a long prefix, plus the incremental
+ * update an approval triggers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class LocationSuggesterBenchmark {
+
+    @Param({"1000000"})
+    public int listings;
+
+    @Param({"r", "riga, t", "kuldiga, jugla 1"})
+    public String prefix;
+
+    private LocationSuggester suggester;
+    private PropertyResponseDTO moving;
+    private String[] locations;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<PropertyResponseDTO> catalogue = BenchmarkListings.generate(listings, 42L);
+        suggester = new LocationSuggester();
+        suggester.rebuild(catalogue);
+
+        moving = catalogue.get(0);
+        locations = catalogue.stream().limit(1024).map(PropertyResponseDTO::getLocation).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public List<LocationSuggestionDTO> suggest() {
+        return suggester.suggest(prefix, LocationSuggester.DEFAULT_LIMIT);
+    }
+
+    // One listing moving to another location: uncounted at the old one and counted at the new one
+    @Benchmark
+    public PropertyResponseDTO reindex() {
+        moving.setLocation(locations[next++ & 1023]);
+        suggester.index(moving);
+        return moving;
+    }
+}
@@ -0,0 +1,112 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.LocationSuggestionDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.model.ModerationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationSuggesterTest {
+
+    private LocationSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new LocationSuggester();
+        suggester.rebuild(List.of(
+                listing(1L, "Riga", ModerationStatus.APPROVED),
+                listing(2L, "  RIGA ", ModerationStatus.APPROVED),
+                listing(3L, "Riga,   Teika", ModerationStatus.APPROVED),
+                listing(4L, "Rezekne", ModerationStatus.PENDING)
+        ));
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private PropertyResponseDTO listing(long id, String location, ModerationStatus moderationStatus) {
+        return PropertyResponseDTO.builder()
+                .id(id)
+                .location(location)
+                .moderationStatus(moderationStatus)
+                .build();
+    }
+
+    private void changed(PropertyChangedEvent.Change change, long id, PropertyResponseDTO dto) {
+        suggester.onPropertyChanged(new PropertyChangedEvent(change, id, dto));
+    }
+
+    // ── suggestions ───────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Spellings differing in case and spacing count as one location")
+    void suggest_NormalisesLocations() {
+        List<LocationSuggestionDTO> result = suggester.suggest(" RI", 5);
+
+        assertEquals(List.of(new LocationSuggestionDTO("Riga", 2), new LocationSuggestionDTO("Riga,   Teika", 1)), result);
+        assertEquals(1, suggester.suggest("riga, teika", 5).size());
+        assertTrue(suggester.isReady());
+    }
+
+    @Test
+    @DisplayName("Listings that are not approved are not suggested")
+    void suggest_SkipsUnapproved() {
+        assertTrue(suggester.suggest("rez", 5).isEmpty());
+        assertEquals(2, suggester.size());
+    }
+
+    @Test
+    @DisplayName("A blank prefix suggests nothing")
+    void suggest_BlankPrefix_Empty() {
+        assertTrue(suggester.suggest("  ", 5).isEmpty());
+        assertTrue(suggester.suggest(null, 5).isEmpty());
+    }
+
+    // ── updates ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Approving, moving and deleting listings keeps the counts in step")
+    void onPropertyChanged_TracksListings() {
+        changed(PropertyChangedEvent.Change.APPROVED, 4L, listing(4L, "Rezekne", ModerationStatus.APPROVED));
+        assertEquals(List.of(new LocationSuggestionDTO("Rezekne", 1)), suggester.suggest("rez", 5));
+
+        changed(PropertyChangedEvent.Change.UPDATED, 1L, listing(1L, "Rezekne", ModerationStatus.APPROVED));
+        assertEquals(2, suggester.suggest("rez", 5).get(0).getCount());
+        assertEquals(1, suggester.suggest("riga", 1).get(0).getCount());
+
+        changed(PropertyChangedEvent.Change.DELETED, 2L, null);
+        changed(PropertyChangedEvent.Change.REJECTED, 3L, listing(3L, "Riga, Teika", ModerationStatus.REJECTED));
+        assertTrue(suggester.suggest("riga", 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A repeated event for the same listing is counted once")
+    void onPropertyChanged_Idempotent() {
+        PropertyResponseDTO featured = listing(1L, "Riga", ModerationStatus.APPROVED);
+        changed(PropertyChangedEvent.Change.FEATURED, 1L, featured);
+        changed(PropertyChangedEvent.Change.FEATURED, 1L, featured);
+
+        assertEquals(2, suggester.suggest("riga", 1).get(0).getCount());
+    }
+
+    @Test
+    @DisplayName("Changes made between reading the rebuild snapshot and the swap survive the rebuild")
+    void rebuild_ReplaysChanges_MadeSinceBeginRebuild() {
+        List<PropertyResponseDTO> snapshot = List.of(
+                listing(1L, "Riga", ModerationStatus.APPROVED),
+                listing(4L, "Rezekne", ModerationStatus.PENDING));
+        suggester.beginRebuild();
+
+        changed(PropertyChangedEvent.Change.APPROVED, 4L, listing(4L, "Rezekne", ModerationStatus.APPROVED));
+        changed(PropertyChangedEvent.Change.DELETED, 1L, null);
+        suggester.rebuild(snapshot);
+
+        assertEquals(List.of(new LocationSuggestionDTO("Rezekne", 1)), suggester.suggest("re", 5));
+        assertTrue(suggester.suggest("riga", 5).isEmpty());
+    }
+}
@@ -0,0 +1,144 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.LocationSuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationTrieTest {
+
+    private LocationTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new LocationTrie();
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private void add(String location, int listings) {
+        for (int i = 0; i < listings; i++) {
+            trie.add(location.toLowerCase(), location);
+        }
+    }
+
+    private List<String> names(List<LocationSuggestionDTO> suggestions) {
+        return suggestions.stream().map(LocationSuggestionDTO::getLocation).toList();
+    }
+
+    // ── completion ────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Completions are ranked by listing count, then alphabetically")
+    void complete_RankedByCount() {
+        add("Riga", 5);
+        add("Riga, Teika", 2);
+        add("Rezekne", 2);
+        add("Riga, Centre", 7);
+        add("Jurmala", 9);
+
+        List<LocationSuggestionDTO> result = trie.complete("r", 10);
+
+        assertEquals(List.of("Riga, Centre", "Riga", "Rezekne", "Riga, Teika"), names(result));
+        assertEquals(7, result.get(0).getCount());
+    }
+
+    @Test
+    @DisplayName("A prefix ending inside a compressed edge still finds the locations below it")
+    void complete_PrefixInsideEdge() {
+        add("Daugavpils", 1);
+        add("Daugavgriva", 3);
+
+        assertEquals(List.of("Daugavgriva", "Daugavpils"), names(trie.complete("dau", 5)));
+        assertEquals(List.of("Daugavpils"), names(trie.complete("daugavp", 5)));
+        assertTrue(trie.complete("daux", 5).isEmpty());
+        assertTrue(trie.complete("daugavpilsx", 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Only the requested number of completions is returned")
+    void complete_Limit() {
+        add("Ogre", 1);
+        add("Olaine", 2);
+        add("Ozolnieki", 3);
+
+        assertEquals(List.of("Ozolnieki", "Olaine"), names(trie.complete("o", 2)));
+        assertTrue(trie.complete("o", 0).isEmpty());
+    }
+
+    // ── updates ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Removing listings lowers the count and prunes a location left without any")
+    void remove_UpdatesCountsAndPrunes() {
+        add("Tukums", 2);
+        add("Tukums, Centre", 1);
+
+        trie.remove("tukums");
+        assertEquals(1, trie.count("tukums"));
+
+        trie.remove("tukums");
+        assertEquals(0, trie.count("tukums"));
+        assertEquals(1, trie.size());
+        assertEquals(List.of("Tukums, Centre"), names(trie.complete("tu", 5)));
+
+        trie.remove("tukums, centre");
+        assertEquals(0, trie.size());
+        assertTrue(trie.complete("t", 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Removing an unknown location or a bare prefix changes nothing")
+    void remove_Unknown_Ignored() {
+        add("Sigulda", 1);
+
+        trie.remove("sig");
+        trie.remove("valmiera");
+
+        assertEquals(1, trie.count("sigulda"));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    @DisplayName("Random adds and removes give the same completions as a sorted map")
+    void complete_MatchesModel() {
+        Random random = new Random(7);
+        String[] words = {"riga", "rig", "rezekne", "ri", "r", "jurmala", "jur", "jelgava", "je", "riga centre", "riga teika"};
+        Map<String, Integer> model = new TreeMap<>();
+
+        for (int step = 0; step < 3000; step++) {
+            String word = words[random.nextInt(words.length)];
+            if (random.nextInt(3) == 0) {
+                trie.remove(word);
+                model.computeIfPresent(word, (w, n) -> n == 1 ? null : n - 1);
+            } else {
+                trie.add(word, word);
+                model.merge(word, 1, Integer::sum);
+            }
+
+            String source = words[random.nextInt(words.length)];
+            String prefix = source.substring(0, Math.min(source.length(), 1 + random.nextInt(3)));
+            List<LocationSuggestionDTO> expected = new ArrayList<>();
+            model.forEach((w, n) -> {
+                if (w.startsWith(prefix)) {
+                    expected.add(new LocationSuggestionDTO(w, n));
+                }
+            });
+            expected.sort(Comparator.comparingLong(LocationSuggestionDTO::getCount).reversed()
+                    .thenComparing(LocationSuggestionDTO::getLocation));
+
+            int limit = 1 + random.nextInt(5);
+            assertEquals(expected.subList(0, Math.min(limit, expected.size())), trie.complete(prefix, limit));
+            assertEquals(model.size(), trie.size());
+        }
+    }
+}
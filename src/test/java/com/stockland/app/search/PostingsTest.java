@@ -0,0 +1,48 @@
+package com.stockland.app.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingsTest {
+
+    private static int[] slots(Postings postings) {
+        return Arrays.copyOf(postings.slots, postings.size);
+    }
+
+    @Test
+    @DisplayName("Slots stay sorted and distinct as the list grows past its initial capacity")
+    void add_KeepsSlotsSortedAndDistinct() {
+        Postings postings = new Postings();
+        for (int slot : new int[]{9, 3, 7, 1, 3, 12, 5, 9}) {
+            postings.add(slot);
+        }
+
+        assertArrayEquals(new int[]{1, 3, 5, 7, 9, 12}, slots(postings));
+        assertNull(postings.frequencies);
+
+        postings.remove(7);
+        postings.remove(8);
+        assertArrayEquals(new int[]{1, 3, 5, 9, 12}, slots(postings));
+    }
+
+    @Test
+    @DisplayName("Frequencies follow their slots through inserts, replacements and removals")
+    void addWithFrequency_KeepsFrequenciesAligned() {
+        Postings postings = new Postings();
+        postings.add(20, 2);
+        postings.add(10, 1);
+        postings.add(40, 4);
+        postings.add(30, 3);
+        postings.add(50, 5);
+        postings.add(20, 7);
+
+        postings.remove(10);
+
+        assertArrayEquals(new int[]{20, 30, 40, 50}, slots(postings));
+        assertArrayEquals(new int[]{7, 3, 4, 5}, Arrays.copyOf(postings.frequencies, postings.size));
+    }
+}
@@ -0,0 +1,142 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price range and price-sorted pages over 1M listings: the SQL the
+ * Specification path issues (page query plus count, on H2 without an index
+ * on price, as in the schema) against the engine walking its range index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class RangeIndexBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("price"));
+    private static final Pageable DEEP_PAGE = PageRequest.of(500, 20, Sort.by("price"));
+
+    @Param({"1000000"})
+    public int listings;
+
+    private ListingSearchEngine engine;
+    private ListingColumns columns;
+    private Connection connection;
+    private PropertyFilterRequestDTO priceRange;
+    private PropertyFilterRequestDTO noFilters;
+    private ListingCursor deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        List<PropertyResponseDTO> catalogue = BenchmarkListings.generate(listings, 42L);
+
+        engine = new ListingSearchEngine();
+        engine.rebuild(catalogue);
+        columns = new ListingColumns(catalogue.size());
+        columns.bulkLoad(catalogue);
+
+        // About 1% of the catalogue
+        priceRange = new PropertyFilterRequestDTO();
+        priceRange.setMinPrice(100_000.0);
+        priceRange.setMaxPrice(110_000.0);
+        noFilters = new PropertyFilterRequestDTO();
+
+        List<PropertyResponseDTO> deep = engine.search(noFilters, DEEP_PAGE).getContent();
+        deepCursor = ListingCursor.after(Sort.Order.asc("price"), deep.get(deep.size() - 1));
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:range-bench;QUERY_CACHE_SIZE=0", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE property (property_id BIGINT PRIMARY KEY, price DOUBLE, area DOUBLE, room_count INT)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO property VALUES (?, ?, ?, ?)")) {
+            for (PropertyResponseDTO dto : catalogue) {
+                insert.setLong(1, dto.getId());
+                insert.setDouble(2, dto.getPrice());
+                insert.setDouble(3, dto.getArea());
+                insert.setInt(4, dto.getRoomCount());
+                insert.addBatch();
+                if (dto.getId() % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        engine.shutdown();
+        connection.close();
+    }
+
+    private long query(String sql) throws SQLException {
+        long checksum = 0;
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                checksum += rs.getLong(1);
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long rangePageQuery() throws SQLException {
+        return query("SELECT property_id FROM property WHERE price BETWEEN 100000 AND 110000 "
+                + "ORDER BY price, property_id LIMIT 20")
+                + query("SELECT count(*) FROM property WHERE price BETWEEN 100000 AND 110000");
+    }
+
+    @Benchmark
+    public long rangePageEngine() {
+        return engine.search(priceRange, FIRST_PAGE).getTotalElements();
+    }
+
+    @Benchmark
+    public long deepPageQuery() throws SQLException {
+        return query("SELECT property_id FROM property ORDER BY price, property_id LIMIT 20 OFFSET 10000")
+                + query("SELECT count(*) FROM property");
+    }
+
+    @Benchmark
+    public long deepPageEngine() {
+        return engine.search(noFilters, DEEP_PAGE).getTotalElements();
+    }
+
+    @Benchmark
+    public int deepKeysetEngine() {
+        return engine.searchAfter(noFilters, Sort.Order.asc("price"), deepCursor, 20).getNumberOfElements();
+    }
+
+    @Benchmark
+    public int rangeSlots() {
+        return columns.priceIndex.slotsInRange(100_000, 110_000).length;
+    }
+}
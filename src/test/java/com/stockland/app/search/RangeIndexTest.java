@@ -0,0 +1,112 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeIndexTest {
+
+    private ListingColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new ListingColumns(16);
+        columns.bulkLoad(List.of(
+                listing(1L, 300.0),
+                listing(2L, 100.0),
+                listing(3L, null),
+                listing(4L, 200.0),
+                listing(5L, 100.0)
+        ));
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private PropertyResponseDTO listing(long id, Double price) {
+        return PropertyResponseDTO.builder().id(id).price(price).build();
+    }
+
+    private long[] idsInRange(double min, double max) {
+        return Arrays.stream(columns.priceIndex.slotsInRange(min, max)).mapToLong(slot -> columns.id[slot]).sorted().toArray();
+    }
+
+    private List<Long> walk(boolean descending, boolean hasStart, double startKey, long startId) {
+        List<Long> ids = new ArrayList<>();
+        columns.priceIndex.walk(descending, hasStart, startKey, startId, slot -> ids.add(columns.id[slot]));
+        return ids;
+    }
+
+    // ── lookups ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("slotsInRange includes both bounds and never NULL values")
+    void slotsInRange_InclusiveBounds_NoNulls() {
+        assertArrayEquals(new long[] {2L, 4L, 5L}, idsInRange(100, 200));
+        assertArrayEquals(new long[] {1L, 2L, 4L, 5L}, idsInRange(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    @DisplayName("walk orders by value then id with NULL last, and reverses for descending")
+    void walk_OrdersByValueThenId() {
+        assertEquals(List.of(2L, 5L, 4L, 1L, 3L), walk(false, false, 0, 0));
+        assertEquals(List.of(3L, 1L, 4L, 5L, 2L), walk(true, false, 0, 0));
+    }
+
+    @Test
+    @DisplayName("walk from a position visits only the entries strictly after it")
+    void walk_FromPosition() {
+        assertEquals(List.of(5L, 4L, 1L, 3L), walk(false, true, 100, 2L));
+        assertEquals(List.of(4L, 5L, 2L), walk(true, true, 300, 1L));
+        assertEquals(List.of(1L, 4L, 5L, 2L), walk(true, true, Double.NaN, 3L));
+    }
+
+    // ── delta and merge ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Writes are visible through the delta before any merge")
+    void delta_WritesVisibleBeforeMerge() {
+        columns.upsert(listing(6L, 150.0));
+        columns.upsert(listing(4L, 50.0));
+        columns.remove(1L);
+
+        assertEquals(2, columns.priceIndex.deltaSize());
+        assertArrayEquals(new long[] {2L, 5L, 6L}, idsInRange(100, 400));
+        assertEquals(List.of(4L, 2L, 5L, 6L, 3L), walk(false, false, 0, 0));
+    }
+
+    @Test
+    @DisplayName("A merge drops stale entries and keeps writes made after it started")
+    void merge_DropsStaleEntries_KeepsLaterWrites() {
+        columns.upsert(listing(4L, 50.0));
+        columns.remove(1L);
+        int deltaCount = columns.priceIndex.deltaSize();
+        RangeIndex.Run merged = columns.priceIndex.merge(deltaCount);
+
+        // Arrives while the merge is being built
+        columns.upsert(listing(7L, 120.0));
+        columns.priceIndex.publish(merged, deltaCount, 2);
+
+        assertEquals(4, merged.size);
+        assertEquals(1, columns.priceIndex.deltaSize());
+        assertEquals(1, columns.priceIndex.pendingChanges());
+        assertEquals(List.of(4L, 2L, 5L, 7L, 3L), walk(false, false, 0, 0));
+    }
+
+    @Test
+    @DisplayName("needsMerge turns true once the delta holds enough pending writes")
+    void needsMerge_AfterDeltaCapacity() {
+        for (int i = 0; i < RangeIndex.DELTA_CAPACITY; i++) {
+            assertFalse(columns.priceIndex.needsMerge());
+            columns.upsert(listing(100L + i, (double) i));
+        }
+
+        assertTrue(columns.priceIndex.needsMerge());
+    }
+}
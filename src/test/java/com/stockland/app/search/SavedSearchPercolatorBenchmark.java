@@ -0,0 +1,91 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.PropertyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Percolating one approved listing against 300k saved searches, through the
+ * bucketed interval trees and by checking every search in turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class SavedSearchPercolatorBenchmark {
+
+    @Param({"300000"})
+    public int searches;
+
+    private SavedSearchPercolator percolator;
+    private ListingFilterMatcher matcher;
+    private ListingFilterMatcher.Compiled[] compiled;
+    private PropertyResponseDTO[] listings;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        Map<Long, PropertyFilterRequestDTO> saved = new HashMap<>();
+        for (long id = 0; id < searches; id++) {
+            // Shaped like real alerts: a deal type and a price band nearly always, the rest sometimes
+            double minPrice = 20_000 + random.nextInt(900_000);
+            PropertyFilterRequestDTO filter = PropertyFilterRequestDTO.builder()
+                    .actionType(random.nextInt(10) > 0 ? ActionType.values()[random.nextInt(ActionType.values().length)] : null)
+                    .propertyType(random.nextBoolean() ? PropertyType.values()[random.nextInt(PropertyType.values().length)] : null)
+                    .minPrice(random.nextInt(10) > 0 ? minPrice : null)
+                    .maxPrice(random.nextInt(10) > 0 ? minPrice * (1.1 + random.nextDouble() * 0.4) : null)
+                    .minRooms(random.nextInt(3) == 0 ? 1 + random.nextInt(4) : null)
+                    .location(random.nextInt(3) > 0 ? BenchmarkListings.CITIES[random.nextInt(BenchmarkListings.CITIES.length)] : null)
+                    .build();
+            saved.put(id, filter);
+        }
+        percolator = new SavedSearchPercolator(TextAnalyzer.standard());
+        percolator.rebuild(saved);
+
+        matcher = new ListingFilterMatcher(TextAnalyzer.standard());
+        compiled = saved.values().stream()
+                .map(filter -> matcher.compile(matcher.canonical(filter)))
+                .toArray(ListingFilterMatcher.Compiled[]::new);
+        listings = BenchmarkListings.generate(1024, 7L).toArray(PropertyResponseDTO[]::new);
+    }
+
+    @Benchmark
+    public List<Long> percolate() {
+        return percolator.percolate(listings[next++ & 1023]);
+    }
+
+    @Benchmark
+    public int scanAll() {
+        PropertyResponseDTO listing = listings[next++ & 1023];
+        ListingFilterMatcher.Prepared prepared = matcher.prepare(listing);
+        int matched = 0;
+        for (ListingFilterMatcher.Compiled filter : compiled) {
+            if (filter.matches(prepared)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
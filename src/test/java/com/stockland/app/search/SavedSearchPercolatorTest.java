@@ -0,0 +1,154 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import com.stockland.app.model.PropertyType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SavedSearchPercolatorTest {
+
+    private SavedSearchPercolator percolator;
+
+    @BeforeEach
+    void setUp() {
+        percolator = new SavedSearchPercolator(TextAnalyzer.standard());
+    }
+
+    private static PropertyResponseDTO listing(String location, double price, double area, int rooms,
+                                               ActionType actionType, PropertyType propertyType) {
+        return PropertyResponseDTO.builder()
+                .id(1L)
+                .title("Bright flat")
+                .description("Balcony with a sea view")
+                .location(location)
+                .price(price)
+                .Area(area)
+                .roomCount(rooms)
+                .actionType(actionType)
+                .propertyType(propertyType)
+                .status("NEW")
+                .moderationStatus(ModerationStatus.APPROVED)
+                .build();
+    }
+
+    private static TreeSet<Long> sorted(List<Long> ids) {
+        return new TreeSet<>(ids);
+    }
+
+    @Test
+    @DisplayName("A listing matches the searches whose types, ranges and text it satisfies")
+    void percolate_MatchesSatisfiedSearches() {
+        Map<Long, PropertyFilterRequestDTO> searches = new HashMap<>();
+        searches.put(1L, PropertyFilterRequestDTO.builder().maxPrice(150000.0).build());
+        searches.put(2L, PropertyFilterRequestDTO.builder().actionType(ActionType.BUY).minArea(50.0).build());
+        searches.put(3L, PropertyFilterRequestDTO.builder().actionType(ActionType.RENT).build());
+        searches.put(4L, PropertyFilterRequestDTO.builder().propertyType(PropertyType.APARTMENTS).location(" RIGA ").build());
+        searches.put(5L, PropertyFilterRequestDTO.builder().minRooms(4).build());
+        searches.put(6L, PropertyFilterRequestDTO.builder().q("Balcony SEA").build());
+        searches.put(7L, PropertyFilterRequestDTO.builder().minPrice(200000.0).build());
+        searches.put(8L, new PropertyFilterRequestDTO());
+        percolator.rebuild(searches);
+
+        List<Long> matched = percolator.percolate(
+                listing("Riga, Centre", 120000, 60, 2, ActionType.BUY, PropertyType.APARTMENTS));
+
+        assertEquals(new TreeSet<>(List.of(1L, 2L, 4L, 6L, 8L)), sorted(matched));
+    }
+
+    @Test
+    @DisplayName("Percolation agrees with checking every saved search in turn")
+    void percolate_MatchesBruteForce() {
+        Random random = new Random(3);
+        ListingFilterMatcher matcher = new ListingFilterMatcher(TextAnalyzer.standard());
+        Map<Long, PropertyFilterRequestDTO> searches = new HashMap<>();
+        for (long id = 0; id < 3_000; id++) {
+            PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+            if (random.nextBoolean()) filter.setActionType(ActionType.values()[random.nextInt(ActionType.values().length)]);
+            if (random.nextBoolean()) filter.setPropertyType(PropertyType.values()[random.nextInt(PropertyType.values().length)]);
+            if (random.nextInt(3) == 0) filter.setMinPrice((double) random.nextInt(300_000));
+            if (random.nextInt(3) == 0) filter.setMaxPrice((double) random.nextInt(300_000));
+            if (random.nextInt(3) == 0) filter.setMinArea((double) random.nextInt(150));
+            if (random.nextInt(4) == 0) filter.setMaxRooms(1 + random.nextInt(5));
+            searches.put(id, filter);
+        }
+        percolator.rebuild(searches);
+
+        for (int i = 0; i < 200; i++) {
+            PropertyResponseDTO listing = listing("Riga", random.nextInt(300_000), random.nextInt(150), 1 + random.nextInt(5),
+                    ActionType.values()[random.nextInt(ActionType.values().length)],
+                    PropertyType.values()[random.nextInt(PropertyType.values().length)]);
+            TreeSet<Long> expected = new TreeSet<>();
+            searches.forEach((id, filter) -> {
+                if (matcher.matches(matcher.canonical(filter), listing)) {
+                    expected.add(id);
+                }
+            });
+            assertEquals(expected, sorted(percolator.percolate(listing)));
+        }
+    }
+
+    @Test
+    @DisplayName("Added, replaced and removed searches are reflected immediately")
+    void addAndRemove_UpdateIndex() {
+        PropertyResponseDTO listing = listing("Riga", 100000, 50, 2, ActionType.BUY, PropertyType.HOUSE);
+
+        percolator.add(1L, PropertyFilterRequestDTO.builder().maxPrice(150000.0).build());
+        assertEquals(List.of(1L), percolator.percolate(listing));
+
+        percolator.add(1L, PropertyFilterRequestDTO.builder().maxPrice(50000.0).build());
+        assertEquals(List.of(), percolator.percolate(listing));
+        assertEquals(1, percolator.size());
+
+        percolator.remove(1L);
+        assertEquals(0, percolator.size());
+    }
+
+    @Test
+    @DisplayName("A listing that is not approved matches nothing")
+    void percolate_IgnoresUnapprovedListing() {
+        percolator.add(1L, new PropertyFilterRequestDTO());
+        PropertyResponseDTO pending = listing("Riga", 100000, 50, 2, ActionType.BUY, PropertyType.HOUSE);
+        pending.setModerationStatus(ModerationStatus.PENDING);
+
+        assertTrue(percolator.percolate(pending).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Searches saved or deleted between reading the rebuild snapshot and the swap survive the rebuild")
+    void rebuild_ReplaysChanges_MadeSinceBeginRebuild() {
+        Map<Long, PropertyFilterRequestDTO> snapshot = new HashMap<>();
+        snapshot.put(1L, PropertyFilterRequestDTO.builder().maxPrice(150000.0).build());
+        snapshot.put(2L, new PropertyFilterRequestDTO());
+        percolator.beginRebuild();
+
+        percolator.add(3L, PropertyFilterRequestDTO.builder().actionType(ActionType.BUY).build());
+        percolator.remove(2L);
+        percolator.rebuild(snapshot);
+
+        assertEquals(2, percolator.size());
+        assertEquals(new TreeSet<>(List.of(1L, 3L)),
+                sorted(percolator.percolate(listing("Riga", 100000, 50, 2, ActionType.BUY, PropertyType.HOUSE))));
+    }
+
+    @Test
+    @DisplayName("A rebuild without beginRebuild replaces the index with the snapshot only")
+    void rebuild_ReplacesIndex_WithoutBeginRebuild() {
+        percolator.add(3L, new PropertyFilterRequestDTO());
+
+        percolator.rebuild(Map.of(1L, new PropertyFilterRequestDTO()));
+
+        assertEquals(1, percolator.size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The six listings most like the one shown, out of 100k approved listings
+ * scattered over the Baltic, through the graph and by ranking every listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class SimilarListingsBenchmark {
+
+    @Param({"100000"})
+    public int listings;
+
+    private SimilarListings similarListings;
+    private ListingFeatures features;
+    private List<PropertyResponseDTO> catalogue;
+    private float[][] vectors;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        catalogue = BenchmarkListings.generate(listings, 42L);
+        for (PropertyResponseDTO listing : catalogue) {
+            listing.setLatitude(54.0 + random.nextDouble() * 6);
+            listing.setLongitude(21.0 + random.nextDouble() * 7);
+        }
+        similarListings = new SimilarListings();
+        similarListings.rebuild(catalogue);
+
+        features = ListingFeatures.fit(catalogue);
+        vectors = catalogue.stream().map(features::vector).toArray(float[][]::new);
+    }
+
+    @Benchmark
+    public List<PropertyResponseDTO> similar() {
+        return similarListings.similar(catalogue.get(next++ & 1023), SimilarListings.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<Integer> rankAll() {
+        float[] query = features.vector(catalogue.get(next++ & 1023));
+        return IntStream.range(0, vectors.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> HnswIndex.distance(query, vectors[i])))
+                .limit(SimilarListings.DEFAULT_LIMIT + 1)
+                .toList();
+    }
+}
@@ -0,0 +1,155 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.model.ActionType;
+import com.stockland.app.model.ModerationStatus;
+import com.stockland.app.model.PropertyType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarListingsTest {
+
+    // Riga and Tallinn centres
+    private static final double[] RIGA = {56.9496, 24.1052};
+    private static final double[] TALLINN = {59.4370, 24.7536};
+
+    private SimilarListings similarListings;
+
+    @BeforeEach
+    void setUp() {
+        similarListings = new SimilarListings();
+        similarListings.rebuild(List.of(
+                listing(1L, 120_000, 60, 2, PropertyType.APARTMENTS, ActionType.BUY, RIGA),
+                listing(2L, 125_000, 62, 2, PropertyType.APARTMENTS, ActionType.BUY, RIGA),
+                listing(3L, 118_000, 58, 2, PropertyType.APARTMENTS, ActionType.BUY, TALLINN),
+                listing(4L, 120_000, 60, 2, PropertyType.HOUSE, ActionType.BUY, RIGA),
+                listing(5L, 900, 60, 2, PropertyType.APARTMENTS, ActionType.RENT, RIGA),
+                listing(6L, 450_000, 250, 6, PropertyType.HOUSE, ActionType.BUY, RIGA)
+        ));
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private PropertyResponseDTO listing(long id, double price, double area, int rooms,
+                                        PropertyType propertyType, ActionType actionType, double[] point) {
+        return PropertyResponseDTO.builder()
+                .id(id)
+                .price(price)
+                .Area(area)
+                .roomCount(rooms)
+                .propertyType(propertyType)
+                .actionType(actionType)
+                .latitude(point[0])
+                .longitude(point[1])
+                .moderationStatus(ModerationStatus.APPROVED)
+                .build();
+    }
+
+    private List<Long> similarIds(PropertyResponseDTO listing, int limit) {
+        return similarListings.similar(listing, limit).stream().map(PropertyResponseDTO::getId).toList();
+    }
+
+    // ── similar ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("The closest listing is the one alike in numbers, type, deal and place, never the listing itself")
+    void similar_RanksByFeatures() {
+        PropertyResponseDTO shown = listing(1L, 120_000, 60, 2, PropertyType.APARTMENTS, ActionType.BUY, RIGA);
+
+        List<Long> ids = similarIds(shown, 5);
+
+        assertEquals(5, ids.size());
+        assertEquals(2L, ids.get(0));
+        assertFalse(ids.contains(1L));
+        // Another property type in the same city comes before the same flat in another city
+        assertTrue(ids.indexOf(4L) < ids.indexOf(3L));
+        // A rental is furthest off of all
+        assertEquals(5L, ids.get(4));
+        assertTrue(similarListings.isReady());
+    }
+
+    @Test
+    @DisplayName("A listing that is not indexed, such as a pending one, is compared all the same")
+    void similar_UnindexedListing() {
+        PropertyResponseDTO pending = listing(99L, 119_000, 59, 2, PropertyType.APARTMENTS, ActionType.BUY, TALLINN);
+        pending.setModerationStatus(ModerationStatus.PENDING);
+
+        assertEquals(3L, similarIds(pending, 1).get(0));
+    }
+
+    @Test
+    @DisplayName("The limit is capped and a non-positive one returns nothing")
+    void similar_Limits() {
+        assertTrue(similarIds(listing(1L, 1, 1, 1, PropertyType.LAND, ActionType.BUY, RIGA), 0).isEmpty());
+        assertEquals(5, similarIds(listing(1L, 1, 1, 1, PropertyType.LAND, ActionType.BUY, RIGA), 100).size());
+    }
+
+    // ── updates ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Approvals, edits, rejections and deletions keep the index in step")
+    void onPropertyChanged_TracksListings() {
+        PropertyResponseDTO shown = listing(1L, 120_000, 60, 2, PropertyType.APARTMENTS, ActionType.BUY, RIGA);
+
+        PropertyResponseDTO twin = listing(7L, 120_000, 60, 2, PropertyType.APARTMENTS, ActionType.BUY, RIGA);
+        similarListings.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.APPROVED, 7L, twin));
+        assertEquals(7L, similarIds(shown, 1).get(0));
+
+        PropertyResponseDTO moved = listing(7L, 120_000, 60, 2, PropertyType.APARTMENTS, ActionType.BUY, TALLINN);
+        similarListings.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.UPDATED, 7L, moved));
+        assertEquals(2L, similarIds(shown, 1).get(0));
+        assertEquals(1, similarIds(shown, 10).stream().filter(id -> id == 7L).count());
+
+        PropertyResponseDTO rejected = listing(2L, 125_000, 62, 2, PropertyType.APARTMENTS, ActionType.BUY, RIGA);
+        rejected.setModerationStatus(ModerationStatus.REJECTED);
+        similarListings.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.REJECTED, 2L, rejected));
+        similarListings.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.DELETED, 7L, null));
+
+        assertFalse(similarIds(shown, 10).contains(2L));
+        assertFalse(similarIds(shown, 10).contains(7L));
+        assertEquals(5, similarListings.size());
+    }
+
+    @Test
+    @DisplayName("After many edits the graph is compacted and lookups stay correct")
+    void index_ManyEdits_Compacts() {
+        PropertyResponseDTO shown = listing(1L, 120_000, 60, 2, PropertyType.APARTMENTS, ActionType.BUY, RIGA);
+        List<PropertyResponseDTO> edits = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            edits.add(listing(6L, 450_000 + i, 250, 6, PropertyType.HOUSE, ActionType.BUY, RIGA));
+        }
+        for (PropertyResponseDTO edit : edits) {
+            similarListings.index(edit);
+        }
+        similarListings.compact();
+
+        assertEquals(6, similarListings.size());
+        assertEquals(2L, similarIds(shown, 1).get(0));
+        assertEquals(5, similarIds(shown, 10).size());
+    }
+
+    @Test
+    @DisplayName("Changes made between reading the rebuild snapshot and the swap survive the rebuild")
+    void rebuild_ReplaysChanges_MadeSinceBeginRebuild() {
+        PropertyResponseDTO shown = listing(1L, 120_000, 60, 2, PropertyType.APARTMENTS, ActionType.BUY, RIGA);
+        List<PropertyResponseDTO> snapshot = List.of(
+                shown,
+                listing(2L, 125_000, 62, 2, PropertyType.APARTMENTS, ActionType.BUY, RIGA),
+                listing(3L, 118_000, 58, 2, PropertyType.APARTMENTS, ActionType.BUY, TALLINN));
+        similarListings.beginRebuild();
+
+        similarListings.index(listing(7L, 120_000, 60, 2, PropertyType.APARTMENTS, ActionType.BUY, RIGA));
+        similarListings.remove(2L);
+        similarListings.rebuild(snapshot);
+
+        assertEquals(3, similarListings.size());
+        assertEquals(List.of(7L, 3L), similarIds(shown, 10));
+    }
+}
@@ -0,0 +1,47 @@
+package com.stockland.app.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextAnalyzerTest {
+
+    private final TextAnalyzer analyzer = TextAnalyzer.standard();
+
+    @Test
+    @DisplayName("Splits on punctuation and lower-cases, keeping repeats in order")
+    void terms_SplitsAndLowerCases() {
+        assertEquals(List.of("sunny", "flat", "sea", "view", "flat"), analyzer.terms("Sunny flat, SEA-view! Flat"));
+    }
+
+    @Test
+    @DisplayName("Stopwords and one-character tokens are dropped")
+    void terms_DropsStopwordsAndShortTokens() {
+        assertEquals(List.of("house", "garden", "built", "2024"), analyzer.terms("A house with the garden, built in 2024 x"));
+    }
+
+    @Test
+    @DisplayName("Diacritics are folded, also in decomposed input")
+    void terms_FoldsDiacritics() {
+        assertEquals(List.of("jurmala", "riga"), analyzer.terms("Jūrmala Rīga"));
+        assertEquals(List.of("riga"), analyzer.terms("Rīga"));
+    }
+
+    @Test
+    @DisplayName("A configured analyzer keeps diacritics and uses its own stopwords and minimum length")
+    void terms_CustomConfiguration() {
+        TextAnalyzer custom = new TextAnalyzer(List.of("Māja", " ", "māja"), 4, false);
+
+        assertEquals(List.of("jūrmala", "near"), custom.terms("Māja Jūrmala near sea"));
+    }
+
+    @Test
+    @DisplayName("Null and blank text yield no terms")
+    void terms_NullOrBlank_Empty() {
+        assertTrue(analyzer.terms(null).isEmpty());
+        assertTrue(analyzer.terms("  the , ").isEmpty());
+    }
+}
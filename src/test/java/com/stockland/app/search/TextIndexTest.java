@@ -0,0 +1,107 @@
+package com.stockland.app.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextIndexTest {
+
+    private TextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TextIndex(TextAnalyzer.standard());
+        index.add(0, "Sea view apartment", "Bright apartment with a balcony.");
+        index.add(1, "Family house", "Quiet house near the sea, large garden.");
+        index.add(2, "Studio", "Compact studio in the centre, sea sea sea nearby.");
+        index.add(3, "Garden plot", null);
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private TextIndex.Match search(String query) {
+        return index.search(TextAnalyzer.standard().terms(query));
+    }
+
+    // ── matching ──────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Only slots containing every query term match, in ascending order")
+    void search_AllTermsRequired() {
+        assertArrayEquals(new int[] {0, 1, 2}, search("sea").slots);
+        assertArrayEquals(new int[] {1}, search("sea garden").slots);
+        assertArrayEquals(new int[0], search("sea castle").slots);
+    }
+
+    @Test
+    @DisplayName("A query without any terms puts no constraint on the text")
+    void search_NoTerms_ReturnsNull() {
+        assertNull(search("the a"));
+    }
+
+    // ── ranking ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("A title occurrence outranks a description occurrence")
+    void search_TitleBoost() {
+        TextIndex.Match match = search("sea");
+
+        assertTrue(match.score(0) > match.score(1));
+    }
+
+    @Test
+    @DisplayName("More occurrences in a similar document rank higher, with diminishing returns")
+    void search_TermFrequencySaturates() {
+        TextIndex.Match match = search("sea");
+
+        assertTrue(match.score(2) > match.score(1));
+        assertTrue(match.score(2) < 3 * match.score(1));
+    }
+
+    @Test
+    @DisplayName("A rare term weighs more than a common one")
+    void search_RareTermsWeighMore() {
+        TextIndex.Match common = search("sea");
+        TextIndex.Match rare = search("balcony");
+
+        assertTrue(rare.score(0) > common.score(1));
+    }
+
+    // ── updates ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Removing a slot drops it from its terms and forgets unused terms")
+    void remove_DropsPostingsAndTerms() {
+        int terms = index.termCount();
+
+        index.remove(3, "Garden plot", null);
+
+        assertArrayEquals(new int[] {1}, search("garden").slots);
+        assertArrayEquals(new int[0], search("plot").slots);
+        assertEquals(terms - 1, index.termCount());
+    }
+
+    @Test
+    @DisplayName("Re-adding a slot with new text replaces its old terms")
+    void update_ReplacesTerms() {
+        index.remove(2, "Studio", "Compact studio in the centre, sea sea sea nearby.");
+        index.add(2, "Studio", "Compact studio by the forest.");
+
+        assertArrayEquals(new int[] {0, 1}, search("sea").slots);
+        assertArrayEquals(new int[] {2}, search("forest").slots);
+    }
+
+    @Test
+    @DisplayName("Scores are exposed per slot, zero for slots outside the match")
+    void match_ScoreOutsideMatch_IsZero() {
+        TextIndex.Match match = search("garden");
+
+        assertTrue(match.contains(3));
+        assertFalse(match.contains(0));
+        assertEquals(0, match.score(0));
+    }
+}
@@ -0,0 +1,140 @@
+package com.stockland.app.search;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Location substring search over 1M approved listings:
+ * the LIKE '%x%' query the Specification issues (on H2, no trigram support),
+ * an in-memory sequential contains() scan, and the trigram-backed engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class TrigramIndexBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id"));
+
+    @Param({"1000000"})
+    public int listings;
+
+    @Param({"riga", "teika", "kuldiga, jugla"})
+    public String location;
+
+    private ListingSearchEngine engine;
+    private ListingColumns columns;
+    private Connection connection;
+    private PropertyFilterRequestDTO filters;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        List<PropertyResponseDTO> catalogue = BenchmarkListings.generate(listings, 42L);
+
+        engine = new ListingSearchEngine();
+        engine.rebuild(catalogue);
+
+        columns = new ListingColumns(listings);
+        columns.bulkLoad(catalogue);
+
+        filters = new PropertyFilterRequestDTO();
+        filters.setLocation(location);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:trigram-bench", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE property (property_id BIGINT PRIMARY KEY, location VARCHAR(255), "
+                    + "status VARCHAR(255), moderation_status VARCHAR(255))");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO property VALUES (?, ?, ?, 'APPROVED')")) {
+            for (PropertyResponseDTO dto : catalogue) {
+                insert.setLong(1, dto.getId());
+                insert.setString(2, dto.getLocation());
+                insert.setString(3, dto.getStatus());
+                insert.addBatch();
+                if (dto.getId() % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    // The page query plus the count query that findAll(spec, pageable) runs
+    @Benchmark
+    public long likeQuery() throws SQLException {
+        String pattern = "%" + location + "%";
+        long checksum = 0;
+        try (PreparedStatement page = connection.prepareStatement(
+                "SELECT property_id FROM property WHERE moderation_status = 'APPROVED' "
+                        + "AND lower(location) LIKE ? ORDER BY property_id DESC LIMIT 20")) {
+            page.setString(1, pattern);
+            try (ResultSet rs = page.executeQuery()) {
+                while (rs.next()) {
+                    checksum += rs.getLong(1);
+                }
+            }
+        }
+        try (PreparedStatement count = connection.prepareStatement(
+                "SELECT count(*) FROM property WHERE moderation_status = 'APPROVED' AND lower(location) LIKE ?")) {
+            count.setString(1, pattern);
+            try (ResultSet rs = count.executeQuery()) {
+                rs.next();
+                checksum += rs.getLong(1);
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public int containsScan() {
+        int matches = 0;
+        for (int slot = columns.live.nextSetBit(0); slot >= 0; slot = columns.live.nextSetBit(slot + 1)) {
+            if (columns.location[slot].contains(location)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int trigramCandidates() {
+        return columns.locationTrigrams.candidates(location).length;
+    }
+
+    @Benchmark
+    public long engineSearch() {
+        return engine.search(filters, FIRST_PAGE).getTotalElements();
+    }
+}
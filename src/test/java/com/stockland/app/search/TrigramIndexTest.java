@@ -0,0 +1,67 @@
+package com.stockland.app.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.add(0, "riga, teika");
+        index.add(1, "jurmala");
+        index.add(2, "riga centre");
+        index.add(3, "agir");
+    }
+
+    @Test
+    @DisplayName("trigrams returns each distinct three-character window once")
+    void trigrams_AreDistinct() {
+        assertEquals(1, TrigramIndex.trigrams("aaaa").length);
+        assertEquals(3, TrigramIndex.trigrams("riga ").length);
+        assertEquals(0, TrigramIndex.trigrams("ri").length);
+    }
+
+    @Test
+    @DisplayName("candidates intersects the postings of every query trigram")
+    void candidates_IntersectsPostings() {
+        assertArrayEquals(new int[]{0, 2}, index.candidates("riga"));
+        assertArrayEquals(new int[]{2}, index.candidates("centre"));
+    }
+
+    @Test
+    @DisplayName("candidates returns an empty set when a trigram is unknown")
+    void candidates_Empty_WhenTrigramUnknown() {
+        assertArrayEquals(new int[0], index.candidates("liepaja"));
+    }
+
+    @Test
+    @DisplayName("candidates returns null for queries shorter than a trigram")
+    void candidates_Null_WhenQueryTooShort() {
+        assertNull(index.candidates("ri"));
+        assertNull(index.candidates(null));
+    }
+
+    @Test
+    @DisplayName("candidates may contain false positives that share all trigrams")
+    void candidates_CanContainFalsePositives() {
+        index.add(4, "abcxbcd");
+
+        // "abcd" is not a substring, but both "abc" and "bcd" occur
+        assertArrayEquals(new int[]{4}, index.candidates("abcd"));
+    }
+
+    @Test
+    @DisplayName("remove drops the slot from every posting list of the old value")
+    void remove_DropsSlot() {
+        index.remove(0, "riga, teika");
+
+        assertArrayEquals(new int[]{2}, index.candidates("riga"));
+        assertArrayEquals(new int[0], index.candidates("teika"));
+    }
+}
@@ -1,7 +1,9 @@
 package com.stockland.app.service;
 
+import com.cloudinary.Api;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.Uploader;
+import com.cloudinary.api.ApiResponse;
 import com.cloudinary.utils.ObjectUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +16,7 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,9 +36,13 @@ class CloudinaryServiceImplTest {
     @InjectMocks
     private CloudinaryServiceImpl cloudinaryService;
 
+    @Mock
+    private Api api;
+
     @BeforeEach
     void setUp() {
-        when(cloudinary.uploader()).thenReturn(uploader);
+        lenient().when(cloudinary.uploader()).thenReturn(uploader);
+        lenient().when(cloudinary.api()).thenReturn(api);
     }
 
     // ── uploadFile ────────────────────────────────────────────────────────────
@@ -173,5 +180,43 @@ class CloudinaryServiceImplTest {
         assertDoesNotThrow(() -> cloudinaryService.deleteFile("properties/discard"));
         verify(uploader).destroy(eq("properties/discard"), any(Map.class));
     }
-}
 
+    // ── deleteFiles ───────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("deleteFiles removes the whole batch in one Admin API call")
+    void deleteFiles_CallsDeleteResources_Once() throws Exception {
+        ApiResponse response = mock(ApiResponse.class);
+        when(response.get("deleted")).thenReturn(Map.of("properties/a", "deleted", "properties/b", "not_found"));
+        when(api.deleteResources(any(), any())).thenReturn(response);
+
+        List<String> failed = cloudinaryService.deleteFiles(List.of("properties/a", "properties/b"));
+
+        assertTrue(failed.isEmpty());
+        verify(api).deleteResources(eq(List.of("properties/a", "properties/b")), any(Map.class));
+        verifyNoInteractions(uploader);
+    }
+
+    @Test
+    @DisplayName("deleteFiles returns the ids whose status is neither deleted nor not_found")
+    void deleteFiles_ReturnsFailedIds() throws Exception {
+        ApiResponse response = mock(ApiResponse.class);
+        when(response.get("deleted")).thenReturn(Map.of("properties/a", "deleted", "properties/b", "error"));
+        when(api.deleteResources(any(), any())).thenReturn(response);
+
+        List<String> failed = cloudinaryService.deleteFiles(List.of("properties/a", "properties/b", "properties/c"));
+
+        assertEquals(List.of("properties/b", "properties/c"), failed);
+    }
+
+    @Test
+    @DisplayName("deleteFiles throws RuntimeException when the Admin API call fails")
+    void deleteFiles_ThrowsRuntimeException_OnFailure() throws Exception {
+        when(api.deleteResources(any(), any())).thenThrow(new Exception("rate limited"));
+
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> cloudinaryService.deleteFiles(List.of("properties/a")));
+
+        assertEquals("Cloudinary deletion failed", ex.getMessage());
+    }
+}
@@ -0,0 +1,169 @@
+package com.stockland.app.service;
+
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteCardView;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Favorite rows as the database sorts and pages them, one statement per page
+@SpringBootTest
+@ActiveProfiles("test")
+class FavoriteCardsIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User buyer;
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+
+        buyer = userRepository.save(User.builder()
+                .username("buyer").email("buyer@example.com").password("encoded").role("ROLE_USER").build());
+        seller = userRepository.save(User.builder()
+                .username("seller").email("seller@example.com").password("encoded").role("ROLE_USER").build());
+    }
+
+    private Property favorite(String title, String location, Double price) {
+        Property property = propertyRepository.save(Property.builder()
+                .title(title)
+                .location(location)
+                .description("Long description")
+                .price(price)
+                .area(50.0)
+                .roomCount(2)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("available")
+                .moderationStatus(ModerationStatus.APPROVED)
+                .user(seller)
+                .build());
+        favoriteRepository.save(new Favorite(buyer, property));
+        return property;
+    }
+
+    private List<String> titles(String sort, String dir) {
+        return favoriteService.getFavoriteCards(buyer, sort, dir, 0, 25).getContent().stream()
+                .map(FavoriteCardView::getTitle)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("getFavoriteCards reads a page of rows with one statement")
+    void getFavoriteCards_OneStatement() {
+        Property first = favorite("Flat", "Riga", 100000.0);
+        favorite("House", "Cesis", 250000.0);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Slice<FavoriteCardView> page = favoriteService.getFavoriteCards(buyer, "price", "asc", 0, 25);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, page.getNumberOfElements());
+        assertFalse(page.hasNext());
+        FavoriteCardView row = page.getContent().get(0);
+        assertEquals(first.getId(), row.getPropertyId());
+        assertEquals("Riga", row.getLocation());
+        assertEquals(100000.0, row.getPrice());
+    }
+
+    @Test
+    @DisplayName("getFavoriteCards only returns the user's own favorites, in the order they were added by default")
+    void getFavoriteCards_OwnFavoritesInAddedOrder() {
+        favorite("Second", "Riga", 1.0);
+        favorite("First", "Riga", 2.0);
+        Property othersFavorite = propertyRepository.findAll().get(0);
+        favoriteRepository.save(new Favorite(seller, othersFavorite));
+
+        assertEquals(List.of("Second", "First"), titles(null, null));
+        assertEquals(List.of("Second", "First"), titles("unknown", "desc"));
+    }
+
+    @Test
+    @DisplayName("getFavoriteCards sorts by title case-insensitively, a missing title first ascending")
+    void getFavoriteCards_SortsByTitle() {
+        favorite("banana", "Riga", 1.0);
+        favorite(null, "Riga", 1.0);
+        favorite("Apple", "Riga", 1.0);
+
+        List<String> asc = new ArrayList<>();
+        asc.add(null);
+        asc.add("Apple");
+        asc.add("banana");
+        assertEquals(asc, titles("title", "asc"));
+
+        List<String> desc = new ArrayList<>(List.of("banana", "Apple"));
+        desc.add(null);
+        assertEquals(desc, titles("title", "desc"));
+    }
+
+    @Test
+    @DisplayName("getFavoriteCards sorts by location and by price, a missing price as zero")
+    void getFavoriteCards_SortsByLocationAndPrice() {
+        favorite("Tallinn flat", "Tallinn", 200000.0);
+        favorite("Riga flat", "riga", null);
+        favorite("Cesis flat", "Cesis", 50000.0);
+
+        assertEquals(List.of("Cesis flat", "Riga flat", "Tallinn flat"), titles("location", "asc"));
+        assertEquals(List.of("Tallinn flat", "Riga flat", "Cesis flat"), titles("location", "desc"));
+        assertEquals(List.of("Riga flat", "Cesis flat", "Tallinn flat"), titles("price", "asc"));
+        assertEquals(List.of("Tallinn flat", "Cesis flat", "Riga flat"), titles("price", "desc"));
+    }
+
+    @Test
+    @DisplayName("getFavoriteCards pages without overlap and tells whether another page follows")
+    void getFavoriteCards_PagesWithoutOverlap() {
+        for (int i = 0; i < 5; i++) {
+            favorite("Flat " + i, "Riga", 100000.0 + i);
+        }
+
+        Slice<FavoriteCardView> first = favoriteService.getFavoriteCards(buyer, "price", "desc", 0, 2);
+        Slice<FavoriteCardView> last = favoriteService.getFavoriteCards(buyer, "price", "desc", 2, 2);
+
+        assertTrue(first.hasNext());
+        assertEquals(List.of("Flat 4", "Flat 3"), first.getContent().stream().map(FavoriteCardView::getTitle).toList());
+        assertFalse(last.hasNext());
+        assertEquals(List.of("Flat 0"), last.getContent().stream().map(FavoriteCardView::getTitle).toList());
+    }
+}
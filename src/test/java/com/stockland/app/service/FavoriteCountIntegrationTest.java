@@ -0,0 +1,189 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingAttributeIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The favorite_count column as the counter writes it, and the admin grid sorting by it
+@SpringBootTest
+@ActiveProfiles("test")
+class FavoriteCountIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @MockitoBean
+    private ListingAttributeIndex listingAttributeIndex;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private FavoriteCounter favoriteCounter;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        favoriteCounter.flush();
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+
+        seller = user("seller");
+    }
+
+    private User user(String username) {
+        return userRepository.save(User.builder()
+                .username(username).email(username + "@example.com").password("encoded").role("ROLE_USER").build());
+    }
+
+    private Property listing(String title) {
+        return propertyRepository.save(Property.builder()
+                .title(title)
+                .location("Riga")
+                .price(100000.0)
+                .area(50.0)
+                .roomCount(2)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("available")
+                .moderationStatus(ModerationStatus.APPROVED)
+                .user(seller)
+                .build());
+    }
+
+    private long stored(Property property) {
+        return propertyRepository.findById(property.getId()).orElseThrow().getFavoriteCount();
+    }
+
+    @Test
+    @DisplayName("saves and removals reach the column on flush, and pending ones show before it")
+    void addAndRemove_FlushToColumn() {
+        Property flat = listing("Flat");
+        User anna = user("anna");
+        User bob = user("bob");
+
+        favoriteService.addFavorite(anna, flat);
+        favoriteService.addFavorite(bob, flat);
+        assertEquals(0, stored(flat));
+        assertEquals(2, favoriteService.favoriteCount(flat.getId(), stored(flat)));
+
+        favoriteCounter.flush();
+        assertEquals(2, stored(flat));
+
+        favoriteService.removeFavorite(anna, flat);
+        favoriteCounter.flush();
+        assertEquals(1, stored(flat));
+        assertEquals(1, propertyService.findById(flat.getId()).getFavoriteCount());
+    }
+
+    @Test
+    @DisplayName("a save rolled back with its caller's transaction is not counted, a repeated removal only once")
+    void rollbackAndRepeatedRemove_CountOnlyCommittedDeletes() {
+        Property flat = listing("Flat");
+        User anna = user("anna");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            favoriteService.addFavorite(anna, flat);
+            status.setRollbackOnly();
+        });
+        assertEquals(0, favoriteService.favoriteCount(flat.getId(), stored(flat)));
+        assertFalse(favoriteService.isFavorite(anna, flat));
+
+        favoriteService.addFavorite(anna, flat);
+        favoriteCounter.flush();
+        assertEquals(1, stored(flat));
+        favoriteService.removeFavorite(anna, flat);
+        favoriteService.removeFavorite(anna, flat);
+        favoriteCounter.flush();
+
+        assertEquals(0, stored(flat));
+        assertEquals(0, favoriteRepository.count());
+    }
+
+    @Test
+    @DisplayName("saving the listing entity does not overwrite a flushed count")
+    void entitySave_LeavesCountAlone() {
+        Property flat = listing("Flat");
+        favoriteService.addFavorite(user("anna"), flat);
+        favoriteCounter.flush();
+
+        flat.setTitle("Renamed flat");
+        propertyRepository.save(flat);
+
+        assertEquals(1, stored(flat));
+    }
+
+    @Test
+    @DisplayName("reconcile sets every count from the favorite rows")
+    void reconcile_FixesDrift() {
+        Property flat = listing("Flat");
+        Property house = listing("House");
+        favoriteRepository.save(new Favorite(user("anna"), flat));
+        favoriteRepository.save(new Favorite(user("bob"), flat));
+        propertyRepository.addFavoriteCount(List.of(house.getId()), 3);
+
+        assertEquals(2, favoriteCounter.reconcile());
+
+        assertEquals(2, stored(flat));
+        assertEquals(0, stored(house));
+        assertEquals(0, favoriteCounter.reconcile());
+    }
+
+    @Test
+    @DisplayName("the admin grid sorts by how many users saved a listing")
+    void findAllForAdmin_SortsByFavorites() {
+        Property few = listing("Few");
+        Property many = listing("Many");
+        listing("None");
+        User anna = user("anna");
+        User bob = user("bob");
+        favoriteService.addFavorite(anna, many);
+        favoriteService.addFavorite(bob, many);
+        favoriteService.addFavorite(anna, few);
+        favoriteCounter.flush();
+
+        List<PropertyResponseDTO> desc = propertyService.findAllForAdmin(null, "favorites", "desc", 0, 25).getContent();
+
+        assertEquals(List.of("Many", "Few", "None"), desc.stream().map(PropertyResponseDTO::getTitle).toList());
+        assertEquals(List.of(2L, 1L, 0L), desc.stream().map(PropertyResponseDTO::getFavoriteCount).toList());
+    }
+}
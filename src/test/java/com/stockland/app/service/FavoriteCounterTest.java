@@ -0,0 +1,207 @@
+package com.stockland.app.service;
+
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.repository.EntityCache;
+import com.stockland.app.repository.ListingCardRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.search.ListingSearchCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FavoriteCounterTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private ListingCardRepository listingCardRepository;
+
+    @Mock
+    private ListingSearchCache listingSearchCache;
+
+    @Mock
+    private EntityCache entityCache;
+
+    private FavoriteCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new FavoriteCounter(propertyRepository, listingCardRepository, listingSearchCache, entityCache);
+    }
+
+    // ── pending deltas ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("count adds the pending saves and removals to the stored count")
+    void count_AddsPendingDelta() {
+        counter.increment(1L);
+        counter.increment(1L);
+        counter.decrement(1L);
+
+        assertEquals(6, counter.count(1L, 5));
+        assertEquals(5, counter.count(2L, 5));
+    }
+
+    @Test
+    @DisplayName("count never goes below zero")
+    void count_NeverNegative() {
+        counter.decrement(1L);
+        counter.decrement(1L);
+
+        assertEquals(0, counter.count(1L, 1));
+    }
+
+    @Test
+    @DisplayName("concurrent saves are all counted")
+    void increment_Concurrent_LosesNothing() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8_000; i++) {
+            pool.execute(() -> counter.increment(1L));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8_000, counter.count(1L, 0));
+    }
+
+    // ── flush ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("flush writes one update per distinct delta and clears what it wrote")
+    void flush_GroupsListingsByDelta() {
+        counter.increment(1L);
+        counter.increment(2L);
+        counter.decrement(3L);
+        counter.increment(4L);
+        counter.decrement(4L);
+
+        assertEquals(3, counter.flush());
+
+        verify(propertyRepository).addFavoriteCount(argThat(ids -> ids.containsAll(List.of(1L, 2L)) && ids.size() == 2), eq(1L));
+        verify(propertyRepository).addFavoriteCount(List.of(3L), -1L);
+        verifyNoMoreInteractions(propertyRepository);
+        assertEquals(0, counter.count(1L, 0));
+        assertEquals(0, counter.flush());
+    }
+
+    @Test
+    @DisplayName("flush splits a large delta group into batches")
+    void flush_BatchesLargeGroups() {
+        for (long id = 0; id < FavoriteCounter.FLUSH_BATCH + 1; id++) {
+            counter.increment(id);
+        }
+
+        assertEquals(FavoriteCounter.FLUSH_BATCH + 1, counter.flush());
+
+        verify(propertyRepository, times(2)).addFavoriteCount(anyCollection(), eq(1L));
+    }
+
+    @Test
+    @DisplayName("flush drops the adders it drained to zero, but keeps one added to meanwhile")
+    void flush_DropsDrainedAdders() {
+        counter.increment(1L);
+        counter.increment(2L);
+        counter.decrement(2L);
+        when(propertyRepository.addFavoriteCount(anyCollection(), anyLong())).thenAnswer(invocation -> {
+            counter.increment(3L);
+            return 1;
+        });
+
+        counter.flush();
+
+        assertEquals(1, counter.pendingListings());
+        assertEquals(1, counter.count(3L, 0));
+    }
+
+    @Test
+    @DisplayName("a failed write keeps its deltas for the next flush")
+    void flush_Failure_KeepsDeltas() {
+        counter.increment(1L);
+        when(propertyRepository.addFavoriteCount(anyCollection(), anyLong()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> counter.flush());
+        assertEquals(1, counter.count(1L, 0));
+
+        assertEquals(1, counter.flush());
+        verify(propertyRepository, times(2)).addFavoriteCount(List.of(1L), 1L);
+    }
+
+    @Test
+    @DisplayName("a deleted listing's pending delta is dropped")
+    void onPropertyChanged_Deleted_DropsDelta() {
+        counter.increment(1L);
+        counter.increment(2L);
+
+        counter.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.DELETED, 1L, null));
+        counter.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.UPDATED, 2L, null));
+        counter.flush();
+
+        verify(propertyRepository).addFavoriteCount(List.of(2L), 1L);
+        verifyNoMoreInteractions(propertyRepository);
+    }
+
+    // ── listing cards ────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("flush copies the written counts onto the listing cards")
+    void flush_CopiesCountsToListingCards() {
+        counter.increment(1L);
+        counter.decrement(2L);
+
+        counter.flush();
+
+        verify(listingCardRepository).copyFavoriteCounts(argThat(ids -> ids.containsAll(List.of(1L, 2L)) && ids.size() == 2));
+        verify(listingSearchCache).invalidateSortedBy("favoriteCount");
+    }
+
+    @Test
+    @DisplayName("a flush with nothing to write leaves the cached searches alone")
+    void flush_Nothing_KeepsCachedSearches() {
+        counter.increment(1L);
+        counter.decrement(1L);
+
+        counter.flush();
+
+        verifyNoInteractions(listingCardRepository, listingSearchCache);
+    }
+
+    @Test
+    @DisplayName("a failed copy is repeated on the next flush without writing the delta twice")
+    void flush_CopyFailure_RetriedNextFlush() {
+        counter.increment(1L);
+        when(listingCardRepository.copyFavoriteCounts(anyCollection()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> counter.flush());
+        counter.flush();
+
+        verify(propertyRepository, times(1)).addFavoriteCount(List.of(1L), 1L);
+        verify(listingCardRepository, times(2)).copyFavoriteCounts(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("reconcile also resets the cards from their listings")
+    void reconcile_ReconcilesListingCards() {
+        when(propertyRepository.reconcileFavoriteCounts()).thenReturn(2);
+
+        assertEquals(2, counter.reconcile());
+        verify(listingCardRepository).reconcileFavoriteCounts();
+    }
+}
@@ -0,0 +1,131 @@
+package com.stockland.app.service;
+
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.repository.FavoriteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FavoriteIdCacheTest {
+
+    @Mock
+    private FavoriteRepository favoriteRepository;
+
+    private FavoriteIdCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new FavoriteIdCache(favoriteRepository, 1 << 20, 30);
+    }
+
+    // ── lookups ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("contains loads a user's ids once, then answers from memory")
+    void contains_LoadsOnce_ThenAnswersFromMemory() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of(30L, 10L, 20L));
+
+        assertTrue(cache.contains(1L, 10L));
+        assertTrue(cache.contains(1L, 30L));
+        assertFalse(cache.contains(1L, 15L));
+
+        verify(favoriteRepository, times(1)).findPropertyIdsByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("contains keeps each user's ids apart")
+    void contains_SeparatesUsers() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of(10L));
+        when(favoriteRepository.findPropertyIdsByUserId(2L)).thenReturn(List.of());
+
+        assertTrue(cache.contains(1L, 10L));
+        assertFalse(cache.contains(2L, 10L));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("among returns the favorited ids out of a page, with one load and no per-listing query")
+    void among_ReturnsFavoritedIds() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of(2L, 4L, 6L));
+
+        List<Long> page = new ArrayList<>(List.of(1L, 2L, 3L, 4L));
+        page.add(null);
+        Set<Long> favorites = cache.among(1L, page);
+
+        assertEquals(Set.of(2L, 4L), favorites);
+        verify(favoriteRepository, times(1)).findPropertyIdsByUserId(1L);
+    }
+
+    // ── writes ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("added and removed update a cached user in place")
+    void addedAndRemoved_UpdateCachedUser() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of(10L, 30L));
+        cache.contains(1L, 10L);
+
+        cache.added(1L, 20L);
+        cache.added(1L, 5L);
+        cache.added(1L, 20L);
+        cache.removed(1L, 30L);
+        cache.removed(1L, 99L);
+
+        assertEquals(Set.of(5L, 10L, 20L), cache.among(1L, List.of(5L, 10L, 20L, 30L, 99L)));
+        verify(favoriteRepository, times(1)).findPropertyIdsByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("added does not load a user that is not cached; the next lookup loads the new state")
+    void added_SkipsUserNotCached() {
+        cache.added(1L, 20L);
+        verifyNoInteractions(favoriteRepository);
+
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of(20L));
+        assertTrue(cache.contains(1L, 20L));
+    }
+
+    @Test
+    @DisplayName("a deleted listing leaves every cached user's favorites")
+    void onPropertyChanged_DeletedListing_LeavesAllUsers() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of(10L, 20L));
+        when(favoriteRepository.findPropertyIdsByUserId(2L)).thenReturn(List.of(10L));
+        cache.contains(1L, 10L);
+        cache.contains(2L, 10L);
+
+        cache.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.DELETED, 10L, null));
+        cache.onPropertyChanged(new PropertyChangedEvent(PropertyChangedEvent.Change.UPDATED, 20L, null));
+
+        assertFalse(cache.contains(1L, 10L));
+        assertTrue(cache.contains(1L, 20L));
+        assertFalse(cache.contains(2L, 10L));
+    }
+
+    @Test
+    @DisplayName("the byte cap evicts users rather than growing without bound")
+    void maxBytes_BoundsTheCache() {
+        FavoriteIdCache small = new FavoriteIdCache(favoriteRepository, 4096, 30);
+        List<Long> many = new ArrayList<>();
+        for (long id = 0; id < 100; id++) {
+            many.add(id);
+        }
+        when(favoriteRepository.findPropertyIdsByUserId(anyLong())).thenReturn(many);
+
+        for (long user = 0; user < 50; user++) {
+            small.contains(user, 1L);
+        }
+
+        // 100 ids weigh roughly 900 bytes, so only a handful of users fit in 4 KiB
+        assertTrue(small.size() <= 5, "cached users: " + small.size());
+    }
+}
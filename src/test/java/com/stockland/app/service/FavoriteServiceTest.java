@@ -9,15 +9,21 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,7 +32,9 @@ class FavoriteServiceTest {
     @Mock
     private FavoriteRepository favoriteRepository;
 
-    @InjectMocks
+    @Mock
+    private FavoriteCounter favoriteCounter;
+
     private FavoriteService favoriteService;
 
     private User user;
@@ -34,6 +42,9 @@ class FavoriteServiceTest {
 
     @BeforeEach
     void setUp() {
+        favoriteService = new FavoriteService(favoriteRepository, new FavoriteIdCache(favoriteRepository, 1 << 20, 30),
+                favoriteCounter);
+
         user = new User();
         user.setId(1L);
         user.setUsername("john");
@@ -48,7 +59,7 @@ class FavoriteServiceTest {
     @Test
     @DisplayName("addFavorite saves new Favorite when not already present")
     void addFavorite_SavesFavorite_WhenNotAlreadyPresent() {
-        when(favoriteRepository.existsByUserAndProperty(user, property)).thenReturn(false);
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of());
 
         favoriteService.addFavorite(user, property);
 
@@ -58,7 +69,7 @@ class FavoriteServiceTest {
     @Test
     @DisplayName("addFavorite saves a Favorite with the correct user and property")
     void addFavorite_SavesFavorite_WithCorrectUserAndProperty() {
-        when(favoriteRepository.existsByUserAndProperty(user, property)).thenReturn(false);
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of());
 
         ArgumentCaptor<Favorite> captor = ArgumentCaptor.forClass(Favorite.class);
         favoriteService.addFavorite(user, property);
@@ -70,19 +81,20 @@ class FavoriteServiceTest {
     }
 
     @Test
-    @DisplayName("addFavorite always calls existsByUserAndProperty to check duplicates")
+    @DisplayName("addFavorite checks duplicates against the user's cached favorite ids")
     void addFavorite_AlwaysChecksExistence() {
-        when(favoriteRepository.existsByUserAndProperty(user, property)).thenReturn(false);
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of());
 
         favoriteService.addFavorite(user, property);
 
-        verify(favoriteRepository, times(1)).existsByUserAndProperty(user, property);
+        verify(favoriteRepository, times(1)).findPropertyIdsByUserId(1L);
+        verify(favoriteRepository, never()).existsByUserAndProperty(any(), any());
     }
 
     @Test
     @DisplayName("addFavorite does not save when Favorite already exists")
     void addFavorite_DoesNotSave_WhenAlreadyPresent() {
-        when(favoriteRepository.existsByUserAndProperty(user, property)).thenReturn(true);
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of(10L));
 
         favoriteService.addFavorite(user, property);
 
@@ -90,64 +102,90 @@ class FavoriteServiceTest {
     }
 
     @Test
-    @DisplayName("addFavorite still calls existsByUserAndProperty even when favorite already exists")
+    @DisplayName("addFavorite still loads the favorite ids even when favorite already exists")
     void addFavorite_StillChecksExistence_WhenAlreadyPresent() {
-        when(favoriteRepository.existsByUserAndProperty(user, property)).thenReturn(true);
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of(10L));
 
         favoriteService.addFavorite(user, property);
 
-        verify(favoriteRepository, times(1)).existsByUserAndProperty(user, property);
+        verify(favoriteRepository, times(1)).findPropertyIdsByUserId(1L);
+        verify(favoriteRepository, never()).existsByUserAndProperty(any(), any());
     }
 
-    // ── removeFavorite ────────────────────────────────────────────────────────
+    @Test
+    @DisplayName("addFavorite counts one more save of the listing, a duplicate does not")
+    void addFavorite_IncrementsCount_OnlyWhenSaved() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of());
+
+        favoriteService.addFavorite(user, property);
+        favoriteService.addFavorite(user, property);
+
+        verify(favoriteCounter, times(1)).increment(10L);
+    }
 
     @Test
-    @DisplayName("removeFavorite deletes existing Favorite")
-    void removeFavorite_DeletesFavorite_WhenPresent() {
-        Favorite favorite = new Favorite(user, property);
-        when(favoriteRepository.findByUserAndProperty(user, property))
-                .thenReturn(Optional.of(favorite));
+    @DisplayName("addFavorite losing a race to the same add neither fails nor counts twice")
+    void addFavorite_ConcurrentDuplicate_IsIgnored() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of());
+        when(favoriteRepository.save(any(Favorite.class))).thenThrow(new DataIntegrityViolationException("uk_favorite_user_property"));
 
-        favoriteService.removeFavorite(user, property);
+        favoriteService.addFavorite(user, property);
 
-        verify(favoriteRepository).delete(favorite);
+        verify(favoriteCounter, never()).increment(anyLong());
+        assertTrue(favoriteService.isFavorite(user, 10L));
     }
 
     @Test
-    @DisplayName("removeFavorite deletes the exact Favorite returned by the repository")
-    void removeFavorite_DeletesExactFavoriteFromRepository() {
-        Favorite favorite = new Favorite(user, property);
-        favorite.setId(99L);
-        when(favoriteRepository.findByUserAndProperty(user, property))
-                .thenReturn(Optional.of(favorite));
+    @DisplayName("addFavorite inside a transaction counts the save only once it commits")
+    void addFavorite_InTransaction_IncrementsAfterCommit() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            favoriteService.addFavorite(user, property);
+            verify(favoriteCounter, never()).increment(anyLong());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(favoriteCounter).increment(10L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ── removeFavorite ────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("removeFavorite deletes the Favorite in one statement, without loading it first")
+    void removeFavorite_DeletesByUserAndProperty() {
+        when(favoriteRepository.deleteByUserAndProperty(user, property)).thenReturn(1);
 
-        ArgumentCaptor<Favorite> captor = ArgumentCaptor.forClass(Favorite.class);
         favoriteService.removeFavorite(user, property);
 
-        verify(favoriteRepository).delete(captor.capture());
-        assertEquals(99L, captor.getValue().getId());
+        verify(favoriteRepository).deleteByUserAndProperty(user, property);
+        verify(favoriteRepository, never()).findByUserAndProperty(any(), any());
+        verify(favoriteRepository, never()).delete(any());
     }
 
     @Test
-    @DisplayName("removeFavorite does nothing when Favorite is not present")
-    void removeFavorite_DoesNothing_WhenNotPresent() {
-        when(favoriteRepository.findByUserAndProperty(user, property))
-                .thenReturn(Optional.empty());
+    @DisplayName("removeFavorite counts one save less only when a Favorite was deleted")
+    void removeFavorite_DecrementsCount_OnlyWhenDeleted() {
+        when(favoriteRepository.deleteByUserAndProperty(user, property))
+                .thenReturn(1)
+                .thenReturn(0);
 
         favoriteService.removeFavorite(user, property);
+        favoriteService.removeFavorite(user, property);
 
-        verify(favoriteRepository, never()).delete(any());
+        verify(favoriteCounter, times(1)).decrement(10L);
     }
 
     @Test
-    @DisplayName("removeFavorite always calls findByUserAndProperty")
-    void removeFavorite_AlwaysCallsFind() {
-        when(favoriteRepository.findByUserAndProperty(user, property))
-                .thenReturn(Optional.empty());
+    @DisplayName("removeFavorite does not count anything when Favorite is not present")
+    void removeFavorite_DoesNotDecrement_WhenNotPresent() {
+        when(favoriteRepository.deleteByUserAndProperty(user, property)).thenReturn(0);
 
         favoriteService.removeFavorite(user, property);
 
-        verify(favoriteRepository, times(1)).findByUserAndProperty(user, property);
+        verify(favoriteCounter, never()).decrement(anyLong());
     }
 
     // ── getFavorites ──────────────────────────────────────────────────────────
@@ -202,5 +240,76 @@ class FavoriteServiceTest {
 
         verify(favoriteRepository, times(1)).findByUser(user);
     }
-}
 
+    // ── getFavoriteCards ──────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getFavoriteCards sorts by the key case-insensitively, then in the order favorites were added")
+    void getFavoriteCards_SortsByKeyThenAddedOrder() {
+        when(favoriteRepository.findCardsByUserId(eq(1L), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+
+        favoriteService.getFavoriteCards(user, "Title", "DESC", 2, 25);
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(favoriteRepository).findCardsByUserId(eq(1L), captor.capture());
+        Pageable pageable = captor.getValue();
+        assertEquals(2, pageable.getPageNumber());
+        assertEquals(25, pageable.getPageSize());
+        List<Sort.Order> orders = pageable.getSort().toList();
+        assertEquals("lower(coalesce(p.title, ''))", orders.get(0).getProperty());
+        assertEquals(Sort.Direction.DESC, orders.get(0).getDirection());
+        assertEquals("f.id", orders.get(1).getProperty());
+        assertEquals(Sort.Direction.ASC, orders.get(1).getDirection());
+    }
+
+    @Test
+    @DisplayName("getFavoriteCards keeps the order favorites were added in for an unknown key or a negative page")
+    void getFavoriteCards_AddedOrder_WhenKeyUnknown() {
+        when(favoriteRepository.findCardsByUserId(eq(1L), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+
+        favoriteService.getFavoriteCards(user, "unknown", "asc", -1, 25);
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(favoriteRepository).findCardsByUserId(eq(1L), captor.capture());
+        assertEquals(0, captor.getValue().getPageNumber());
+        assertEquals(List.of("f.id"), captor.getValue().getSort().stream().map(Sort.Order::getProperty).toList());
+    }
+
+    // ── isFavorite and favoritesAmong ─────────────────────────────────────────
+
+    @Test
+    @DisplayName("isFavorite answers repeated checks from one load of the user's favorite ids")
+    void isFavorite_LoadsIdsOnce() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of(10L));
+
+        assertTrue(favoriteService.isFavorite(user, property));
+        assertTrue(favoriteService.isFavorite(user, 10L));
+        assertFalse(favoriteService.isFavorite(user, 11L));
+
+        verify(favoriteRepository, times(1)).findPropertyIdsByUserId(1L);
+        verify(favoriteRepository, never()).existsByUserAndProperty(any(), any());
+    }
+
+    @Test
+    @DisplayName("addFavorite and removeFavorite keep the cached ids in step with the database")
+    void addAndRemove_KeepCachedIdsInStep() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of());
+        when(favoriteRepository.deleteByUserAndProperty(user, property)).thenReturn(1);
+
+        favoriteService.addFavorite(user, property);
+        assertTrue(favoriteService.isFavorite(user, property));
+
+        favoriteService.removeFavorite(user, property);
+        assertFalse(favoriteService.isFavorite(user, property));
+
+        verify(favoriteRepository, times(1)).findPropertyIdsByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("favoritesAmong returns the favorited ids of a page of listings")
+    void favoritesAmong_ReturnsFavoritedIds() {
+        when(favoriteRepository.findPropertyIdsByUserId(1L)).thenReturn(List.of(10L, 12L));
+
+        assertEquals(Set.of(10L, 12L), favoriteService.favoritesAmong(user, List.of(10L, 11L, 12L)));
+    }
+}
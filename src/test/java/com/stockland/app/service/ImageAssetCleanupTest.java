@@ -0,0 +1,157 @@
+package com.stockland.app.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageAssetCleanupTest {
+
+    @Mock
+    private CloudinaryServiceImpl cloudinaryService;
+
+    private ImageAssetCleanup cleanup;
+
+    @BeforeEach
+    void setUp() {
+        cleanup = new ImageAssetCleanup(cloudinaryService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ── queueing ─────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("removeAfterCommit queues right away outside of a transaction")
+    void removeAfterCommit_QueuesImmediately_WithoutTransaction() {
+        cleanup.removeAfterCommit(List.of("properties/a", "properties/b"));
+
+        assertEquals(2, cleanup.pending());
+    }
+
+    @Test
+    @DisplayName("removeAfterCommit waits for the commit and drops the assets on rollback")
+    void removeAfterCommit_WaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cleanup.removeAfterCommit(List.of("properties/a"));
+        cleanup.removeAfterCommit(List.of("properties/b"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        assertEquals(0, cleanup.pending());
+
+        synchronizations.get(0).afterCommit();
+        synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(1, cleanup.pending());
+    }
+
+    @Test
+    @DisplayName("removeAfterCommit skips images that never had a public id")
+    void removeAfterCommit_SkipsMissingPublicIds() {
+        cleanup.removeAfterCommit(Arrays.asList("properties/a", null, " "));
+
+        assertEquals(1, cleanup.pending());
+    }
+
+    // ── flush ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("flush removes the assets a hundred per call")
+    @SuppressWarnings("unchecked")
+    void flush_DeletesInBatches() {
+        cleanup.removeAfterCommit(IntStream.range(0, 250).mapToObj(i -> "properties/" + i).toList());
+
+        assertEquals(250, cleanup.flush());
+
+        ArgumentCaptor<List<String>> batches = ArgumentCaptor.forClass(List.class);
+        verify(cloudinaryService, times(3)).deleteFiles(batches.capture());
+        assertEquals(List.of(100, 100, 50), batches.getAllValues().stream().map(List::size).toList());
+        assertEquals(0, cleanup.pending());
+    }
+
+    @Test
+    @DisplayName("flush does not call Cloudinary with nothing queued")
+    void flush_Empty_DoesNothing() {
+        assertEquals(0, cleanup.flush());
+
+        verifyNoInteractions(cloudinaryService);
+    }
+
+    @Test
+    @DisplayName("a failed batch is retried on the next flush, not within the same one")
+    void flush_Failure_RetriedNextFlush() {
+        when(cloudinaryService.deleteFiles(anyList()))
+                .thenThrow(new RuntimeException("Cloudinary deletion failed"))
+                .thenReturn(List.of());
+        cleanup.removeAfterCommit(List.of("properties/a"));
+
+        assertEquals(0, cleanup.flush());
+        assertEquals(1, cleanup.pending());
+
+        assertEquals(1, cleanup.flush());
+        assertEquals(0, cleanup.pending());
+        verify(cloudinaryService, times(2)).deleteFiles(List.of("properties/a"));
+    }
+
+    @Test
+    @DisplayName("the assets Cloudinary reports as not deleted are retried on the next flush, the rest are done")
+    void flush_PartialFailure_RetriesFailedAssetsOnly() {
+        when(cloudinaryService.deleteFiles(anyList()))
+                .thenReturn(List.of("properties/b"))
+                .thenReturn(List.of());
+        cleanup.removeAfterCommit(List.of("properties/a", "properties/b", "properties/c"));
+
+        assertEquals(2, cleanup.flush());
+        assertEquals(1, cleanup.pending());
+
+        assertEquals(1, cleanup.flush());
+        verify(cloudinaryService).deleteFiles(List.of("properties/b"));
+    }
+
+    @Test
+    @DisplayName("an asset that keeps failing is given up after the last attempt")
+    void flush_GivesUp_AfterMaxAttempts() {
+        when(cloudinaryService.deleteFiles(anyList())).thenThrow(new RuntimeException("Cloudinary deletion failed"));
+        cleanup.removeAfterCommit(List.of("properties/a"));
+
+        List<Integer> pendingAfterFlush = new ArrayList<>();
+        for (int i = 0; i < ImageAssetCleanup.MAX_ATTEMPTS; i++) {
+            cleanup.flush();
+            pendingAfterFlush.add(cleanup.pending());
+        }
+
+        assertEquals(0, cleanup.pending());
+        assertEquals(1, pendingAfterFlush.get(ImageAssetCleanup.MAX_ATTEMPTS - 2));
+        verify(cloudinaryService, times(ImageAssetCleanup.MAX_ATTEMPTS)).deleteFiles(anyList());
+    }
+
+    @Test
+    @DisplayName("shutdown flushes what is still queued")
+    void shutdown_Flushes() {
+        cleanup.removeAfterCommit(List.of("properties/a"));
+
+        cleanup.shutdown();
+
+        verify(cloudinaryService).deleteFiles(List.of("properties/a"));
+    }
+}
@@ -0,0 +1,275 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.ListingCardRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingAttributeIndex;
+import com.stockland.app.search.ListingSearchEngine;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The listing_card read model as the write methods keep it, and the rebuild that refills it
+@SpringBootTest
+@ActiveProfiles("test")
+class ListingCardIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @MockitoBean
+    private ListingSearchEngine listingSearchEngine;
+
+    @MockitoBean
+    private ListingAttributeIndex listingAttributeIndex;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private FavoriteCounter favoriteCounter;
+
+    @Autowired
+    private ListingCardRepository listingCardRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User seller;
+    private Property flat;
+
+    @BeforeEach
+    void setUp() {
+        favoriteCounter.flush();
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+
+        seller = userRepository.save(User.builder()
+                .username("seller").email("seller@example.com").password("encoded").role("ROLE_USER").build());
+        flat = listing("Sea view flat", "Old Riga", ModerationStatus.PENDING);
+        for (int n = 0; n < 3; n++) {
+            imageRepository.save(Image.builder()
+                    .name("photo" + n)
+                    .public_id("p" + flat.getId() + "-" + n)
+                    .url("https://img.example.com/" + flat.getId() + "/" + n + ".jpg")
+                    .property(flat)
+                    .build());
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private Property listing(String title, String location, ModerationStatus moderationStatus) {
+        return propertyRepository.save(Property.builder()
+                .title(title)
+                .location(location)
+                .description("Balcony facing the GULF")
+                .price(120000.0)
+                .area(55.0)
+                .roomCount(2)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("New")
+                .moderationStatus(moderationStatus)
+                .user(seller)
+                .build());
+    }
+
+    private ListingCard card(Property property) {
+        return listingCardRepository.findById(property.getId()).orElse(null);
+    }
+
+    // ── writes ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("approving a listing writes its card with owner, cover, photo count and lower-cased search columns")
+    void approve_WritesCard() {
+        assertNull(card(flat));
+
+        propertyService.approveProperty(flat.getId());
+
+        ListingCard card = card(flat);
+        assertNotNull(card);
+        assertEquals("seller", card.getUsername());
+        assertEquals(seller.getId(), card.getUserId());
+        assertEquals("https://img.example.com/" + flat.getId() + "/0.jpg", card.getCoverUrl());
+        assertEquals(3, card.getImageCount());
+        assertEquals("old riga", card.getLocationLower());
+        assertEquals("new", card.getStatusLower());
+        assertEquals("sea view flat balcony facing the gulf", card.getSearchText());
+    }
+
+    @Test
+    @DisplayName("rejecting an approved listing removes its card")
+    void reject_RemovesCard() {
+        propertyService.approveProperty(flat.getId());
+
+        propertyService.rejectProperty(flat.getId());
+
+        assertNull(card(flat));
+    }
+
+    @Test
+    @DisplayName("featuring a listing updates its card")
+    void toggleFeatured_UpdatesCard() {
+        propertyService.approveProperty(flat.getId());
+
+        propertyService.toggleFeatured(flat.getId());
+
+        assertTrue(card(flat).isFeatured());
+        assertEquals(List.of(flat.getId()), propertyService.findFeatured().stream().map(PropertyResponseDTO::getId).toList());
+    }
+
+    @Test
+    @DisplayName("deleting a listing takes its card with it")
+    void delete_CascadesToCard() {
+        propertyService.approveProperty(flat.getId());
+
+        propertyService.deleteById(flat.getId());
+
+        assertEquals(0, listingCardRepository.count());
+    }
+
+    @Test
+    @DisplayName("renaming the owner renames them on every card")
+    void saveUser_RenamesOwnerOnCards() {
+        propertyService.approveProperty(flat.getId());
+
+        User renamed = userRepository.findById(seller.getId()).orElseThrow();
+        renamed.setUsername("seller.renamed");
+        userService.saveUser(renamed);
+
+        assertEquals("seller.renamed", card(flat).getUsername());
+    }
+
+    @Test
+    @DisplayName("renaming a user loaded in the same transaction still renames them on every card")
+    void saveUser_ManagedUser_RenamesOwnerOnCards() {
+        propertyService.approveProperty(flat.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User managed = userService.getUserByUsername("seller");
+            managed.setUsername("seller.renamed");
+            userService.saveUser(managed);
+        });
+
+        assertEquals("seller.renamed", card(flat).getUsername());
+    }
+
+    @Test
+    @DisplayName("a card written from a listing whose cached favorite count is behind takes the stored count")
+    void approve_TakesStoredFavoriteCount() {
+        propertyRepository.findById(flat.getId()).orElseThrow();
+        jdbcTemplate.update("update property set favorite_count = 4 where property_id = ?", flat.getId());
+
+        propertyService.approveProperty(flat.getId());
+
+        assertEquals(4, card(flat).getFavoriteCount());
+    }
+
+    @Test
+    @DisplayName("a favorite count flush reaches the card, and Most saved sorts by it")
+    void favoriteFlush_ReachesCard() {
+        Property house = listing("House", "Jurmala", ModerationStatus.APPROVED);
+        propertyService.approveProperty(flat.getId());
+        propertyService.rebuildListingCards();
+        User anna = userRepository.save(User.builder()
+                .username("anna").email("anna@example.com").password("encoded").role("ROLE_USER").build());
+        favoriteService.addFavorite(anna, house);
+
+        favoriteCounter.flush();
+
+        assertEquals(1, card(house).getFavoriteCount());
+        List<PropertyResponseDTO> mostSaved = propertyService.searchPropertiesWithFilterSortAndPagination(
+                new PropertyFilterRequestDTO(), PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "favoriteCount"))).getContent();
+        assertEquals(List.of(house.getId(), flat.getId()), mostSaved.stream().map(PropertyResponseDTO::getId).toList());
+    }
+
+    // ── rebuild ──────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("rebuild produces the same cards the writes maintain, for approved listings only")
+    void rebuild_MatchesMaintainedCards() {
+        listing("Pending house", "Jurmala", ModerationStatus.PENDING);
+        propertyService.approveProperty(flat.getId());
+        List<ListingCard> maintained = cards();
+
+        assertEquals(1, propertyService.rebuildListingCards());
+
+        assertEquals(maintained, cards());
+    }
+
+    private List<ListingCard> cards() {
+        return listingCardRepository.findAll().stream()
+                .sorted(Comparator.comparing(ListingCard::getId))
+                .toList();
+    }
+
+    // ── reads ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("the search fallback reads the cards in one statement, filtering on the stored lower-cased columns")
+    void search_ReadsCardsOnly() {
+        propertyService.approveProperty(flat.getId());
+        PropertyFilterRequestDTO filter = PropertyFilterRequestDTO.builder().location("RIGA").q("gulf").build();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<PropertyResponseDTO> result = propertyService.searchPropertiesWithFilterSortAndPagination(filter,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")), null).getContent();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        PropertyResponseDTO listing = result.get(0);
+        assertEquals("seller", listing.getUsername());
+        assertEquals(3, listing.getImageCount());
+        assertArrayEquals(new String[]{"https://img.example.com/" + flat.getId() + "/0.jpg"}, listing.getImages());
+    }
+}
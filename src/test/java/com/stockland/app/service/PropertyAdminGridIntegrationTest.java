@@ -0,0 +1,251 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingAttributeIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Admin grid ordering, filtering and paging as the database applies them; the bitmaps are mocked so counts come from SQL
+@SpringBootTest
+@ActiveProfiles("test")
+class PropertyAdminGridIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @MockitoBean
+    private ListingAttributeIndex listingAttributeIndex;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    private User anna;
+    private User bob;
+    private final LocalDateTime now = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+
+        anna = userRepository.save(User.builder()
+                .username("anna").email("anna@example.com").password("encoded").role("ROLE_USER").build());
+        bob = userRepository.save(User.builder()
+                .username("Bob").email("bob@example.com").password("encoded").role("ROLE_USER").build());
+    }
+
+    private Property save(String title, User owner, ModerationStatus moderationStatus, int daysAgo) {
+        return propertyRepository.save(Property.builder()
+                .title(title)
+                .location("Riga")
+                .price(100000.0)
+                .area(50.0)
+                .roomCount(2)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("available")
+                .moderationStatus(moderationStatus)
+                .createdAt(now.minusDays(daysAgo))
+                .user(owner)
+                .build());
+    }
+
+    private List<String> titles(String moderation, String sort, String dir) {
+        return propertyService.findAllForAdmin(moderation, sort, dir, 0, 25).getContent().stream()
+                .map(PropertyResponseDTO::getTitle)
+                .toList();
+    }
+
+    // ── filter ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("findAllForAdmin filters by moderation status, case-insensitively")
+    void findAllForAdmin_FiltersByModerationStatus() {
+        save("Pending", anna, ModerationStatus.PENDING, 1);
+        save("Approved", anna, ModerationStatus.APPROVED, 1);
+        save("Rejected", anna, ModerationStatus.REJECTED, 1);
+
+        assertEquals(List.of("Pending"), titles("pending", null, null));
+        assertEquals(List.of("Approved"), titles("APPROVED", null, null));
+        assertEquals(List.of("Rejected"), titles("REJECTED", null, null));
+    }
+
+    @Test
+    @DisplayName("findAllForAdmin shows every listing for a null, blank or unknown filter")
+    void findAllForAdmin_ReturnsAll_WhenFilterMissingOrInvalid() {
+        save("Pending", anna, ModerationStatus.PENDING, 1);
+        save("Approved", anna, ModerationStatus.APPROVED, 1);
+
+        assertEquals(2, titles(null, null, null).size());
+        assertEquals(2, titles("   ", null, null).size());
+        assertEquals(2, titles("INVALID", null, null).size());
+    }
+
+    // ── default order ────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("findAllForAdmin default order is pending, approved, rejected, newest first within each")
+    void findAllForAdmin_DefaultOrder_ByStatusThenNewest() {
+        save("Old rejected", anna, ModerationStatus.REJECTED, 1);
+        save("Old approved", anna, ModerationStatus.APPROVED, 5);
+        save("New approved", anna, ModerationStatus.APPROVED, 2);
+        save("Old pending", anna, ModerationStatus.PENDING, 9);
+        save("New pending", anna, ModerationStatus.PENDING, 3);
+
+        List<String> expected = List.of("New pending", "Old pending", "New approved", "Old approved", "Old rejected");
+        assertEquals(expected, titles(null, null, null));
+        assertEquals(expected, titles(null, "   ", "asc"));
+        assertEquals(expected, titles(null, "unknown", "asc"));
+    }
+
+    // ── sort keys ────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("findAllForAdmin sorts by id in both directions")
+    void findAllForAdmin_SortsById() {
+        Property first = save("A", anna, ModerationStatus.APPROVED, 1);
+        Property second = save("B", anna, ModerationStatus.APPROVED, 1);
+
+        List<Long> asc = propertyService.findAllForAdmin(null, "id", "asc", 0, 25).getContent().stream()
+                .map(PropertyResponseDTO::getId).toList();
+        List<Long> desc = propertyService.findAllForAdmin(null, "id", "desc", 0, 25).getContent().stream()
+                .map(PropertyResponseDTO::getId).toList();
+
+        assertEquals(List.of(first.getId(), second.getId()), asc);
+        assertEquals(List.of(second.getId(), first.getId()), desc);
+    }
+
+    @Test
+    @DisplayName("findAllForAdmin sorts text keys case-insensitively with a missing value first")
+    void findAllForAdmin_SortsText_CaseInsensitive_NullsFirst() {
+        save("banana", anna, ModerationStatus.APPROVED, 1);
+        save("Apple", anna, ModerationStatus.APPROVED, 1);
+        save(null, anna, ModerationStatus.APPROVED, 1);
+
+        List<String> asc = new ArrayList<>();
+        asc.add(null);
+        asc.add("Apple");
+        asc.add("banana");
+        assertEquals(asc, titles(null, "title", "asc"));
+
+        List<String> desc = new ArrayList<>(List.of("banana", "Apple"));
+        desc.add(null);
+        assertEquals(desc, titles(null, "title", "desc"));
+    }
+
+    @Test
+    @DisplayName("findAllForAdmin sorts by owner username case-insensitively")
+    void findAllForAdmin_SortsByOwner() {
+        save("Bob's", bob, ModerationStatus.APPROVED, 1);
+        save("Anna's", anna, ModerationStatus.APPROVED, 1);
+
+        assertEquals(List.of("Anna's", "Bob's"), titles(null, "owner", "asc"));
+        assertEquals(List.of("Bob's", "Anna's"), titles(null, "owner", "desc"));
+    }
+
+    @Test
+    @DisplayName("findAllForAdmin sorts by price with a missing price first")
+    void findAllForAdmin_SortsByPrice() {
+        Property expensive = save("Expensive", anna, ModerationStatus.APPROVED, 1);
+        expensive.setPrice(500000.0);
+        propertyRepository.save(expensive);
+        Property cheap = save("Cheap", anna, ModerationStatus.APPROVED, 1);
+        cheap.setPrice(50000.0);
+        propertyRepository.save(cheap);
+        Property unpriced = save("Unpriced", anna, ModerationStatus.APPROVED, 1);
+        unpriced.setPrice(null);
+        propertyRepository.save(unpriced);
+
+        assertEquals(List.of("Unpriced", "Cheap", "Expensive"), titles(null, "price", "asc"));
+        assertEquals(List.of("Expensive", "Cheap", "Unpriced"), titles(null, "price", "desc"));
+    }
+
+    @Test
+    @DisplayName("findAllForAdmin sorts by location and by status case-insensitively")
+    void findAllForAdmin_SortsByLocationAndStatus() {
+        Property riga = save("Riga", anna, ModerationStatus.APPROVED, 1);
+        riga.setStatus("Sold");
+        propertyRepository.save(riga);
+        Property cesis = save("Cesis", anna, ModerationStatus.APPROVED, 1);
+        cesis.setLocation("cesis");
+        propertyRepository.save(cesis);
+
+        assertEquals(List.of("Cesis", "Riga"), titles(null, "location", "asc"));
+        assertEquals(List.of("Cesis", "Riga"), titles(null, "status", "asc"));
+        assertEquals(List.of("Riga", "Cesis"), titles(null, "status", "desc"));
+    }
+
+    @Test
+    @DisplayName("findAllForAdmin sorts by creation time")
+    void findAllForAdmin_SortsByCreatedAt() {
+        save("Older", anna, ModerationStatus.APPROVED, 5);
+        save("Newer", anna, ModerationStatus.APPROVED, 1);
+
+        assertEquals(List.of("Older", "Newer"), titles(null, "createdAt", "asc"));
+        assertEquals(List.of("Newer", "Older"), titles(null, "createdat", "desc"));
+    }
+
+    @Test
+    @DisplayName("findAllForAdmin ascending by featured puts featured listings first")
+    void findAllForAdmin_SortsByFeatured() {
+        save("Plain", anna, ModerationStatus.APPROVED, 1);
+        Property featured = save("Featured", anna, ModerationStatus.APPROVED, 1);
+        featured.setFeatured(true);
+        propertyRepository.save(featured);
+
+        assertEquals(List.of("Featured", "Plain"), titles(null, "featured", "asc"));
+        assertEquals(List.of("Plain", "Featured"), titles(null, "featured", "desc"));
+    }
+
+    // ── paging ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("findAllForAdmin pages through the grid without overlap and totals from the status counts")
+    void findAllForAdmin_PagesWithoutOverlap() {
+        for (int i = 0; i < 7; i++) {
+            save("Pending " + i, anna, ModerationStatus.PENDING, i);
+        }
+        save("Approved", anna, ModerationStatus.APPROVED, 1);
+
+        Page<PropertyResponseDTO> first = propertyService.findAllForAdmin("PENDING", "title", "asc", 0, 3);
+        Page<PropertyResponseDTO> last = propertyService.findAllForAdmin("PENDING", "title", "asc", 2, 3);
+
+        assertEquals(7, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+        assertEquals(List.of("Pending 0", "Pending 1", "Pending 2"),
+                first.getContent().stream().map(PropertyResponseDTO::getTitle).toList());
+        assertEquals(List.of("Pending 6"), last.getContent().stream().map(PropertyResponseDTO::getTitle).toList());
+        assertEquals(8, propertyService.findAllForAdmin(null, null, null, 0, 3).getTotalElements());
+    }
+}
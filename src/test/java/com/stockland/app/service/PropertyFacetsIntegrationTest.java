@@ -0,0 +1,140 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.FacetBucketDTO;
+import com.stockland.app.dto.ListingFacetsDTO;
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Facet counts through the projected database query; the search engine is mocked so it never reports ready
+@SpringBootTest
+@ActiveProfiles("test")
+class PropertyFacetsIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @MockitoBean
+    private ListingSearchEngine listingSearchEngine;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User owner = userRepository.save(User.builder()
+                .username("seller")
+                .email("seller@example.com")
+                .password("encoded")
+                .role("ROLE_USER")
+                .build());
+
+        save(owner, "Riga", 90000.0, 45.0, 2, ActionType.BUY, PropertyType.APARTMENTS, ModerationStatus.APPROVED);
+        save(owner, "Riga", 150000.0, 70.0, 3, ActionType.BUY, PropertyType.CONDO, ModerationStatus.APPROVED);
+        save(owner, "Jurmala", 800.0, 120.0, 3, ActionType.RENT, PropertyType.HOUSE, ModerationStatus.APPROVED);
+        save(owner, "Riga", 60000.0, 30.0, 1, ActionType.BUY, PropertyType.APARTMENTS, ModerationStatus.PENDING);
+
+        // The rows above bypass PropertyService, so their cards are built here
+        propertyService.rebuildListingCards();
+    }
+
+    private void save(User owner, String location, Double price, Double area, Integer rooms,
+                      ActionType actionType, PropertyType propertyType, ModerationStatus moderationStatus) {
+        propertyRepository.save(Property.builder()
+                .title("Listing")
+                .location(location)
+                .price(price)
+                .area(area)
+                .roomCount(rooms)
+                .actionType(actionType)
+                .propertyType(propertyType)
+                .status("NEW")
+                .moderationStatus(moderationStatus)
+                .user(owner)
+                .build());
+    }
+
+    private List<Long> counts(List<FacetBucketDTO> buckets) {
+        return buckets.stream().map(FacetBucketDTO::getCount).toList();
+    }
+
+    @Test
+    @DisplayName("Facets count approved listings only")
+    void getListingFacets_CountsApprovedListings() {
+        ListingFacetsDTO facets = propertyService.getListingFacets(new PropertyFilterRequestDTO());
+
+        assertEquals(3, facets.getTotal());
+        assertEquals(2L, facets.getActionTypes().get(ActionType.BUY));
+        assertEquals(1L, facets.getActionTypes().get(ActionType.RENT));
+        assertEquals(Map.of(2, 1L, 3, 2L), facets.getRoomCounts());
+        assertEquals(List.of(1L, 1L, 1L, 0L, 0L), counts(facets.getPriceRanges()));
+        assertEquals(List.of(1L, 1L, 1L, 0L, 0L), counts(facets.getAreaRanges()));
+    }
+
+    @Test
+    @DisplayName("Facets follow the same filters as the search")
+    void getListingFacets_FollowsFilters() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setLocation("riga");
+
+        ListingFacetsDTO facets = propertyService.getListingFacets(filter);
+
+        assertEquals(2, facets.getTotal());
+        assertEquals(0L, facets.getActionTypes().get(ActionType.RENT));
+        assertEquals(1L, facets.getPropertyTypes().get(PropertyType.CONDO));
+        assertEquals(1L, facets.getPropertyTypes().get(PropertyType.APARTMENTS));
+    }
+
+    @Test
+    @DisplayName("A price bucket's drill-down filter returns exactly the listings it counted, with a price on the bound")
+    void getListingFacets_DrillDownOnBound_MatchesCount() {
+        User owner = userRepository.findAll().get(0);
+        save(owner, "Riga", 50000.0, 50.0, 2, ActionType.BUY, PropertyType.HOUSE, ModerationStatus.APPROVED);
+        propertyService.rebuildListingCards();
+
+        List<FacetBucketDTO> prices = propertyService.getListingFacets(new PropertyFilterRequestDTO()).getPriceRanges();
+
+        assertEquals(List.of(1L, 2L, 1L, 0L, 0L), counts(prices));
+        for (FacetBucketDTO bucket : prices.subList(0, 3)) {
+            PropertyFilterRequestDTO drillDown = new PropertyFilterRequestDTO();
+            drillDown.setMinPrice(bucket.getMin());
+            drillDown.setMaxPrice(bucket.getHighest());
+            assertEquals(bucket.getCount(), propertyService.searchPropertiesWithFilterSortAndPagination(
+                    drillDown, PageRequest.of(0, 10)).getTotalElements(), bucket.getLabel());
+        }
+    }
+}
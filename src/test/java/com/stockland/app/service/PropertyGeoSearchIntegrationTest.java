@@ -0,0 +1,119 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Radius search through the database fallback; the search engine is mocked so it never reports ready
+@SpringBootTest
+@ActiveProfiles("test")
+class PropertyGeoSearchIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @MockitoBean
+    private ListingSearchEngine listingSearchEngine;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(User.builder()
+                .username("seller")
+                .email("seller@example.com")
+                .password("encoded")
+                .role("ROLE_USER")
+                .build());
+
+        save("Centre flat", "Riga", 56.9496, 24.1052, ModerationStatus.APPROVED);
+        save("Teika flat", "Riga, Teika", 56.9780, 24.1820, ModerationStatus.APPROVED);
+        save("Seaside house", "Jurmala", 56.9680, 23.7704, ModerationStatus.APPROVED);
+        save("Pending flat", "Riga", 56.9500, 24.1060, ModerationStatus.PENDING);
+        save("Unplaced flat", "Atlantis", null, null, ModerationStatus.APPROVED);
+
+        // The rows above bypass PropertyService, so their cards are built here
+        propertyService.rebuildListingCards();
+    }
+
+    private void save(String title, String location, Double latitude, Double longitude, ModerationStatus moderationStatus) {
+        propertyRepository.save(Property.builder()
+                .title(title)
+                .location(location)
+                .latitude(latitude)
+                .longitude(longitude)
+                .price(100000.0)
+                .area(50.0)
+                .roomCount(2)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("NEW")
+                .moderationStatus(moderationStatus)
+                .user(owner)
+                .build());
+    }
+
+    private List<String> titlesWithin(double radiusKm) {
+        PropertyFilterRequestDTO filter = PropertyFilterRequestDTO.builder()
+                .latitude(56.9496).longitude(24.1052).radiusKm(radiusKm).build();
+        return propertyService.searchPropertiesWithFilterSortAndPagination(filter, PageRequest.of(0, 10, Sort.by("id")))
+                .getContent().stream().map(PropertyResponseDTO::getTitle).toList();
+    }
+
+    @Test
+    @DisplayName("Radius filter keeps the approved listings inside the circle")
+    void search_Radius_KeepsListingsInsideCircle() {
+        assertEquals(List.of("Centre flat"), titlesWithin(2));
+        assertEquals(List.of("Centre flat", "Teika flat"), titlesWithin(8));
+        assertEquals(List.of("Centre flat", "Teika flat", "Seaside house"), titlesWithin(25));
+    }
+
+    @Test
+    @DisplayName("backfillCoordinates places stored listings from the gazetteer")
+    void backfillCoordinates_PlacesStoredListings() {
+        save("Old listing", "Riga, Teika", null, null, ModerationStatus.APPROVED);
+        propertyService.rebuildListingCards();
+
+        assertEquals(1, propertyService.backfillCoordinates());
+        assertEquals(List.of("Centre flat", "Teika flat", "Old listing"), titlesWithin(8));
+        assertEquals(1, propertyRepository.findByLatitudeIsNull().size());
+    }
+}
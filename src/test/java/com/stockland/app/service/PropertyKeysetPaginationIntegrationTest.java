@@ -0,0 +1,145 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingCursor;
+import com.stockland.app.search.ListingSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Keyset pagination through the JPA path; the search engine is mocked so it never reports ready
+@SpringBootTest
+@ActiveProfiles("test")
+class PropertyKeysetPaginationIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @MockitoBean
+    private ListingSearchEngine listingSearchEngine;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    private final List<String> titlesByPriceAsc = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User owner = userRepository.save(User.builder()
+                .username("seller")
+                .email("seller@example.com")
+                .password("encoded")
+                .role("ROLE_USER")
+                .build());
+
+        // Two listings share a price so the id tie-break is exercised, one has no price at all
+        save(owner, "A", 90000.0, ModerationStatus.APPROVED);
+        save(owner, "B", 120000.0, ModerationStatus.APPROVED);
+        save(owner, "C", 120000.0, ModerationStatus.APPROVED);
+        save(owner, "D", null, ModerationStatus.APPROVED);
+        save(owner, "E", 200000.0, ModerationStatus.APPROVED);
+        save(owner, "Hidden", 100000.0, ModerationStatus.PENDING);
+
+        titlesByPriceAsc.addAll(List.of("A", "B", "C", "E", "D"));
+
+        // The rows above bypass PropertyService, so their cards are built here
+        propertyService.rebuildListingCards();
+    }
+
+    private void save(User owner, String title, Double price, ModerationStatus moderationStatus) {
+        propertyRepository.save(Property.builder()
+                .title(title)
+                .location("Riga")
+                .price(price)
+                .area(50.0)
+                .roomCount(2)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("NEW")
+                .moderationStatus(moderationStatus)
+                .user(owner)
+                .build());
+    }
+
+    private List<String> walk(Sort sort, int size) {
+        Sort.Order order = ListingCursor.keysetOrder(sort);
+        List<String> titles = new ArrayList<>();
+        String after = null;
+        Slice<PropertyResponseDTO> slice;
+        do {
+            slice = propertyService.searchPropertiesWithFilterSortAndPagination(
+                    new PropertyFilterRequestDTO(), PageRequest.of(0, size, sort), after);
+            slice.getContent().forEach(p -> titles.add(p.getTitle()));
+            List<PropertyResponseDTO> content = slice.getContent();
+            after = content.isEmpty() ? null : ListingCursor.after(order, content.get(content.size() - 1)).encode();
+        } while (slice.hasNext());
+        return titles;
+    }
+
+    @Test
+    @DisplayName("Price ascending slices cover every approved listing once, NULL price last")
+    void keyset_PriceAsc_CoversAllListingsInOrder() {
+        assertEquals(titlesByPriceAsc, walk(Sort.by(Sort.Direction.ASC, "price"), 2));
+    }
+
+    @Test
+    @DisplayName("Price descending slices are the exact reverse, NULL price first")
+    void keyset_PriceDesc_IsReverseOfAsc() {
+        List<String> expected = new ArrayList<>(titlesByPriceAsc);
+        Collections.reverse(expected);
+
+        assertEquals(expected, walk(Sort.by(Sort.Direction.DESC, "price"), 2));
+    }
+
+    @Test
+    @DisplayName("Default id DESC keyset returns newest listings first")
+    void keyset_DefaultIdDesc() {
+        assertEquals(List.of("E", "D", "C", "B", "A"), walk(Sort.by(Sort.Direction.DESC, "id"), 3));
+    }
+
+    @Test
+    @DisplayName("A last slice reports no next slice and no count query is needed")
+    void keyset_LastSlice_HasNoNext() {
+        Slice<PropertyResponseDTO> slice = propertyService.searchPropertiesWithFilterSortAndPagination(
+                new PropertyFilterRequestDTO(), PageRequest.of(0, 10, Sort.by("id")), null);
+
+        assertEquals(5, slice.getNumberOfElements());
+        assertFalse(slice.hasNext());
+    }
+}
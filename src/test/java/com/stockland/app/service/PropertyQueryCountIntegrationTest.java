@@ -0,0 +1,317 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingAttributeIndex;
+import com.stockland.app.search.ListingSearchEngine;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statements per read path against the database, counted by Hibernate
+ * statistics. The public list views read listing_card alone, owner and
+ * cover included; the admin grid and "My listings" get the owner in the
+ * listing select and the covers of a whole page in one more, however many
+ * listings the page holds. The list views read cards without the
+ * description; only the detail lookup loads it, with every image. The in-memory indexes are mocked and the
+ * second-level cache starts empty, so every path goes to the database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PropertyQueryCountIntegrationTest {
+
+    private static final int OWNERS = 3;
+    private static final int LISTINGS_PER_OWNER = 10;
+    private static final int PHOTOS = 30;
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @MockitoBean
+    private ListingSearchEngine listingSearchEngine;
+
+    @MockitoBean
+    private ListingAttributeIndex listingAttributeIndex;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private ImageAssetCleanup imageAssetCleanup;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User firstOwner;
+    private Property firstListing;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+
+        for (int o = 0; o < OWNERS; o++) {
+            User owner = userRepository.save(User.builder()
+                    .username("seller" + o)
+                    .email("seller" + o + "@example.com")
+                    .password("encoded")
+                    .role("ROLE_USER")
+                    .build());
+            if (firstOwner == null) {
+                firstOwner = owner;
+            }
+            for (int i = 0; i < LISTINGS_PER_OWNER; i++) {
+                Property property = propertyRepository.save(Property.builder()
+                        .title("Flat " + o + "-" + i)
+                        .location("Riga")
+                        .description("Bright flat, long description")
+                        .price(100000.0 + i)
+                        .area(50.0)
+                        .roomCount(2)
+                        .actionType(ActionType.BUY)
+                        .propertyType(PropertyType.APARTMENTS)
+                        .status("NEW")
+                        .moderationStatus(ModerationStatus.APPROVED)
+                        .featured(i % 2 == 0)
+                        .user(owner)
+                        .build());
+                for (int n = 0; n < 2; n++) {
+                    imageRepository.save(Image.builder()
+                            .name("photo" + n)
+                            .public_id("p" + property.getId() + "-" + n)
+                            .url("https://img.example.com/" + property.getId() + "/" + n + ".jpg")
+                            .property(property)
+                            .build());
+                }
+                if (firstListing == null) {
+                    firstListing = property;
+                }
+            }
+        }
+
+        propertyService.rebuildListingCards();
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // ── search ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("search page: listing cards and their count")
+    void searchPage_TwoStatements_WhateverThePageSize() {
+        Page<PropertyResponseDTO> page = propertyService.searchPropertiesWithFilterSortAndPagination(
+                new PropertyFilterRequestDTO(), PageRequest.of(0, 12, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertEquals(12, page.getContent().size());
+        assertEquals(OWNERS * LISTINGS_PER_OWNER, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertCards(page.getContent());
+    }
+
+    @Test
+    @DisplayName("keyset slice: listing cards only")
+    void searchSlice_OneStatement() {
+        Slice<PropertyResponseDTO> slice = propertyService.searchPropertiesWithFilterSortAndPagination(
+                new PropertyFilterRequestDTO(), PageRequest.of(0, 12, Sort.by(Sort.Direction.DESC, "id")), null);
+
+        assertEquals(12, slice.getContent().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertCards(slice.getContent());
+    }
+
+    // ── admin and my listings ────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("admin grid: cards, one covers query and the status counts, no row count")
+    void findAllForAdmin_ThreeStatements() {
+        Page<PropertyResponseDTO> page = propertyService.findAllForAdmin(null, null, null, 0, 25);
+
+        assertEquals(25, page.getContent().size());
+        assertEquals(OWNERS * LISTINGS_PER_OWNER, page.getTotalElements());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertCards(page.getContent());
+    }
+
+    @Test
+    @DisplayName("my listings page: cards, one covers query and the owner's status counts, no row count")
+    void getPropertiesByUserId_Paged_ThreeStatements() {
+        Page<PropertyResponseDTO> page = propertyService.getPropertiesByUserId(firstOwner.getId(), "price", "desc", null, 1, 4);
+
+        assertEquals(LISTINGS_PER_OWNER, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(List.of("Flat 0-5", "Flat 0-4", "Flat 0-3", "Flat 0-2"),
+                page.getContent().stream().map(PropertyResponseDTO::getTitle).toList());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertCards(page.getContent());
+    }
+
+    @Test
+    @DisplayName("my listings page: the moderation filter only keeps the owner's listings in that status")
+    void getPropertiesByUserId_Paged_FiltersInDatabase() {
+        Property pending = propertyRepository.findById(firstListing.getId()).orElseThrow();
+        pending.setModerationStatus(ModerationStatus.PENDING);
+        propertyRepository.save(pending);
+
+        Page<PropertyResponseDTO> page = propertyService.getPropertiesByUserId(firstOwner.getId(), null, null, "PENDING", 0, 25);
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(List.of(firstListing.getId()), page.getContent().stream().map(PropertyResponseDTO::getId).toList());
+    }
+
+    // ── featured and detail ──────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("featured: listing cards only")
+    void findFeatured_OneStatement() {
+        List<PropertyResponseDTO> listings = propertyService.findFeatured();
+
+        assertEquals(OWNERS * LISTINGS_PER_OWNER / 2, listings.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertCards(listings);
+    }
+
+    @Test
+    @DisplayName("detail: listing, owner and images in one statement")
+    void findById_OneStatement() {
+        PropertyResponseDTO listing = propertyService.findById(firstListing.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("seller0", listing.getUsername());
+        assertEquals("Bright flat, long description", listing.getDescription());
+        assertEquals(2, listing.getImages().length);
+    }
+
+    // ── writes ───────────────────────────────────────────────────────────────
+    // Ids come from pooled sequences, so the inserts are batched: with
+    // identity columns this was one insert per row, 31 for this listing
+
+    @Test
+    @DisplayName("create with 30 photos: owner, at most one id block per table, one listing insert and one image batch")
+    void saveProperty_BatchesImageInserts() {
+        MockMultipartFile[] photos = new MockMultipartFile[PHOTOS];
+        for (int n = 0; n < PHOTOS; n++) {
+            photos[n] = new MockMultipartFile("files", "photo" + n + ".jpg", "image/jpeg", new byte[]{1});
+        }
+        AtomicInteger uploads = new AtomicInteger();
+        when(cloudinaryService.uploadFile(any(), eq("properties"))).thenAnswer(invocation -> {
+            int n = uploads.getAndIncrement();
+            return Map.of("secure_url", "https://img.example.com/new/" + n + ".jpg", "public_id", "new-" + n);
+        });
+        statistics.clear();
+
+        PropertyResponseDTO created = propertyService.saveProperty(PropertyRequestDTO.builder()
+                .title("New flat")
+                .location("Riga")
+                .price("120000")
+                .area(60.0)
+                .roomCount(3)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("NEW")
+                .build(), firstOwner.getId(), photos);
+
+        assertEquals(PHOTOS, created.getImages().length);
+        assertEquals(PHOTOS + 1, statistics.getEntityInsertCount());
+        // A table only fetches an id block once the rows of earlier tests used up the last one
+        assertTrue(statistics.getPrepareStatementCount() >= 3 && statistics.getPrepareStatementCount() <= 5,
+                "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(PHOTOS, imageRepository.findUrlsByPropertyIds(List.of(created.getId())).size());
+    }
+
+    // ── bulk delete ──────────────────────────────────────────────────────────
+    // One delete per table however many listings go; deleting them one by
+    // one took a statement per listing, favorite and image
+
+    @Test
+    @DisplayName("bulk delete of 20 listings: listings, image urls and public ids, then one delete per table")
+    void deleteByIds_SevenStatements_WhateverTheCount() {
+        List<Property> listings = propertyRepository.findAll(Sort.by("id")).subList(0, 20);
+        List<Long> ids = listings.stream().map(Property::getId).toList();
+        for (Property listing : listings) {
+            favoriteRepository.save(new Favorite(firstOwner, listing));
+        }
+        statistics.clear();
+
+        assertEquals(20, propertyService.deleteByIds(ids));
+
+        assertEquals(7, statistics.getPrepareStatementCount());
+        assertEquals(OWNERS * LISTINGS_PER_OWNER - 20, propertyRepository.count());
+        assertEquals(0, favoriteRepository.count());
+        assertTrue(imageRepository.findUrlsByPropertyIds(ids).isEmpty());
+    }
+
+    @Test
+    @DisplayName("bulk delete leaves the photos to the cleanup queue, which removes them in one call")
+    void deleteByIds_QueuesImageAssets() {
+        imageAssetCleanup.flush();
+        clearInvocations(cloudinaryService);
+        long id = firstListing.getId();
+
+        propertyService.deleteByIds(List.of(id));
+
+        verify(cloudinaryService, never()).deleteFiles(anyList());
+        assertEquals(2, imageAssetCleanup.flush());
+        verify(cloudinaryService).deleteFiles(argThat(publicIds ->
+                Set.copyOf(publicIds).equals(Set.of("p" + id + "-0", "p" + id + "-1"))));
+    }
+
+    // A card has its owner and cover, the first uploaded image, but no description
+    private static void assertCards(List<PropertyResponseDTO> listings) {
+        for (PropertyResponseDTO listing : listings) {
+            assertNotNull(listing.getUsername());
+            assertNull(listing.getDescription());
+            assertArrayEquals(new String[]{"https://img.example.com/" + listing.getId() + "/0.jpg"}, listing.getImages());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.dto.SearchCacheStatsDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingSearchCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The result cache switched on, with every write going through PropertyService so it publishes change events
+@SpringBootTest(properties = "listing.search.cache.max-bytes=1048576")
+@ActiveProfiles("test")
+class PropertySearchCacheIntegrationTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private ListingSearchCache listingSearchCache;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    private Property pendingInRiga;
+    private Property approvedInJurmala;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User owner = userRepository.save(User.builder()
+                .username("seller")
+                .email("seller@example.com")
+                .password("encoded")
+                .role("ROLE_USER")
+                .build());
+
+        save(owner, "Riga", ModerationStatus.APPROVED);
+        pendingInRiga = save(owner, "Riga Centre", ModerationStatus.PENDING);
+        approvedInJurmala = save(owner, "Jurmala", ModerationStatus.APPROVED);
+
+        // Also empties the cache, the rows above were written behind its back
+        propertyService.rebuildSearchIndex();
+        propertyService.rebuildListingCards();
+    }
+
+    private Property save(User owner, String location, ModerationStatus moderationStatus) {
+        return propertyRepository.save(Property.builder()
+                .title("Flat in " + location)
+                .location(location)
+                .price(100000.0)
+                .area(50.0)
+                .roomCount(2)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("NEW")
+                .moderationStatus(moderationStatus)
+                .user(owner)
+                .build());
+    }
+
+    private Page<PropertyResponseDTO> searchRiga() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setLocation(" riga ");
+        return propertyService.searchPropertiesWithFilterSortAndPagination(filter, FIRST_PAGE);
+    }
+
+    @Test
+    @DisplayName("A repeated search is served from the cache")
+    void search_Repeated_IsAHit() {
+        long hits = listingSearchCache.stats().getHits();
+
+        Page<PropertyResponseDTO> first = searchRiga();
+        Page<PropertyResponseDTO> second = searchRiga();
+
+        assertSame(first, second);
+        assertEquals(hits + 1, listingSearchCache.stats().getHits());
+    }
+
+    @Test
+    @DisplayName("Approving a matching listing refreshes the cached search")
+    void search_AfterApprove_SeesNewListing() {
+        assertEquals(1, searchRiga().getTotalElements());
+
+        propertyService.approveProperty(pendingInRiga.getId());
+
+        assertEquals(2, searchRiga().getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Featuring a listing elsewhere keeps the cached search")
+    void search_AfterUnrelatedWrite_StillAHit() {
+        searchRiga();
+        SearchCacheStatsDTO before = listingSearchCache.stats();
+
+        propertyService.toggleFeatured(approvedInJurmala.getId());
+        searchRiga();
+
+        assertEquals(before.getHits() + 1, listingSearchCache.stats().getHits());
+        assertEquals(before.getInvalidations(), listingSearchCache.stats().getInvalidations());
+    }
+}
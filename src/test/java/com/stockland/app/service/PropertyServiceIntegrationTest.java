@@ -1,10 +1,14 @@
 package com.stockland.app.service;
 
+import com.stockland.app.dto.LocationSuggestionDTO;
 import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyRequestDTO;
 import com.stockland.app.dto.PropertyResponseDTO;
 import com.stockland.app.model.*;
 import com.stockland.app.repository.FavoriteRepository;
 import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.ListingCardRepository;
+import com.stockland.app.repository.LocationCountView;
 import com.stockland.app.repository.PropertyRepository;
 import com.stockland.app.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,9 +18,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -41,6 +49,9 @@ class PropertyServiceIntegrationTest {
     @Autowired
     private FavoriteRepository favoriteRepository;
 
+    @Autowired
+    private ListingCardRepository listingCardRepository;
+
     // The setUp method initializes the test data before each test case is executed.
     @BeforeEach
     void setUp() {
@@ -98,6 +109,10 @@ class PropertyServiceIntegrationTest {
                 .moderationStatus(ModerationStatus.PENDING)
                 .user(savedUser)
                 .build());
+
+        // Rows above bypass PropertyService, so the search engine and listing_card have to be reloaded
+        propertyService.rebuildSearchIndex();
+        propertyService.rebuildListingCards();
     }
 
     // ── base moderationStatus == APPROVED spec ────────────────────────────────
@@ -304,4 +319,89 @@ class PropertyServiceIntegrationTest {
 
         assertEquals(0, result.getTotalElements());
     }
+
+    // ── search engine stays in sync with writes ───────────────────────────────
+
+    @Test
+    @DisplayName("Approving and deleting a listing is reflected in search results")
+    void searchProperties_ReflectsApproveAndDelete() {
+        Property pending = propertyRepository.findAll().stream()
+                .filter(p -> p.getModerationStatus() == ModerationStatus.PENDING)
+                .findFirst()
+                .orElseThrow();
+
+        propertyService.approveProperty(pending.getId());
+
+        Page<PropertyResponseDTO> afterApprove = propertyService
+                .searchPropertiesWithFilterSortAndPagination(new PropertyFilterRequestDTO(), Pageable.unpaged());
+        assertEquals(3, afterApprove.getTotalElements());
+
+        propertyService.deleteById(pending.getId());
+
+        Page<PropertyResponseDTO> afterDelete = propertyService
+                .searchPropertiesWithFilterSortAndPagination(new PropertyFilterRequestDTO(), Pageable.unpaged());
+        assertEquals(2, afterDelete.getTotalElements());
+        assertTrue(afterDelete.getContent().stream().noneMatch(p -> p.getId().equals(pending.getId())));
+    }
+
+    @Test
+    @DisplayName("Keyword search follows description edits and moderation")
+    void searchProperties_TextQuery_FollowsUpdateAndReject() {
+        Property apartment = propertyRepository.findAll().stream()
+                .filter(p -> p.getTitle().equals("Downtown Apartment"))
+                .findFirst()
+                .orElseThrow();
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setQ("renovated kitchen");
+
+        assertEquals(0, propertyService.searchPropertiesWithFilterSortAndPagination(filter, Pageable.unpaged()).getTotalElements());
+
+        propertyService.updateProperty(apartment.getId(), PropertyRequestDTO.builder()
+                .title("Downtown Apartment")
+                .location("Riga")
+                .price("120000")
+                .area(80.0)
+                .roomCount(3)
+                .description("Renovated kitchen and a sunny balcony.")
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("available")
+                .build(), null, null, true);
+
+        Page<PropertyResponseDTO> afterUpdate = propertyService.searchPropertiesWithFilterSortAndPagination(filter,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance")));
+        assertEquals(1, afterUpdate.getTotalElements());
+        assertEquals("Downtown Apartment", afterUpdate.getContent().get(0).getTitle());
+
+        propertyService.rejectProperty(apartment.getId());
+
+        assertEquals(0, propertyService.searchPropertiesWithFilterSortAndPagination(filter, Pageable.unpaged()).getTotalElements());
+    }
+
+    // ── location suggestions ──────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Location suggestions follow approvals")
+    void suggestLocations_FollowsApprove() {
+        assertTrue(propertyService.suggestLocations("li", 5).isEmpty());
+
+        Property pending = propertyRepository.findAll().stream()
+                .filter(p -> p.getModerationStatus() == ModerationStatus.PENDING)
+                .findFirst()
+                .orElseThrow();
+        propertyService.approveProperty(pending.getId());
+
+        assertEquals(List.of(new LocationSuggestionDTO("Liepaja", 1)), propertyService.suggestLocations("li", 5));
+    }
+
+    @Test
+    @DisplayName("The database fallback groups approved locations by prefix")
+    void countLocationsLike_GroupsApprovedByPrefix() {
+        List<LocationCountView> result = listingCardRepository.countLocationsLike("j%", PageRequest.of(0, 5));
+
+        assertEquals(1, result.size());
+        assertEquals("Jurmala", result.get(0).getLocation());
+        assertEquals(1, result.get(0).getListings());
+        assertTrue(listingCardRepository.countLocationsLike("l%", PageRequest.of(0, 5)).isEmpty());
+    }
 }
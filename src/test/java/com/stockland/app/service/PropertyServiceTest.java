@@ -1,45 +1,83 @@
 package com.stockland.app.service;
 
+import com.stockland.app.dto.ListingFacetsDTO;
+import com.stockland.app.dto.LocationSuggestionDTO;
 import com.stockland.app.dto.PropertyFilterRequestDTO;
 import com.stockland.app.dto.PropertyRequestDTO;
 import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.event.PropertyChangedEvent;
+import com.stockland.app.geo.Gazetteer;
 import com.stockland.app.model.ActionType;
 import com.stockland.app.model.Image;
+import com.stockland.app.model.ListingCard;
 import com.stockland.app.model.ModerationStatus; //NOSONAR – used in assertions
 import com.stockland.app.model.Property;
 import com.stockland.app.model.PropertyType;
 import com.stockland.app.model.User;
 import com.stockland.app.repository.FavoriteRepository;
 import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.ListingCardRepository;
+import com.stockland.app.repository.ListingCardView;
+import com.stockland.app.repository.LocationCountView;
+import com.stockland.app.repository.ModerationCountView;
+import com.stockland.app.repository.PropertyCardView;
+import com.stockland.app.repository.PropertyAttributeView;
 import com.stockland.app.repository.PropertyRepository;
 import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingAttributeIndex;
+import com.stockland.app.search.ListingSearchCache;
+import com.stockland.app.search.ListingSearchEngine;
+import com.stockland.app.search.LocationSuggester;
+import com.stockland.app.search.SimilarListings;
+import com.stockland.app.search.TextAnalyzer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.mock.web.MockMultipartFile;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class PropertyServiceTest {
 
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
     private PropertyRepository propertyRepository;
     private UserRepository userRepository;
     private ImageRepository imageRepository;
     private FavoriteRepository favoriteRepository;
+    private ListingCardRepository listingCardRepository;
     private CloudinaryServiceImpl cloudinaryService;
+    private ListingSearchEngine listingSearchEngine;
+    private ListingAttributeIndex listingAttributeIndex;
+    private LocationSuggester locationSuggester;
+    private SavedSearchService savedSearchService;
+    private SimilarListings similarListings;
+    private ImageAssetCleanup imageAssetCleanup;
+    private ApplicationEventPublisher eventPublisher;
     private PropertyService propertyService;
 
     @BeforeEach
@@ -48,9 +86,21 @@ class PropertyServiceTest {
         userRepository       = mock(UserRepository.class);
         imageRepository      = mock(ImageRepository.class);
         favoriteRepository   = mock(FavoriteRepository.class);
+        listingCardRepository = mock(ListingCardRepository.class);
         cloudinaryService    = mock(CloudinaryServiceImpl.class);
-
-        propertyService = new PropertyService(propertyRepository, userRepository, imageRepository, favoriteRepository);
+        listingSearchEngine  = mock(ListingSearchEngine.class);
+        listingAttributeIndex = mock(ListingAttributeIndex.class);
+        locationSuggester    = mock(LocationSuggester.class);
+        savedSearchService   = mock(SavedSearchService.class);
+        similarListings      = mock(SimilarListings.class);
+        imageAssetCleanup    = mock(ImageAssetCleanup.class);
+        eventPublisher       = mock(ApplicationEventPublisher.class);
+
+        propertyService = new PropertyService(propertyRepository, userRepository, imageRepository, favoriteRepository, listingCardRepository,
+                listingSearchEngine, listingAttributeIndex, TextAnalyzer.standard(),
+                new ListingSearchCache(0, TextAnalyzer.standard()), locationSuggester,
+                new Gazetteer(new ClassPathResource("geo/gazetteer.csv")), savedSearchService,
+                similarListings, imageAssetCleanup, eventPublisher);
         // inject the cloudinary mock via reflection (field is @Autowired)
         try {
             var field = PropertyService.class.getDeclaredField("cloudinaryService");
@@ -88,6 +138,36 @@ class PropertyServiceTest {
         return p;
     }
 
+    // Card rows as the repository projects them, read off the given entities
+    private List<PropertyCardView> cards(Property... properties) {
+        return Arrays.stream(properties)
+                .map(property -> PROJECTIONS.createProjection(PropertyCardView.class, property))
+                .toList();
+    }
+
+    private ListingCard buildListingCard(long id, String username) {
+        return ListingCard.builder()
+                .id(id)
+                .title("House " + id)
+                .location("Riga")
+                .locationLower("riga")
+                .price(100000.0)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.HOUSE)
+                .userId(1L)
+                .username(username)
+                .coverUrl("https://img/" + id + "/cover.jpg")
+                .imageCount(3)
+                .build();
+    }
+
+    // listing_card rows as the repository projects them
+    private List<ListingCardView> listingCards(ListingCard... rows) {
+        return Arrays.stream(rows)
+                .map(row -> PROJECTIONS.createProjection(ListingCardView.class, row))
+                .toList();
+    }
+
     private PropertyRequestDTO buildRequestDTO() {
         PropertyRequestDTO dto = new PropertyRequestDTO();
         dto.setTitle("Nice House");
@@ -178,9 +258,10 @@ class PropertyServiceTest {
         assertNotNull(result);
         verify(cloudinaryService).uploadFile(eq(file), eq("properties"));
 
-        org.mockito.ArgumentCaptor<Image> imageCaptor = org.mockito.ArgumentCaptor.forClass(Image.class);
-        verify(imageRepository).save(imageCaptor.capture());
-        Image capturedImage = imageCaptor.getValue();
+        org.mockito.ArgumentCaptor<List<Image>> imageCaptor = org.mockito.ArgumentCaptor.forClass(List.class);
+        verify(imageRepository).saveAll(imageCaptor.capture());
+        assertEquals(1, imageCaptor.getValue().size());
+        Image capturedImage = imageCaptor.getValue().get(0);
         assertEquals("http://img.url", capturedImage.getUrl());
         assertEquals("properties/img1", capturedImage.getPublic_id());
         assertEquals(saved, capturedImage.getProperty());
@@ -199,7 +280,7 @@ class PropertyServiceTest {
         propertyService.saveProperty(buildRequestDTO(), 1L, new org.springframework.web.multipart.MultipartFile[]{emptyFile});
 
         verifyNoInteractions(cloudinaryService);
-        verify(imageRepository, never()).save(any());
+        verify(imageRepository).saveAll(List.of());
     }
 
     @Test
@@ -217,6 +298,37 @@ class PropertyServiceTest {
         assertEquals(ModerationStatus.PENDING, result.getModerationStatus());
     }
 
+    @Test
+    @DisplayName("saveProperty places the listing from its location when no coordinates are given")
+    void saveProperty_ResolvesCoordinates_FromGazetteer() {
+        User user = buildUser(1L, "john");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(propertyRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        PropertyRequestDTO dto = buildRequestDTO();
+        dto.setLocation("Riga, Teika");
+        PropertyResponseDTO result = propertyService.saveProperty(dto, 1L, null);
+
+        assertEquals(56.9780, result.getLatitude(), 1e-9);
+        assertEquals(24.1820, result.getLongitude(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("saveProperty keeps coordinates given with the listing")
+    void saveProperty_KeepsGivenCoordinates() {
+        User user = buildUser(1L, "john");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(propertyRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        PropertyRequestDTO dto = buildRequestDTO();
+        dto.setLatitude(57.0);
+        dto.setLongitude(24.0);
+        PropertyResponseDTO result = propertyService.saveProperty(dto, 1L, null);
+
+        assertEquals(57.0, result.getLatitude());
+        assertEquals(24.0, result.getLongitude());
+    }
+
     // ── findById ──────────────────────────────────────────────────────────────
 
     @Test
@@ -265,23 +377,100 @@ class PropertyServiceTest {
     void deleteById_DeletesProperty_WhenExists() {
         User user = buildUser(1L, "john");
         Property property = buildProperty(1L, user);
-        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(propertyRepository.findByIdIn(List.of(1L))).thenReturn(List.of(property));
+        when(propertyRepository.deleteByIds(List.of(1L))).thenReturn(1);
 
         assertDoesNotThrow(() -> propertyService.deleteById(1L));
 
-        verify(favoriteRepository).deleteByProperty(property);
-        verify(propertyRepository).delete(property);
+        verify(favoriteRepository).deleteByPropertyIds(List.of(1L));
+        verify(savedSearchService).deleteMatches(List.of(1L));
+        verify(imageRepository).deleteByPropertyIds(List.of(1L));
+        verify(propertyRepository).deleteByIds(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("deleteById publishes a DELETED event without a listing snapshot")
+    void deleteById_PublishesDeletedEvent() {
+        User user = buildUser(1L, "john");
+        Property property = buildProperty(1L, user);
+        when(propertyRepository.findByIdIn(List.of(1L))).thenReturn(List.of(property));
+        when(propertyRepository.deleteByIds(List.of(1L))).thenReturn(1);
+
+        propertyService.deleteById(1L);
+
+        ArgumentCaptor<PropertyChangedEvent> captor = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(PropertyChangedEvent.Change.DELETED, captor.getValue().getChange());
+        assertEquals(1L, captor.getValue().getPropertyId());
+        assertNull(captor.getValue().getProperty());
     }
 
     @Test
     @DisplayName("deleteById throws RuntimeException when property not found")
     void deleteById_ThrowsException_WhenNotFound() {
-        when(propertyRepository.findById(1L)).thenReturn(Optional.empty());
+        when(propertyRepository.findByIdIn(List.of(1L))).thenReturn(List.of());
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> propertyService.deleteById(1L));
 
         assertTrue(ex.getMessage().contains("Property not found with id: 1"));
-        verify(propertyRepository, never()).delete(any(Property.class));
+        verify(propertyRepository, never()).deleteByIds(any());
+    }
+
+    // ── deleteByIds ───────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("deleteByIds deletes only the listings that exist, once each")
+    void deleteByIds_DeletesExistingListings_Once() {
+        User user = buildUser(1L, "john");
+        when(propertyRepository.findByIdIn(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(buildProperty(1L, user), buildProperty(3L, user)));
+        when(propertyRepository.deleteByIds(List.of(1L, 3L))).thenReturn(2);
+
+        int deleted = propertyService.deleteByIds(List.of(1L, 2L, 3L, 1L));
+
+        assertEquals(2, deleted);
+        verify(favoriteRepository).deleteByPropertyIds(List.of(1L, 3L));
+        verify(savedSearchService).deleteMatches(List.of(1L, 3L));
+        verify(imageRepository).deleteByPropertyIds(List.of(1L, 3L));
+        verify(eventPublisher, times(2)).publishEvent(any(PropertyChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("deleteByIds hands the Cloudinary assets of the listings to the cleanup queue")
+    void deleteByIds_QueuesImageAssets() {
+        User user = buildUser(1L, "john");
+        when(propertyRepository.findByIdIn(List.of(1L))).thenReturn(List.of(buildProperty(1L, user)));
+        when(imageRepository.findPublicIdsByPropertyIds(List.of(1L))).thenReturn(List.of("properties/a", "properties/b"));
+
+        propertyService.deleteByIds(List.of(1L));
+
+        verify(imageAssetCleanup).removeAfterCommit(List.of("properties/a", "properties/b"));
+        verify(cloudinaryService, never()).deleteFile(any());
+    }
+
+    @Test
+    @DisplayName("deleteByIds publishes each DELETED event with the listing as it was")
+    void deleteByIds_PublishesPreviousListing() {
+        User user = buildUser(1L, "john");
+        when(propertyRepository.findByIdIn(List.of(7L))).thenReturn(List.of(buildProperty(7L, user)));
+
+        propertyService.deleteByIds(List.of(7L));
+
+        ArgumentCaptor<PropertyChangedEvent> captor = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(7L, captor.getValue().getPropertyId());
+        assertEquals("House 7", captor.getValue().getPrevious().getTitle());
+    }
+
+    @Test
+    @DisplayName("deleteByIds touches nothing when none of the listings exist")
+    void deleteByIds_DoesNothing_WhenNoneExist() {
+        when(propertyRepository.findByIdIn(List.of(5L))).thenReturn(List.of());
+
+        assertEquals(0, propertyService.deleteByIds(List.of(5L)));
+
+        verifyNoInteractions(favoriteRepository, savedSearchService, imageAssetCleanup, eventPublisher);
+        verify(propertyRepository, never()).deleteByIds(any());
     }
 
     // ── updateProperty ────────────────────────────────────────────────────────
@@ -327,8 +516,8 @@ class PropertyServiceTest {
     }
 
     @Test
-    @DisplayName("updateProperty deletes images from Cloudinary for URLs in imageUrlsToDelete")
-    void updateProperty_DeletesImages_FromCloudinary() {
+    @DisplayName("updateProperty queues the Cloudinary assets of the images in imageUrlsToDelete")
+    void updateProperty_QueuesImageAssets_ForDeletedImages() {
         User user = buildUser(1L, "john");
         Property existing = buildProperty(1L, user);
         Image img = Image.builder().id(1L).url("http://img1.url").public_id("properties/img1").property(existing).build();
@@ -340,7 +529,8 @@ class PropertyServiceTest {
 
         propertyService.updateProperty(1L, buildRequestDTO(), null, List.of("http://img1.url"), false);
 
-        verify(cloudinaryService).deleteFile("properties/img1");
+        verify(imageAssetCleanup).removeAfterCommit(List.of("properties/img1"));
+        verify(cloudinaryService, never()).deleteFile(any());
         verify(imageRepository).delete(img);
     }
 
@@ -358,7 +548,8 @@ class PropertyServiceTest {
         propertyService.updateProperty(1L, buildRequestDTO(), new org.springframework.web.multipart.MultipartFile[]{file}, null, false);
 
         verify(cloudinaryService).uploadFile(eq(file), eq("properties"));
-        verify(imageRepository).save(any(Image.class));
+        verify(imageRepository).saveAll(argThat(images -> images.iterator().next().getUrl().equals("http://new.url")));
+        assertEquals(1, existing.getImages().size());
     }
 
     @Test
@@ -382,7 +573,7 @@ class PropertyServiceTest {
     @DisplayName("findAll returns DTOs for all properties")
     void findAll_ReturnsAllPropertyDTOs() {
         User user = buildUser(1L, "john");
-        when(propertyRepository.findAll()).thenReturn(List.of(buildProperty(1L, user), buildProperty(2L, user)));
+        when(propertyRepository.findCardsBy()).thenReturn(cards(buildProperty(1L, user), buildProperty(2L, user)));
 
         List<PropertyResponseDTO> result = propertyService.findAll();
 
@@ -392,7 +583,7 @@ class PropertyServiceTest {
     @Test
     @DisplayName("findAll returns empty list when no properties exist")
     void findAll_ReturnsEmptyList_WhenNoProperties() {
-        when(propertyRepository.findAll()).thenReturn(List.of());
+        when(propertyRepository.findCardsBy()).thenReturn(List.of());
 
         List<PropertyResponseDTO> result = propertyService.findAll();
 
@@ -402,84 +593,67 @@ class PropertyServiceTest {
     // ── findAllForAdmin ───────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("findAllForAdmin with valid moderationFilter returns filtered properties")
-    void findAllForAdmin_ReturnsFiltered_ByModerationStatus() {
+    @DisplayName("findAllForAdmin takes the total from the per-status counts instead of a COUNT query")
+    void findAllForAdmin_TotalFromStatusCounts_WhenFiltered() {
         User user = buildUser(1L, "john");
         Property pending = buildProperty(1L, user);
-        pending.setModerationStatus(ModerationStatus.PENDING);
+        when(listingAttributeIndex.isReady()).thenReturn(true);
+        when(listingAttributeIndex.count(argThat(f -> f.getModerationStatuses().equals(Set.of(ModerationStatus.PENDING)))))
+                .thenReturn(40);
+        when(propertyRepository.findBy(any(Specification.class), any()))
+                .thenReturn(new SliceImpl<>(cards(pending), PageRequest.of(0, 25), true));
 
-        when(propertyRepository.findByModerationStatus(ModerationStatus.PENDING))
-                .thenReturn(List.of(pending));
+        Page<PropertyResponseDTO> result = propertyService.findAllForAdmin("pending", null, null, 0, 25);
 
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin("PENDING");
-
-        assertEquals(1, result.size());
-        assertEquals(ModerationStatus.PENDING, result.get(0).getModerationStatus());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin with null filter returns all properties")
-    void findAllForAdmin_ReturnsAll_WhenFilterIsNull() {
-        User user = buildUser(1L, "john");
-        when(propertyRepository.findAll()).thenReturn(List.of(buildProperty(1L, user), buildProperty(2L, user)));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null);
-
-        assertEquals(2, result.size());
+        assertEquals(40, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        assertEquals(0, result.getNumber());
+        assertEquals(1L, result.getContent().get(0).getId());
+        verify(propertyRepository, never()).count(any(Specification.class));
+        verify(propertyRepository, never()).countByModerationStatus();
     }
 
     @Test
-    @DisplayName("findAllForAdmin with invalid moderationFilter falls back to all properties")
-    void findAllForAdmin_FallsBackToAll_WhenFilterInvalid() {
-        User user = buildUser(1L, "john");
-        when(propertyRepository.findAll()).thenReturn(List.of(buildProperty(1L, user)));
+    @DisplayName("findAllForAdmin without a valid filter totals every status")
+    void findAllForAdmin_TotalsEveryStatus_WhenFilterInvalid() {
+        when(listingAttributeIndex.isReady()).thenReturn(true);
+        when(listingAttributeIndex.count(any())).thenReturn(3);
+        when(propertyRepository.findBy(any(Specification.class), any()))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 25), false));
 
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin("INVALID");
+        Page<PropertyResponseDTO> result = propertyService.findAllForAdmin("INVALID", "title", "asc", 0, 25);
 
-        assertEquals(1, result.size());
-        verify(propertyRepository).findAll();
+        assertEquals(3L * ModerationStatus.values().length, result.getTotalElements());
     }
 
     @Test
-    @DisplayName("findAllForAdmin sorts by title ascending")
-    void findAllForAdmin_SortsByTitleAsc() {
-        User user = buildUser(1L, "john");
-        Property pB = buildProperty(1L, user); pB.setTitle("B house");
-        Property pA = buildProperty(2L, user); pA.setTitle("A house");
-        when(propertyRepository.findAll()).thenReturn(List.of(pB, pA));
+    @DisplayName("countByModerationStatus reads the attribute bitmaps once they are ready")
+    void countByModerationStatus_UsesAttributeIndex_WhenReady() {
+        when(listingAttributeIndex.isReady()).thenReturn(true);
+        when(listingAttributeIndex.count(any())).thenReturn(0);
+        when(listingAttributeIndex.count(argThat(f -> f.getModerationStatuses().equals(Set.of(ModerationStatus.APPROVED)))))
+                .thenReturn(7);
 
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "title", "asc");
+        Map<ModerationStatus, Long> counts = propertyService.countByModerationStatus();
 
-        assertEquals("A house", result.get(0).getTitle());
-        assertEquals("B house", result.get(1).getTitle());
+        assertEquals(7L, counts.get(ModerationStatus.APPROVED));
+        assertEquals(0L, counts.get(ModerationStatus.PENDING));
+        verify(propertyRepository, never()).countByModerationStatus();
     }
 
     @Test
-    @DisplayName("findAllForAdmin sorts by price descending")
-    void findAllForAdmin_SortsByPriceDesc() {
-        User user = buildUser(1L, "john");
-        Property cheap = buildProperty(1L, user); cheap.setPrice(50000.0);
-        Property expensive = buildProperty(2L, user); expensive.setPrice(200000.0);
-        when(propertyRepository.findAll()).thenReturn(List.of(cheap, expensive));
+    @DisplayName("countByModerationStatus falls back to one grouped query before the bitmaps are loaded")
+    void countByModerationStatus_GroupsInDatabase_WhenIndexNotReady() {
+        ModerationCountView rejected = mock(ModerationCountView.class);
+        when(rejected.getModerationStatus()).thenReturn(ModerationStatus.REJECTED);
+        when(rejected.getListings()).thenReturn(2L);
+        when(propertyRepository.countByModerationStatus()).thenReturn(List.of(rejected));
 
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "price", "desc");
+        Map<ModerationStatus, Long> counts = propertyService.countByModerationStatus();
 
-        assertEquals(200000.0, result.get(0).getPrice());
-        assertEquals(50000.0, result.get(1).getPrice());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin default sort puts PENDING properties first")
-    void findAllForAdmin_DefaultSort_PendingFirst() {
-        User user = buildUser(1L, "john");
-        Property approved = buildProperty(1L, user); approved.setModerationStatus(ModerationStatus.APPROVED);
-        Property pending  = buildProperty(2L, user); pending.setModerationStatus(ModerationStatus.PENDING);
-        when(propertyRepository.findAll()).thenReturn(List.of(approved, pending));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, null, null);
-
-        assertEquals(ModerationStatus.PENDING, result.get(0).getModerationStatus());
-        assertEquals(ModerationStatus.APPROVED, result.get(1).getModerationStatus());
+        assertEquals(2L, counts.get(ModerationStatus.REJECTED));
+        assertEquals(0L, counts.get(ModerationStatus.PENDING));
+        assertEquals(0L, counts.get(ModerationStatus.APPROVED));
     }
 
     // ── searchPropertiesWithFilterSortAndPagination ───────────────────────────
@@ -487,21 +661,27 @@ class PropertyServiceTest {
     @Test
     @DisplayName("searchProperties returns page of DTOs when properties match")
     void searchProperties_ReturnsPageOfDTOs_WhenMatch() {
-        User user = buildUser(1L, "john");
-        Page<Property> page = new PageImpl<>(List.of(buildProperty(1L, user)));
-        when(propertyRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+        Page<ListingCardView> page = new PageImpl<>(listingCards(buildListingCard(1L, "john")));
+        when(listingCardRepository.findBy(any(Specification.class), any())).thenReturn(page);
 
         Page<PropertyResponseDTO> result = propertyService.searchPropertiesWithFilterSortAndPagination(
                 new PropertyFilterRequestDTO(), Pageable.unpaged());
 
         assertEquals(1, result.getTotalElements());
-        assertEquals("House 1", result.getContent().get(0).getTitle());
+        PropertyResponseDTO card = result.getContent().get(0);
+        assertEquals("House 1", card.getTitle());
+        assertEquals("john", card.getUsername());
+        assertArrayEquals(new String[]{"https://img/1/cover.jpg"}, card.getImages());
+        assertEquals(3, card.getImageCount());
+        assertEquals(ModerationStatus.APPROVED, card.getModerationStatus());
+        verifyNoInteractions(imageRepository);
+        verify(propertyRepository, never()).findBy(any(Specification.class), any());
     }
 
     @Test
     @DisplayName("searchProperties returns empty page when no properties match")
     void searchProperties_ReturnsEmptyPage_WhenNoMatch() {
-        when(propertyRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty());
+        when(listingCardRepository.findBy(any(Specification.class), any())).thenReturn(Page.empty());
 
         Page<PropertyResponseDTO> result = propertyService.searchPropertiesWithFilterSortAndPagination(
                 new PropertyFilterRequestDTO(), Pageable.unpaged());
@@ -524,93 +704,148 @@ class PropertyServiceTest {
         filter.setPropertyType(PropertyType.APARTMENTS);
         filter.setStatus("available");
 
-        User user = buildUser(1L, "john");
-        Page<Property> page = new PageImpl<>(List.of(buildProperty(1L, user)));
-        when(propertyRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+        Page<ListingCardView> page = new PageImpl<>(listingCards(buildListingCard(1L, "john")));
+        when(listingCardRepository.findBy(any(Specification.class), any())).thenReturn(page);
 
         Page<PropertyResponseDTO> result = propertyService.searchPropertiesWithFilterSortAndPagination(
                 filter, Pageable.unpaged());
 
         assertEquals(1, result.getTotalElements());
-        verify(propertyRepository).findAll(any(Specification.class), any(Pageable.class));
+        verify(listingCardRepository).findBy(any(Specification.class), any());
     }
 
-    // ── getPropertiesByUserId ─────────────────────────────────────────────────
+    @Test
+    @DisplayName("searchProperties is answered by the search engine once it is ready")
+    void searchProperties_UsesSearchEngine_WhenReady() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        Page<PropertyResponseDTO> page = new PageImpl<>(List.of(new PropertyResponseDTO()));
+        when(listingSearchEngine.isReady()).thenReturn(true);
+        when(listingSearchEngine.supports(any(Pageable.class))).thenReturn(true);
+        when(listingSearchEngine.search(filter, Pageable.unpaged())).thenReturn(page);
+
+        Page<PropertyResponseDTO> result = propertyService.searchPropertiesWithFilterSortAndPagination(
+                filter, Pageable.unpaged());
+
+        assertSame(page, result);
+        verify(listingCardRepository, never()).findBy(any(Specification.class), any());
+    }
 
     @Test
-    @DisplayName("getPropertiesByUserId returns list of DTOs for a given user")
-    void getPropertiesByUserId_ReturnsDTOs() {
+    @DisplayName("searchProperties falls back to the database for sorts the engine does not support")
+    void searchProperties_FallsBackToDatabase_WhenSortUnsupported() {
+        when(listingSearchEngine.isReady()).thenReturn(true);
+        when(listingSearchEngine.supports(any(Pageable.class))).thenReturn(false);
+        when(listingCardRepository.findBy(any(Specification.class), any())).thenReturn(Page.empty());
+
+        propertyService.searchPropertiesWithFilterSortAndPagination(new PropertyFilterRequestDTO(), Pageable.unpaged());
+
+        verify(listingSearchEngine, never()).search(any(), any());
+        verify(listingCardRepository).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    @DisplayName("getListingFacets is answered by the search engine once it is ready")
+    void getListingFacets_UsesSearchEngine_WhenReady() {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        ListingFacetsDTO facets = ListingFacetsDTO.builder().total(3).build();
+        when(listingSearchEngine.isReady()).thenReturn(true);
+        when(listingSearchEngine.facets(filter)).thenReturn(facets);
+
+        assertSame(facets, propertyService.getListingFacets(filter));
+        verify(listingCardRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    // ── rebuildSearchIndex ────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("rebuildSearchIndex loads approved listings into the search engine")
+    void rebuildSearchIndex_LoadsApprovedListings() {
         User user = buildUser(1L, "john");
-        when(propertyRepository.findByUserId(1L))
-                .thenReturn(List.of(buildProperty(1L, user), buildProperty(2L, user)));
+        Property approved = buildProperty(1L, user);
+        approved.setModerationStatus(ModerationStatus.APPROVED);
+        when(propertyRepository.findByModerationStatus(ModerationStatus.APPROVED)).thenReturn(List.of(approved));
 
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L);
+        propertyService.rebuildSearchIndex();
 
-        assertEquals(2, result.size());
+        ArgumentCaptor<List<PropertyResponseDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(listingSearchEngine).rebuild(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(1L, captor.getValue().get(0).getId());
     }
 
     @Test
-    @DisplayName("getPropertiesByUserId returns empty list when user has no properties")
-    void getPropertiesByUserId_ReturnsEmptyList_WhenNoProperties() {
-        when(propertyRepository.findByUserId(99L)).thenReturn(List.of());
+    @DisplayName("rebuildSearchIndex loads every listing into the attribute bitmaps")
+    void rebuildSearchIndex_LoadsAttributeIndex() {
+        List<PropertyAttributeView> rows = List.of(mock(PropertyAttributeView.class));
+        when(propertyRepository.findAllProjectedBy()).thenReturn(rows);
 
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(99L);
+        propertyService.rebuildSearchIndex();
 
-        assertTrue(result.isEmpty());
+        verify(listingAttributeIndex).rebuild(rows);
     }
 
     @Test
-    @DisplayName("getPropertiesByUserId with moderationFilter keeps only matching status")
-    void getPropertiesByUserId_FiltersByModerationStatus() {
+    @DisplayName("rebuildSearchIndex loads approved listings into the similar listings index")
+    void rebuildSearchIndex_LoadsSimilarListings() {
         User user = buildUser(1L, "john");
-        Property approved = buildProperty(1L, user); approved.setModerationStatus(ModerationStatus.APPROVED);
-        Property pending  = buildProperty(2L, user); pending.setModerationStatus(ModerationStatus.PENDING);
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(approved, pending));
+        Property approved = buildProperty(1L, user);
+        approved.setModerationStatus(ModerationStatus.APPROVED);
+        when(propertyRepository.findByModerationStatus(ModerationStatus.APPROVED)).thenReturn(List.of(approved));
 
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, null, null, "APPROVED");
+        propertyService.rebuildSearchIndex();
 
-        assertEquals(1, result.size());
-        assertEquals(ModerationStatus.APPROVED, result.get(0).getModerationStatus());
+        verify(similarListings).rebuild(argThat(listings -> listings.size() == 1));
     }
 
     @Test
-    @DisplayName("getPropertiesByUserId with invalid moderationFilter returns all properties")
-    void getPropertiesByUserId_ReturnsAll_WhenModerationFilterInvalid() {
+    @DisplayName("backfillCoordinates places the listings whose location is known")
+    void backfillCoordinates_PlacesKnownLocations() {
         User user = buildUser(1L, "john");
-        when(propertyRepository.findByUserId(1L))
-                .thenReturn(List.of(buildProperty(1L, user), buildProperty(2L, user)));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, null, null, "NONSENSE");
+        Property known = buildProperty(1L, user);
+        Property unknown = buildProperty(2L, user);
+        unknown.setLocation("Atlantis");
+        when(propertyRepository.findByLatitudeIsNull()).thenReturn(List.of(known, unknown));
 
-        assertEquals(2, result.size());
+        assertEquals(1, propertyService.backfillCoordinates());
+        assertEquals(56.9496, known.getLatitude(), 1e-9);
+        assertNull(unknown.getLatitude());
     }
 
+    // ── getPropertiesByUserId ─────────────────────────────────────────────────
+
     @Test
-    @DisplayName("getPropertiesByUserId sorts by title ascending")
-    void getPropertiesByUserId_SortsByTitleAsc() {
+    @DisplayName("getPropertiesByUserId paged takes the total from the owner's per-status counts")
+    void getPropertiesByUserId_Paged_TotalFromOwnerCounts() {
         User user = buildUser(1L, "john");
-        Property pZ = buildProperty(1L, user); pZ.setTitle("Z house");
-        Property pA = buildProperty(2L, user); pA.setTitle("A house");
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pZ, pA));
+        ModerationCountView approved = mock(ModerationCountView.class);
+        when(approved.getModerationStatus()).thenReturn(ModerationStatus.APPROVED);
+        when(approved.getListings()).thenReturn(30L);
+        ModerationCountView pending = mock(ModerationCountView.class);
+        when(pending.getModerationStatus()).thenReturn(ModerationStatus.PENDING);
+        when(pending.getListings()).thenReturn(4L);
+        when(propertyRepository.countByModerationStatusForUser(1L)).thenReturn(List.of(approved, pending));
+        when(propertyRepository.findBy(any(Specification.class), any()))
+                .thenReturn(new SliceImpl<>(cards(buildProperty(1L, user)), PageRequest.of(0, 25), true));
 
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "title", "asc");
+        Page<PropertyResponseDTO> filtered = propertyService.getPropertiesByUserId(1L, "title", "asc", "approved", 0, 25);
+        Page<PropertyResponseDTO> all = propertyService.getPropertiesByUserId(1L, null, null, null, 0, 25);
 
-        assertEquals("A house", result.get(0).getTitle());
-        assertEquals("Z house", result.get(1).getTitle());
+        assertEquals(30, filtered.getTotalElements());
+        assertEquals(2, filtered.getTotalPages());
+        assertEquals(34, all.getTotalElements());
+        verify(propertyRepository, never()).count(any(Specification.class));
     }
 
     @Test
-    @DisplayName("getPropertiesByUserId sorts by price descending")
-    void getPropertiesByUserId_SortsByPriceDesc() {
-        User user = buildUser(1L, "john");
-        Property cheap     = buildProperty(1L, user); cheap.setPrice(30000.0);
-        Property expensive = buildProperty(2L, user); expensive.setPrice(500000.0);
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(cheap, expensive));
+    @DisplayName("countByModerationStatus for an owner reports zero for statuses the owner has none of")
+    void countByModerationStatus_ForOwner_ZeroForMissingStatuses() {
+        when(propertyRepository.countByModerationStatusForUser(2L)).thenReturn(List.of());
 
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "price", "desc");
+        Map<ModerationStatus, Long> counts = propertyService.countByModerationStatus(2L);
 
-        assertEquals(500000.0, result.get(0).getPrice());
-        assertEquals(30000.0, result.get(1).getPrice());
+        assertEquals(ModerationStatus.values().length, counts.size());
+        assertTrue(counts.values().stream().allMatch(count -> count == 0L));
+        verify(listingAttributeIndex, never()).count(any());
     }
 
     // ── approveProperty ───────────────────────────────────────────────────────
@@ -629,6 +864,36 @@ class PropertyServiceTest {
         verify(propertyRepository).save(property);
     }
 
+    @Test
+    @DisplayName("approveProperty publishes an APPROVED event carrying the new DTO")
+    void approveProperty_PublishesApprovedEvent() {
+        User user = buildUser(1L, "john");
+        Property property = buildProperty(1L, user);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(propertyRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        PropertyResponseDTO result = propertyService.approveProperty(1L);
+
+        ArgumentCaptor<PropertyChangedEvent> captor = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(PropertyChangedEvent.Change.APPROVED, captor.getValue().getChange());
+        assertSame(result, captor.getValue().getProperty());
+    }
+
+    @Test
+    @DisplayName("approveProperty percolates saved searches when the listing first goes live")
+    void approveProperty_RecordsSavedSearchMatches_OnFirstApproval() {
+        User user = buildUser(1L, "john");
+        Property property = buildProperty(1L, user);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(propertyRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        PropertyResponseDTO result = propertyService.approveProperty(1L);
+        propertyService.approveProperty(1L);
+
+        verify(savedSearchService, times(1)).recordMatches(property, result);
+    }
+
     @Test
     @DisplayName("approveProperty throws RuntimeException when property not found")
     void approveProperty_ThrowsException_WhenNotFound() {
@@ -667,33 +932,6 @@ class PropertyServiceTest {
         assertTrue(ex.getMessage().contains("Property not found with id: 99"));
     }
 
-    // ── findPendingProperties ─────────────────────────────────────────────────
-
-    @Test
-    @DisplayName("findPendingProperties returns only PENDING properties")
-    void findPendingProperties_ReturnsPendingProperties() {
-        User user = buildUser(1L, "john");
-        Property pending = buildProperty(1L, user);
-        pending.setModerationStatus(ModerationStatus.PENDING);
-        when(propertyRepository.findByModerationStatus(ModerationStatus.PENDING))
-                .thenReturn(List.of(pending));
-
-        List<PropertyResponseDTO> result = propertyService.findPendingProperties();
-
-        assertEquals(1, result.size());
-        assertEquals(ModerationStatus.PENDING, result.get(0).getModerationStatus());
-    }
-
-    @Test
-    @DisplayName("findPendingProperties returns empty list when no pending properties")
-    void findPendingProperties_ReturnsEmpty_WhenNoPending() {
-        when(propertyRepository.findByModerationStatus(ModerationStatus.PENDING)).thenReturn(List.of());
-
-        List<PropertyResponseDTO> result = propertyService.findPendingProperties();
-
-        assertTrue(result.isEmpty());
-    }
-
     // ── toggleFeatured ────────────────────────────────────────────────────────
 
     @Test
@@ -827,207 +1065,7 @@ class PropertyServiceTest {
                 new org.springframework.web.multipart.MultipartFile[]{emptyFile}, null, false);
 
         verifyNoInteractions(cloudinaryService);
-        verify(imageRepository, never()).save(any());
-    }
-
-    // ── findAllForAdmin — remaining sort cases ────────────────────────────────
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by id ascending")
-    void findAllForAdmin_SortsByIdAsc() {
-        User user = buildUser(1L, "john");
-        Property p5 = buildProperty(5L, user);
-        Property p1 = buildProperty(1L, user);
-        when(propertyRepository.findAll()).thenReturn(List.of(p5, p1));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "id", "asc");
-
-        assertEquals(1L, result.get(0).getId());
-        assertEquals(5L, result.get(1).getId());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by owner ascending")
-    void findAllForAdmin_SortsByOwnerAsc() {
-        User john = buildUser(1L, "john");
-        User alice = buildUser(2L, "alice");
-        Property pJ = buildProperty(1L, john);
-        Property pA = buildProperty(2L, alice);
-        when(propertyRepository.findAll()).thenReturn(List.of(pJ, pA));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "owner", "asc");
-
-        assertEquals("alice", result.get(0).getUsername());
-        assertEquals("john",  result.get(1).getUsername());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by location ascending")
-    void findAllForAdmin_SortsByLocationAsc() {
-        User user = buildUser(1L, "john");
-        Property pZ = buildProperty(1L, user); pZ.setLocation("Ventspils");
-        Property pA = buildProperty(2L, user); pA.setLocation("Riga");
-        when(propertyRepository.findAll()).thenReturn(List.of(pZ, pA));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "location", "asc");
-
-        assertEquals("Riga",      result.get(0).getLocation());
-        assertEquals("Ventspils", result.get(1).getLocation());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by status ascending")
-    void findAllForAdmin_SortsByStatusAsc() {
-        User user = buildUser(1L, "john");
-        Property pSold = buildProperty(1L, user); pSold.setStatus("sold");
-        Property pAvail = buildProperty(2L, user); pAvail.setStatus("available");
-        when(propertyRepository.findAll()).thenReturn(List.of(pSold, pAvail));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "status", "asc");
-
-        assertEquals("available", result.get(0).getStatus());
-        assertEquals("sold",      result.get(1).getStatus());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by createdAt ascending")
-    void findAllForAdmin_SortsByCreatedAtAsc() {
-        User user = buildUser(1L, "john");
-        Property pOld = buildProperty(1L, user); pOld.setCreatedAt(LocalDateTime.now().minusDays(5));
-        Property pNew = buildProperty(2L, user); pNew.setCreatedAt(LocalDateTime.now());
-        when(propertyRepository.findAll()).thenReturn(List.of(pNew, pOld));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "createdAt", "asc");
-
-        assertTrue(result.get(0).getCreatedAt().isBefore(result.get(1).getCreatedAt()));
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by featured descending (featured first)")
-    void findAllForAdmin_SortsByFeaturedDesc() {
-        User user = buildUser(1L, "john");
-        Property pNotFeatured = buildProperty(1L, user); pNotFeatured.setFeatured(false);
-        Property pFeatured    = buildProperty(2L, user); pFeatured.setFeatured(true);
-        when(propertyRepository.findAll()).thenReturn(List.of(pNotFeatured, pFeatured));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "featured", "asc");
-
-        assertTrue(result.get(0).isFeatured());
-        assertFalse(result.get(1).isFeatured());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin with unknown sort field keeps original order")
-    void findAllForAdmin_UnknownSortField_KeepsOrder() {
-        User user = buildUser(1L, "john");
-        Property p1 = buildProperty(1L, user); p1.setTitle("First");
-        Property p2 = buildProperty(2L, user); p2.setTitle("Second");
-        when(propertyRepository.findAll()).thenReturn(List.of(p1, p2));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "unknown", "asc");
-
-        assertEquals("First",  result.get(0).getTitle());
-        assertEquals("Second", result.get(1).getTitle());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin with blank moderationFilter returns all properties")
-    void findAllForAdmin_ReturnsAll_WhenFilterIsBlank() {
-        User user = buildUser(1L, "john");
-        when(propertyRepository.findAll()).thenReturn(List.of(buildProperty(1L, user)));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin("   ");
-
-        assertEquals(1, result.size());
-        verify(propertyRepository).findAll();
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin default sort puts REJECTED last")
-    void findAllForAdmin_DefaultSort_RejectedLast() {
-        User user = buildUser(1L, "john");
-        Property rejected = buildProperty(1L, user); rejected.setModerationStatus(ModerationStatus.REJECTED);
-        Property pending  = buildProperty(2L, user); pending.setModerationStatus(ModerationStatus.PENDING);
-        Property approved = buildProperty(3L, user); approved.setModerationStatus(ModerationStatus.APPROVED);
-        when(propertyRepository.findAll()).thenReturn(List.of(rejected, approved, pending));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, null, null);
-
-        assertEquals(ModerationStatus.PENDING,  result.get(0).getModerationStatus());
-        assertEquals(ModerationStatus.APPROVED, result.get(1).getModerationStatus());
-        assertEquals(ModerationStatus.REJECTED, result.get(2).getModerationStatus());
-    }
-
-    // ── getPropertiesByUserId — remaining sort cases ──────────────────────────
-
-    @Test
-    @DisplayName("getPropertiesByUserId sorts by status ascending")
-    void getPropertiesByUserId_SortsByStatusAsc() {
-        User user = buildUser(1L, "john");
-        Property pSold  = buildProperty(1L, user); pSold.setStatus("sold");
-        Property pAvail = buildProperty(2L, user); pAvail.setStatus("available");
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pSold, pAvail));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "status", "asc");
-
-        assertEquals("available", result.get(0).getStatus());
-        assertEquals("sold",      result.get(1).getStatus());
-    }
-
-    @Test
-    @DisplayName("getPropertiesByUserId sorts by createdAt ascending")
-    void getPropertiesByUserId_SortsByCreatedAtAsc() {
-        User user = buildUser(1L, "john");
-        Property pOld = buildProperty(1L, user); pOld.setCreatedAt(LocalDateTime.now().minusDays(3));
-        Property pNew = buildProperty(2L, user); pNew.setCreatedAt(LocalDateTime.now());
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pNew, pOld));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "createdAt", "asc");
-
-        assertTrue(result.get(0).getCreatedAt().isBefore(result.get(1).getCreatedAt()));
-    }
-
-    @Test
-    @DisplayName("getPropertiesByUserId with unknown sort field keeps original order")
-    void getPropertiesByUserId_UnknownSortField_KeepsOrder() {
-        User user = buildUser(1L, "john");
-        Property p1 = buildProperty(1L, user); p1.setTitle("Alpha");
-        Property p2 = buildProperty(2L, user); p2.setTitle("Beta");
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(p1, p2));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "unknown", "asc");
-
-        assertEquals("Alpha", result.get(0).getTitle());
-        assertEquals("Beta",  result.get(1).getTitle());
-    }
-
-    @Test
-    @DisplayName("getPropertiesByUserId with blank moderationFilter returns all properties")
-    void getPropertiesByUserId_ReturnsAll_WhenModerationFilterIsBlank() {
-        User user = buildUser(1L, "john");
-        when(propertyRepository.findByUserId(1L))
-                .thenReturn(List.of(buildProperty(1L, user), buildProperty(2L, user)));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, null, null, "   ");
-
-        assertEquals(2, result.size());
-    }
-
-    // ── findAllForAdmin — APPROVED filter ─────────────────────────────────────
-
-    @Test
-    @DisplayName("findAllForAdmin with APPROVED filter returns only approved properties")
-    void findAllForAdmin_ReturnsFiltered_ByApprovedStatus() {
-        User user = buildUser(1L, "john");
-        Property approved = buildProperty(1L, user);
-        approved.setModerationStatus(ModerationStatus.APPROVED);
-        when(propertyRepository.findByModerationStatus(ModerationStatus.APPROVED))
-                .thenReturn(List.of(approved));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin("APPROVED");
-
-        assertEquals(1, result.size());
-        assertEquals(ModerationStatus.APPROVED, result.get(0).getModerationStatus());
+        verify(imageRepository).saveAll(List.of());
     }
 
     // ── findAllForAdmin ── findFeatured ──────────────────────────────────────
@@ -1035,10 +1073,9 @@ class PropertyServiceTest {
     @Test
     @DisplayName("findFeatured returns only featured properties")
     void findFeatured_ReturnsFeaturedProperties() {
-        User user = buildUser(1L, "john");
-        Property featured = buildProperty(1L, user);
+        ListingCard featured = buildListingCard(1L, "john");
         featured.setFeatured(true);
-        when(propertyRepository.findByFeaturedTrue()).thenReturn(List.of(featured));
+        when(listingCardRepository.findByFeaturedTrueOrderByIdAsc()).thenReturn(listingCards(featured));
 
         List<PropertyResponseDTO> result = propertyService.findFeatured();
 
@@ -1049,13 +1086,26 @@ class PropertyServiceTest {
     @Test
     @DisplayName("findFeatured returns empty list when no featured properties")
     void findFeatured_ReturnsEmpty_WhenNoneFeatured() {
-        when(propertyRepository.findByFeaturedTrue()).thenReturn(List.of());
+        when(listingCardRepository.findByFeaturedTrueOrderByIdAsc()).thenReturn(List.of());
 
         List<PropertyResponseDTO> result = propertyService.findFeatured();
 
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    @DisplayName("findFeatured reads listing_card alone, without the attribute bitmaps or the listings")
+    void findFeatured_ReadsListingCardsOnly() {
+        when(listingAttributeIndex.isReady()).thenReturn(true);
+        when(listingCardRepository.findByFeaturedTrueOrderByIdAsc()).thenReturn(listingCards(buildListingCard(3L, "john")));
+
+        List<PropertyResponseDTO> result = propertyService.findFeatured();
+
+        assertEquals(List.of(3L), result.stream().map(PropertyResponseDTO::getId).toList());
+        verify(listingAttributeIndex, never()).ids(any());
+        verifyNoInteractions(propertyRepository, imageRepository);
+    }
+
     // ── updateProperty — empty (non-null) imageUrlsToDelete list ─────────────
 
     @Test
@@ -1073,469 +1123,6 @@ class PropertyServiceTest {
         verify(imageRepository, never()).delete(any());
     }
 
-    // ── findAllForAdmin — blank (non-null) sortField keeps default sort ───────
-
-    @Test
-    @DisplayName("findAllForAdmin with blank sortField uses default sort")
-    void findAllForAdmin_BlankSortField_UsesDefaultSort() {
-        User user = buildUser(1L, "john");
-        Property approved = buildProperty(1L, user); approved.setModerationStatus(ModerationStatus.APPROVED);
-        Property pending  = buildProperty(2L, user); pending.setModerationStatus(ModerationStatus.PENDING);
-        when(propertyRepository.findAll()).thenReturn(List.of(approved, pending));
-
-        // "   " is non-null but blank — covers the !sortField.isBlank() == false branch
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "   ", "asc");
-
-        assertEquals(ModerationStatus.PENDING,  result.get(0).getModerationStatus());
-        assertEquals(ModerationStatus.APPROVED, result.get(1).getModerationStatus());
-    }
-
-    // ── getPropertiesByUserId — blank (non-null) sortField keeps order ────────
-
-    @Test
-    @DisplayName("getPropertiesByUserId with blank sortField keeps original order")
-    void getPropertiesByUserId_BlankSortField_KeepsOrder() {
-        User user = buildUser(1L, "john");
-        Property p1 = buildProperty(1L, user); p1.setTitle("Alpha");
-        Property p2 = buildProperty(2L, user); p2.setTitle("Beta");
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(p1, p2));
-
-        // "   " is non-null but blank — covers the !sortField.isBlank() == false branch
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "   ", "asc");
-
-        assertEquals("Alpha", result.get(0).getTitle());
-        assertEquals("Beta",  result.get(1).getTitle());
-    }
-
-    // ── findAllForAdmin — null-fallback branches in sort comparators ──────────
-
-    @Test
-    @DisplayName("findAllForAdmin sort by id falls back to 0 when id is null")
-    void findAllForAdmin_SortById_NullIdFallsBackToZero() {
-        User user = buildUser(1L, "john");
-        Property pWithId    = buildProperty(5L, user);
-        Property pNullId    = buildProperty(1L, user); pNullId.setId(null);
-        when(propertyRepository.findAll()).thenReturn(List.of(pWithId, pNullId));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "id", "asc");
-
-        // null id treated as 0, so null-id property should come first
-        assertNull(result.get(0).getId());
-        assertEquals(5L, result.get(1).getId());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sort by title falls back to empty string when title is null")
-    void findAllForAdmin_SortByTitle_NullTitleFallsBackToEmpty() {
-        User user = buildUser(1L, "john");
-        Property pNullTitle = buildProperty(1L, user); pNullTitle.setTitle(null);
-        Property pWithTitle = buildProperty(2L, user); pWithTitle.setTitle("Z house");
-        when(propertyRepository.findAll()).thenReturn(List.of(pWithTitle, pNullTitle));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "title", "asc");
-
-        assertNull(result.get(0).getTitle());
-        assertEquals("Z house", result.get(1).getTitle());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sort by owner falls back to empty string when username is null")
-    void findAllForAdmin_SortByOwner_NullUsernameFallsBackToEmpty() {
-        User userNull = buildUser(1L, null);
-        User userJohn = buildUser(2L, "john");
-        Property pNull = buildProperty(1L, userNull);
-        Property pJohn = buildProperty(2L, userJohn);
-        when(propertyRepository.findAll()).thenReturn(List.of(pJohn, pNull));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "owner", "asc");
-
-        assertNull(result.get(0).getUsername());
-        assertEquals("john", result.get(1).getUsername());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sort by price falls back to 0.0 when price is null")
-    void findAllForAdmin_SortByPrice_NullPriceFallsBackToZero() {
-        User user = buildUser(1L, "john");
-        Property pNullPrice = buildProperty(1L, user); pNullPrice.setPrice(null);
-        Property pWithPrice = buildProperty(2L, user); pWithPrice.setPrice(500.0);
-        when(propertyRepository.findAll()).thenReturn(List.of(pWithPrice, pNullPrice));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "price", "asc");
-
-        assertNull(result.get(0).getPrice());
-        assertEquals(500.0, result.get(1).getPrice());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sort by location falls back to empty string when location is null")
-    void findAllForAdmin_SortByLocation_NullLocationFallsBackToEmpty() {
-        User user = buildUser(1L, "john");
-        Property pNullLoc = buildProperty(1L, user); pNullLoc.setLocation(null);
-        Property pWithLoc = buildProperty(2L, user); pWithLoc.setLocation("Riga");
-        when(propertyRepository.findAll()).thenReturn(List.of(pWithLoc, pNullLoc));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "location", "asc");
-
-        assertNull(result.get(0).getLocation());
-        assertEquals("Riga", result.get(1).getLocation());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sort by status falls back to empty string when status is null")
-    void findAllForAdmin_SortByStatus_NullStatusFallsBackToEmpty() {
-        User user = buildUser(1L, "john");
-        Property pNullStatus = buildProperty(1L, user); pNullStatus.setStatus(null);
-        Property pWithStatus = buildProperty(2L, user); pWithStatus.setStatus("available");
-        when(propertyRepository.findAll()).thenReturn(List.of(pWithStatus, pNullStatus));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "status", "asc");
-
-        assertNull(result.get(0).getStatus());
-        assertEquals("available", result.get(1).getStatus());
-    }
-
-    // ── getPropertiesByUserId — null-fallback branches in sort comparators ────
-
-    @Test
-    @DisplayName("getPropertiesByUserId sort by title falls back to empty string when title is null")
-    void getPropertiesByUserId_SortByTitle_NullTitleFallsBackToEmpty() {
-        User user = buildUser(1L, "john");
-        Property pNullTitle = buildProperty(1L, user); pNullTitle.setTitle(null);
-        Property pWithTitle = buildProperty(2L, user); pWithTitle.setTitle("Z house");
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pWithTitle, pNullTitle));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "title", "asc");
-
-        assertNull(result.get(0).getTitle());
-        assertEquals("Z house", result.get(1).getTitle());
-    }
-
-    @Test
-    @DisplayName("getPropertiesByUserId sort by price falls back to 0.0 when price is null")
-    void getPropertiesByUserId_SortByPrice_NullPriceFallsBackToZero() {
-        User user = buildUser(1L, "john");
-        Property pNullPrice = buildProperty(1L, user); pNullPrice.setPrice(null);
-        Property pWithPrice = buildProperty(2L, user); pWithPrice.setPrice(500.0);
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pWithPrice, pNullPrice));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "price", "asc");
-
-        assertNull(result.get(0).getPrice());
-        assertEquals(500.0, result.get(1).getPrice());
-    }
-
-    @Test
-    @DisplayName("getPropertiesByUserId sort by status falls back to empty string when status is null")
-    void getPropertiesByUserId_SortByStatus_NullStatusFallsBackToEmpty() {
-        User user = buildUser(1L, "john");
-        Property pNullStatus = buildProperty(1L, user); pNullStatus.setStatus(null);
-        Property pWithStatus = buildProperty(2L, user); pWithStatus.setStatus("available");
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pWithStatus, pNullStatus));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "status", "asc");
-
-        assertNull(result.get(0).getStatus());
-        assertEquals("available", result.get(1).getStatus());
-    }
-
-    // ── findAllForAdmin — desc sort for every sort field ─────────────────────
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by id descending")
-    void findAllForAdmin_SortsByIdDesc() {
-        User user = buildUser(1L, "john");
-        Property p1 = buildProperty(1L, user);
-        Property p5 = buildProperty(5L, user);
-        when(propertyRepository.findAll()).thenReturn(List.of(p1, p5));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "id", "desc");
-
-        assertEquals(5L, result.get(0).getId());
-        assertEquals(1L, result.get(1).getId());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by title descending")
-    void findAllForAdmin_SortsByTitleDesc() {
-        User user = buildUser(1L, "john");
-        Property pA = buildProperty(1L, user); pA.setTitle("A house");
-        Property pZ = buildProperty(2L, user); pZ.setTitle("Z house");
-        when(propertyRepository.findAll()).thenReturn(List.of(pA, pZ));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "title", "desc");
-
-        assertEquals("Z house", result.get(0).getTitle());
-        assertEquals("A house", result.get(1).getTitle());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by owner descending")
-    void findAllForAdmin_SortsByOwnerDesc() {
-        User alice = buildUser(1L, "alice");
-        User john  = buildUser(2L, "john");
-        Property pA = buildProperty(1L, alice);
-        Property pJ = buildProperty(2L, john);
-        when(propertyRepository.findAll()).thenReturn(List.of(pA, pJ));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "owner", "desc");
-
-        assertEquals("john",  result.get(0).getUsername());
-        assertEquals("alice", result.get(1).getUsername());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by price ascending")
-    void findAllForAdmin_SortsByPriceAsc() {
-        User user = buildUser(1L, "john");
-        Property cheap     = buildProperty(1L, user); cheap.setPrice(50000.0);
-        Property expensive = buildProperty(2L, user); expensive.setPrice(200000.0);
-        when(propertyRepository.findAll()).thenReturn(List.of(expensive, cheap));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "price", "asc");
-
-        assertEquals(50000.0,  result.get(0).getPrice());
-        assertEquals(200000.0, result.get(1).getPrice());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by location descending")
-    void findAllForAdmin_SortsByLocationDesc() {
-        User user = buildUser(1L, "john");
-        Property pR = buildProperty(1L, user); pR.setLocation("Riga");
-        Property pV = buildProperty(2L, user); pV.setLocation("Ventspils");
-        when(propertyRepository.findAll()).thenReturn(List.of(pR, pV));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "location", "desc");
-
-        assertEquals("Ventspils", result.get(0).getLocation());
-        assertEquals("Riga",      result.get(1).getLocation());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by status descending")
-    void findAllForAdmin_SortsByStatusDesc() {
-        User user = buildUser(1L, "john");
-        Property pAvail = buildProperty(1L, user); pAvail.setStatus("available");
-        Property pSold  = buildProperty(2L, user); pSold.setStatus("sold");
-        when(propertyRepository.findAll()).thenReturn(List.of(pAvail, pSold));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "status", "desc");
-
-        assertEquals("sold",      result.get(0).getStatus());
-        assertEquals("available", result.get(1).getStatus());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by createdAt descending")
-    void findAllForAdmin_SortsByCreatedAtDesc() {
-        User user = buildUser(1L, "john");
-        Property pOld = buildProperty(1L, user); pOld.setCreatedAt(LocalDateTime.now().minusDays(5));
-        Property pNew = buildProperty(2L, user); pNew.setCreatedAt(LocalDateTime.now());
-        when(propertyRepository.findAll()).thenReturn(List.of(pOld, pNew));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "createdAt", "desc");
-
-        assertTrue(result.get(0).getCreatedAt().isAfter(result.get(1).getCreatedAt()));
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by createdAt with null value — nullsLast branch")
-    void findAllForAdmin_SortsByCreatedAt_NullsLast() {
-        User user = buildUser(1L, "john");
-        Property pNull = buildProperty(1L, user); pNull.setCreatedAt(null);
-        Property pWith = buildProperty(2L, user); pWith.setCreatedAt(LocalDateTime.now());
-        when(propertyRepository.findAll()).thenReturn(List.of(pNull, pWith));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "createdAt", "asc");
-
-        // nullsLast: the non-null item should come first
-        assertNotNull(result.get(0).getCreatedAt());
-        assertNull(result.get(1).getCreatedAt());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin sorts by featured ascending (non-featured first)")
-    void findAllForAdmin_SortsByFeaturedAsc() {
-        User user = buildUser(1L, "john");
-        Property pFeatured    = buildProperty(1L, user); pFeatured.setFeatured(true);
-        Property pNotFeatured = buildProperty(2L, user); pNotFeatured.setFeatured(false);
-        when(propertyRepository.findAll()).thenReturn(List.of(pFeatured, pNotFeatured));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, "featured", "desc");
-
-        assertFalse(result.get(0).isFeatured());
-        assertTrue(result.get(1).isFeatured());
-    }
-
-    // ── getPropertiesByUserId — desc sort for every sort field ────────────────
-
-    @Test
-    @DisplayName("getPropertiesByUserId sorts by title descending")
-    void getPropertiesByUserId_SortsByTitleDesc() {
-        User user = buildUser(1L, "john");
-        Property pA = buildProperty(1L, user); pA.setTitle("A house");
-        Property pZ = buildProperty(2L, user); pZ.setTitle("Z house");
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pA, pZ));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "title", "desc");
-
-        assertEquals("Z house", result.get(0).getTitle());
-        assertEquals("A house", result.get(1).getTitle());
-    }
-
-    @Test
-    @DisplayName("getPropertiesByUserId sorts by price ascending")
-    void getPropertiesByUserId_SortsByPriceAsc() {
-        User user = buildUser(1L, "john");
-        Property cheap     = buildProperty(1L, user); cheap.setPrice(30000.0);
-        Property expensive = buildProperty(2L, user); expensive.setPrice(500000.0);
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(expensive, cheap));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "price", "asc");
-
-        assertEquals(30000.0,  result.get(0).getPrice());
-        assertEquals(500000.0, result.get(1).getPrice());
-    }
-
-    @Test
-    @DisplayName("getPropertiesByUserId sorts by status descending")
-    void getPropertiesByUserId_SortsByStatusDesc() {
-        User user = buildUser(1L, "john");
-        Property pAvail = buildProperty(1L, user); pAvail.setStatus("available");
-        Property pSold  = buildProperty(2L, user); pSold.setStatus("sold");
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pAvail, pSold));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "status", "desc");
-
-        assertEquals("sold",      result.get(0).getStatus());
-        assertEquals("available", result.get(1).getStatus());
-    }
-
-    @Test
-    @DisplayName("getPropertiesByUserId sorts by createdAt descending")
-    void getPropertiesByUserId_SortsByCreatedAtDesc() {
-        User user = buildUser(1L, "john");
-        Property pOld = buildProperty(1L, user); pOld.setCreatedAt(LocalDateTime.now().minusDays(3));
-        Property pNew = buildProperty(2L, user); pNew.setCreatedAt(LocalDateTime.now());
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pOld, pNew));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "createdAt", "desc");
-
-        assertTrue(result.get(0).getCreatedAt().isAfter(result.get(1).getCreatedAt()));
-    }
-
-    @Test
-    @DisplayName("getPropertiesByUserId sorts by createdAt with null value — nullsLast branch")
-    void getPropertiesByUserId_SortsByCreatedAt_NullsLast() {
-        User user = buildUser(1L, "john");
-        Property pNull = buildProperty(1L, user); pNull.setCreatedAt(null);
-        Property pWith = buildProperty(2L, user); pWith.setCreatedAt(LocalDateTime.now());
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pNull, pWith));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "createdAt", "asc");
-
-        assertNotNull(result.get(0).getCreatedAt());
-        assertNull(result.get(1).getCreatedAt());
-    }
-
-    // ── getPropertiesByUserId — null-fallback for createdAt ──────────────────
-
-    @Test
-    @DisplayName("getPropertiesByUserId sort by createdAt falls back to nullsLast when value is null")
-    void getPropertiesByUserId_SortByCreatedAt_NullFallsBackToLast() {
-        User user = buildUser(1L, "john");
-        Property pNull = buildProperty(1L, user); pNull.setCreatedAt(null);
-        Property pWith = buildProperty(2L, user); pWith.setCreatedAt(LocalDateTime.now().minusDays(1));
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pNull, pWith));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "createdAt", "asc");
-
-        assertNotNull(result.get(0).getCreatedAt());
-        assertNull(result.get(1).getCreatedAt());
-    }
-
-    // ── getPropertiesByUserId — 2-arg overload delegates correctly ────────────
-
-    @Test
-    @DisplayName("getPropertiesByUserId 2-arg overload (sortField+sortDir) delegates to 4-arg")
-    void getPropertiesByUserId_TwoArgOverload_Delegates() {
-        User user = buildUser(1L, "john");
-        Property pZ = buildProperty(1L, user); pZ.setTitle("Z house");
-        Property pA = buildProperty(2L, user); pA.setTitle("A house");
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(pZ, pA));
-
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, "title", "asc");
-
-        assertEquals("A house", result.get(0).getTitle());
-        assertEquals("Z house", result.get(1).getTitle());
-    }
-
-    // ── findAllForAdmin — 1-arg overload delegates correctly ─────────────────
-
-    @Test
-    @DisplayName("findAllForAdmin 1-arg overload delegates to 3-arg (default sort applied)")
-    void findAllForAdmin_OneArgOverload_Delegates() {
-        User user = buildUser(1L, "john");
-        Property approved = buildProperty(1L, user); approved.setModerationStatus(ModerationStatus.APPROVED);
-        Property pending  = buildProperty(2L, user); pending.setModerationStatus(ModerationStatus.PENDING);
-        when(propertyRepository.findAll()).thenReturn(List.of(approved, pending));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null);
-
-        // Default sort: PENDING first
-        assertEquals(ModerationStatus.PENDING,  result.get(0).getModerationStatus());
-        assertEquals(ModerationStatus.APPROVED, result.get(1).getModerationStatus());
-    }
-
-    // ── findAllForAdmin — REJECTED filter ────────────────────────────────────
-
-    @Test
-    @DisplayName("findAllForAdmin filters by REJECTED moderation status")
-    void findAllForAdmin_FiltersRejected() {
-        User user = buildUser(1L, "john");
-        Property rejected = buildProperty(1L, user); rejected.setModerationStatus(ModerationStatus.REJECTED);
-        when(propertyRepository.findByModerationStatus(ModerationStatus.REJECTED))
-                .thenReturn(List.of(rejected));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin("REJECTED");
-
-        assertEquals(1, result.size());
-        assertEquals(ModerationStatus.REJECTED, result.get(0).getModerationStatus());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin with invalid filter falls back to all properties")
-    void findAllForAdmin_InvalidFilter_ReturnsAll() {
-        User user = buildUser(1L, "john");
-        Property p1 = buildProperty(1L, user);
-        Property p2 = buildProperty(2L, user);
-        when(propertyRepository.findAll()).thenReturn(List.of(p1, p2));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin("INVALID_STATUS");
-
-        assertEquals(2, result.size());
-    }
-
-    @Test
-    @DisplayName("findAllForAdmin default sort orders PENDING first, then APPROVED, then REJECTED")
-    void findAllForAdmin_DefaultSort_ThreeStatuses() {
-        User user = buildUser(1L, "john");
-        Property approved = buildProperty(1L, user); approved.setModerationStatus(ModerationStatus.APPROVED);
-        approved.setCreatedAt(LocalDateTime.now().minusDays(1));
-        Property pending  = buildProperty(2L, user); pending.setModerationStatus(ModerationStatus.PENDING);
-        pending.setCreatedAt(LocalDateTime.now());
-        Property rejected = buildProperty(3L, user); rejected.setModerationStatus(ModerationStatus.REJECTED);
-        rejected.setCreatedAt(LocalDateTime.now().minusDays(2));
-        when(propertyRepository.findAll()).thenReturn(List.of(approved, rejected, pending));
-
-        List<PropertyResponseDTO> result = propertyService.findAllForAdmin(null, null, null);
-
-        assertEquals(ModerationStatus.PENDING,  result.get(0).getModerationStatus());
-        assertEquals(ModerationStatus.APPROVED, result.get(1).getModerationStatus());
-        assertEquals(ModerationStatus.REJECTED, result.get(2).getModerationStatus());
-    }
-
     // ── parsePrice — null input ───────────────────────────────────────────────
 
     @Test
@@ -1616,48 +1203,138 @@ class PropertyServiceTest {
         verify(imageRepository, never()).delete(any());
     }
 
-    // ── getPropertiesByUserId (4-arg) — valid filter removes non-matching ─────
+    // ── suggestLocations ──────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("getPropertiesByUserId 4-arg filters by APPROVED and removes PENDING")
-    void getPropertiesByUserId_FourArg_FiltersByApproved() {
-        User user = buildUser(1L, "john");
-        Property approved = buildProperty(1L, user); approved.setModerationStatus(ModerationStatus.APPROVED);
-        Property pending  = buildProperty(2L, user); pending.setModerationStatus(ModerationStatus.PENDING);
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(approved, pending));
+    @DisplayName("suggestLocations uses the location trie once it is loaded")
+    void suggestLocations_TrieReady_UsesTrie() {
+        List<LocationSuggestionDTO> suggestions = List.of(new LocationSuggestionDTO("Riga", 3));
+        when(locationSuggester.isReady()).thenReturn(true);
+        when(locationSuggester.suggest("ri", 5)).thenReturn(suggestions);
 
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, null, null, "APPROVED");
+        assertEquals(suggestions, propertyService.suggestLocations("  Ri", 5));
+        verify(listingCardRepository, never()).countLocationsLike(any(), any());
+    }
 
-        assertEquals(1, result.size());
-        assertEquals(ModerationStatus.APPROVED, result.get(0).getModerationStatus());
+    @Test
+    @DisplayName("suggestLocations falls back to a grouped LIKE query with wildcards escaped")
+    void suggestLocations_TrieNotReady_QueriesRepository() {
+        LocationCountView view = mock(LocationCountView.class);
+        when(view.getLocation()).thenReturn("100% Riga");
+        when(view.getListings()).thenReturn(2L);
+        when(listingCardRepository.countLocationsLike(eq("100\\% r%"), any()))
+                .thenReturn(List.of(view));
+
+        List<LocationSuggestionDTO> result = propertyService.suggestLocations("100% R", 100);
+
+        assertEquals(List.of(new LocationSuggestionDTO("100% Riga", 2)), result);
+        verify(listingCardRepository).countLocationsLike(any(),
+                argThat(pageable -> pageable.getPageSize() == LocationSuggester.MAX_LIMIT));
+    }
+
+    @Test
+    @DisplayName("suggestLocations returns nothing for a blank prefix")
+    void suggestLocations_BlankPrefix_ReturnsEmpty() {
+        assertTrue(propertyService.suggestLocations("   ", 5).isEmpty());
+        verifyNoInteractions(locationSuggester);
+    }
+
+    // ── findSimilar ───────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("findSimilar asks the nearest neighbour index once it is loaded")
+    void findSimilar_IndexReady_UsesIndex() {
+        PropertyResponseDTO property = PropertyResponseDTO.builder().id(1L).build();
+        List<PropertyResponseDTO> similar = List.of(PropertyResponseDTO.builder().id(2L).build());
+        when(similarListings.isReady()).thenReturn(true);
+        when(similarListings.similar(property, 6)).thenReturn(similar);
+
+        assertEquals(similar, propertyService.findSimilar(property, 6));
     }
 
     @Test
-    @DisplayName("getPropertiesByUserId 4-arg with invalid moderationFilter returns all")
-    void getPropertiesByUserId_FourArg_InvalidFilter_ReturnsAll() {
+    @DisplayName("findSimilar returns nothing until the index is loaded")
+    void findSimilar_IndexNotReady_ReturnsEmpty() {
+        assertTrue(propertyService.findSimilar(PropertyResponseDTO.builder().id(1L).build(), 6).isEmpty());
+        verify(similarListings, never()).similar(any(), anyInt());
+    }
+
+    // ── listing cards ─────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("approveProperty writes the listing's card with owner, cover and lower-cased search columns")
+    void approveProperty_WritesListingCard() {
         User user = buildUser(1L, "john");
-        Property p1 = buildProperty(1L, user);
-        Property p2 = buildProperty(2L, user);
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(p1, p2));
+        Property property = buildProperty(1L, user);
+        property.setLocation("Old Riga");
+        property.setDescription("Near the PARK");
+        property.getImages().add(Image.builder().id(5L).url("https://img/cover.jpg").property(property).build());
+        property.getImages().add(Image.builder().id(6L).url("https://img/kitchen.jpg").property(property).build());
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(propertyRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L, null, null, "GARBAGE");
+        propertyService.approveProperty(1L);
 
-        assertEquals(2, result.size());
+        ArgumentCaptor<ListingCard> captor = ArgumentCaptor.forClass(ListingCard.class);
+        verify(listingCardRepository).save(captor.capture());
+        ListingCard card = captor.getValue();
+        assertEquals(1L, card.getId());
+        assertEquals("john", card.getUsername());
+        assertEquals("https://img/cover.jpg", card.getCoverUrl());
+        assertEquals(2, card.getImageCount());
+        assertEquals("old riga", card.getLocationLower());
+        assertEquals("available", card.getStatusLower());
+        assertEquals("house 1 near the park", card.getSearchText());
     }
 
-    // ── getPropertiesByUserId (1-arg) explicit call ───────────────────────────
+    @Test
+    @DisplayName("rejecting an approved listing removes its card")
+    void rejectProperty_Approved_DeletesListingCard() {
+        User user = buildUser(1L, "john");
+        Property property = buildProperty(1L, user);
+        property.setModerationStatus(ModerationStatus.APPROVED);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(propertyRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        propertyService.rejectProperty(1L);
+
+        verify(listingCardRepository).deleteById(1L);
+        verify(listingCardRepository, never()).save(any());
+    }
 
     @Test
-    @DisplayName("getPropertiesByUserId 1-arg overload (no sort/filter) delegates to 4-arg")
-    void getPropertiesByUserId_OneArgOverload_Delegates() {
+    @DisplayName("a write to a listing that was never approved leaves listing_card alone")
+    void toggleFeatured_Pending_LeavesListingCardsAlone() {
         User user = buildUser(1L, "john");
-        Property p = buildProperty(1L, user);
-        when(propertyRepository.findByUserId(1L)).thenReturn(List.of(p));
+        Property property = buildProperty(1L, user);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(propertyRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
-        List<PropertyResponseDTO> result = propertyService.getPropertiesByUserId(1L);
+        propertyService.toggleFeatured(1L);
 
-        assertEquals(1, result.size());
+        verifyNoInteractions(listingCardRepository);
     }
-}
 
+    @Test
+    @DisplayName("rebuildListingCards empties the table and refills it from the approved listings")
+    void rebuildListingCards_ClearsThenInserts() {
+        when(listingCardRepository.insertApprovedCards()).thenReturn(4);
+
+        assertEquals(4, propertyService.rebuildListingCards());
 
+        var order = inOrder(listingCardRepository);
+        order.verify(listingCardRepository).deleteAllInBatch();
+        order.verify(listingCardRepository).insertApprovedCards();
+    }
+
+    @Test
+    @DisplayName("backfillCoordinates places the listing's card along with the listing")
+    void backfillCoordinates_PlacesListingCard() {
+        Property property = buildProperty(1L, buildUser(1L, "john"));
+        when(propertyRepository.findByLatitudeIsNull()).thenReturn(List.of(property));
+
+        assertEquals(1, propertyService.backfillCoordinates());
+
+        verify(listingCardRepository).place(1L, property.getLatitude(), property.getLongitude());
+    }
+}
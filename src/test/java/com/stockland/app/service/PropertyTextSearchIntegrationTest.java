@@ -0,0 +1,127 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.FavoriteRepository;
+import com.stockland.app.repository.ImageRepository;
+import com.stockland.app.repository.PropertyRepository;
+import com.stockland.app.repository.UserRepository;
+import com.stockland.app.search.ListingSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Keyword search through the database fallback; the search engine is mocked so it never reports ready
+@SpringBootTest
+@ActiveProfiles("test")
+class PropertyTextSearchIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @MockitoBean
+    private ListingSearchEngine listingSearchEngine;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User owner = userRepository.save(User.builder()
+                .username("seller")
+                .email("seller@example.com")
+                .password("encoded")
+                .role("ROLE_USER")
+                .build());
+
+        save(owner, "Sea view apartment", "Bright flat with a balcony.", ModerationStatus.APPROVED);
+        save(owner, "Family house", "Quiet street, a short walk to the sea.", ModerationStatus.APPROVED);
+        save(owner, "Studio", "Compact studio near the old town.", ModerationStatus.APPROVED);
+        save(owner, "Pending sea cottage", "Not moderated yet.", ModerationStatus.PENDING);
+
+        // The rows above bypass PropertyService, so their cards are built here
+        propertyService.rebuildListingCards();
+    }
+
+    private void save(User owner, String title, String description, ModerationStatus moderationStatus) {
+        propertyRepository.save(Property.builder()
+                .title(title)
+                .description(description)
+                .location("Riga")
+                .price(100000.0)
+                .area(50.0)
+                .roomCount(2)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("NEW")
+                .moderationStatus(moderationStatus)
+                .user(owner)
+                .build());
+    }
+
+    private PropertyFilterRequestDTO query(String q) {
+        PropertyFilterRequestDTO filter = new PropertyFilterRequestDTO();
+        filter.setQ(q);
+        return filter;
+    }
+
+    @Test
+    @DisplayName("Every term has to occur in the title or the description of an approved listing")
+    void search_TextQuery_MatchesTitleOrDescription() {
+        Page<PropertyResponseDTO> result = propertyService.searchPropertiesWithFilterSortAndPagination(
+                query("the SEA"), PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(List.of("Sea view apartment", "Family house"),
+                result.getContent().stream().map(PropertyResponseDTO::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("Relevance sort falls back to newest first in the database")
+    void search_RelevanceSort_FallsBackToNewestFirst() {
+        Page<PropertyResponseDTO> result = propertyService.searchPropertiesWithFilterSortAndPagination(
+                query("studio"), PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance")));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Studio", result.getContent().get(0).getTitle());
+
+        Page<PropertyResponseDTO> all = propertyService.searchPropertiesWithFilterSortAndPagination(
+                new PropertyFilterRequestDTO(), PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance")));
+        assertEquals(List.of("Studio", "Family house", "Sea view apartment"),
+                all.getContent().stream().map(PropertyResponseDTO::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("Facet counts follow the keyword filter")
+    void facets_TextQuery() {
+        assertEquals(2, propertyService.getListingFacets(query("sea")).getTotal());
+    }
+}
@@ -0,0 +1,230 @@
+package com.stockland.app.service;
+
+import com.stockland.app.dto.PropertyFilterRequestDTO;
+import com.stockland.app.dto.PropertyResponseDTO;
+import com.stockland.app.dto.SavedSearchDTO;
+import com.stockland.app.dto.SavedSearchMatchDTO;
+import com.stockland.app.model.*;
+import com.stockland.app.repository.*;
+import com.stockland.app.search.SavedSearchPercolator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Saved searches percolated on approval, against the real percolator and H2
+@SpringBootTest
+@ActiveProfiles("test")
+class SavedSearchIntegrationTest {
+
+    @MockitoBean
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private SavedSearchMatchRepository savedSearchMatchRepository;
+
+    @Autowired
+    private SavedSearchPercolator savedSearchPercolator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User buyer;
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        savedSearchMatchRepository.deleteAll();
+        savedSearchRepository.deleteAll();
+        favoriteRepository.deleteAll();
+        imageRepository.deleteAll();
+        propertyRepository.deleteAll();
+        userRepository.deleteAll();
+        savedSearchService.rebuildIndex();
+
+        buyer = userRepository.save(User.builder()
+                .username("buyer").email("buyer@example.com").password("encoded").role("ROLE_USER").build());
+        seller = userRepository.save(User.builder()
+                .username("seller").email("seller@example.com").password("encoded").role("ROLE_USER").build());
+    }
+
+    // Other test classes share the in-memory database and only clear their own tables
+    @AfterEach
+    void tearDown() {
+        savedSearchMatchRepository.deleteAll();
+        savedSearchRepository.deleteAll();
+    }
+
+    private Property pending(String location, double price) {
+        return propertyRepository.save(Property.builder()
+                .title("Flat in " + location)
+                .location(location)
+                .price(price)
+                .area(50.0)
+                .roomCount(2)
+                .actionType(ActionType.BUY)
+                .propertyType(PropertyType.APARTMENTS)
+                .status("NEW")
+                .moderationStatus(ModerationStatus.PENDING)
+                .user(seller)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Approving a listing notifies the saved searches it matches, once")
+    void approveProperty_RecordsMatches() {
+        SavedSearchDTO cheapRiga = savedSearchService.save(buyer, "Cheap in Riga",
+                PropertyFilterRequestDTO.builder().location("riga").maxPrice(150000.0).build());
+        savedSearchService.save(buyer, null, PropertyFilterRequestDTO.builder().actionType(ActionType.RENT).build());
+        Property flat = pending("Riga, Teika", 120000);
+
+        propertyService.approveProperty(flat.getId());
+        propertyService.approveProperty(flat.getId());
+
+        List<SavedSearchMatchDTO> matches = savedSearchService.getUnseenMatches(buyer);
+        assertEquals(1, matches.size());
+        assertEquals(flat.getId(), matches.get(0).getPropertyId());
+        assertEquals("Cheap in Riga", matches.get(0).getSavedSearchName());
+
+        List<SavedSearchDTO> searches = savedSearchService.getSavedSearches(buyer);
+        assertEquals(2, searches.size());
+        assertEquals(1, searches.stream().filter(s -> s.getId().equals(cheapRiga.getId())).findFirst().orElseThrow().getUnseenMatches());
+    }
+
+    @Test
+    @DisplayName("Matches are found before the percolator is loaded, by checking every search")
+    void approveProperty_RecordsMatches_WithoutPercolator() {
+        savedSearchRepository.save(SavedSearch.builder().user(buyer).name("Any").build());
+        Property flat = pending("Riga", 90000);
+
+        // The repository save bypasses the percolator, so it does not know this search yet
+        savedSearchService.rebuildIndex();
+        propertyService.approveProperty(flat.getId());
+
+        assertEquals(1, savedSearchService.getUnseenMatches(buyer).size());
+    }
+
+    @Test
+    @DisplayName("Matches of many saved searches are inserted in batches, not a lookup and insert each")
+    void approveProperty_ManyMatches_BatchesInserts() {
+        List<SavedSearch> searches = new ArrayList<>();
+        for (int n = 0; n < 120; n++) {
+            searches.add(SavedSearch.builder().user(buyer).name("Riga " + n).location("riga").build());
+        }
+        savedSearchRepository.saveAll(searches);
+        savedSearchService.rebuildIndex();
+        Property flat = pending("Riga", 100000);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        propertyService.approveProperty(flat.getId());
+
+        assertEquals(120, savedSearchMatchRepository.count());
+        assertTrue(statistics.getPrepareStatementCount() < 30, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("A listing approved again after a rejection is not matched twice")
+    void approveProperty_AgainAfterReject_NoDuplicateMatches() {
+        savedSearchService.save(buyer, "All", new PropertyFilterRequestDTO());
+        savedSearchService.save(buyer, "Riga", PropertyFilterRequestDTO.builder().location("riga").build());
+        Property flat = pending("Riga", 100000);
+        propertyService.approveProperty(flat.getId());
+        propertyService.rejectProperty(flat.getId());
+
+        propertyService.approveProperty(flat.getId());
+
+        assertEquals(2, savedSearchMatchRepository.count());
+    }
+
+    @Test
+    @DisplayName("Marking a search seen clears its notifications")
+    void markSeen_ClearsNotifications() {
+        SavedSearchDTO search = savedSearchService.save(buyer, "All", new PropertyFilterRequestDTO());
+        propertyService.approveProperty(pending("Riga", 100000).getId());
+
+        savedSearchService.markSeen(buyer, search.getId());
+
+        assertTrue(savedSearchService.getUnseenMatches(buyer).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deleting a listing or a saved search removes its matches")
+    void delete_RemovesMatches() {
+        SavedSearchDTO search = savedSearchService.save(buyer, "All", new PropertyFilterRequestDTO());
+        Property first = pending("Riga", 100000);
+        Property second = pending("Jurmala", 100000);
+        propertyService.approveProperty(first.getId());
+        propertyService.approveProperty(second.getId());
+
+        propertyService.deleteById(first.getId());
+        assertEquals(1, savedSearchMatchRepository.count());
+
+        savedSearchService.delete(buyer, search.getId());
+        assertEquals(0, savedSearchMatchRepository.count());
+        assertEquals(0, savedSearchRepository.count());
+    }
+
+    @Test
+    @DisplayName("Another user's saved search cannot be deleted")
+    void delete_ThrowsException_WhenNotOwner() {
+        SavedSearchDTO search = savedSearchService.save(buyer, "All", new PropertyFilterRequestDTO());
+
+        assertThrows(RuntimeException.class, () -> savedSearchService.delete(seller, search.getId()));
+        assertEquals(1, savedSearchRepository.count());
+    }
+
+    @Test
+    @DisplayName("A save or delete that rolls back leaves the percolator as it was")
+    void saveAndDelete_RolledBack_LeavePercolator() {
+        SavedSearchDTO kept = savedSearchService.save(buyer, "All", new PropertyFilterRequestDTO());
+        assertEquals(1, savedSearchPercolator.size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            savedSearchService.save(buyer, "Riga", PropertyFilterRequestDTO.builder().location("riga").build());
+            savedSearchService.delete(buyer, kept.getId());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, savedSearchPercolator.size());
+        PropertyResponseDTO listing = propertyService.approveProperty(pending("Jurmala", 100000).getId());
+        assertEquals(List.of(kept.getId()), savedSearchPercolator.percolate(listing));
+    }
+}
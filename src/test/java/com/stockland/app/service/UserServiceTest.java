@@ -3,6 +3,7 @@ package com.stockland.app.service;
 import com.stockland.app.dto.UserRegistrationDTO;
 import com.stockland.app.dto.UserResponseDTO;
 import com.stockland.app.model.User;
+import com.stockland.app.repository.ListingCardRepository;
 import com.stockland.app.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +29,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ListingCardRepository listingCardRepository;
+
     @InjectMocks
     private UserService userService;
 
@@ -191,4 +195,40 @@ class UserServiceTest {
             userService.loadUserByUsername("unknown");
         });
     }
+
+    // Test for saving a user, expecting the owner name on their listing cards to follow a rename
+    @Test
+    void saveUser_RenamesOwnerOnListingCards() {
+        User user = User.builder().id(4L).username("john.smith").build();
+        when(userRepository.findUsernameById(4L)).thenReturn(Optional.of("john"));
+        when(userRepository.save(user)).thenReturn(user);
+
+        userService.saveUser(user);
+
+        verify(listingCardRepository).renameOwner(4L, "john.smith");
+    }
+
+    // Test for saving a user whose username did not change, expecting the listing cards to be left alone
+    @Test
+    void saveUser_SameUsername_LeavesListingCardsAlone() {
+        User user = User.builder().id(4L).username("john").build();
+        when(userRepository.findUsernameById(4L)).thenReturn(Optional.of("john"));
+        when(userRepository.save(user)).thenReturn(user);
+
+        userService.saveUser(user);
+
+        verify(listingCardRepository, never()).renameOwner(anyLong(), anyString());
+    }
+
+    // Test for saving a new user, expecting no lookup of a previous name and no card update
+    @Test
+    void saveUser_NewUser_LeavesListingCardsAlone() {
+        User user = User.builder().username("john").build();
+        when(userRepository.save(user)).thenReturn(User.builder().id(5L).username("john").build());
+
+        userService.saveUser(user);
+
+        verify(userRepository, never()).findUsernameById(anyLong());
+        verify(listingCardRepository, never()).renameOwner(anyLong(), anyString());
+    }
 }